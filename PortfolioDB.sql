@@ -51,6 +51,65 @@ CREATE TABLE portfolio_snapshots (
     FOREIGN KEY (portfolio_id) REFERENCES portfolios(portfolio_id)
 );
 
+-- Latest price per asset; holdings.current_price is a denormalized copy refreshed set-wise on each update
+CREATE TABLE asset_prices (
+    asset_name VARCHAR(100) PRIMARY KEY,
+    price DECIMAL(15,2) NOT NULL,
+    updated_at DATETIME NOT NULL
+);
+
+-- Per-asset-type breakdown of each snapshot (for allocation history)
+CREATE TABLE portfolio_snapshot_allocations (
+    allocation_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    snapshot_id BIGINT NOT NULL,
+    portfolio_id BIGINT NOT NULL,
+    snapshot_date DATE NOT NULL,
+    asset_type VARCHAR(50) NOT NULL,
+    market_value DECIMAL(15,2) NOT NULL,
+    FOREIGN KEY (snapshot_id) REFERENCES portfolio_snapshots(snapshot_id),
+    FOREIGN KEY (portfolio_id) REFERENCES portfolios(portfolio_id)
+);
+
+-- Daily price history per asset (for snapshot backfill and historical valuation)
+CREATE TABLE asset_price_history (
+    price_history_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    asset_name VARCHAR(100) NOT NULL,
+    price_date DATE NOT NULL,
+    price DECIMAL(15,2) NOT NULL,
+    UNIQUE KEY uk_price_history_asset_date (asset_name, price_date)
+);
+
+-- Daily FX rates: one unit of base_currency buys rate units of quote_currency
+CREATE TABLE fx_rates (
+    fx_rate_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    base_currency VARCHAR(3) NOT NULL,
+    quote_currency VARCHAR(3) NOT NULL,
+    rate_date DATE NOT NULL,
+    rate DECIMAL(19,8) NOT NULL,
+    UNIQUE KEY uk_fx_rates_pair_date (base_currency, quote_currency, rate_date)
+);
+
+-- Splits, bonus issues and reverse splits; holdings are adjusted in portfolio ID ranges and last_portfolio_id
+-- records the end of the last committed range, so a re-run resumes rather than adjusting twice
+CREATE TABLE corporate_actions (
+    action_id VARCHAR(64) PRIMARY KEY,
+    asset_name VARCHAR(100) NOT NULL,
+    action_type VARCHAR(20) NOT NULL,
+    new_shares INT NOT NULL,
+    old_shares INT NOT NULL,
+    ex_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    last_portfolio_id BIGINT NOT NULL DEFAULT 0,
+    holdings_adjusted BIGINT NOT NULL DEFAULT 0,
+    created_at DATETIME NOT NULL,
+    applied_at DATETIME
+);
+
+-- portfolio_id is part of the key so a corporate action's portfolio ID ranges are index range scans
+CREATE INDEX idx_holdings_asset_name ON holdings (asset_name, portfolio_id);
+CREATE INDEX idx_snapshots_portfolio_date ON portfolio_snapshots (portfolio_id, snapshot_date);
+CREATE INDEX idx_snapshot_allocations_portfolio_date ON portfolio_snapshot_allocations (portfolio_id, snapshot_date);
+
 -- Sample data
 INSERT INTO users (username, email, default_currency) VALUES 
 ('John Doe', 'john@example.com', 'USD'),
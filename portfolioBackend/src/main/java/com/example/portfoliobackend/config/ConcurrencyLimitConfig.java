@@ -0,0 +1,27 @@
+package com.example.portfoliobackend.config;
+
+import com.example.portfoliobackend.service.AdaptiveConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the load-shedding filter for the API unless {@code portfolio.concurrency-limit.enabled} is false.
+ */
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "portfolio.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter limiter,
+            @Value("${portfolio.concurrency-limit.retry-after-seconds:1}") long retryAfterSeconds
+    ) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limiter, retryAfterSeconds));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
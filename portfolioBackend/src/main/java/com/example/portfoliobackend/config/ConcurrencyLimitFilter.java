@@ -0,0 +1,121 @@
+package com.example.portfoliobackend.config;
+
+import com.example.portfoliobackend.service.AdaptiveConcurrencyLimiter;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Puts the expensive endpoints behind the {@link AdaptiveConcurrencyLimiter}: a request that finds the limit reached
+ * gets an immediate 503 with {@code Retry-After}. A request that goes async (streamed holdings and dashboards) keeps
+ * its slot until the response is complete, but does not move the limit. Nor do batches and backfills, whose
+ * duration follows how much work they were given rather than how loaded the server is.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final List<String> LIMITED_PATHS = List.of(
+            "/api/portfolios/*/dashboard", "/api/portfolios/*/overview", "/api/portfolios/*/details",
+            "/api/analytics/**", "/api/batch", "/api/portfolios/snapshots/backfill",
+            "/api/portfolios/*/snapshots/backfill");
+
+    static final List<String> UNLIMITED_PATHS = List.of("/api/analytics/coalescing/**");
+
+    static final List<String> UNSAMPLED_PATHS = List.of(
+            "/api/batch", "/api/portfolios/snapshots/backfill", "/api/portfolios/*/snapshots/backfill");
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, long retryAfterSeconds) {
+        this.limiter = limiter;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return true;
+        }
+        String path = path(request);
+        return !matches(LIMITED_PATHS, path) || matches(UNLIMITED_PATHS, path);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private boolean matches(List<String> patterns, String path) {
+        return patterns.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return;
+        }
+        long started = System.nanoTime();
+        boolean sample = !matches(UNSAMPLED_PATHS, path(request));
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(started));
+            } else {
+                limiter.release(started, failed || response.getStatus() >= 500, sample);
+            }
+        }
+    }
+
+    private class ReleaseOnComplete implements AsyncListener {
+
+        private final long started;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnComplete(long started) {
+            this.started = started;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(started, false, false);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
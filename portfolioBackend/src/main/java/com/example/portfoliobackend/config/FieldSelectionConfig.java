@@ -0,0 +1,20 @@
+package com.example.portfoliobackend.config;
+
+import com.example.portfoliobackend.service.FieldSelection;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Types that support {@code ?fields=} are marked {@code @JsonFilter(FieldSelection.FILTER_ID)}. A response that
+ * selects fields supplies the filter; everywhere else the filter is missing and the type is written in full.
+ */
+@Configuration
+public class FieldSelectionConfig {
+
+    @Bean
+    public static Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilterDefault() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+}
@@ -1,12 +1,29 @@
 package com.example.portfoliobackend.controller;
 
+import com.example.portfoliobackend.dto.AllocationHistoryPointDTO;
+import com.example.portfoliobackend.dto.ReadCoalescingStatsDTO;
+import com.example.portfoliobackend.dto.ReturnPointDTO;
+import com.example.portfoliobackend.dto.RiskMetricsDTO;
+import com.example.portfoliobackend.dto.TimeWeightedReturnDTO;
 import com.example.portfoliobackend.service.AnalyticsService;
+import com.example.portfoliobackend.service.PortfolioReadCoalescer;
 import com.example.portfoliobackend.service.PortfolioService;
+import com.example.portfoliobackend.service.PortfolioVersions;
+import com.example.portfoliobackend.service.PriceMode;
+import com.example.portfoliobackend.service.ReturnWindow;
+import com.example.portfoliobackend.service.ReturnsService;
+import com.example.portfoliobackend.service.RiskMetric;
+import com.example.portfoliobackend.service.RiskMetricsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -14,56 +31,260 @@ import java.util.Map;
 @CrossOrigin
 public class AnalyticsController {
 
+    static final String PRICE_AS_OF_HEADER = "X-Price-As-Of";
+
     @Autowired
     private AnalyticsService analyticsService;
 
     @Autowired
     private PortfolioService portfolioService;
 
+    @Autowired
+    private ReturnsService returnsService;
+
+    @Autowired
+    private RiskMetricsService riskMetricsService;
+
+    @Autowired
+    private PortfolioVersions portfolioVersions;
+
+    @Autowired
+    private PortfolioReadCoalescer portfolioReadCoalescer;
+
     @GetMapping("/portfolios/{portfolioId}/summary")
-    public ResponseEntity<AnalyticsSummary> getSummary(@PathVariable Long portfolioId) {
+    public ResponseEntity<AnalyticsSummary> getSummary(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "mode", defaultValue = "stored") String mode,
+            ServletWebRequest request
+    ) {
+        PriceMode priceMode = PriceMode.fromName(mode);
+        if (priceMode == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (priceMode == PriceMode.STORED && notModified(request, portfolioId)) {
+            return null;
+        }
+        ResponseEntity<AnalyticsSummary> response = portfolioReadCoalescer.read(
+                "summary", portfolioId, priceMode.name(), () -> {
+            if (portfolioService.getPortfolioById(portfolioId) == null) {
+                return ResponseEntity.notFound().build();
+            }
+            BigDecimal totalMarketValue = analyticsService.getTotalMarketValue(portfolioId, priceMode);
+            BigDecimal totalCost = analyticsService.getTotalCost(portfolioId);
+            BigDecimal totalGainLoss = analyticsService.getTotalGainLoss(portfolioId, priceMode);
+            LocalDateTime priceAsOf = analyticsService.getPriceAsOf(portfolioId, priceMode);
+            return ResponseEntity.ok(new AnalyticsSummary(totalMarketValue, totalCost, totalGainLoss, priceAsOf));
+        });
+        return ConditionalRequests.withValidators(request, response);
+    }
+
+    @GetMapping("/portfolios/{portfolioId}/allocations")
+    public ResponseEntity<Map<String, BigDecimal>> getAllocationValues(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "mode", defaultValue = "stored") String mode,
+            ServletWebRequest request
+    ) {
+        PriceMode priceMode = PriceMode.fromName(mode);
+        if (priceMode == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (priceMode == PriceMode.STORED && notModified(request, portfolioId)) {
+            return null;
+        }
+        ResponseEntity<Map<String, BigDecimal>> response = portfolioReadCoalescer.read(
+                "allocations", portfolioId, priceMode.name(), () -> {
+            if (portfolioService.getPortfolioById(portfolioId) == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return withPriceAsOf(portfolioId, priceMode, analyticsService.getAllocationValues(portfolioId, priceMode));
+        });
+        return ConditionalRequests.withValidators(request, response);
+    }
+
+    @GetMapping("/portfolios/{portfolioId}/allocation-percentages")
+    public ResponseEntity<Map<String, BigDecimal>> getAllocationPercentages(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "mode", defaultValue = "stored") String mode,
+            ServletWebRequest request
+    ) {
+        PriceMode priceMode = PriceMode.fromName(mode);
+        if (priceMode == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (priceMode == PriceMode.STORED && notModified(request, portfolioId)) {
+            return null;
+        }
+        ResponseEntity<Map<String, BigDecimal>> response = portfolioReadCoalescer.read(
+                "allocation-percentages", portfolioId, priceMode.name(), () -> {
+            if (portfolioService.getPortfolioById(portfolioId) == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return withPriceAsOf(portfolioId, priceMode, analyticsService.getAllocationPercentages(portfolioId, priceMode));
+        });
+        return ConditionalRequests.withValidators(request, response);
+    }
+
+    @GetMapping("/portfolios/{portfolioId}/target-drift")
+    public ResponseEntity<Map<String, BigDecimal>> getTargetDrift(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "mode", defaultValue = "stored") String mode,
+            ServletWebRequest request
+    ) {
+        PriceMode priceMode = PriceMode.fromName(mode);
+        if (priceMode == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (priceMode == PriceMode.STORED && notModified(request, portfolioId)) {
+            return null;
+        }
+        ResponseEntity<Map<String, BigDecimal>> response = portfolioReadCoalescer.read(
+                "target-drift", portfolioId, priceMode.name(), () -> {
+            if (portfolioService.getPortfolioById(portfolioId) == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return withPriceAsOf(portfolioId, priceMode, analyticsService.getTargetDriftPercentages(portfolioId, priceMode));
+        });
+        return ConditionalRequests.withValidators(request, response);
+    }
+
+    @GetMapping("/portfolios/{portfolioId}/allocation-history")
+    public ResponseEntity<List<AllocationHistoryPointDTO>> getAllocationHistory(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            ServletWebRequest request
+    ) {
+        if (notModified(request, portfolioId)) {
+            return null;
+        }
         if (portfolioService.getPortfolioById(portfolioId) == null) {
             return ResponseEntity.notFound().build();
         }
-        BigDecimal totalMarketValue = analyticsService.getTotalMarketValue(portfolioId);
-        BigDecimal totalCost = analyticsService.getTotalCost(portfolioId);
-        BigDecimal totalGainLoss = analyticsService.getTotalGainLoss(portfolioId);
-        return ResponseEntity.ok(new AnalyticsSummary(totalMarketValue, totalCost, totalGainLoss));
+        return ConditionalRequests.withValidators(request,
+                ResponseEntity.ok(analyticsService.getAllocationHistory(portfolioId, from, to)));
     }
 
-    @GetMapping("/portfolios/{portfolioId}/allocations")
-    public ResponseEntity<Map<String, BigDecimal>> getAllocationValues(@PathVariable Long portfolioId) {
+    @GetMapping("/portfolios/{portfolioId}/returns/daily")
+    public ResponseEntity<List<ReturnPointDTO>> getDailyReturns(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            ServletWebRequest request
+    ) {
+        if (notModified(request, portfolioId)) {
+            return null;
+        }
         if (portfolioService.getPortfolioById(portfolioId) == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(analyticsService.getAllocationValues(portfolioId));
+        return ConditionalRequests.withValidators(request,
+                ResponseEntity.ok(returnsService.getDailyReturns(portfolioId, from, to)));
     }
 
-    @GetMapping("/portfolios/{portfolioId}/allocation-percentages")
-    public ResponseEntity<Map<String, BigDecimal>> getAllocationPercentages(@PathVariable Long portfolioId) {
+    @GetMapping("/portfolios/{portfolioId}/returns/time-weighted")
+    public ResponseEntity<TimeWeightedReturnDTO> getTimeWeightedReturn(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            ServletWebRequest request
+    ) {
+        if (notModified(request, portfolioId)) {
+            return null;
+        }
         if (portfolioService.getPortfolioById(portfolioId) == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(analyticsService.getAllocationPercentages(portfolioId));
+        return ConditionalRequests.withValidators(request,
+                ResponseEntity.ok(returnsService.getTimeWeightedReturn(portfolioId, from, to)));
     }
 
-    @GetMapping("/portfolios/{portfolioId}/target-drift")
-    public ResponseEntity<Map<String, BigDecimal>> getTargetDrift(@PathVariable Long portfolioId) {
+    @GetMapping("/portfolios/{portfolioId}/returns/rolling")
+    public ResponseEntity<List<ReturnPointDTO>> getRollingReturns(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "window", defaultValue = "1M") String window,
+            ServletWebRequest request
+    ) {
+        ReturnWindow returnWindow = ReturnWindow.fromCode(window);
+        if (returnWindow == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (notModified(request, portfolioId)) {
+            return null;
+        }
+        if (portfolioService.getPortfolioById(portfolioId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ConditionalRequests.withValidators(request,
+                ResponseEntity.ok(returnsService.getRollingReturns(portfolioId, returnWindow)));
+    }
+
+    @GetMapping("/portfolios/{portfolioId}/risk")
+    public ResponseEntity<RiskMetricsDTO> getRiskMetrics(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "window", defaultValue = RiskMetricsService.FULL_HISTORY) String window,
+            ServletWebRequest request
+    ) {
+        if (!isRiskWindow(window)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (notModified(request, portfolioId)) {
+            return null;
+        }
         if (portfolioService.getPortfolioById(portfolioId) == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(analyticsService.getTargetDriftPercentages(portfolioId));
+        return ConditionalRequests.withValidators(request,
+                ResponseEntity.ok(riskMetricsService.getRiskMetrics(portfolioId, ReturnWindow.fromCode(window))));
+    }
+
+    @GetMapping("/coalescing/stats")
+    public ResponseEntity<ReadCoalescingStatsDTO> getCoalescingStats() {
+        return ResponseEntity.ok(portfolioReadCoalescer.getStats());
+    }
+
+    @GetMapping("/risk/ranking")
+    public ResponseEntity<List<RiskMetricsDTO>> rankByRisk(
+            @RequestParam(value = "portfolioIds", required = false) List<Long> portfolioIds,
+            @RequestParam(value = "window", defaultValue = RiskMetricsService.FULL_HISTORY) String window,
+            @RequestParam(value = "sortBy", defaultValue = "volatility") String sortBy,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        RiskMetric metric = RiskMetric.fromName(sortBy);
+        if (metric == null || !isRiskWindow(window)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(riskMetricsService.rankPortfolios(
+                portfolioIds, ReturnWindow.fromCode(window), metric, limit));
+    }
+
+    private <T> ResponseEntity<T> withPriceAsOf(Long portfolioId, PriceMode mode, T body) {
+        LocalDateTime priceAsOf = analyticsService.getPriceAsOf(portfolioId, mode);
+        if (priceAsOf == null) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok().header(PRICE_AS_OF_HEADER, priceAsOf.toString()).body(body);
+    }
+
+    private boolean notModified(ServletWebRequest request, Long portfolioId) {
+        return ConditionalRequests.notModified(request, portfolioVersions, portfolioId);
+    }
+
+    private boolean isRiskWindow(String window) {
+        return RiskMetricsService.FULL_HISTORY.equalsIgnoreCase(window) || ReturnWindow.fromCode(window) != null;
     }
 
     public static class AnalyticsSummary {
         private BigDecimal totalMarketValue;
         private BigDecimal totalCost;
         private BigDecimal totalGainLoss;
+        private LocalDateTime priceAsOf;
 
-        public AnalyticsSummary(BigDecimal totalMarketValue, BigDecimal totalCost, BigDecimal totalGainLoss) {
+        public AnalyticsSummary(BigDecimal totalMarketValue, BigDecimal totalCost, BigDecimal totalGainLoss,
+                                LocalDateTime priceAsOf) {
             this.totalMarketValue = totalMarketValue;
             this.totalCost = totalCost;
             this.totalGainLoss = totalGainLoss;
+            this.priceAsOf = priceAsOf;
         }
 
         public BigDecimal getTotalMarketValue() {
@@ -77,5 +298,9 @@ public class AnalyticsController {
         public BigDecimal getTotalGainLoss() {
             return totalGainLoss;
         }
+
+        public LocalDateTime getPriceAsOf() {
+            return priceAsOf;
+        }
     }
 }
@@ -0,0 +1,104 @@
+package com.example.portfoliobackend.controller;
+
+import com.example.portfoliobackend.dto.BatchRequestDTO;
+import com.example.portfoliobackend.dto.BatchResponseDTO;
+import com.example.portfoliobackend.service.ReadScope;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs many GET requests in one round trip. Each sub-request goes through the dispatcher servlet like a request of
+ * its own, one after another on this thread, so they share this request's persistence context and a {@link ReadScope}:
+ * a portfolio's holdings and targets are read once however many of its views the batch asks for.
+ */
+@RestController
+@RequestMapping("/api/batch")
+@CrossOrigin
+public class BatchController {
+
+    private static final int MAX_REQUESTS = 50;
+    private static final String API_PREFIX = "/api";
+
+    @Autowired
+    private DispatcherServlet dispatcherServlet;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping
+    public ResponseEntity<List<BatchResponseDTO>> execute(
+            @RequestBody List<BatchRequestDTO> requests,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws JsonProcessingException {
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_REQUESTS || requests.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<BatchResponseDTO> responses = new ArrayList<>(requests.size());
+        try (ReadScope scope = ReadScope.open()) {
+            for (BatchRequestDTO subRequest : requests) {
+                responses.add(execute(subRequest, request, response));
+            }
+        }
+        return ResponseEntity.ok(responses);
+    }
+
+    private BatchResponseDTO execute(BatchRequestDTO subRequest, HttpServletRequest request,
+                                     HttpServletResponse response) throws JsonProcessingException {
+        String path = subRequest.getPath();
+        if (subRequest.getMethod() != null && !"GET".equalsIgnoreCase(subRequest.getMethod())) {
+            return failed(subRequest, HttpStatus.METHOD_NOT_ALLOWED);
+        }
+        if (path == null || !path.startsWith("/")) {
+            return failed(subRequest, HttpStatus.BAD_REQUEST);
+        }
+        if (!path.startsWith(API_PREFIX + "/")) {
+            path = API_PREFIX + path;
+        }
+        String route = path.contains("?") ? path.substring(0, path.indexOf('?')) : path;
+        String query = path.contains("?") ? path.substring(path.indexOf('?') + 1) : "";
+        // Nested batches, event streams and streamed bodies cannot be answered in one body
+        if (route.startsWith(API_PREFIX + "/batch") || route.endsWith("/stream")
+                || Arrays.asList(query.split("&")).contains("stream=true")) {
+            return failed(subRequest, HttpStatus.BAD_REQUEST);
+        }
+
+        BatchSubResponse captured = new BatchSubResponse(response);
+        try {
+            dispatcherServlet.service(new BatchSubRequest(request, path, subRequest.getHeaders()), captured);
+        } catch (Exception e) {
+            return failed(subRequest, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return new BatchResponseDTO(subRequest.getId(), captured.status(), captured.headerValues(),
+                body(captured));
+    }
+
+    private String body(BatchSubResponse captured) throws JsonProcessingException {
+        String body = captured.bodyAsString();
+        if (body.isEmpty()) {
+            return null;
+        }
+        String contentType = captured.contentType();
+        if (contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return body;
+        }
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private static BatchResponseDTO failed(BatchRequestDTO subRequest, HttpStatus status) {
+        return new BatchResponseDTO(subRequest.getId(), status.value(), Collections.emptyMap(), null);
+    }
+}
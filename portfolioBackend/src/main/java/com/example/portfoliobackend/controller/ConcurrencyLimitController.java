@@ -0,0 +1,21 @@
+package com.example.portfoliobackend.controller;
+
+import com.example.portfoliobackend.dto.ConcurrencyLimitStatsDTO;
+import com.example.portfoliobackend.service.AdaptiveConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/concurrency-limit")
+@CrossOrigin
+public class ConcurrencyLimitController {
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+
+    @GetMapping("/stats")
+    public ResponseEntity<ConcurrencyLimitStatsDTO> getStats() {
+        return ResponseEntity.ok(adaptiveConcurrencyLimiter.getStats());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.portfoliobackend.controller;
+
+import com.example.portfoliobackend.service.PortfolioVersions;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional GETs against a portfolio's version, shared by the portfolio and analytics endpoints. The 304 check
+ * runs before any query; the validators it was made against are only put on the response once the handler has
+ * produced a successful one, so a 404 or 503 never carries an ETag a client could later revalidate into a 304.
+ * The ETag is weak, as one version is served in several encodings; caches keep those apart by {@code Vary: Accept}.
+ */
+final class ConditionalRequests {
+
+    private static final String VALIDATORS_ATTRIBUTE = ConditionalRequests.class.getName() + ".validators";
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Answers 304 if the request's validators match the portfolio's current version. Otherwise remembers that
+     * version for {@link #withValidators}, so the response is tagged with the version it was read at rather than
+     * one that moved while it was being built.
+     */
+    static boolean notModified(ServletWebRequest request, PortfolioVersions portfolioVersions, Long portfolioId) {
+        // Weak: the JSON, CBOR and Smile bodies of one version are equivalent but not byte-identical
+        String etag = "W/" + portfolioVersions.etag(portfolioId);
+        long lastModified = portfolioVersions.lastModified(portfolioId);
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            // Every conditional response must be revalidated
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        // Checked without the response, which would otherwise get the validators whatever the handler returns
+        if (!new ServletWebRequest(request.getRequest()).checkNotModified(etag, lastModified)) {
+            request.setAttribute(VALIDATORS_ATTRIBUTE, new Validators(etag, lastModified),
+                    RequestAttributes.SCOPE_REQUEST);
+            return false;
+        }
+        if (response != null) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        }
+        return true;
+    }
+
+    /**
+     * {@code response} with the ETag and Last-Modified remembered by {@link #notModified} if it is a success, and
+     * unchanged otherwise.
+     */
+    static <T> ResponseEntity<T> withValidators(ServletWebRequest request, ResponseEntity<T> response) {
+        Object validators = request.getAttribute(VALIDATORS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (!(validators instanceof Validators checked) || response == null
+                || !response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(checked.etag)
+                .lastModified(checked.lastModified)
+                .body(response.getBody());
+    }
+
+    private static final class Validators {
+        private final String etag;
+        private final long lastModified;
+
+        private Validators(String etag, long lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+}
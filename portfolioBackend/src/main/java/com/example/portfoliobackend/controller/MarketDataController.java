@@ -0,0 +1,198 @@
+package com.example.portfoliobackend.controller;
+
+import com.example.portfoliobackend.dto.AssetPriceDTO;
+import com.example.portfoliobackend.dto.CorporateActionDTO;
+import com.example.portfoliobackend.dto.FxRateDTO;
+import com.example.portfoliobackend.dto.PriceHistoryPointDTO;
+import com.example.portfoliobackend.dto.PriceTickDTO;
+import com.example.portfoliobackend.dto.PriceUpdateResultDTO;
+import com.example.portfoliobackend.dto.SimulatorStatsDTO;
+import com.example.portfoliobackend.dto.TickIngestionStatsDTO;
+import com.example.portfoliobackend.service.CorporateActionService;
+import com.example.portfoliobackend.service.CorporateActionType;
+import com.example.portfoliobackend.service.FxRateService;
+import com.example.portfoliobackend.service.MarketPriceService;
+import com.example.portfoliobackend.service.PriceFeedSimulator;
+import com.example.portfoliobackend.service.PriceHistoryService;
+import com.example.portfoliobackend.service.PriceTickIngestionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/market-data")
+@CrossOrigin
+public class MarketDataController {
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
+    @Autowired
+    private MarketPriceService marketPriceService;
+
+    @Autowired
+    private PriceTickIngestionService priceTickIngestionService;
+
+    @Autowired
+    private FxRateService fxRateService;
+
+    @Autowired
+    private CorporateActionService corporateActionService;
+
+    @Autowired(required = false)
+    private PriceFeedSimulator priceFeedSimulator;
+
+    @GetMapping("/prices")
+    public ResponseEntity<List<AssetPriceDTO>> getPrices() {
+        return ResponseEntity.ok(marketPriceService.getAllPrices());
+    }
+
+    @GetMapping("/prices/{assetName}")
+    public ResponseEntity<AssetPriceDTO> getPrice(@PathVariable String assetName) {
+        AssetPriceDTO price = marketPriceService.getPrice(assetName);
+        if (price == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(price);
+    }
+
+    @PutMapping("/prices")
+    public ResponseEntity<PriceUpdateResultDTO> updatePrices(@RequestBody List<AssetPriceDTO> prices) {
+        if (prices == null || prices.stream().anyMatch(price -> price == null
+                || price.getAssetName() == null || price.getPrice() == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(marketPriceService.updatePrices(prices));
+    }
+
+    @PostMapping("/ticks")
+    public ResponseEntity<TickResult> submitTicks(@RequestBody List<PriceTickDTO> ticks) {
+        if (ticks == null || ticks.stream().anyMatch(tick -> tick == null
+                || tick.getAssetName() == null || tick.getPrice() == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        int accepted = priceTickIngestionService.submit(ticks);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new TickResult(accepted));
+    }
+
+    @GetMapping("/ticks/stats")
+    public ResponseEntity<TickIngestionStatsDTO> getTickStats() {
+        return ResponseEntity.ok(priceTickIngestionService.getStats());
+    }
+
+    @GetMapping("/simulator")
+    public ResponseEntity<SimulatorStatsDTO> getSimulatorStats() {
+        if (priceFeedSimulator == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(priceFeedSimulator.getStats());
+    }
+
+    @PostMapping("/price-history")
+    public ResponseEntity<ImportResult> importPriceHistory(@RequestBody List<PriceHistoryPointDTO> points) {
+        if (points == null || points.stream().anyMatch(point -> point == null
+                || point.getAssetName() == null || point.getPriceDate() == null || point.getPrice() == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(new ImportResult(priceHistoryService.importPriceHistory(points)));
+    }
+
+    @GetMapping("/price-history/{assetName}")
+    public ResponseEntity<List<PriceHistoryPointDTO>> getPriceHistory(
+            @PathVariable String assetName,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(priceHistoryService.getPriceHistory(assetName, from, to));
+    }
+
+    @GetMapping("/price-history/{assetName}/as-of")
+    public ResponseEntity<PriceHistoryPointDTO> getPriceAsOf(
+            @PathVariable String assetName,
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        PriceHistoryPointDTO point = priceHistoryService.getPriceAsOf(assetName, date == null ? LocalDate.now() : date);
+        if (point == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(point);
+    }
+
+    @PostMapping("/fx-rates")
+    public ResponseEntity<ImportResult> importFxRates(@RequestBody List<FxRateDTO> rates) {
+        if (rates == null || rates.stream().anyMatch(rate -> rate == null
+                || rate.getBaseCurrency() == null || rate.getQuoteCurrency() == null || rate.getRateDate() == null
+                || rate.getRate() == null || rate.getRate().signum() <= 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(new ImportResult(fxRateService.importRates(rates)));
+    }
+
+    @GetMapping("/fx-rates/{baseCurrency}/{quoteCurrency}")
+    public ResponseEntity<FxRateDTO> getFxRate(
+            @PathVariable String baseCurrency,
+            @PathVariable String quoteCurrency,
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        FxRateDTO rate = fxRateService.getRate(baseCurrency, quoteCurrency, date == null ? LocalDate.now() : date);
+        if (rate == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(rate);
+    }
+
+    @PostMapping("/corporate-actions")
+    public ResponseEntity<CorporateActionDTO> applyCorporateAction(@RequestBody CorporateActionDTO action) {
+        CorporateActionType type = action == null ? null : CorporateActionType.fromName(action.getActionType());
+        if (type == null || action.getActionId() == null || action.getActionId().isBlank()
+                || action.getActionId().length() > 64 || action.getAssetName() == null
+                || action.getExDate() == null || action.getExDate().isAfter(LocalDate.now())
+                || action.getNewShares() == null || action.getOldShares() == null
+                || !type.accepts(action.getNewShares(), action.getOldShares())) {
+            return ResponseEntity.badRequest().build();
+        }
+        CorporateActionDTO applied = corporateActionService.apply(action);
+        if (applied == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(applied);
+    }
+
+    @GetMapping("/corporate-actions/{actionId}")
+    public ResponseEntity<CorporateActionDTO> getCorporateAction(@PathVariable String actionId) {
+        CorporateActionDTO action = corporateActionService.getAction(actionId);
+        if (action == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(action);
+    }
+
+    public static class ImportResult {
+        private int imported;
+
+        public ImportResult(int imported) {
+            this.imported = imported;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+    }
+
+    public static class TickResult {
+        private int accepted;
+
+        public TickResult(int accepted) {
+            this.accepted = accepted;
+        }
+
+        public int getAccepted() {
+            return accepted;
+        }
+    }
+}
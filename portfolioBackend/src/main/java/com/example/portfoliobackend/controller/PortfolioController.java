@@ -1,16 +1,41 @@
 package com.example.portfoliobackend.controller;
 
+import com.example.portfoliobackend.dto.BackfillResultDTO;
+import com.example.portfoliobackend.dto.PortfolioDashboardDTO;
+import com.example.portfoliobackend.dto.PortfolioDetailsDTO;
+import com.example.portfoliobackend.dto.PortfolioOverviewDTO;
+import com.example.portfoliobackend.dto.PortfolioValuationDTO;
 import com.example.portfoliobackend.entity.Holding;
 import com.example.portfoliobackend.entity.Portfolio;
 import com.example.portfoliobackend.entity.PortfolioSnapshot;
 import com.example.portfoliobackend.entity.PortfolioTarget;
+import com.example.portfoliobackend.service.DashboardStreamService;
+import com.example.portfoliobackend.service.FieldSelection;
+import com.example.portfoliobackend.service.HoldingStreamService;
+import com.example.portfoliobackend.service.PortfolioReadCoalescer;
 import com.example.portfoliobackend.service.PortfolioService;
+import com.example.portfoliobackend.service.PortfolioViewAssembler;
+import com.example.portfoliobackend.service.PortfolioVersions;
+import com.example.portfoliobackend.service.PriceMode;
+import com.example.portfoliobackend.service.SnapshotBackfillService;
+import com.example.portfoliobackend.service.ValuationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -21,14 +46,62 @@ public class PortfolioController {
     @Autowired
     private PortfolioService portfolioService;
 
+    @Autowired
+    private SnapshotBackfillService snapshotBackfillService;
+
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+
+    @Autowired
+    private ValuationService valuationService;
+
+    @Autowired
+    private PortfolioVersions portfolioVersions;
+
+    @Autowired
+    private PortfolioViewAssembler portfolioViewAssembler;
+
+    @Autowired
+    private HoldingStreamService holdingStreamService;
+
+    @Autowired
+    private PortfolioReadCoalescer portfolioReadCoalescer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final int MAX_VALUATION_DATES = 1000;
+    private static final int MAX_OVERVIEW_SNAPSHOTS = 365;
+
+    // Properties returned by view=summary
+    private static final String PORTFOLIO_SUMMARY = "portfolioId,portfolioName,baseCurrency";
+    private static final String HOLDING_SUMMARY = "holdingId,assetName,quantity,currentPrice";
+    private static final String DASHBOARD_SUMMARY =
+            "portfolioId,portfolioName,baseCurrency,totalValue,holdings.holdingId,holdings.assetName,holdings.currentValue";
+
     @GetMapping
-    public ResponseEntity<List<Portfolio>> getAllPortfolios() {
-        return ResponseEntity.ok(portfolioService.getAllPortfolios());
+    public ResponseEntity<?> getAllPortfolios(
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "view", required = false) String view
+    ) {
+        FieldSelection selection = selection(fields, view, PORTFOLIO_SUMMARY, Portfolio.class);
+        if (selection == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(select(portfolioService.getAllPortfolios(), selection));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Portfolio>> getPortfoliosByUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(portfolioService.getPortfoliosByUserId(userId));
+    public ResponseEntity<?> getPortfoliosByUser(
+            @PathVariable Long userId,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "view", required = false) String view
+    ) {
+        FieldSelection selection = selection(fields, view, PORTFOLIO_SUMMARY, Portfolio.class);
+        if (selection == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(select(portfolioService.getPortfoliosByUserId(userId), selection));
     }
 
     @GetMapping("/{portfolioId}")
@@ -67,11 +140,45 @@ public class PortfolioController {
     }
 
     @GetMapping("/{portfolioId}/holdings")
-    public ResponseEntity<List<Holding>> getHoldings(@PathVariable Long portfolioId) {
+    public ResponseEntity<?> getHoldings(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "view", required = false) String view,
+            ServletWebRequest request
+    ) {
+        FieldSelection selection = selection(fields, view, HOLDING_SUMMARY, Holding.class);
+        if (selection == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (notModified(request, portfolioId)) {
+            return null;
+        }
         if (portfolioService.getPortfolioById(portfolioId) == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
-        return ResponseEntity.ok(portfolioService.getHoldingsByPortfolioId(portfolioId));
+        return ConditionalRequests.withValidators(request,
+                ResponseEntity.ok(select(portfolioService.getHoldingsByPortfolioId(portfolioId), selection)));
+    }
+
+    // Holdings written one by one as they come off a JDBC cursor, for portfolios too large to build in memory
+    @GetMapping(value = "/{portfolioId}/holdings", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamHoldings(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "view", required = false) String view,
+            ServletWebRequest request
+    ) {
+        if (fields != null || view != null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (notModified(request, portfolioId)) {
+            return null;
+        }
+        if (portfolioService.getPortfolioById(portfolioId) == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ConditionalRequests.withValidators(request,
+                streamed(out -> holdingStreamService.writeHoldings(portfolioId, out)));
     }
 
     @GetMapping("/{portfolioId}/holdings/{holdingId}")
@@ -130,11 +237,15 @@ public class PortfolioController {
     }
 
     @GetMapping("/{portfolioId}/targets")
-    public ResponseEntity<List<PortfolioTarget>> getTargets(@PathVariable Long portfolioId) {
+    public ResponseEntity<List<PortfolioTarget>> getTargets(@PathVariable Long portfolioId, ServletWebRequest request) {
+        if (notModified(request, portfolioId)) {
+            return null;
+        }
         if (portfolioService.getPortfolioById(portfolioId) == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
-        return ResponseEntity.ok(portfolioService.getTargetsByPortfolioId(portfolioId));
+        return ConditionalRequests.withValidators(request,
+                ResponseEntity.ok(portfolioService.getTargetsByPortfolioId(portfolioId)));
     }
 
     @GetMapping("/{portfolioId}/targets/{targetId}")
@@ -240,6 +351,19 @@ public class PortfolioController {
         return ResponseEntity.ok(portfolioService.refreshAndGetSnapshots(portfolioId, currency));
     }
 
+    @PostMapping("/{portfolioId}/snapshots/backfill")
+    public ResponseEntity<BackfillResultDTO> backfillSnapshots(@PathVariable Long portfolioId) {
+        if (portfolioService.getPortfolioById(portfolioId) == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(snapshotBackfillService.backfillPortfolio(portfolioId));
+    }
+
+    @PostMapping("/snapshots/backfill")
+    public ResponseEntity<BackfillResultDTO> backfillAllSnapshots() {
+        return ResponseEntity.ok(snapshotBackfillService.backfillAll());
+    }
+
     @PutMapping("/{portfolioId}/snapshots/{snapshotId}")
     public ResponseEntity<PortfolioSnapshot> updateSnapshot(
             @PathVariable Long portfolioId,
@@ -278,6 +402,33 @@ public class PortfolioController {
         return ResponseEntity.ok(portfolioService.calculateTotalValue(portfolioId));
     }
 
+    @GetMapping("/{portfolioId}/valuation")
+    public ResponseEntity<PortfolioValuationDTO> getValuation(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "asOf", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf
+    ) {
+        PortfolioValuationDTO valuation = valuationService.getValuation(portfolioId, asOf == null ? LocalDate.now() : asOf);
+        if (valuation == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(valuation);
+    }
+
+    @GetMapping("/{portfolioId}/valuations")
+    public ResponseEntity<List<PortfolioValuationDTO>> getValuations(
+            @PathVariable Long portfolioId,
+            @RequestParam("asOf") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) List<LocalDate> dates
+    ) {
+        if (dates.isEmpty() || dates.size() > MAX_VALUATION_DATES || dates.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<PortfolioValuationDTO> valuations = valuationService.getValuations(portfolioId, dates);
+        if (valuations == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(valuations);
+    }
+
     @GetMapping("/{portfolioId}/asset-types")
     public ResponseEntity<List<String>> getAssetTypes(@PathVariable Long portfolioId) {
         if (portfolioService.getPortfolioById(portfolioId) == null) {
@@ -287,12 +438,152 @@ public class PortfolioController {
     }
 
     @GetMapping("/{portfolioId}/dashboard")
-    public ResponseEntity<com.example.portfoliobackend.dto.PortfolioDashboardDTO> getPortfolioDashboard(@PathVariable Long portfolioId) {
-        com.example.portfoliobackend.dto.PortfolioDashboardDTO dashboard = portfolioService.getPortfolioDashboard(portfolioId);
+    public ResponseEntity<?> getPortfolioDashboard(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "mode", defaultValue = "stored") String mode,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "view", required = false) String view,
+            ServletWebRequest request
+    ) {
+        PriceMode priceMode = PriceMode.fromName(mode);
+        FieldSelection selection = selection(fields, view, DASHBOARD_SUMMARY, PortfolioDashboardDTO.class);
+        if (priceMode == null || selection == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Live prices move between version bumps, so only stored-price dashboards are conditional
+        if (priceMode == PriceMode.STORED && notModified(request, portfolioId)) {
+            return null;
+        }
+        String variant = selection.isAll() ? priceMode.name() : priceMode.name() + ':' + fields + ':' + view;
+        PortfolioDashboardDTO dashboard = portfolioReadCoalescer.read(
+                "dashboard", portfolioId, variant, () -> selection.isAll()
+                        ? portfolioService.getPortfolioDashboard(portfolioId, priceMode)
+                        : portfolioService.getPortfolioDashboard(portfolioId, priceMode, selection));
         if (dashboard == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
-        return ResponseEntity.ok(dashboard);
+        return ConditionalRequests.withValidators(request, ResponseEntity.ok(select(dashboard, selection)));
+    }
+
+    @GetMapping(value = "/{portfolioId}/dashboard", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamPortfolioDashboard(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "mode", defaultValue = "stored") String mode,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "view", required = false) String view,
+            ServletWebRequest request
+    ) {
+        PriceMode priceMode = PriceMode.fromName(mode);
+        if (priceMode == null || fields != null || view != null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (priceMode == PriceMode.STORED && notModified(request, portfolioId)) {
+            return null;
+        }
+        Portfolio portfolio = portfolioService.getPortfolioById(portfolioId);
+        if (portfolio == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ConditionalRequests.withValidators(request,
+                streamed(out -> holdingStreamService.writeDashboard(portfolio, priceMode, out)));
+    }
+
+    @GetMapping("/{portfolioId}/details")
+    public ResponseEntity<PortfolioDetailsDTO> getPortfolioDetails(@PathVariable Long portfolioId, ServletWebRequest request) {
+        if (notModified(request, portfolioId)) {
+            return null;
+        }
+        PortfolioDetailsDTO details = portfolioViewAssembler.getDetails(portfolioId);
+        if (details == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        if (details.getUnavailable().contains(PortfolioViewAssembler.PORTFOLIO)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (!details.getUnavailable().isEmpty()) {
+            // A partial view carries no validators and must not be stored, so it is never revalidated into a 304
+            if (request.getResponse() != null) {
+                request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            }
+            return ResponseEntity.ok(details);
+        }
+        return ConditionalRequests.withValidators(request, ResponseEntity.ok(details));
+    }
+
+    @GetMapping("/{portfolioId}/overview")
+    public ResponseEntity<PortfolioOverviewDTO> getPortfolioOverview(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "mode", defaultValue = "stored") String mode,
+            @RequestParam(value = "snapshots", defaultValue = "30") int snapshots,
+            ServletWebRequest request
+    ) {
+        PriceMode priceMode = PriceMode.fromName(mode);
+        if (priceMode == null || snapshots < 1 || snapshots > MAX_OVERVIEW_SNAPSHOTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (priceMode == PriceMode.STORED && notModified(request, portfolioId)) {
+            return null;
+        }
+        PortfolioOverviewDTO overview = portfolioViewAssembler.getOverview(portfolioId, priceMode, snapshots);
+        if (overview == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ConditionalRequests.withValidators(request, ResponseEntity.ok(overview));
+    }
+
+    @GetMapping(value = "/{portfolioId}/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPortfolioDashboard(
+            @PathVariable Long portfolioId,
+            @RequestParam(value = "mode", defaultValue = "stored") String mode
+    ) {
+        PriceMode priceMode = PriceMode.fromName(mode);
+        if (priceMode == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        SseEmitter emitter = dashboardStreamService.subscribe(portfolioId, priceMode);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    // Written as rows are read, so always JSON whatever the Accept header asks for
+    private static ResponseEntity<StreamingResponseBody> streamed(StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // fields takes dotted property paths of the response type; view=summary stands for the endpoint's summary fields
+    // and view=full for all. Returns null for a malformed or unknown path.
+    private FieldSelection selection(String fields, String view, String summaryFields, Class<?> type) {
+        FieldSelection selection;
+        if (view == null) {
+            selection = FieldSelection.parse(fields);
+        } else if (fields != null) {
+            return null;
+        } else if ("full".equalsIgnoreCase(view)) {
+            return FieldSelection.all();
+        } else {
+            selection = "summary".equalsIgnoreCase(view) ? FieldSelection.parse(summaryFields) : null;
+        }
+        if (selection == null
+                || !selection.isValidFor(objectMapper.constructType(type), objectMapper.getSerializationConfig())) {
+            return null;
+        }
+        return selection;
+    }
+
+    // Unselected properties are skipped by the filter as the body is written, in whichever format was negotiated
+    private static Object select(Object body, FieldSelection selection) {
+        if (selection.isAll()) {
+            return body;
+        }
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider().addFilter(FieldSelection.FILTER_ID, selection.filter()));
+        return value;
+    }
+
+    private boolean notModified(ServletWebRequest request, Long portfolioId) {
+        return ConditionalRequests.notModified(request, portfolioVersions, portfolioId);
     }
 
     public static class SnapshotRequest {
@@ -0,0 +1,20 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocationHistoryPointDTO {
+    private Long snapshotId;
+    private LocalDate snapshotDate;
+    private Map<String, BigDecimal> allocationValues;
+    private Map<String, BigDecimal> allocationPercentages;
+    private Map<String, BigDecimal> targetDrift;
+}
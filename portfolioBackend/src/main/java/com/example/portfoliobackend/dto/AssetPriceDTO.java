@@ -0,0 +1,17 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetPriceDTO {
+    private String assetName;
+    private BigDecimal price;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,15 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillResultDTO {
+    private int portfoliosScanned;
+    private int portfoliosBackfilled;
+    private long snapshotsInserted;
+    private long elapsedMillis;
+}
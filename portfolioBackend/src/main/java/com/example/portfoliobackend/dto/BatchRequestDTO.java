@@ -0,0 +1,19 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequestDTO {
+    // Echoed back so clients can match responses to requests
+    private String id;
+    private String method;
+    // Relative to /api, with an optional query string, e.g. /portfolios/1/dashboard?mode=live
+    private String path;
+    private Map<String, String> headers;
+}
@@ -0,0 +1,20 @@
+package com.example.portfoliobackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponseDTO {
+    private String id;
+    private int status;
+    private Map<String, String> headers;
+    // The sub-response's JSON as is; a non-JSON body is sent as a JSON string
+    @JsonRawValue
+    private String body;
+}
@@ -0,0 +1,16 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConcurrencyLimitStatsDTO {
+    private int limit;
+    private int inFlight;
+    private long accepted;
+    private long rejected;
+    private long limitDecreases;
+}
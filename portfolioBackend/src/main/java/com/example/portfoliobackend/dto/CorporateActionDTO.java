@@ -0,0 +1,23 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CorporateActionDTO {
+    private String actionId;
+    private String assetName;
+    private String actionType;
+    private Integer newShares;
+    private Integer oldShares;
+    private LocalDate exDate;
+    private String status;
+    private Long holdingsAdjusted;
+    private LocalDateTime appliedAt;
+}
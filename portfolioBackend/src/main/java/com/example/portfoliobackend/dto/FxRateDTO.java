@@ -0,0 +1,18 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FxRateDTO {
+    private String baseCurrency;
+    private String quoteCurrency;
+    private LocalDate rateDate;
+    private BigDecimal rate;
+}
@@ -1,10 +1,13 @@
 package com.example.portfoliobackend.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
+@JsonFilter("fieldSelection")
 public class PortfolioDashboardDTO {
     private Long portfolioId;
     private String portfolioName;
@@ -12,6 +15,8 @@ public class PortfolioDashboardDTO {
     private BigDecimal totalValue;
     private List<HoldingDetailDTO> holdings;
     private LocalDateTime createdAt;
+    private LocalDateTime priceAsOf;
+    private List<String> unconvertedCurrencies;
 
     public PortfolioDashboardDTO() {}
 
@@ -44,7 +49,14 @@ public class PortfolioDashboardDTO {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public LocalDateTime getPriceAsOf() { return priceAsOf; }
+    public void setPriceAsOf(LocalDateTime priceAsOf) { this.priceAsOf = priceAsOf; }
+
+    public List<String> getUnconvertedCurrencies() { return unconvertedCurrencies; }
+    public void setUnconvertedCurrencies(List<String> unconvertedCurrencies) { this.unconvertedCurrencies = unconvertedCurrencies; }
+
     // Nested DTO for holdings
+    @JsonFilter("fieldSelection")
     public static class HoldingDetailDTO {
         private Long holdingId;
         private String assetName;
@@ -65,6 +77,13 @@ public class PortfolioDashboardDTO {
         public HoldingDetailDTO(Long holdingId, String assetName, String assetType,
                               BigDecimal quantity, BigDecimal purchasePrice, BigDecimal currentPrice,
                               String currency, LocalDate purchaseDate) {
+            this(holdingId, assetName, assetType, quantity, purchasePrice, currentPrice, currency, purchaseDate, true);
+        }
+
+        // withReturns false leaves totalInvested, currentValue, gainLoss and gainLossPercentage unset
+        public HoldingDetailDTO(Long holdingId, String assetName, String assetType,
+                              BigDecimal quantity, BigDecimal purchasePrice, BigDecimal currentPrice,
+                              String currency, LocalDate purchaseDate, boolean withReturns) {
             this.holdingId = holdingId;
             this.assetName = assetName;
             this.assetType = assetType;
@@ -73,6 +92,9 @@ public class PortfolioDashboardDTO {
             this.currentPrice = currentPrice;
             this.currency = currency;
             this.purchaseDate = purchaseDate;
+            if (!withReturns) {
+                return;
+            }
             this.totalInvested = purchasePrice.multiply(quantity);
             this.currentValue = currentPrice.multiply(quantity);
             this.gainLoss = this.currentValue.subtract(this.totalInvested);
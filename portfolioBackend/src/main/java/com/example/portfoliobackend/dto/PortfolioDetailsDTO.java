@@ -0,0 +1,23 @@
+package com.example.portfoliobackend.dto;
+
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import com.example.portfoliobackend.entity.PortfolioTarget;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioDetailsDTO {
+    private Portfolio portfolio;
+    private List<Holding> holdings;
+    private List<PortfolioTarget> targets;
+    private List<PortfolioSnapshot> snapshots;
+    // Parts whose read failed or timed out and are left null
+    private List<String> unavailable;
+}
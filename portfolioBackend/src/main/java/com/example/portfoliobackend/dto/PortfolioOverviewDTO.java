@@ -0,0 +1,32 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioOverviewDTO {
+    private PortfolioDashboardDTO dashboard;
+    private SummaryDTO summary;
+    private Map<String, BigDecimal> allocationPercentages;
+    private Map<String, BigDecimal> targetDrift;
+    // Newest first
+    private List<PortfolioSnapshotDTO> snapshots;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SummaryDTO {
+        private BigDecimal totalMarketValue;
+        private BigDecimal totalCost;
+        private BigDecimal totalGainLoss;
+        private LocalDateTime priceAsOf;
+    }
+}
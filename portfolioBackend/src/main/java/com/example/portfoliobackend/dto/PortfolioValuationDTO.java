@@ -0,0 +1,26 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioValuationDTO {
+    private Long portfolioId;
+    private LocalDate asOf;
+    private String currency;
+    private BigDecimal totalValue;
+    private BigDecimal totalCost;
+    private int holdingCount;
+    private Map<String, BigDecimal> allocations;
+    // Assets with no recorded price on or before asOf, carried at purchase price
+    private List<String> unpricedAssets;
+    private List<String> unconvertedCurrencies;
+}
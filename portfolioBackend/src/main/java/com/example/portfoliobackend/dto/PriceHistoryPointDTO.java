@@ -0,0 +1,17 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceHistoryPointDTO {
+    private String assetName;
+    private LocalDate priceDate;
+    private BigDecimal price;
+}
@@ -0,0 +1,13 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceUpdateResultDTO {
+    private int pricesUpdated;
+    private int holdingsRevalued;
+}
@@ -0,0 +1,18 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadCoalescingStatsDTO {
+    private int inFlight;
+    private long executions;
+    private long coalesced;
+    private Map<String, Long> executionsByView;
+    private Map<String, Long> coalescedByView;
+}
@@ -0,0 +1,24 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskMetricsDTO {
+    private Long portfolioId;
+    private String window;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private int observations;
+    private BigDecimal volatilityPercentage;
+    private BigDecimal maxDrawdownPercentage;
+    private BigDecimal downsideDeviationPercentage;
+    private BigDecimal sharpeRatio;
+    private BigDecimal sortinoRatio;
+}
@@ -0,0 +1,17 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulatorStatsDTO {
+    private String source;
+    private boolean running;
+    private int assets;
+    private int ticksPerSecond;
+    private long ticksEmitted;
+    private long failures;
+}
@@ -0,0 +1,17 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TickIngestionStatsDTO {
+    private int pendingAssets;
+    private long ticksReceived;
+    private long ticksCoalesced;
+    private long flushes;
+    private long pricesFlushed;
+    private long failedFlushes;
+}
@@ -0,0 +1,19 @@
+package com.example.portfoliobackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeWeightedReturnDTO {
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private int periods;
+    private BigDecimal returnPercentage;
+    private BigDecimal annualizedReturnPercentage;
+}
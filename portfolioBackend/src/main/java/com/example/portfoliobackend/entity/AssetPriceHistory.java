@@ -0,0 +1,60 @@
+package com.example.portfoliobackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(
+        name = "asset_price_history",
+        uniqueConstraints = @UniqueConstraint(name = "uk_price_history_asset_date", columnNames = {"asset_name", "price_date"})
+)
+@Data
+public class AssetPriceHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "price_history_id")
+    private Long priceHistoryId;
+
+    @Column(name = "asset_name", nullable = false, length = 100)
+    private String assetName;
+
+    @Column(name = "price_date", nullable = false)
+    private LocalDate priceDate;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal price;
+
+    public Long getPriceHistoryId() {
+        return priceHistoryId;
+    }
+
+    public void setPriceHistoryId(Long priceHistoryId) {
+        this.priceHistoryId = priceHistoryId;
+    }
+
+    public String getAssetName() {
+        return assetName;
+    }
+
+    public void setAssetName(String assetName) {
+        this.assetName = assetName;
+    }
+
+    public LocalDate getPriceDate() {
+        return priceDate;
+    }
+
+    public void setPriceDate(LocalDate priceDate) {
+        this.priceDate = priceDate;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.portfoliobackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "corporate_actions")
+@Data
+public class CorporateAction {
+    @Id
+    @Column(name = "action_id", length = 64)
+    private String actionId;
+
+    @Column(name = "asset_name", nullable = false, length = 100)
+    private String assetName;
+
+    @Column(name = "action_type", nullable = false, length = 20)
+    private String actionType;
+
+    // SPLIT and REVERSE_SPLIT: new_shares for every old_shares; BONUS: new_shares issued for every old_shares held
+    @Column(name = "new_shares", nullable = false)
+    private Integer newShares;
+
+    @Column(name = "old_shares", nullable = false)
+    private Integer oldShares;
+
+    @Column(name = "ex_date", nullable = false)
+    private LocalDate exDate;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "last_portfolio_id", nullable = false)
+    private Long lastPortfolioId = 0L;
+
+    @Column(name = "holdings_adjusted", nullable = false)
+    private Long holdingsAdjusted = 0L;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+
+    public String getActionId() {
+        return actionId;
+    }
+
+    public void setActionId(String actionId) {
+        this.actionId = actionId;
+    }
+
+    public String getAssetName() {
+        return assetName;
+    }
+
+    public void setAssetName(String assetName) {
+        this.assetName = assetName;
+    }
+
+    public String getActionType() {
+        return actionType;
+    }
+
+    public void setActionType(String actionType) {
+        this.actionType = actionType;
+    }
+
+    public Integer getNewShares() {
+        return newShares;
+    }
+
+    public void setNewShares(Integer newShares) {
+        this.newShares = newShares;
+    }
+
+    public Integer getOldShares() {
+        return oldShares;
+    }
+
+    public void setOldShares(Integer oldShares) {
+        this.oldShares = oldShares;
+    }
+
+    public LocalDate getExDate() {
+        return exDate;
+    }
+
+    public void setExDate(LocalDate exDate) {
+        this.exDate = exDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getLastPortfolioId() {
+        return lastPortfolioId;
+    }
+
+    public void setLastPortfolioId(Long lastPortfolioId) {
+        this.lastPortfolioId = lastPortfolioId;
+    }
+
+    public Long getHoldingsAdjusted() {
+        return holdingsAdjusted;
+    }
+
+    public void setHoldingsAdjusted(Long holdingsAdjusted) {
+        this.holdingsAdjusted = holdingsAdjusted;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getAppliedAt() {
+        return appliedAt;
+    }
+
+    public void setAppliedAt(LocalDateTime appliedAt) {
+        this.appliedAt = appliedAt;
+    }
+}
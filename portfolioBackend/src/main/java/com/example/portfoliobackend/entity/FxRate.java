@@ -0,0 +1,72 @@
+package com.example.portfoliobackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(
+        name = "fx_rates",
+        uniqueConstraints = @UniqueConstraint(name = "uk_fx_rates_pair_date", columnNames = {"base_currency", "quote_currency", "rate_date"})
+)
+@Data
+public class FxRate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "fx_rate_id")
+    private Long fxRateId;
+
+    @Column(name = "base_currency", nullable = false, length = 3)
+    private String baseCurrency;
+
+    @Column(name = "quote_currency", nullable = false, length = 3)
+    private String quoteCurrency;
+
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate rateDate;
+
+    // Units of quote currency per one unit of base currency
+    @Column(nullable = false, precision = 19, scale = 8)
+    private BigDecimal rate;
+
+    public Long getFxRateId() {
+        return fxRateId;
+    }
+
+    public void setFxRateId(Long fxRateId) {
+        this.fxRateId = fxRateId;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    public String getQuoteCurrency() {
+        return quoteCurrency;
+    }
+
+    public void setQuoteCurrency(String quoteCurrency) {
+        this.quoteCurrency = quoteCurrency;
+    }
+
+    public LocalDate getRateDate() {
+        return rateDate;
+    }
+
+    public void setRateDate(LocalDate rateDate) {
+        this.rateDate = rateDate;
+    }
+
+    public BigDecimal getRate() {
+        return rate;
+    }
+
+    public void setRate(BigDecimal rate) {
+        this.rate = rate;
+    }
+}
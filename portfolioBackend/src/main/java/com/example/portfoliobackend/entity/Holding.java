@@ -1,13 +1,15 @@
 package com.example.portfoliobackend.entity;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "holdings")
+@Table(name = "holdings", indexes = @Index(name = "idx_holdings_asset_name", columnList = "asset_name"))
 @Data
+@JsonFilter("fieldSelection")
 public class Holding {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
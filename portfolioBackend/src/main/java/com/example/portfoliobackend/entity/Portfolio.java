@@ -1,5 +1,6 @@
 package com.example.portfoliobackend.entity;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -7,6 +8,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "portfolios")
 @Data
+@JsonFilter("fieldSelection")
 public class Portfolio {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
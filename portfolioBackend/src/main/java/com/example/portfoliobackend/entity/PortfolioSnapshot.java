@@ -6,7 +6,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "portfolio_snapshots")
+@Table(
+        name = "portfolio_snapshots",
+        indexes = @Index(name = "idx_snapshots_portfolio_date", columnList = "portfolio_id, snapshot_date")
+)
 @Data
 public class PortfolioSnapshot {
     @Id
@@ -0,0 +1,17 @@
+package com.example.portfoliobackend.event;
+
+/**
+ * Published whenever a holding is added to, edited in or removed from a portfolio.
+ */
+public class HoldingsChangedEvent {
+
+    private final Long portfolioId;
+
+    public HoldingsChangedEvent(Long portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+}
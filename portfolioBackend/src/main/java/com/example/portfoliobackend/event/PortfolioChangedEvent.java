@@ -0,0 +1,28 @@
+package com.example.portfoliobackend.event;
+
+/**
+ * Published whenever a portfolio itself is created, edited or deleted, or one of its allocation targets changes.
+ * A deletion sets {@code deleted}, so listeners can forget the portfolio instead of just refreshing it.
+ */
+public class PortfolioChangedEvent {
+
+    private final Long portfolioId;
+    private final boolean deleted;
+
+    public PortfolioChangedEvent(Long portfolioId) {
+        this(portfolioId, false);
+    }
+
+    public PortfolioChangedEvent(Long portfolioId, boolean deleted) {
+        this.portfolioId = portfolioId;
+        this.deleted = deleted;
+    }
+
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
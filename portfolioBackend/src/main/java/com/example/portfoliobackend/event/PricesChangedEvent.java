@@ -0,0 +1,19 @@
+package com.example.portfoliobackend.event;
+
+import java.util.Collection;
+
+/**
+ * Published once per batch of latest-price updates, after the holdings of those assets have been revalued.
+ */
+public class PricesChangedEvent {
+
+    private final Collection<String> assetNames;
+
+    public PricesChangedEvent(Collection<String> assetNames) {
+        this.assetNames = assetNames;
+    }
+
+    public Collection<String> getAssetNames() {
+        return assetNames;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.portfoliobackend.event;
+
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import org.springframework.core.Ordered;
+
+/**
+ * Published whenever a portfolio's snapshot history is recorded, edited or trimmed. When the change is a single
+ * newly recorded snapshot it is carried as {@code appended}; any other change leaves it null.
+ * Listeners run in a fixed order: the snapshot log follows the change first, then caches derived from snapshots are
+ * dropped, and only then is the portfolio version bumped, so a client revalidating on the new ETag cannot be served
+ * figures computed from the old history.
+ */
+public class SnapshotChangedEvent {
+
+    public static final int LOG_ORDER = Ordered.HIGHEST_PRECEDENCE;
+    public static final int CACHE_ORDER = LOG_ORDER + 1;
+    public static final int VERSION_ORDER = CACHE_ORDER + 1;
+
+    private final Long portfolioId;
+    private final PortfolioSnapshot appended;
+
+    public SnapshotChangedEvent(Long portfolioId) {
+        this(portfolioId, null);
+    }
+
+    public SnapshotChangedEvent(Long portfolioId, PortfolioSnapshot appended) {
+        this.portfolioId = portfolioId;
+        this.appended = appended;
+    }
+
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
+    public PortfolioSnapshot getAppended() {
+        return appended;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.portfoliobackend.repository;
+
+import com.example.portfoliobackend.entity.AssetPriceHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AssetPriceHistoryRepository extends JpaRepository<AssetPriceHistory, Long> {
+    List<AssetPriceHistory> findByAssetNameAndPriceDateBetweenOrderByPriceDateAsc(String assetName, LocalDate from, LocalDate to);
+
+    @Query("select h.assetName, h.priceDate, h.price from AssetPriceHistory h " +
+            "where h.assetName in :assetNames and h.priceDate <= :to order by h.assetName, h.priceDate")
+    List<Object[]> findPriceRowsByAssetNameIn(@Param("assetNames") Collection<String> assetNames, @Param("to") LocalDate to);
+}
@@ -0,0 +1,12 @@
+package com.example.portfoliobackend.repository;
+
+import com.example.portfoliobackend.entity.AssetPrice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AssetPriceRepository extends JpaRepository<AssetPrice, String> {
+    List<AssetPrice> findAllByOrderByAssetNameAsc();
+}
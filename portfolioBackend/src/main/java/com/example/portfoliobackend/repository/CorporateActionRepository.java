@@ -0,0 +1,37 @@
+package com.example.portfoliobackend.repository;
+
+import com.example.portfoliobackend.entity.CorporateAction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface CorporateActionRepository extends JpaRepository<CorporateAction, String> {
+
+    // A plain insert rather than save(), which would merge into a row registered concurrently under the same ID
+    @Modifying
+    @Query(value = "INSERT INTO corporate_actions (action_id, asset_name, action_type, new_shares, old_shares, ex_date, " +
+            "status, last_portfolio_id, holdings_adjusted, created_at) " +
+            "VALUES (:#{#a.actionId}, :#{#a.assetName}, :#{#a.actionType}, :#{#a.newShares}, :#{#a.oldShares}, " +
+            ":#{#a.exDate}, :#{#a.status}, 0, 0, :#{#a.createdAt})", nativeQuery = true)
+    int insert(@Param("a") CorporateAction action);
+
+    // Moves the action's progress from one range end to the next; 0 rows means another run already took the range
+    @Modifying
+    @Query("update CorporateAction a set a.lastPortfolioId = :to " +
+            "where a.actionId = :actionId and a.lastPortfolioId = :from and a.status = 'PENDING'")
+    int claimRange(@Param("actionId") String actionId, @Param("from") Long from, @Param("to") Long to);
+
+    @Modifying
+    @Query("update CorporateAction a set a.holdingsAdjusted = a.holdingsAdjusted + :count where a.actionId = :actionId")
+    int addHoldingsAdjusted(@Param("actionId") String actionId, @Param("count") Long count);
+
+    @Modifying
+    @Query("update CorporateAction a set a.status = 'APPLIED', a.appliedAt = :appliedAt " +
+            "where a.actionId = :actionId and a.status = 'PENDING'")
+    int markApplied(@Param("actionId") String actionId, @Param("appliedAt") LocalDateTime appliedAt);
+}
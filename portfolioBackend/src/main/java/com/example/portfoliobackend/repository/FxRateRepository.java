@@ -0,0 +1,20 @@
+package com.example.portfoliobackend.repository;
+
+import com.example.portfoliobackend.entity.FxRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FxRateRepository extends JpaRepository<FxRate, Long> {
+    @Query("select r from FxRate r order by r.baseCurrency, r.quoteCurrency, r.rateDate")
+    List<FxRate> findAllOrderByPairAndDate();
+
+    @Query("select r from FxRate r where r.baseCurrency = :baseCurrency and r.quoteCurrency = :quoteCurrency " +
+            "order by r.rateDate")
+    List<FxRate> findByPairOrderByRateDate(@Param("baseCurrency") String baseCurrency,
+                                          @Param("quoteCurrency") String quoteCurrency);
+}
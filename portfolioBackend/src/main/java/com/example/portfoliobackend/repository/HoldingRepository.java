@@ -2,11 +2,26 @@ package com.example.portfoliobackend.repository;
 
 import com.example.portfoliobackend.entity.Holding;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface HoldingRepository extends JpaRepository<Holding, Long> {
     List<Holding> findByPortfolioId(Long portfolioId);
+    List<Holding> findByPortfolioIdIn(Collection<Long> portfolioIds);
+    List<Holding> findByPortfolioIdAndPurchaseDateLessThanEqual(Long portfolioId, LocalDate purchaseDate);
+
+    @Query("select distinct h.assetName from Holding h where h.assetName is not null order by h.assetName")
+    List<String> findDistinctAssetNames();
+
+    @Query("select distinct h.assetName from Holding h where h.portfolioId = :portfolioId and h.assetName is not null")
+    List<String> findDistinctAssetNamesByPortfolioId(@Param("portfolioId") Long portfolioId);
+
+    @Query("select max(h.portfolioId) from Holding h where h.assetName = :assetName")
+    Long findMaxPortfolioIdByAssetName(@Param("assetName") String assetName);
 }
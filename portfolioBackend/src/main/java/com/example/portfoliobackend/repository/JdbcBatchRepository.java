@@ -0,0 +1,197 @@
+package com.example.portfoliobackend.repository;
+
+import com.example.portfoliobackend.entity.AssetPrice;
+import com.example.portfoliobackend.entity.AssetPriceHistory;
+import com.example.portfoliobackend.entity.FxRate;
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import com.example.portfoliobackend.entity.PortfolioSnapshotAllocation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Set-based and batched writes that would cost one statement per row through JPA. With
+ * {@code rewriteBatchedStatements=true} on the MySQL URL each batch goes over the wire as a single multi-row insert.
+ */
+@Repository
+public class JdbcBatchRepository {
+
+    public static final int BATCH_SIZE = 1000;
+
+    private static final int IN_CLAUSE_CHUNK = 500;
+
+    private static final String INSERT_SNAPSHOT_SQL =
+            "INSERT INTO portfolio_snapshots (portfolio_id, total_value, currency, snapshot_date) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_ALLOCATION_SQL =
+            "INSERT INTO portfolio_snapshot_allocations (snapshot_id, portfolio_id, snapshot_date, asset_type, market_value) " +
+                    "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_PRICE_HISTORY_SQL =
+            "INSERT INTO asset_price_history (asset_name, price_date, price) VALUES (?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE price = VALUES(price)";
+
+    private static final String UPSERT_FX_RATE_SQL =
+            "INSERT INTO fx_rates (base_currency, quote_currency, rate_date, rate) VALUES (?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE rate = VALUES(rate)";
+
+    private static final String UPSERT_ASSET_PRICE_SQL =
+            "INSERT INTO asset_prices (asset_name, price, updated_at) VALUES (?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE price = VALUES(price), updated_at = VALUES(updated_at)";
+
+    // A correlated subquery rather than UPDATE ... JOIN keeps the statement portable; MySQL resolves it through the
+    // asset_prices primary key for each matching holding.
+    private static final String REFRESH_HOLDING_PRICES_SQL =
+            "UPDATE holdings SET current_price = " +
+                    "(SELECT p.price FROM asset_prices p WHERE p.asset_name = holdings.asset_name) " +
+                    "WHERE asset_name IN (%s)";
+
+    // Holdings bought before the ex-date are restated in post-action shares: quantity scales up by the action's
+    // ratio and purchase price down, keeping the cost basis. Current price follows asset_prices when it has a row.
+    private static final String ADJUST_HOLDINGS_SQL =
+            "UPDATE holdings SET quantity = ROUND(quantity * ? / ?, 4), " +
+                    "purchase_price = ROUND(purchase_price * ? / ?, 2), " +
+                    "current_price = COALESCE((SELECT p.price FROM asset_prices p WHERE p.asset_name = holdings.asset_name), " +
+                    "ROUND(current_price * ? / ?, 2)) " +
+                    "WHERE asset_name = ? AND purchase_date < ? AND portfolio_id > ? AND portfolio_id <= ?";
+
+    private static final String ADJUST_PRICE_HISTORY_SQL =
+            "UPDATE asset_price_history SET price = ROUND(price * ? / ?, 2) WHERE asset_name = ? AND price_date < ?";
+
+    private static final String ADJUST_ASSET_PRICE_SQL =
+            "UPDATE asset_prices SET price = ROUND(price * ? / ?, 2) WHERE asset_name = ? AND updated_at < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the snapshots in batches and assigns each one its generated {@code snapshotId}.
+     */
+    public int insertSnapshots(List<PortfolioSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SNAPSHOT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < snapshots.size(); from += BATCH_SIZE) {
+                    List<PortfolioSnapshot> batch = snapshots.subList(from, Math.min(from + BATCH_SIZE, snapshots.size()));
+                    for (PortfolioSnapshot snapshot : batch) {
+                        ps.setLong(1, snapshot.getPortfolioId());
+                        ps.setBigDecimal(2, snapshot.getTotalValue());
+                        ps.setString(3, snapshot.getCurrency());
+                        ps.setDate(4, Date.valueOf(snapshot.getSnapshotDate()));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (int i = 0; i < batch.size() && keys.next(); i++) {
+                            batch.get(i).setSnapshotId(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return snapshots.size();
+        });
+    }
+
+    public int insertAllocations(List<PortfolioSnapshotAllocation> allocations) {
+        if (allocations.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ALLOCATION_SQL, allocations, BATCH_SIZE, (ps, allocation) -> {
+            ps.setLong(1, allocation.getSnapshotId());
+            ps.setLong(2, allocation.getPortfolioId());
+            ps.setDate(3, Date.valueOf(allocation.getSnapshotDate()));
+            ps.setString(4, allocation.getAssetType());
+            ps.setBigDecimal(5, allocation.getMarketValue());
+        });
+        return allocations.size();
+    }
+
+    public int upsertPriceHistory(List<AssetPriceHistory> prices) {
+        if (prices.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_PRICE_HISTORY_SQL, prices, BATCH_SIZE, (ps, price) -> {
+            ps.setString(1, price.getAssetName());
+            ps.setDate(2, Date.valueOf(price.getPriceDate()));
+            ps.setBigDecimal(3, price.getPrice());
+        });
+        return prices.size();
+    }
+
+    public int upsertFxRates(List<FxRate> rates) {
+        if (rates.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_FX_RATE_SQL, rates, BATCH_SIZE, (ps, rate) -> {
+            ps.setString(1, rate.getBaseCurrency());
+            ps.setString(2, rate.getQuoteCurrency());
+            ps.setDate(3, Date.valueOf(rate.getRateDate()));
+            ps.setBigDecimal(4, rate.getRate());
+        });
+        return rates.size();
+    }
+
+    public int upsertAssetPrices(List<AssetPrice> prices) {
+        if (prices.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_ASSET_PRICE_SQL, prices, BATCH_SIZE, (ps, price) -> {
+            ps.setString(1, price.getAssetName());
+            ps.setBigDecimal(2, price.getPrice());
+            ps.setTimestamp(3, Timestamp.valueOf(price.getUpdatedAt()));
+        });
+        return prices.size();
+    }
+
+    /**
+     * Copies the latest {@code asset_prices} row onto every holding of the given assets, one statement per chunk of
+     * asset names. Returns the number of holdings revalued.
+     */
+    public int refreshHoldingPrices(Collection<String> assetNames) {
+        List<String> names = new ArrayList<>(assetNames);
+        int updated = 0;
+        for (int from = 0; from < names.size(); from += IN_CLAUSE_CHUNK) {
+            List<String> chunk = names.subList(from, Math.min(from + IN_CLAUSE_CHUNK, names.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            updated += jdbcTemplate.update(String.format(REFRESH_HOLDING_PRICES_SQL, placeholders), chunk.toArray());
+        }
+        return updated;
+    }
+
+    /**
+     * Multiplies the quantity of every holding of {@code assetName} bought before {@code exDate} in portfolios
+     * {@code afterPortfolioId < id <= throughPortfolioId} by {@code numerator / denominator}, dividing its purchase
+     * price by the same ratio. Returns the number of holdings adjusted.
+     */
+    public int adjustHoldingsForCorporateAction(String assetName, LocalDate exDate, int numerator, int denominator,
+                                                long afterPortfolioId, long throughPortfolioId) {
+        return jdbcTemplate.update(ADJUST_HOLDINGS_SQL, numerator, denominator, denominator, numerator,
+                denominator, numerator, assetName, Date.valueOf(exDate), afterPortfolioId, throughPortfolioId);
+    }
+
+    /**
+     * Divides the asset's prices recorded before {@code exDate}, in its history and as its latest price, by
+     * {@code numerator / denominator} so they are comparable with prices quoted after the action.
+     */
+    public int adjustPricesForCorporateAction(String assetName, LocalDate exDate, int numerator, int denominator) {
+        int adjusted = jdbcTemplate.update(ADJUST_PRICE_HISTORY_SQL, denominator, numerator, assetName,
+                Date.valueOf(exDate));
+        adjusted += jdbcTemplate.update(ADJUST_ASSET_PRICE_SQL, denominator, numerator, assetName,
+                Timestamp.valueOf(exDate.atStartOfDay()));
+        return adjusted;
+    }
+}
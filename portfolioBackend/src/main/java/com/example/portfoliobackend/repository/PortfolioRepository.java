@@ -2,6 +2,8 @@ package com.example.portfoliobackend.repository;
 
 import com.example.portfoliobackend.entity.Portfolio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +12,10 @@ import java.util.List;
 public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
     List<Portfolio> findByUserId(Long userId);
     List<Portfolio> findByPortfolioNameContainingIgnoreCase(String name);
+
+    @Query("select p.portfolioId from Portfolio p order by p.portfolioId")
+    List<Long> findAllPortfolioIds();
+
+    @Query("select p.baseCurrency from Portfolio p where p.portfolioId = :portfolioId")
+    String findBaseCurrencyById(@Param("portfolioId") Long portfolioId);
 }
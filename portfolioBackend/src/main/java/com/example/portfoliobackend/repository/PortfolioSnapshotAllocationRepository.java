@@ -0,0 +1,30 @@
+package com.example.portfoliobackend.repository;
+
+import com.example.portfoliobackend.entity.PortfolioSnapshotAllocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PortfolioSnapshotAllocationRepository extends JpaRepository<PortfolioSnapshotAllocation, Long> {
+    List<PortfolioSnapshotAllocation> findBySnapshotId(Long snapshotId);
+
+    List<PortfolioSnapshotAllocation> findByPortfolioIdAndSnapshotDateBetweenOrderBySnapshotDateAscSnapshotIdAsc(
+            Long portfolioId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("update PortfolioSnapshotAllocation a set a.portfolioId = :portfolioId, a.snapshotDate = :snapshotDate " +
+            "where a.snapshotId = :snapshotId")
+    int updatePortfolioAndDateBySnapshotId(@Param("snapshotId") Long snapshotId,
+                                           @Param("portfolioId") Long portfolioId,
+                                           @Param("snapshotDate") LocalDate snapshotDate);
+
+    @Modifying
+    @Query("delete from PortfolioSnapshotAllocation a where a.snapshotId = :snapshotId")
+    int deleteBySnapshotId(@Param("snapshotId") Long snapshotId);
+}
@@ -1,12 +1,25 @@
 package com.example.portfoliobackend.repository;
 
 import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PortfolioSnapshotRepository extends JpaRepository<PortfolioSnapshot, Long> {
     List<PortfolioSnapshot> findByPortfolioIdOrderBySnapshotDateDesc(Long portfolioId);
+    List<PortfolioSnapshot> findByPortfolioIdOrderBySnapshotDateAscSnapshotIdAsc(Long portfolioId);
+    List<PortfolioSnapshot> findByPortfolioIdOrderBySnapshotDateDescSnapshotIdDesc(Long portfolioId, Pageable pageable);
+
+    @Query("select s.portfolioId, s.snapshotDate, s.totalValue from PortfolioSnapshot s " +
+            "where s.portfolioId in :portfolioIds order by s.portfolioId, s.snapshotDate, s.snapshotId")
+    List<Object[]> findSeriesRowsByPortfolioIdIn(@Param("portfolioIds") Collection<Long> portfolioIds);
+
+    @Query("select distinct s.portfolioId, s.snapshotDate from PortfolioSnapshot s where s.portfolioId in :portfolioIds")
+    List<Object[]> findSnapshotDatesByPortfolioIdIn(@Param("portfolioIds") Collection<Long> portfolioIds);
 }
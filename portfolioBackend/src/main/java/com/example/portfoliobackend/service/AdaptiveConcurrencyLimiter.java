@@ -0,0 +1,98 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.ConcurrencyLimitStatsDTO;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD limit on how many expensive requests run at once. A request that finishes within the latency threshold while
+ * the limit was at least half used raises the limit by one; a slow or failed one cuts it by the backoff ratio. Once
+ * the limit is reached, further requests are refused straight away rather than queued, so a slow database sheds load
+ * instead of tying up every request thread and connection.
+ */
+@Service
+public class AdaptiveConcurrencyLimiter {
+
+    @Value("${portfolio.concurrency-limit.initial-limit:20}")
+    private int initialLimit = 20;
+
+    @Value("${portfolio.concurrency-limit.min-limit:5}")
+    private int minLimit = 5;
+
+    @Value("${portfolio.concurrency-limit.max-limit:200}")
+    private int maxLimit = 200;
+
+    @Value("${portfolio.concurrency-limit.latency-threshold-ms:1000}")
+    private long latencyThresholdMs = 1000;
+
+    @Value("${portfolio.concurrency-limit.backoff-ratio:0.9}")
+    private double backoffRatio = 0.9;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock limitLock = new ReentrantLock();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder decreases = new LongAdder();
+    private volatile double limit;
+
+    @PostConstruct
+    public void start() {
+        limit = initialLimit;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Takes a slot if one is free; a caller that gets true must give it back through {@link #release}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees a slot taken by {@link #tryAcquire} and adjusts the limit from how the request went; a request whose
+     * duration says nothing about load, such as a long-lived stream, passes {@code sample} false.
+     */
+    public void release(long startedNanos, boolean failed, boolean sample) {
+        int running = inFlight.getAndDecrement();
+        if (!sample) {
+            return;
+        }
+        boolean slow = System.nanoTime() - startedNanos > TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        limitLock.lock();
+        try {
+            double current = limit;
+            if (failed || slow) {
+                limit = Math.max(minLimit, current * backoffRatio);
+                decreases.increment();
+            } else if (running * 2 >= current) {
+                limit = Math.min(maxLimit, current + 1);
+            }
+        } finally {
+            limitLock.unlock();
+        }
+    }
+
+    public ConcurrencyLimitStatsDTO getStats() {
+        return new ConcurrencyLimitStatsDTO(getLimit(), inFlight.get(), accepted.sum(), rejected.sum(),
+                decreases.sum());
+    }
+}
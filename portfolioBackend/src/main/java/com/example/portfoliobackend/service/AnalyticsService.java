@@ -1,20 +1,32 @@
 package com.example.portfoliobackend.service;
 
+import com.example.portfoliobackend.dto.AllocationHistoryPointDTO;
 import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.PortfolioSnapshotAllocation;
 import com.example.portfoliobackend.entity.PortfolioTarget;
 import com.example.portfoliobackend.repository.HoldingRepository;
+import com.example.portfoliobackend.repository.PortfolioRepository;
+import com.example.portfoliobackend.repository.PortfolioSnapshotAllocationRepository;
 import com.example.portfoliobackend.repository.PortfolioTargetRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
+/**
+ * Valuation, allocation and drift analytics. Every figure is in the portfolio's base currency, converted through
+ * {@link HoldingValuation} in the same pass that sums the holdings.
+ */
 @Service
 public class AnalyticsService {
 
@@ -24,44 +36,62 @@ public class AnalyticsService {
     @Autowired
     private PortfolioTargetRepository portfolioTargetRepository;
 
+    @Autowired
+    private PortfolioSnapshotAllocationRepository portfolioSnapshotAllocationRepository;
+
+    @Autowired
+    private LivePriceCache livePriceCache;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private FxRateCache fxRateCache;
+
     public BigDecimal getTotalMarketValue(Long portfolioId) {
-        return getHoldingsByPortfolio(portfolioId).stream()
-                .map(this::holdingMarketValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return getTotalMarketValue(portfolioId, PriceMode.STORED);
+    }
+
+    public BigDecimal getTotalMarketValue(Long portfolioId, PriceMode mode) {
+        return valuation(portfolioId, mode).getTotalMarketValue();
     }
 
     public BigDecimal getTotalCost(Long portfolioId) {
-        return getHoldingsByPortfolio(portfolioId).stream()
-                .map(this::holdingCostValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return valuation(portfolioId, PriceMode.STORED).getTotalCost();
     }
 
     public BigDecimal getTotalGainLoss(Long portfolioId) {
-        return getTotalMarketValue(portfolioId).subtract(getTotalCost(portfolioId));
+        return getTotalGainLoss(portfolioId, PriceMode.STORED);
+    }
+
+    public BigDecimal getTotalGainLoss(Long portfolioId, PriceMode mode) {
+        HoldingValuation valuation = valuation(portfolioId, mode);
+        return valuation.getTotalMarketValue().subtract(valuation.getTotalCost());
     }
 
     public Map<String, BigDecimal> getAllocationValues(Long portfolioId) {
-        Map<String, BigDecimal> allocations = new HashMap<>();
-        for (Holding holding : getHoldingsByPortfolio(portfolioId)) {
-            if (holding.getAssetType() == null) {
-                continue;
-            }
-            allocations.merge(
-                    holding.getAssetType(),
-                    holdingMarketValue(holding),
-                    BigDecimal::add
-            );
-        }
-        return allocations;
+        return getAllocationValues(portfolioId, PriceMode.STORED);
+    }
+
+    public Map<String, BigDecimal> getAllocationValues(Long portfolioId, PriceMode mode) {
+        return new HashMap<>(valuation(portfolioId, mode).getAssetTypeValues());
     }
 
     public Map<String, BigDecimal> getAllocationPercentages(Long portfolioId) {
-        BigDecimal totalValue = getTotalMarketValue(portfolioId);
+        return getAllocationPercentages(portfolioId, PriceMode.STORED);
+    }
+
+    public Map<String, BigDecimal> getAllocationPercentages(Long portfolioId, PriceMode mode) {
+        return getAllocationPercentages(valuation(portfolioId, mode));
+    }
+
+    public Map<String, BigDecimal> getAllocationPercentages(HoldingValuation valuation) {
+        BigDecimal totalValue = valuation.getTotalMarketValue();
         if (totalValue.compareTo(BigDecimal.ZERO) == 0) {
             return new HashMap<>();
         }
 
-        return getAllocationValues(portfolioId).entrySet().stream()
+        return valuation.getAssetTypeValues().entrySet().stream()
                 .collect(Collectors.toMap(
                         Map.Entry::getKey,
                         entry -> percentageOf(entry.getValue(), totalValue)
@@ -69,7 +99,18 @@ public class AnalyticsService {
     }
 
     public Map<String, BigDecimal> getTargetDriftPercentages(Long portfolioId) {
-        Map<String, BigDecimal> allocationPercentages = getAllocationPercentages(portfolioId);
+        return getTargetDriftPercentages(portfolioId, PriceMode.STORED);
+    }
+
+    public Map<String, BigDecimal> getTargetDriftPercentages(Long portfolioId, PriceMode mode) {
+        return getTargetDriftPercentages(portfolioId, getAllocationPercentages(portfolioId, mode));
+    }
+
+    /**
+     * Drift of {@code allocationPercentages} from the portfolio's targets.
+     */
+    public Map<String, BigDecimal> getTargetDriftPercentages(Long portfolioId,
+                                                             Map<String, BigDecimal> allocationPercentages) {
         Map<String, BigDecimal> drift = new HashMap<>();
 
         for (PortfolioTarget target : getTargetsByPortfolio(portfolioId)) {
@@ -82,26 +123,106 @@ public class AnalyticsService {
         return drift;
     }
 
-    private List<Holding> getHoldingsByPortfolio(Long portfolioId) {
-        return holdingRepository.findByPortfolioId(portfolioId);
+    /**
+     * The valuation behind the totals and allocations, shared with the dashboard inside a read scope.
+     */
+    public HoldingValuation getValuation(Long portfolioId, PriceMode mode) {
+        return valuation(portfolioId, mode);
     }
 
-    private List<PortfolioTarget> getTargetsByPortfolio(Long portfolioId) {
-        return portfolioTargetRepository.findByPortfolioId(portfolioId);
+    /**
+     * Timestamp of the stalest live price behind a live valuation; null for stored valuations.
+     */
+    public LocalDateTime getPriceAsOf(Long portfolioId, PriceMode mode) {
+        if (mode != PriceMode.LIVE) {
+            return null;
+        }
+        return livePriceCache.priceAsOf(getHoldingsByPortfolio(portfolioId), mode);
     }
 
-    private BigDecimal holdingMarketValue(Holding holding) {
-        if (holding.getQuantity() == null || holding.getCurrentPrice() == null) {
-            return BigDecimal.ZERO;
+    /**
+     * Allocation and target drift as recorded with each snapshot in the window. Rows come back from one range scan
+     * over the (portfolio_id, snapshot_date) index already grouped by snapshot.
+     */
+    public List<AllocationHistoryPointDTO> getAllocationHistory(Long portfolioId, LocalDate from, LocalDate to) {
+        List<PortfolioSnapshotAllocation> rows = portfolioSnapshotAllocationRepository
+                .findByPortfolioIdAndSnapshotDateBetweenOrderBySnapshotDateAscSnapshotIdAsc(
+                        portfolioId,
+                        from == null ? LocalDate.of(1900, 1, 1) : from,
+                        to == null ? LocalDate.now() : to);
+        List<AllocationHistoryPointDTO> history = new ArrayList<>();
+        if (rows.isEmpty()) {
+            return history;
+        }
+
+        Map<String, BigDecimal> targets = new HashMap<>();
+        for (PortfolioTarget target : getTargetsByPortfolio(portfolioId)) {
+            if (target.getAssetType() != null && target.getTargetPercentage() != null) {
+                targets.put(target.getAssetType(), target.getTargetPercentage());
+            }
+        }
+
+        int start = 0;
+        for (int i = 1; i <= rows.size(); i++) {
+            if (i == rows.size() || !Objects.equals(rows.get(i).getSnapshotId(), rows.get(start).getSnapshotId())) {
+                history.add(toHistoryPoint(rows.subList(start, i), targets));
+                start = i;
+            }
         }
-        return holding.getQuantity().multiply(holding.getCurrentPrice());
+        return history;
     }
 
-    private BigDecimal holdingCostValue(Holding holding) {
-        if (holding.getQuantity() == null || holding.getPurchasePrice() == null) {
-            return BigDecimal.ZERO;
+    private AllocationHistoryPointDTO toHistoryPoint(List<PortfolioSnapshotAllocation> rows, Map<String, BigDecimal> targets) {
+        Map<String, BigDecimal> values = new LinkedHashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (PortfolioSnapshotAllocation row : rows) {
+            values.merge(row.getAssetType(), row.getMarketValue(), BigDecimal::add);
+            total = total.add(row.getMarketValue());
+        }
+
+        Map<String, BigDecimal> percentages = new LinkedHashMap<>();
+        if (total.compareTo(BigDecimal.ZERO) != 0) {
+            for (Map.Entry<String, BigDecimal> entry : values.entrySet()) {
+                percentages.put(entry.getKey(), percentageOf(entry.getValue(), total));
+            }
+        }
+        Map<String, BigDecimal> drift = new HashMap<>();
+        for (Map.Entry<String, BigDecimal> target : targets.entrySet()) {
+            BigDecimal actual = percentages.getOrDefault(target.getKey(), BigDecimal.ZERO);
+            drift.put(target.getKey(), actual.subtract(target.getValue()));
         }
-        return holding.getQuantity().multiply(holding.getPurchasePrice());
+
+        PortfolioSnapshotAllocation first = rows.get(0);
+        return new AllocationHistoryPointDTO(first.getSnapshotId(), first.getSnapshotDate(), values, percentages, drift);
+    }
+
+    private List<Holding> getHoldingsByPortfolio(Long portfolioId) {
+        return ReadScope.read("holdings:" + portfolioId, () -> holdingRepository.findByPortfolioId(portfolioId));
+    }
+
+    private List<PortfolioTarget> getTargetsByPortfolio(Long portfolioId) {
+        return ReadScope.read("targets:" + portfolioId, () -> portfolioTargetRepository.findByPortfolioId(portfolioId));
+    }
+
+    /**
+     * Values the portfolio's holdings in its base currency in one pass. Inside a read scope the prices and the
+     * valuation are shared with the dashboard, so every part of a composite view agrees.
+     */
+    private HoldingValuation valuation(Long portfolioId, PriceMode mode) {
+        return ReadScope.read("valuation:" + mode + ":" + portfolioId, () -> {
+            List<Holding> holdings = getHoldingsByPortfolio(portfolioId);
+            List<BigDecimal> prices = ReadScope.read("prices:" + mode + ":" + portfolioId, () -> {
+                List<BigDecimal> read = new ArrayList<>(holdings.size());
+                for (Holding holding : holdings) {
+                    read.add(mode == PriceMode.LIVE
+                            ? livePriceCache.priceOf(holding, mode) : holding.getCurrentPrice());
+                }
+                return read;
+            });
+            String baseCurrency = ReadScope.read("baseCurrency:" + portfolioId,
+                    () -> portfolioRepository.findBaseCurrencyById(portfolioId));
+            return HoldingValuation.of(holdings, prices, baseCurrency, LocalDate.now(), fxRateCache);
+        });
     }
 
     private BigDecimal percentageOf(BigDecimal value, BigDecimal total) {
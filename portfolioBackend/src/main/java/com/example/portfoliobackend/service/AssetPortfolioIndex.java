@@ -0,0 +1,151 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.event.HoldingsChangedEvent;
+import com.example.portfoliobackend.repository.HoldingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory inverted index from asset name to the IDs of the portfolios holding it, so a price change can reach
+ * exactly the affected portfolios without scanning. Each asset's portfolios sit in a {@link LongHashSet}, which
+ * keeps an asset held by 100k portfolios to about a megabyte; a forward map of each portfolio's asset names lets a
+ * holding change be applied as a diff.
+ * <p>
+ * Built from {@code holdings} on startup and refreshed per portfolio after every committed holding change. Both
+ * query the database under a {@link ReentrantLock} rather than a monitor, so a virtual thread waiting on MySQL
+ * does not pin its carrier.
+ */
+@Service
+public class AssetPortfolioIndex {
+
+    private static final String REBUILD_SQL = "SELECT DISTINCT portfolio_id, asset_name FROM holdings";
+    private static final String[] NO_ASSETS = new String[0];
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    // Replaced whole by a rebuild, so readers see the old index or the new one and never an empty one in between
+    private volatile ConcurrentMap<String, LongHashSet> portfoliosByAsset = new ConcurrentHashMap<>();
+    private volatile ConcurrentMap<Long, String[]> assetsByPortfolio = new ConcurrentHashMap<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        refreshLock.lock();
+        try {
+            ConcurrentMap<String, LongHashSet> byAsset = new ConcurrentHashMap<>();
+            Map<Long, Set<String>> byPortfolio = new HashMap<>();
+            jdbcTemplate.query(REBUILD_SQL, resultSet -> {
+                long portfolioId = resultSet.getLong(1);
+                String assetName = resultSet.getString(2);
+                if (assetName != null) {
+                    byAsset.computeIfAbsent(assetName, name -> new LongHashSet()).add(portfolioId);
+                    byPortfolio.computeIfAbsent(portfolioId, id -> new HashSet<>()).add(assetName);
+                }
+            });
+            ConcurrentMap<Long, String[]> assets = new ConcurrentHashMap<>();
+            byPortfolio.forEach((portfolioId, names) -> assets.put(portfolioId, names.toArray(NO_ASSETS)));
+            assetsByPortfolio = assets;
+            portfoliosByAsset = byAsset;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldingsChanged(HoldingsChangedEvent event) {
+        if (event.getPortfolioId() != null) {
+            refreshPortfolio(event.getPortfolioId());
+        }
+    }
+
+    /**
+     * Re-reads the portfolio's assets and moves it in or out of each asset's set as needed.
+     */
+    public void refreshPortfolio(long portfolioId) {
+        refreshLock.lock();
+        try {
+            List<String> current = holdingRepository.findDistinctAssetNamesByPortfolioId(portfolioId);
+            String[] previous = assetsByPortfolio.getOrDefault(portfolioId, NO_ASSETS);
+            Set<String> currentSet = new HashSet<>(current);
+            for (String assetName : previous) {
+                if (!currentSet.contains(assetName)) {
+                    removePortfolio(assetName, portfolioId);
+                }
+            }
+            Set<String> previousSet = new HashSet<>(Arrays.asList(previous));
+            for (String assetName : currentSet) {
+                if (!previousSet.contains(assetName)) {
+                    addPortfolio(assetName, portfolioId);
+                }
+            }
+            if (currentSet.isEmpty()) {
+                assetsByPortfolio.remove(portfolioId);
+            } else {
+                assetsByPortfolio.put(portfolioId, currentSet.toArray(NO_ASSETS));
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * IDs of the portfolios holding any of {@code assetNames}, each once.
+     */
+    public LongHashSet portfoliosHolding(Collection<String> assetNames) {
+        LongHashSet affected = new LongHashSet();
+        for (String assetName : assetNames) {
+            LongHashSet portfolios = portfoliosByAsset.get(assetName);
+            if (portfolios != null) {
+                synchronized (portfolios) {
+                    portfolios.forEach(affected::add);
+                }
+            }
+        }
+        return affected;
+    }
+
+    public int portfolioCount(String assetName) {
+        LongHashSet portfolios = portfoliosByAsset.get(assetName);
+        if (portfolios == null) {
+            return 0;
+        }
+        synchronized (portfolios) {
+            return portfolios.size();
+        }
+    }
+
+    private void addPortfolio(String assetName, long portfolioId) {
+        LongHashSet portfolios = portfoliosByAsset.computeIfAbsent(assetName, name -> new LongHashSet());
+        synchronized (portfolios) {
+            portfolios.add(portfolioId);
+        }
+    }
+
+    private void removePortfolio(String assetName, long portfolioId) {
+        portfoliosByAsset.computeIfPresent(assetName, (name, portfolios) -> {
+            synchronized (portfolios) {
+                portfolios.remove(portfolioId);
+                return portfolios.isEmpty() ? null : portfolios;
+            }
+        });
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.CorporateActionDTO;
+import com.example.portfoliobackend.entity.CorporateAction;
+import com.example.portfoliobackend.event.PricesChangedEvent;
+import com.example.portfoliobackend.repository.CorporateActionRepository;
+import com.example.portfoliobackend.repository.HoldingRepository;
+import com.example.portfoliobackend.repository.JdbcBatchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Objects;
+
+/**
+ * Applies splits, bonus issues and reverse splits to every holding of an asset with set-based updates. Registering
+ * an action records it and restates the asset's earlier prices in one transaction; holdings are then adjusted one
+ * portfolio ID range per transaction, so no lock is held across the whole table. Each range is claimed by moving the
+ * action's progress marker in the same transaction that adjusts it, which makes a repeated or resumed action ID
+ * carry on where the last committed range ended instead of adjusting a holding twice.
+ */
+@Service
+public class CorporateActionService {
+
+    static final String STATUS_PENDING = "PENDING";
+    static final String STATUS_APPLIED = "APPLIED";
+
+    @Autowired
+    private CorporateActionRepository corporateActionRepository;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private JdbcBatchRepository jdbcBatchRepository;
+
+    @Autowired
+    private LivePriceCache livePriceCache;
+
+    @Autowired
+    private PriceHistoryCache priceHistoryCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${portfolio.corporate-actions.chunk-size:1000}")
+    private long chunkSize = 1000;
+
+    public CorporateActionDTO getAction(String actionId) {
+        return corporateActionRepository.findById(actionId).map(this::toDTO).orElse(null);
+    }
+
+    /**
+     * Applies the action, or finishes applying it if an earlier run with the same ID stopped part way. Returns null
+     * if the ID is already taken by a different action.
+     */
+    public CorporateActionDTO apply(CorporateActionDTO request) {
+        CorporateActionType type = CorporateActionType.fromName(request.getActionType());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CorporateAction action = corporateActionRepository.findById(request.getActionId()).orElse(null);
+        if (action == null) {
+            action = register(transactionTemplate, request, type);
+        }
+        if (!sameAction(action, request, type)) {
+            return null;
+        }
+        if (STATUS_APPLIED.equals(action.getStatus())) {
+            return toDTO(action);
+        }
+
+        String actionId = action.getActionId();
+        int numerator = type.numerator(action.getNewShares(), action.getOldShares());
+        int denominator = type.denominator(action.getNewShares(), action.getOldShares());
+        Long maxPortfolioId = holdingRepository.findMaxPortfolioIdByAssetName(action.getAssetName());
+        long last = maxPortfolioId == null ? 0 : maxPortfolioId;
+        boolean finished = true;
+        for (long from = action.getLastPortfolioId(); from < last; from += chunkSize) {
+            long start = from;
+            long end = Math.min(last, from + chunkSize);
+            CorporateAction current = action;
+            Boolean claimed = transactionTemplate.execute(status -> {
+                if (corporateActionRepository.claimRange(actionId, start, end) == 0) {
+                    return false;
+                }
+                long adjusted = jdbcBatchRepository.adjustHoldingsForCorporateAction(current.getAssetName(),
+                        current.getExDate(), numerator, denominator, start, end);
+                corporateActionRepository.addHoldingsAdjusted(actionId, adjusted);
+                // Holdings in this range are now restated, so their cached views are stale from this commit on
+                eventPublisher.publishEvent(new PricesChangedEvent(Collections.singletonList(current.getAssetName())));
+                return true;
+            });
+            if (!Boolean.TRUE.equals(claimed)) {
+                // Another run of this action is ahead of this one and will finish it
+                finished = false;
+                break;
+            }
+        }
+        if (finished) {
+            transactionTemplate.execute(status -> corporateActionRepository.markApplied(actionId, LocalDateTime.now()));
+        }
+        return corporateActionRepository.findById(actionId).map(this::toDTO).orElse(null);
+    }
+
+    private CorporateAction register(TransactionTemplate transactionTemplate, CorporateActionDTO request,
+                                     CorporateActionType type) {
+        CorporateAction pending = new CorporateAction();
+        pending.setActionId(request.getActionId());
+        pending.setAssetName(request.getAssetName());
+        pending.setActionType(type.name());
+        pending.setNewShares(request.getNewShares());
+        pending.setOldShares(request.getOldShares());
+        pending.setExDate(request.getExDate());
+        pending.setStatus(STATUS_PENDING);
+        pending.setLastPortfolioId(0L);
+        pending.setHoldingsAdjusted(0L);
+        pending.setCreatedAt(LocalDateTime.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                corporateActionRepository.insert(pending);
+                jdbcBatchRepository.adjustPricesForCorporateAction(pending.getAssetName(), pending.getExDate(),
+                        type.numerator(pending.getNewShares(), pending.getOldShares()),
+                        type.denominator(pending.getNewShares(), pending.getOldShares()));
+                priceHistoryCache.evict(Collections.singletonList(pending.getAssetName()));
+                eventPublisher.publishEvent(new PricesChangedEvent(Collections.singletonList(pending.getAssetName())));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Registered concurrently under the same ID; carry on with that registration
+            return corporateActionRepository.findById(request.getActionId()).orElseThrow(() -> e);
+        }
+        // Restate the live price the same way rather than reloading the stored one, whose truncated timestamp
+        // would lose to the pre-split tick the cache already holds
+        livePriceCache.restate(pending.getAssetName(), pending.getExDate().atStartOfDay(),
+                type.numerator(pending.getNewShares(), pending.getOldShares()),
+                type.denominator(pending.getNewShares(), pending.getOldShares()));
+        return pending;
+    }
+
+    private boolean sameAction(CorporateAction action, CorporateActionDTO request, CorporateActionType type) {
+        return Objects.equals(action.getAssetName(), request.getAssetName())
+                && Objects.equals(action.getActionType(), type.name())
+                && Objects.equals(action.getNewShares(), request.getNewShares())
+                && Objects.equals(action.getOldShares(), request.getOldShares())
+                && Objects.equals(action.getExDate(), request.getExDate());
+    }
+
+    private CorporateActionDTO toDTO(CorporateAction action) {
+        return new CorporateActionDTO(action.getActionId(), action.getAssetName(), action.getActionType(),
+                action.getNewShares(), action.getOldShares(), action.getExDate(), action.getStatus(),
+                action.getHoldingsAdjusted(), action.getAppliedAt());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.portfoliobackend.service;
+
+/**
+ * Kinds of corporate action that change the number of shares held without changing what they are worth. Each is
+ * applied as the ratio {@link #numerator} / {@link #denominator} of post-action to pre-action shares.
+ */
+public enum CorporateActionType {
+    SPLIT,
+    BONUS,
+    REVERSE_SPLIT;
+
+    public static CorporateActionType fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = name.trim().toUpperCase();
+        for (CorporateActionType type : values()) {
+            if (type.name().equals(normalized)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether {@code newShares} for {@code oldShares} is a valid ratio for this kind of action.
+     */
+    public boolean accepts(int newShares, int oldShares) {
+        if (newShares <= 0 || oldShares <= 0) {
+            return false;
+        }
+        switch (this) {
+            case SPLIT:
+                return newShares > oldShares;
+            case REVERSE_SPLIT:
+                return newShares < oldShares;
+            default:
+                return true;
+        }
+    }
+
+    public int numerator(int newShares, int oldShares) {
+        return this == BONUS ? oldShares + newShares : newShares;
+    }
+
+    public int denominator(int newShares, int oldShares) {
+        return oldShares;
+    }
+}
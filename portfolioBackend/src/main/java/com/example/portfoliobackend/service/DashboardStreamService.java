@@ -0,0 +1,280 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.PortfolioDashboardDTO;
+import com.example.portfoliobackend.event.HoldingsChangedEvent;
+import com.example.portfoliobackend.event.PricesChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes dashboard updates to Server-Sent Events subscribers. Holding and price changes only mark the affected
+ * subscriptions dirty, price changes finding their portfolios through the {@link AssetPortfolioIndex}. A pump
+ * running every {@code portfolio.dashboard-stream.pump-interval-ms} rebuilds each dirty portfolio's dashboard once
+ * per price mode and sends it to every subscriber whose rate budget allows. Bursts of changes therefore collapse
+ * into at most {@code portfolio.dashboard-stream.max-updates-per-second} events per subscriber, and a subscriber
+ * held back stays dirty and gets the newest dashboard on a later pass.
+ * <p>
+ * The pump runs on a thread of its own rather than the shared scheduler, so rebuilding dashboards never delays
+ * other scheduled work such as tick flushes. Sends are handed to a small pool with at most one send in flight per
+ * subscriber: a slow client only holds back its own updates, and while its send is pending the pump skips it
+ * without building anything for it.
+ */
+@Service
+public class DashboardStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStreamService.class);
+
+    static final String EVENT_NAME = "dashboard";
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private AssetPortfolioIndex assetPortfolioIndex;
+
+    @Value("${portfolio.dashboard-stream.max-updates-per-second:2}")
+    private int maxUpdatesPerSecond = 2;
+
+    @Value("${portfolio.dashboard-stream.timeout-ms:1800000}")
+    private long timeoutMs = 1800000;
+
+    @Value("${portfolio.dashboard-stream.pump-interval-ms:100}")
+    private long pumpIntervalMs = 100;
+
+    @Value("${portfolio.dashboard-stream.send-threads:4}")
+    private int sendThreads = 4;
+
+    private final ConcurrentMap<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private ScheduledExecutorService pumpExecutor;
+    private Executor sender;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger count = new AtomicInteger();
+        // Unbounded queue, but each subscriber has at most one send queued or running
+        ThreadPoolExecutor senders = new ThreadPoolExecutor(sendThreads, sendThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> daemon(runnable, "dashboard-stream-send-" + count.incrementAndGet()));
+        senders.allowCoreThreadTimeOut(true);
+        sender = senders;
+        pumpExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "dashboard-stream-pump"));
+        pumpExecutor.scheduleWithFixedDelay(this::pumpSafely, pumpIntervalMs, pumpIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pumpExecutor != null) {
+            pumpExecutor.shutdownNow();
+        }
+        if (sender instanceof ExecutorService senders) {
+            senders.shutdownNow();
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Opens a stream that starts with the current dashboard, or returns null if the portfolio does not exist.
+     */
+    public SseEmitter subscribe(Long portfolioId, PriceMode mode) {
+        PortfolioDashboardDTO dashboard = portfolioService.getPortfolioDashboard(portfolioId, mode);
+        if (dashboard == null) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = new Subscription(portfolioId, mode, emitter);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(error -> remove(subscription));
+        subscriptions.compute(portfolioId, (id, current) -> {
+            Set<Subscription> set = current == null ? ConcurrentHashMap.newKeySet() : current;
+            set.add(subscription);
+            return set;
+        });
+        subscription.send(dashboard, System.nanoTime());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldingsChanged(HoldingsChangedEvent event) {
+        markDirty(event.getPortfolioId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricesChanged(PricesChangedEvent event) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        LongHashSet affected = assetPortfolioIndex.portfoliosHolding(event.getAssetNames());
+        // Walk whichever side is smaller: a popular asset can be held by far more portfolios than are watched
+        if (affected.size() > subscriptions.size()) {
+            for (Long portfolioId : subscriptions.keySet()) {
+                if (affected.contains(portfolioId)) {
+                    markDirty(portfolioId);
+                }
+            }
+        } else {
+            affected.forEach(this::markDirty);
+        }
+    }
+
+    // A task that throws is never run again by its executor, so one failed pass must not end the stream
+    private void pumpSafely() {
+        try {
+            pump();
+        } catch (RuntimeException e) {
+            log.warn("Dashboard stream pump failed; retrying on the next pass", e);
+        }
+    }
+
+    public void pump() {
+        long now = System.nanoTime();
+        long minIntervalNanos = 1_000_000_000L / Math.max(1, maxUpdatesPerSecond);
+        for (Map.Entry<Long, Set<Subscription>> entry : subscriptions.entrySet()) {
+            // Clear the flags before building, so a change that lands mid-build marks the subscriber dirty again
+            List<Subscription> due = new ArrayList<>();
+            for (Subscription subscription : entry.getValue()) {
+                if (subscription.isDue(now, minIntervalNanos)) {
+                    subscription.dirty.set(false);
+                    due.add(subscription);
+                }
+            }
+            if (due.isEmpty()) {
+                continue;
+            }
+            Map<PriceMode, PortfolioDashboardDTO> dashboards = new EnumMap<>(PriceMode.class);
+            int handled = 0;
+            try {
+                for (Subscription subscription : due) {
+                    PortfolioDashboardDTO dashboard = dashboards.computeIfAbsent(subscription.mode,
+                            mode -> portfolioService.getPortfolioDashboard(entry.getKey(), mode));
+                    if (dashboard == null) {
+                        subscription.emitter.complete();
+                    } else {
+                        subscription.deliver(dashboard, now);
+                    }
+                    handled++;
+                }
+            } catch (RuntimeException e) {
+                // Their flags were cleared up front; without this the change would wait for the next one
+                for (Subscription subscription : due.subList(handled, due.size())) {
+                    subscription.dirty.set(true);
+                }
+                log.warn("Could not build the dashboard for portfolio {}; retrying on the next pass",
+                        entry.getKey(), e);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void markDirty(Long portfolioId) {
+        if (portfolioId == null) {
+            return;
+        }
+        Set<Subscription> subscribers = subscriptions.get(portfolioId);
+        if (subscribers != null) {
+            for (Subscription subscription : subscribers) {
+                subscription.dirty.set(true);
+            }
+        }
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.portfolioId, (id, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Subscription {
+        private final Long portfolioId;
+        private final PriceMode mode;
+        private final SseEmitter emitter;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final ReentrantLock sendLock = new ReentrantLock();
+        private volatile long lastSentNanos;
+
+        private Subscription(Long portfolioId, PriceMode mode, SseEmitter emitter) {
+            this.portfolioId = portfolioId;
+            this.mode = mode;
+            this.emitter = emitter;
+        }
+
+        private boolean isDue(long now, long minIntervalNanos) {
+            return dirty.get() && !sending.get() && now - lastSentNanos >= minIntervalNanos;
+        }
+
+        /**
+         * Sends on the pool unless a send to this subscriber is still pending, in which case it stays dirty.
+         */
+        private void deliver(PortfolioDashboardDTO dashboard, long now) {
+            if (!sending.compareAndSet(false, true)) {
+                dirty.set(true);
+                return;
+            }
+            try {
+                sender.execute(() -> {
+                    try {
+                        send(dashboard, now);
+                    } finally {
+                        sending.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                sending.set(false);
+                dirty.set(true);
+            }
+        }
+
+        // Writes to the socket, so a lock rather than a monitor: a blocked virtual thread must not pin its carrier
+        private void send(PortfolioDashboardDTO dashboard, long now) {
+            sendLock.lock();
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(dashboard, MediaType.APPLICATION_JSON));
+                lastSentNanos = now;
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed
+                remove(this);
+                emitter.completeWithError(e);
+            } finally {
+                sendLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.portfoliobackend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool that runs the independent reads behind a composite view at the same time, so the view waits for its
+ * slowest read rather than the sum of them. Every read has its own deadline, and one that fails or misses it is
+ * reported as unavailable instead of failing the view. A read that has started is left to finish in the background,
+ * but one still queued when its deadline passes is skipped, so a backlog is not worked off for views that have
+ * already given up on it. When every thread is busy and the queue is full, a read runs on the calling thread,
+ * which falls back to sequential reads instead of rejecting the request.
+ */
+@Service
+public class FanOutExecutor {
+
+    @Value("${portfolio.fan-out.threads:8}")
+    private int threads = 8;
+
+    @Value("${portfolio.fan-out.queue-capacity:256}")
+    private int queueCapacity = 256;
+
+    @Value("${portfolio.fan-out.timeout-ms:2000}")
+    private long timeoutMs = 2000;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "fan-out-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts {@code read} on the pool; the returned future completes exceptionally once the deadline passes.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> read) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            if (result.isDone() || System.nanoTime() - deadline >= 0) {
+                result.completeExceptionally(new TimeoutException("Read expired while queued"));
+                return;
+            }
+            try {
+                result.complete(read.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits for {@code read} and returns its result, or adds {@code part} to {@code unavailable} and returns null if
+     * it failed or timed out.
+     */
+    public <T> T await(CompletableFuture<T> read, String part, Collection<String> unavailable) {
+        try {
+            return read.join();
+        } catch (CompletionException | CancellationException e) {
+            unavailable.add(part);
+            return null;
+        }
+    }
+}
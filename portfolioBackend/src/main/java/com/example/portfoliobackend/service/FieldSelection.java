@@ -0,0 +1,183 @@
+package com.example.portfoliobackend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.util.ClassUtil;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The properties a client asked for with {@code ?fields=}, as a tree: {@code totalValue,holdings.assetName} selects
+ * {@code totalValue} and, inside each holding, only {@code assetName}. Naming a property without a path selects all
+ * of it. Services consult it to skip derived values nobody asked for, and controllers hand {@link #filter()} to
+ * Jackson so unselected properties of types marked {@code @JsonFilter(FILTER_ID)} are skipped as the response is
+ * written.
+ */
+public final class FieldSelection {
+
+    public static final String FILTER_ID = "fieldSelection";
+
+    private static final FieldSelection ALL = new FieldSelection(null);
+
+    // null selects every property
+    private final Map<String, FieldSelection> fields;
+
+    private FieldSelection(Map<String, FieldSelection> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    /**
+     * Parses a comma-separated list of dotted property paths. A blank list selects everything; a list with an empty
+     * path or path segment returns null.
+     */
+    public static FieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Map<String, Map<String, Object>> tree = new HashMap<>();
+        for (String path : fields.split(",", -1)) {
+            String[] segments = path.trim().split("\\.", -1);
+            Map<String, Map<String, Object>> level = tree;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i].trim();
+                if (segment.isEmpty()) {
+                    return null;
+                }
+                boolean last = i == segments.length - 1;
+                if (last) {
+                    // A whole property wins over any narrower selection inside it
+                    level.put(segment, null);
+                } else if (level.containsKey(segment) && level.get(segment) == null) {
+                    break;
+                } else {
+                    level = castChildren(level.computeIfAbsent(segment, key -> new HashMap<>()));
+                }
+            }
+        }
+        return build(tree);
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.containsKey(field);
+    }
+
+    public boolean includesAny(String... names) {
+        for (String name : names) {
+            if (includes(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The selection inside {@code field}, or an empty selection if the field is not selected at all.
+     */
+    public FieldSelection nested(String field) {
+        if (fields == null) {
+            return ALL;
+        }
+        if (!fields.containsKey(field)) {
+            return new FieldSelection(Collections.emptyMap());
+        }
+        FieldSelection inner = fields.get(field);
+        return inner == null ? ALL : inner;
+    }
+
+    /**
+     * Whether every selected path names a property {@code type} is serialized with, looking through collections and
+     * arrays to their elements. Paths into a map are not checked, and a path cannot go inside a JDK value type.
+     */
+    public boolean isValidFor(JavaType type, SerializationConfig config) {
+        if (fields == null) {
+            return true;
+        }
+        JavaType bean = type;
+        while (bean.isCollectionLikeType() || bean.isArrayType()) {
+            bean = bean.getContentType();
+        }
+        if (bean.isMapLikeType()) {
+            return true;
+        }
+        if (ClassUtil.isJDKClass(bean.getRawClass())) {
+            return false;
+        }
+        Map<String, JavaType> properties = new HashMap<>();
+        for (BeanPropertyDefinition property : config.introspect(bean).findProperties()) {
+            if (property.couldSerialize()) {
+                properties.put(property.getName(), property.getPrimaryType());
+            }
+        }
+        for (Map.Entry<String, FieldSelection> field : fields.entrySet()) {
+            JavaType propertyType = properties.get(field.getKey());
+            if (propertyType == null
+                    || (field.getValue() != null && !field.getValue().isValidFor(propertyType, config))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A Jackson filter that writes only the selected properties, registered under {@link #FILTER_ID}.
+     */
+    public PropertyFilter filter() {
+        return new SelectionFilter(this);
+    }
+
+    private static FieldSelection build(Map<String, Map<String, Object>> tree) {
+        Map<String, FieldSelection> fields = new HashMap<>();
+        tree.forEach((name, children) -> fields.put(name, children == null ? null : build(castChildren(children))));
+        return new FieldSelection(fields);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> castChildren(Map<String, Object> children) {
+        return (Map<String, Map<String, Object>>) (Map<String, ?>) children;
+    }
+
+    private static final class SelectionFilter extends SimpleBeanPropertyFilter {
+        private final FieldSelection root;
+
+        private SelectionFilter(FieldSelection root) {
+            this.root = root;
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            if (selectionAt(generator.getOutputContext()).includes(writer.getName())) {
+                writer.serializeAsField(pojo, generator, provider);
+            } else if (!generator.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, generator, provider);
+            }
+        }
+
+        // The selection for the object being written, from the names of the properties it sits under
+        private FieldSelection selectionAt(JsonStreamContext context) {
+            JsonStreamContext parent = context.getParent();
+            if (parent == null) {
+                return root;
+            }
+            FieldSelection outer = selectionAt(parent);
+            return parent.inObject() ? outer.nested(parent.getCurrentName()) : outer;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.entity.FxRate;
+import com.example.portfoliobackend.repository.FxRateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Daily FX rates per currency pair, held in memory as day-sorted arrays so a rate as of any date is a binary search.
+ * A pair without a stored rate is served from its inverse, or crossed through
+ * {@code portfolio.fx.pivot-currency}. Loaded from {@code fx_rates} on startup and refreshed per pair after each
+ * committed import.
+ */
+@Service
+public class FxRateCache {
+
+    private static final MathContext RATE_CONTEXT = MathContext.DECIMAL64;
+
+    @Autowired
+    private FxRateRepository fxRateRepository;
+
+    @Value("${portfolio.fx.pivot-currency:USD}")
+    private String pivotCurrency = "USD";
+
+    private final ConcurrentMap<String, RateSeries> seriesByPair = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Map<String, List<FxRate>> byPair = new HashMap<>();
+        for (FxRate rate : fxRateRepository.findAllOrderByPairAndDate()) {
+            byPair.computeIfAbsent(pairKey(rate.getBaseCurrency(), rate.getQuoteCurrency()), key -> new ArrayList<>())
+                    .add(rate);
+        }
+        seriesByPair.clear();
+        byPair.forEach((pair, rates) -> seriesByPair.put(pair, RateSeries.of(rates)));
+    }
+
+    /**
+     * Re-reads every pair among {@code written} once the current transaction commits.
+     */
+    public void refresh(Collection<FxRate> written) {
+        Map<String, FxRate> pairs = new LinkedHashMap<>();
+        for (FxRate rate : written) {
+            pairs.putIfAbsent(pairKey(rate.getBaseCurrency(), rate.getQuoteCurrency()), rate);
+        }
+        AfterCommit.run(() -> pairs.forEach((key, pair) -> {
+            List<FxRate> rates = fxRateRepository.findByPairOrderByRateDate(pair.getBaseCurrency(), pair.getQuoteCurrency());
+            if (rates.isEmpty()) {
+                seriesByPair.remove(key);
+            } else {
+                seriesByPair.put(key, RateSeries.of(rates));
+            }
+        }));
+    }
+
+    /**
+     * Units of {@code to} per unit of {@code from} as of {@code date}, or null if no direct, inverse or pivot rate
+     * is known on or before that date.
+     */
+    public BigDecimal rate(String from, String to, LocalDate date) {
+        if (from == null || to == null || from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        BigDecimal direct = pairRate(from, to, date);
+        if (direct != null || from.equals(pivotCurrency) || to.equals(pivotCurrency)) {
+            return direct;
+        }
+        BigDecimal toPivot = pairRate(from, pivotCurrency, date);
+        BigDecimal fromPivot = toPivot == null ? null : pairRate(pivotCurrency, to, date);
+        return fromPivot == null ? null : toPivot.multiply(fromPivot, RATE_CONTEXT);
+    }
+
+    /**
+     * The rate into {@code target} for each of {@code currencies} that has one, looked up once per currency.
+     */
+    public Map<String, BigDecimal> ratesInto(String target, Collection<String> currencies, LocalDate date) {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String currency : currencies) {
+            if (!rates.containsKey(currency)) {
+                BigDecimal rate = rate(currency, target, date);
+                if (rate != null) {
+                    rates.put(currency, rate);
+                }
+            }
+        }
+        return rates;
+    }
+
+    public int pairCount() {
+        return seriesByPair.size();
+    }
+
+    private BigDecimal pairRate(String from, String to, LocalDate date) {
+        RateSeries direct = seriesByPair.get(pairKey(from, to));
+        BigDecimal rate = direct == null ? null : direct.asOf(date);
+        if (rate != null) {
+            return rate;
+        }
+        RateSeries inverse = seriesByPair.get(pairKey(to, from));
+        BigDecimal inverseRate = inverse == null ? null : inverse.asOf(date);
+        return inverseRate == null || inverseRate.signum() == 0 ? null : BigDecimal.ONE.divide(inverseRate, RATE_CONTEXT);
+    }
+
+    private static String pairKey(String base, String quote) {
+        return base + '/' + quote;
+    }
+
+    private static final class RateSeries {
+        private final int[] epochDays;
+        private final BigDecimal[] rates;
+
+        private RateSeries(int[] epochDays, BigDecimal[] rates) {
+            this.epochDays = epochDays;
+            this.rates = rates;
+        }
+
+        private static RateSeries of(List<FxRate> ascending) {
+            int[] days = new int[ascending.size()];
+            BigDecimal[] rates = new BigDecimal[ascending.size()];
+            for (int i = 0; i < ascending.size(); i++) {
+                days[i] = (int) ascending.get(i).getRateDate().toEpochDay();
+                rates[i] = ascending.get(i).getRate();
+            }
+            return new RateSeries(days, rates);
+        }
+
+        private BigDecimal asOf(LocalDate date) {
+            long day = date.toEpochDay();
+            int low = 0;
+            int high = epochDays.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (epochDays[mid] <= day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low == 0 ? null : rates[low - 1];
+        }
+    }
+}
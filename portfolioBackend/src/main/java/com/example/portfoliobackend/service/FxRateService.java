@@ -0,0 +1,51 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.FxRateDTO;
+import com.example.portfoliobackend.entity.FxRate;
+import com.example.portfoliobackend.repository.JdbcBatchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class FxRateService {
+
+    @Autowired
+    private JdbcBatchRepository jdbcBatchRepository;
+
+    @Autowired
+    private FxRateCache fxRateCache;
+
+    @Autowired
+    private PortfolioVersions portfolioVersions;
+
+    @Transactional
+    public int importRates(List<FxRateDTO> rates) {
+        List<FxRate> rows = new ArrayList<>(rates.size());
+        for (FxRateDTO dto : rates) {
+            FxRate row = new FxRate();
+            row.setBaseCurrency(dto.getBaseCurrency());
+            row.setQuoteCurrency(dto.getQuoteCurrency());
+            row.setRateDate(dto.getRateDate());
+            row.setRate(dto.getRate());
+            rows.add(row);
+        }
+        int imported = jdbcBatchRepository.upsertFxRates(rows);
+        fxRateCache.refresh(rows);
+        AfterCommit.run(portfolioVersions::bumpAll);
+        return imported;
+    }
+
+    /**
+     * The rate from {@code baseCurrency} into {@code quoteCurrency} in force on {@code date}, or null if none is known.
+     */
+    public FxRateDTO getRate(String baseCurrency, String quoteCurrency, LocalDate date) {
+        BigDecimal rate = fxRateCache.rate(baseCurrency, quoteCurrency, date);
+        return rate == null ? null : new FxRateDTO(baseCurrency, quoteCurrency, date, rate);
+    }
+}
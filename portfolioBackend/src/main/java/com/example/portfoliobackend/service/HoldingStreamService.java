@@ -0,0 +1,248 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.PortfolioDashboardDTO;
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Writes holdings and dashboards as JSON straight from a JDBC cursor, one row at a time, so memory per request does
+ * not grow with the number of holdings. The output has the same shape as the buffered endpoints. MySQL only streams
+ * with {@code useCursorFetch=true} on the connection URL, which makes every other query pay for a server-side cursor,
+ * so streams read through a small pool of their own on {@code portfolio.holdings-stream.url}. Without that URL they
+ * share the application's pool.
+ */
+@Service
+public class HoldingStreamService {
+
+    private static final String HOLDINGS_SQL =
+            "SELECT holding_id, portfolio_id, asset_name, asset_type, quantity, purchase_price, current_price, " +
+                    "currency, purchase_date FROM holdings WHERE portfolio_id = ? ORDER BY holding_id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LivePriceCache livePriceCache;
+
+    @Autowired
+    private FxRateCache fxRateCache;
+
+    @Value("${portfolio.holdings-stream.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${portfolio.holdings-stream.url:}")
+    private String url;
+
+    @Value("${portfolio.holdings-stream.pool-size:5}")
+    private int poolSize = 5;
+
+    @Value("${spring.datasource.username:}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    private HikariDataSource streamDataSource;
+    private PlatformTransactionManager streamTransactionManager;
+    private JdbcTemplate jdbcTemplate;
+    private ObjectWriter writer;
+
+    @PostConstruct
+    public void start() {
+        DataSource source = dataSource;
+        streamTransactionManager = transactionManager;
+        if (url != null && !url.isBlank()) {
+            streamDataSource = new HikariDataSource();
+            streamDataSource.setPoolName("holding-stream");
+            streamDataSource.setJdbcUrl(url);
+            streamDataSource.setUsername(username);
+            streamDataSource.setPassword(password);
+            streamDataSource.setMaximumPoolSize(poolSize);
+            streamDataSource.setReadOnly(true);
+            source = streamDataSource;
+            streamTransactionManager = new DataSourceTransactionManager(streamDataSource);
+        }
+        jdbcTemplate = new JdbcTemplate(source);
+        jdbcTemplate.setFetchSize(fetchSize);
+        // Leave flushing to the servlet buffer instead of flushing after every holding
+        writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (streamDataSource != null) {
+            streamDataSource.close();
+        }
+    }
+
+    /**
+     * Writes the portfolio's holdings as a JSON array in holding ID order.
+     */
+    public void writeHoldings(Long portfolioId, OutputStream out) throws IOException {
+        JsonGenerator generator = generator(out);
+        try {
+            generator.writeStartArray();
+            forEachHolding(portfolioId, holding -> write(generator, holding));
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.flush();
+    }
+
+    /**
+     * Writes the dashboard of {@code portfolio} valued under {@code mode}. The holdings are read twice in one
+     * read-only transaction, first to total the portfolio's value for the allocations and then to write them. Live
+     * prices are taken once per asset in the first pass and reused in the second, so a tick in between cannot make
+     * the written prices disagree with the total.
+     */
+    public void writeDashboard(Portfolio portfolio, PriceMode mode, OutputStream out) throws IOException {
+        JsonGenerator generator = generator(out);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(streamTransactionManager);
+        transactionTemplate.setReadOnly(true);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    writeDashboard(generator, portfolio, mode);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.flush();
+    }
+
+    private void writeDashboard(JsonGenerator generator, Portfolio portfolio, PriceMode mode) throws IOException {
+        Long portfolioId = portfolio.getPortfolioId();
+        HoldingValuation.Accumulator accumulator = new HoldingValuation.Accumulator(portfolio.getBaseCurrency());
+        Map<String, LivePriceCache.LivePrice> livePrices = new HashMap<>();
+        LocalDateTime[] priceAsOf = new LocalDateTime[1];
+        forEachHolding(portfolioId, holding -> {
+            accumulator.add(holding, priceOf(holding, mode, livePrices));
+            LivePriceCache.LivePrice live = livePrices.get(holding.getAssetName());
+            if (live != null && (priceAsOf[0] == null || live.getAsOf().isBefore(priceAsOf[0]))) {
+                priceAsOf[0] = live.getAsOf();
+            }
+        });
+        HoldingValuation valuation = accumulator.finish(LocalDate.now(), fxRateCache);
+
+        generator.writeStartObject();
+        generator.writeNumberField("portfolioId", portfolioId);
+        generator.writeStringField("portfolioName", portfolio.getPortfolioName());
+        generator.writeStringField("baseCurrency", portfolio.getBaseCurrency());
+        generator.writeNumberField("totalValue", valuation.getTotalMarketValue());
+        generator.writeArrayFieldStart("holdings");
+        forEachHolding(portfolioId, holding -> write(generator, detail(holding, priceOf(holding, mode, livePrices), valuation)));
+        generator.writeEndArray();
+        generator.writeFieldName("createdAt");
+        writer.writeValue(generator, portfolio.getCreatedAt());
+        generator.writeFieldName("priceAsOf");
+        writer.writeValue(generator, priceAsOf[0]);
+        generator.writeFieldName("unconvertedCurrencies");
+        writer.writeValue(generator, valuation.getUnconvertedCurrencies());
+        generator.writeEndObject();
+    }
+
+    // A failure part way must leave the body truncated, not closed into valid-looking JSON
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+    }
+
+    private void forEachHolding(Long portfolioId, Consumer<Holding> action) {
+        jdbcTemplate.query(HOLDINGS_SQL, resultSet -> {
+            action.accept(holding(resultSet));
+        }, portfolioId);
+    }
+
+    private void write(JsonGenerator generator, Object value) {
+        try {
+            writer.writeValue(generator, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The holding's price under {@code mode}, taking each asset's live price from the cache only the first time and
+     * from {@code livePrices} after that.
+     */
+    private BigDecimal priceOf(Holding holding, PriceMode mode, Map<String, LivePriceCache.LivePrice> livePrices) {
+        if (mode != PriceMode.LIVE || holding.getAssetName() == null) {
+            return holding.getCurrentPrice();
+        }
+        if (!livePrices.containsKey(holding.getAssetName())) {
+            livePrices.put(holding.getAssetName(), livePriceCache.get(holding.getAssetName()));
+        }
+        LivePriceCache.LivePrice live = livePrices.get(holding.getAssetName());
+        return live == null ? holding.getCurrentPrice() : live.getPrice();
+    }
+
+    private PortfolioDashboardDTO.HoldingDetailDTO detail(Holding holding, BigDecimal price,
+                                                          HoldingValuation valuation) {
+        PortfolioDashboardDTO.HoldingDetailDTO detail = new PortfolioDashboardDTO.HoldingDetailDTO(
+                holding.getHoldingId(), holding.getAssetName(), holding.getAssetType(), holding.getQuantity(),
+                holding.getPurchasePrice(), price, holding.getCurrency(), holding.getPurchaseDate());
+        BigDecimal value = valuation.marketValue(holding, price);
+        BigDecimal totalValue = valuation.getTotalMarketValue();
+        if (totalValue.compareTo(BigDecimal.ZERO) > 0 && value != null) {
+            detail.setAllocation(value.divide(totalValue, 4, RoundingMode.HALF_UP).multiply(new BigDecimal(100)));
+        } else {
+            detail.setAllocation(BigDecimal.ZERO);
+        }
+        return detail;
+    }
+
+    private static Holding holding(ResultSet resultSet) throws SQLException {
+        Holding holding = new Holding();
+        holding.setHoldingId(resultSet.getLong(1));
+        holding.setPortfolioId(resultSet.getLong(2));
+        holding.setAssetName(resultSet.getString(3));
+        holding.setAssetType(resultSet.getString(4));
+        holding.setQuantity(resultSet.getBigDecimal(5));
+        holding.setPurchasePrice(resultSet.getBigDecimal(6));
+        holding.setCurrentPrice(resultSet.getBigDecimal(7));
+        holding.setCurrency(resultSet.getString(8));
+        Date purchaseDate = resultSet.getDate(9);
+        holding.setPurchaseDate(purchaseDate == null ? null : purchaseDate.toLocalDate());
+        return holding;
+    }
+}
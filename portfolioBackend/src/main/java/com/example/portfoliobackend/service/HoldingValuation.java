@@ -0,0 +1,208 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.entity.Holding;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Market value, cost and asset-type breakdown of a list of holdings in one currency. A single pass sums every
+ * holding in its own currency, then each currency's sums are converted with one rate looked up per currency pair,
+ * so thousands of foreign holdings cost a handful of rate lookups. Holdings without a currency are taken to be in
+ * the target currency. A currency with no known rate is counted at par, as every value was before rates existed,
+ * and reported by {@link #getUnconvertedCurrencies()} so callers can flag the figure.
+ */
+public final class HoldingValuation {
+
+    private final String currency;
+    private final String[] holdingCurrencies;
+    private final BigDecimal[] nativeValues;
+    private final Map<String, BigDecimal> rates;
+    private final BigDecimal totalMarketValue;
+    private final BigDecimal totalCost;
+    private final Map<String, BigDecimal> assetTypeValues;
+    private final Set<String> unconvertedCurrencies;
+
+    private HoldingValuation(String currency, String[] holdingCurrencies, BigDecimal[] nativeValues,
+                             Map<String, BigDecimal> rates, BigDecimal totalMarketValue, BigDecimal totalCost,
+                             Map<String, BigDecimal> assetTypeValues, Set<String> unconvertedCurrencies) {
+        this.currency = currency;
+        this.holdingCurrencies = holdingCurrencies;
+        this.nativeValues = nativeValues;
+        this.rates = rates;
+        this.totalMarketValue = totalMarketValue;
+        this.totalCost = totalCost;
+        this.assetTypeValues = assetTypeValues;
+        this.unconvertedCurrencies = unconvertedCurrencies;
+    }
+
+    /**
+     * Values {@code holdings} at {@code prices}, which line up with them by position, in {@code currency} using the
+     * FX rates in force on {@code date}. A null {@code currency} values everything as one currency.
+     */
+    public static HoldingValuation of(List<Holding> holdings, List<BigDecimal> prices, String currency,
+                                      LocalDate date, FxRateCache fxRateCache) {
+        int count = holdings.size();
+        String[] holdingCurrencies = new String[count];
+        BigDecimal[] nativeValues = new BigDecimal[count];
+        Accumulator accumulator = new Accumulator(currency);
+        for (int i = 0; i < count; i++) {
+            holdingCurrencies[i] = accumulator.currencyOf(holdings.get(i));
+            nativeValues[i] = accumulator.add(holdings.get(i), prices.get(i));
+        }
+        return accumulator.finish(date, fxRateCache, holdingCurrencies, nativeValues);
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public BigDecimal getTotalMarketValue() {
+        return totalMarketValue;
+    }
+
+    public BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    /**
+     * Market value per asset type in first-seen order. Every typed holding's type is present, at zero when none of
+     * its holdings has a quantity and price.
+     */
+    public Map<String, BigDecimal> getAssetTypeValues() {
+        return assetTypeValues;
+    }
+
+    public Set<String> getUnconvertedCurrencies() {
+        return unconvertedCurrencies;
+    }
+
+    /**
+     * Market value of the holding at {@code index}, or null if it has no quantity or price. Only valuations built by
+     * {@link #of} keep their holdings by position.
+     */
+    public BigDecimal marketValue(int index) {
+        BigDecimal value = nativeValues[index];
+        return value == null ? null : convert(value, rates.get(holdingCurrencies[index]));
+    }
+
+    /**
+     * Market value of {@code holding} at {@code price} at this valuation's rates, or null if it has no quantity or
+     * price.
+     */
+    public BigDecimal marketValue(Holding holding, BigDecimal price) {
+        if (holding.getQuantity() == null || price == null) {
+            return null;
+        }
+        String holdingCurrency = currency == null || holding.getCurrency() == null ? currency : holding.getCurrency();
+        BigDecimal rate = rates.get(holdingCurrency);
+        return convert(holding.getQuantity().multiply(price), rate == null ? BigDecimal.ONE : rate);
+    }
+
+    private static BigDecimal sumConverted(Map<String, BigDecimal> byCurrency, Map<String, BigDecimal> rates) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<String, BigDecimal> entry : byCurrency.entrySet()) {
+            total = total.add(convert(entry.getValue(), rates.get(entry.getKey())));
+        }
+        return total;
+    }
+
+    static BigDecimal convert(BigDecimal amount, BigDecimal rate) {
+        if (rate.compareTo(BigDecimal.ONE) == 0) {
+            return amount;
+        }
+        return amount.multiply(rate).setScale(Math.max(2, amount.scale()), RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Sums holdings one at a time in their own currencies, so a valuation can be built from a stream of holdings
+     * without keeping them. {@link #finish} converts the sums with one rate per currency pair.
+     */
+    public static final class Accumulator {
+        private final String currency;
+        private final Map<String, BigDecimal> marketByCurrency = new HashMap<>();
+        private final Map<String, BigDecimal> costByCurrency = new HashMap<>();
+        private final Map<String, Map<String, BigDecimal>> typeValuesByCurrency = new HashMap<>();
+        private final Set<String> assetTypes = new LinkedHashSet<>();
+
+        public Accumulator(String currency) {
+            this.currency = currency;
+        }
+
+        /**
+         * Adds {@code holding} at {@code price} and returns its market value in its own currency, or null if it
+         * has no quantity or price.
+         */
+        public BigDecimal add(Holding holding, BigDecimal price) {
+            String holdingCurrency = currencyOf(holding);
+            if (holding.getAssetType() != null) {
+                assetTypes.add(holding.getAssetType());
+            }
+            if (holding.getQuantity() == null) {
+                return null;
+            }
+            BigDecimal value = null;
+            if (price != null) {
+                value = holding.getQuantity().multiply(price);
+                marketByCurrency.merge(holdingCurrency, value, BigDecimal::add);
+                if (holding.getAssetType() != null) {
+                    typeValuesByCurrency.computeIfAbsent(holdingCurrency, key -> new HashMap<>())
+                            .merge(holding.getAssetType(), value, BigDecimal::add);
+                }
+            }
+            if (holding.getPurchasePrice() != null) {
+                costByCurrency.merge(holdingCurrency, holding.getQuantity().multiply(holding.getPurchasePrice()),
+                        BigDecimal::add);
+            }
+            return value;
+        }
+
+        /**
+         * The valuation of every holding added so far, at the FX rates in force on {@code date}.
+         */
+        public HoldingValuation finish(LocalDate date, FxRateCache fxRateCache) {
+            return finish(date, fxRateCache, new String[0], new BigDecimal[0]);
+        }
+
+        private String currencyOf(Holding holding) {
+            return currency == null || holding.getCurrency() == null ? currency : holding.getCurrency();
+        }
+
+        private HoldingValuation finish(LocalDate date, FxRateCache fxRateCache, String[] holdingCurrencies,
+                                        BigDecimal[] nativeValues) {
+            Set<String> foreign = new HashSet<>(marketByCurrency.keySet());
+            foreign.addAll(costByCurrency.keySet());
+            foreign.remove(currency);
+            Map<String, BigDecimal> rates = new HashMap<>();
+            if (!foreign.isEmpty()) {
+                rates.putAll(fxRateCache.ratesInto(currency, foreign, date));
+            }
+            rates.put(currency, BigDecimal.ONE);
+            Set<String> unconverted = new TreeSet<>(foreign);
+            unconverted.removeAll(rates.keySet());
+            for (String missing : unconverted) {
+                rates.put(missing, BigDecimal.ONE);
+            }
+
+            Map<String, BigDecimal> assetTypeValues = new LinkedHashMap<>();
+            for (String assetType : assetTypes) {
+                assetTypeValues.put(assetType, BigDecimal.ZERO);
+            }
+            typeValuesByCurrency.forEach((holdingCurrency, values) -> values.forEach((assetType, value) ->
+                    assetTypeValues.merge(assetType, convert(value, rates.get(holdingCurrency)), BigDecimal::add)));
+            return new HoldingValuation(currency, holdingCurrencies, nativeValues, rates,
+                    sumConverted(marketByCurrency, rates), sumConverted(costByCurrency, rates),
+                    assetTypeValues, Collections.unmodifiableSet(unconverted));
+        }
+    }
+}
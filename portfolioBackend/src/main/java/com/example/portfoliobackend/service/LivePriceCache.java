@@ -0,0 +1,135 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.entity.AssetPrice;
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.repository.AssetPriceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Latest known price per asset, updated by every tick and price update before anything reaches the database.
+ * Entries are immutable and swapped in with compare-and-set, so readers never block and never see a price
+ * without its timestamp. Warmed from {@code asset_prices} on startup.
+ */
+@Service
+public class LivePriceCache {
+
+    @Autowired
+    private AssetPriceRepository assetPriceRepository;
+
+    private final ConcurrentMap<String, LivePrice> prices = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (AssetPrice price : assetPriceRepository.findAll()) {
+            update(price.getAssetName(), price.getPrice(), price.getUpdatedAt());
+        }
+    }
+
+    /**
+     * Records {@code price} unless a newer one is already held for the asset.
+     */
+    public void update(String assetName, BigDecimal price, LocalDateTime asOf) {
+        if (assetName == null || price == null || asOf == null) {
+            return;
+        }
+        LivePrice candidate = new LivePrice(price, asOf);
+        while (true) {
+            LivePrice current = prices.get(assetName);
+            if (current == null) {
+                if (prices.putIfAbsent(assetName, candidate) == null) {
+                    return;
+                }
+            } else if (candidate.asOf.isBefore(current.asOf)) {
+                return;
+            } else if (prices.replace(assetName, current, candidate)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Scales the asset's price by {@code denominator / numerator} if it is from before {@code before}, keeping its
+     * timestamp, the way a corporate action restates the stored prices. A newer tick is left as it is.
+     */
+    public void restate(String assetName, LocalDateTime before, int numerator, int denominator) {
+        while (true) {
+            LivePrice current = prices.get(assetName);
+            if (current == null || !current.asOf.isBefore(before)) {
+                return;
+            }
+            BigDecimal restated = current.price.multiply(BigDecimal.valueOf(denominator))
+                    .divide(BigDecimal.valueOf(numerator), 2, RoundingMode.HALF_UP);
+            if (prices.replace(assetName, current, new LivePrice(restated, current.asOf))) {
+                return;
+            }
+        }
+    }
+
+    public LivePrice get(String assetName) {
+        return assetName == null ? null : prices.get(assetName);
+    }
+
+    /**
+     * The price to value {@code holding} at under {@code mode}; live mode falls back to the stored price for assets
+     * the cache has not seen.
+     */
+    public BigDecimal priceOf(Holding holding, PriceMode mode) {
+        if (mode == PriceMode.LIVE) {
+            LivePrice live = get(holding.getAssetName());
+            if (live != null) {
+                return live.price;
+            }
+        }
+        return holding.getCurrentPrice();
+    }
+
+    /**
+     * The timestamp of the stalest live price used to value {@code holdings}, or null in stored mode or when no
+     * holding had a live price.
+     */
+    public LocalDateTime priceAsOf(List<Holding> holdings, PriceMode mode) {
+        if (mode != PriceMode.LIVE) {
+            return null;
+        }
+        LocalDateTime oldest = null;
+        for (Holding holding : holdings) {
+            LivePrice live = get(holding.getAssetName());
+            if (live != null && (oldest == null || live.asOf.isBefore(oldest))) {
+                oldest = live.asOf;
+            }
+        }
+        return oldest;
+    }
+
+    public int size() {
+        return prices.size();
+    }
+
+    public static final class LivePrice {
+        private final BigDecimal price;
+        private final LocalDateTime asOf;
+
+        private LivePrice(BigDecimal price, LocalDateTime asOf) {
+            this.price = price;
+            this.asOf = asOf;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public LocalDateTime getAsOf() {
+            return asOf;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.AssetPriceDTO;
+import com.example.portfoliobackend.dto.PriceUpdateResultDTO;
+import com.example.portfoliobackend.entity.AssetPrice;
+import com.example.portfoliobackend.entity.AssetPriceHistory;
+import com.example.portfoliobackend.event.PricesChangedEvent;
+import com.example.portfoliobackend.repository.AssetPriceRepository;
+import com.example.portfoliobackend.repository.JdbcBatchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Latest price per asset, kept once in {@code asset_prices}. A price change writes that single row and then
+ * revalues every holding of the asset with one set-based statement, instead of loading and saving each holding.
+ * The same batch records each price as the asset's price for that day in {@code asset_price_history}.
+ */
+@Service
+public class MarketPriceService {
+
+    @Autowired
+    private AssetPriceRepository assetPriceRepository;
+
+    @Autowired
+    private JdbcBatchRepository jdbcBatchRepository;
+
+    @Autowired
+    private LivePriceCache livePriceCache;
+
+    @Autowired
+    private PriceHistoryCache priceHistoryCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public List<AssetPriceDTO> getAllPrices() {
+        return assetPriceRepository.findAllByOrderByAssetNameAsc().stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public AssetPriceDTO getPrice(String assetName) {
+        return assetPriceRepository.findById(assetName).map(this::toDTO).orElse(null);
+    }
+
+    @Transactional
+    public PriceUpdateResultDTO updatePrices(List<AssetPriceDTO> prices) {
+        // Last price wins when an asset appears more than once in the same request
+        Map<String, AssetPrice> latest = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (AssetPriceDTO dto : prices) {
+            AssetPrice price = new AssetPrice();
+            price.setAssetName(dto.getAssetName());
+            price.setPrice(dto.getPrice());
+            price.setUpdatedAt(dto.getUpdatedAt() == null ? now : dto.getUpdatedAt());
+            latest.put(dto.getAssetName(), price);
+        }
+        int updated = jdbcBatchRepository.upsertAssetPrices(new ArrayList<>(latest.values()));
+        int revalued = jdbcBatchRepository.refreshHoldingPrices(latest.keySet());
+        List<AssetPriceHistory> daily = new ArrayList<>(latest.size());
+        for (AssetPrice price : latest.values()) {
+            AssetPriceHistory point = new AssetPriceHistory();
+            point.setAssetName(price.getAssetName());
+            point.setPriceDate(price.getUpdatedAt().toLocalDate());
+            point.setPrice(price.getPrice());
+            daily.add(point);
+        }
+        jdbcBatchRepository.upsertPriceHistory(daily);
+        // A rolled-back batch must not leave its prices live
+        AfterCommit.run(() -> latest.values().forEach(price ->
+                livePriceCache.update(price.getAssetName(), price.getPrice(), price.getUpdatedAt())));
+        for (AssetPrice price : latest.values()) {
+            priceHistoryCache.record(price.getAssetName(), price.getUpdatedAt().toLocalDate(), price.getPrice());
+        }
+        eventPublisher.publishEvent(new PricesChangedEvent(new ArrayList<>(latest.keySet())));
+        return new PriceUpdateResultDTO(updated, revalued);
+    }
+
+    private AssetPriceDTO toDTO(AssetPrice price) {
+        return new AssetPriceDTO(price.getAssetName(), price.getPrice(), price.getUpdatedAt());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.ReadCoalescingStatsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for hot portfolio reads: while one request computes a view of a portfolio, identical requests for
+ * the same view wait for its result instead of running the same queries again. Reads are keyed by view, portfolio,
+ * variant and the portfolio's current version, so a request that arrives after a write never joins a computation
+ * that started before it. Nothing is cached; the entry is gone as soon as its computation finishes.
+ */
+@Service
+public class PortfolioReadCoalescer {
+
+    @Autowired
+    private PortfolioVersions portfolioVersions;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> executions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> coalesced = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code read} on the calling thread, or waits for the identical read already in flight and returns its
+     * result. A failure of the running read is rethrown to every caller waiting on it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(String view, Long portfolioId, String variant, Supplier<T> read) {
+        String key = view + ':' + portfolioId + ':' + variant + ':' + portfolioVersions.etag(portfolioId);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            counter(coalesced, view).increment();
+            return (T) join(running);
+        }
+        counter(executions, view).increment();
+        try {
+            T result = read.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public ReadCoalescingStatsDTO getStats() {
+        return new ReadCoalescingStatsDTO(inFlight.size(), sum(executions), sum(coalesced),
+                byView(executions), byView(coalesced));
+    }
+
+    private static Object join(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static LongAdder counter(ConcurrentMap<String, LongAdder> counters, String view) {
+        return counters.computeIfAbsent(view, key -> new LongAdder());
+    }
+
+    private static long sum(Map<String, LongAdder> counters) {
+        return counters.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private static Map<String, Long> byView(Map<String, LongAdder> counters) {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((view, counter) -> values.put(view, counter.sum()));
+        return values;
+    }
+}
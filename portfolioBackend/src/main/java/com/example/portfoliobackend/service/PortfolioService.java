@@ -3,19 +3,29 @@ package com.example.portfoliobackend.service;
 import com.example.portfoliobackend.entity.Holding;
 import com.example.portfoliobackend.entity.Portfolio;
 import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import com.example.portfoliobackend.entity.PortfolioSnapshotAllocation;
 import com.example.portfoliobackend.entity.PortfolioTarget;
+import com.example.portfoliobackend.event.HoldingsChangedEvent;
+import com.example.portfoliobackend.event.PortfolioChangedEvent;
+import com.example.portfoliobackend.event.SnapshotChangedEvent;
+import com.example.portfoliobackend.repository.AssetPriceRepository;
 import com.example.portfoliobackend.repository.HoldingRepository;
 import com.example.portfoliobackend.repository.PortfolioRepository;
+import com.example.portfoliobackend.repository.PortfolioSnapshotAllocationRepository;
 import com.example.portfoliobackend.repository.PortfolioSnapshotRepository;
 import com.example.portfoliobackend.repository.PortfolioTargetRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -37,6 +47,24 @@ public class PortfolioService {
     @Autowired
     private PortfolioSnapshotRepository portfolioSnapshotRepository;
 
+    @Autowired
+    private PortfolioSnapshotAllocationRepository portfolioSnapshotAllocationRepository;
+
+    @Autowired
+    private AssetPriceRepository assetPriceRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired(required = false)
+    private SnapshotLogService snapshotLogService;
+
+    @Autowired
+    private LivePriceCache livePriceCache;
+
+    @Autowired
+    private FxRateCache fxRateCache;
+
     public List<Portfolio> getAllPortfolios() {
         return portfolioRepository.findAll();
     }
@@ -46,7 +74,7 @@ public class PortfolioService {
     }
 
     public Portfolio getPortfolioById(Long portfolioId) {
-        return portfolioRepository.findById(portfolioId).orElse(null);
+        return ReadScope.read("portfolio:" + portfolioId, () -> portfolioRepository.findById(portfolioId).orElse(null));
     }
 
     @Transactional
@@ -54,7 +82,9 @@ public class PortfolioService {
         if (portfolio.getBaseCurrency() == null) {
             portfolio.setBaseCurrency(DEFAULT_CURRENCY);
         }
-        return portfolioRepository.save(portfolio);
+        Portfolio saved = portfolioRepository.save(portfolio);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(saved.getPortfolioId()));
+        return saved;
     }
 
     @Transactional
@@ -74,7 +104,9 @@ public class PortfolioService {
         if (updated.getUserId() != null) {
             portfolio.setUserId(updated.getUserId());
         }
-        return portfolioRepository.save(portfolio);
+        Portfolio saved = portfolioRepository.save(portfolio);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
+        return saved;
     }
 
     @Transactional
@@ -83,11 +115,12 @@ public class PortfolioService {
             return false;
         }
         portfolioRepository.deleteById(portfolioId);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId, true));
         return true;
     }
 
     public List<Holding> getHoldingsByPortfolioId(Long portfolioId) {
-        return holdingRepository.findByPortfolioId(portfolioId);
+        return ReadScope.read("holdings:" + portfolioId, () -> holdingRepository.findByPortfolioId(portfolioId));
     }
 
     public Holding getHoldingById(Long holdingId) {
@@ -99,7 +132,13 @@ public class PortfolioService {
         if (holding.getCurrency() == null) {
             holding.setCurrency(DEFAULT_CURRENCY);
         }
-        return holdingRepository.save(holding);
+        if (holding.getCurrentPrice() == null && holding.getAssetName() != null) {
+            assetPriceRepository.findById(holding.getAssetName())
+                    .ifPresent(price -> holding.setCurrentPrice(price.getPrice()));
+        }
+        Holding saved = holdingRepository.save(holding);
+        eventPublisher.publishEvent(new HoldingsChangedEvent(holding.getPortfolioId()));
+        return saved;
     }
 
     @Transactional
@@ -110,6 +149,7 @@ public class PortfolioService {
         }
 
         Holding holding = existing.get();
+        Long previousPortfolioId = holding.getPortfolioId();
         if (updated.getAssetName() != null) {
             holding.setAssetName(updated.getAssetName());
         }
@@ -134,20 +174,27 @@ public class PortfolioService {
         if (updated.getPortfolioId() != null) {
             holding.setPortfolioId(updated.getPortfolioId());
         }
-        return holdingRepository.save(holding);
+        Holding saved = holdingRepository.save(holding);
+        eventPublisher.publishEvent(new HoldingsChangedEvent(previousPortfolioId));
+        if (!Objects.equals(previousPortfolioId, holding.getPortfolioId())) {
+            eventPublisher.publishEvent(new HoldingsChangedEvent(holding.getPortfolioId()));
+        }
+        return saved;
     }
 
     @Transactional
     public boolean deleteHolding(Long holdingId) {
-        if (!holdingRepository.existsById(holdingId)) {
+        Optional<Holding> existing = holdingRepository.findById(holdingId);
+        if (!existing.isPresent()) {
             return false;
         }
         holdingRepository.deleteById(holdingId);
+        eventPublisher.publishEvent(new HoldingsChangedEvent(existing.get().getPortfolioId()));
         return true;
     }
 
     public List<PortfolioTarget> getTargetsByPortfolioId(Long portfolioId) {
-        return portfolioTargetRepository.findByPortfolioId(portfolioId);
+        return ReadScope.read("targets:" + portfolioId, () -> portfolioTargetRepository.findByPortfolioId(portfolioId));
     }
 
     public PortfolioTarget getTargetById(Long targetId) {
@@ -156,7 +203,9 @@ public class PortfolioService {
 
     @Transactional
     public PortfolioTarget addTarget(PortfolioTarget target) {
-        return portfolioTargetRepository.save(target);
+        PortfolioTarget saved = portfolioTargetRepository.save(target);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(target.getPortfolioId()));
+        return saved;
     }
 
     @Transactional
@@ -167,6 +216,7 @@ public class PortfolioService {
         }
 
         PortfolioTarget target = existing.get();
+        Long previousPortfolioId = target.getPortfolioId();
         if (updated.getAssetType() != null) {
             target.setAssetType(updated.getAssetType());
         }
@@ -176,22 +226,44 @@ public class PortfolioService {
         if (updated.getPortfolioId() != null) {
             target.setPortfolioId(updated.getPortfolioId());
         }
-        return portfolioTargetRepository.save(target);
+        PortfolioTarget saved = portfolioTargetRepository.save(target);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(previousPortfolioId));
+        if (!Objects.equals(previousPortfolioId, target.getPortfolioId())) {
+            eventPublisher.publishEvent(new PortfolioChangedEvent(target.getPortfolioId()));
+        }
+        return saved;
     }
 
     @Transactional
     public boolean deleteTarget(Long targetId) {
-        if (!portfolioTargetRepository.existsById(targetId)) {
+        Optional<PortfolioTarget> existing = portfolioTargetRepository.findById(targetId);
+        if (!existing.isPresent()) {
             return false;
         }
         portfolioTargetRepository.deleteById(targetId);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(existing.get().getPortfolioId()));
         return true;
     }
 
     public List<PortfolioSnapshot> getSnapshotsByPortfolioId(Long portfolioId) {
+        if (snapshotLogService != null && snapshotLogService.isReady()) {
+            return snapshotLogService.getSnapshotsDescending(portfolioId);
+        }
         return portfolioSnapshotRepository.findByPortfolioIdOrderBySnapshotDateDesc(portfolioId);
     }
 
+    /**
+     * The latest {@code limit} snapshots, newest first, without reading the rest of the history.
+     */
+    public List<PortfolioSnapshot> getRecentSnapshots(Long portfolioId, int limit) {
+        if (snapshotLogService != null && snapshotLogService.isReady()) {
+            List<PortfolioSnapshot> snapshots = snapshotLogService.getSnapshotsDescending(portfolioId);
+            return snapshots.size() <= limit ? snapshots : new ArrayList<>(snapshots.subList(0, limit));
+        }
+        return portfolioSnapshotRepository.findByPortfolioIdOrderBySnapshotDateDescSnapshotIdDesc(
+                portfolioId, PageRequest.of(0, limit));
+    }
+
     public PortfolioSnapshot getSnapshotById(Long snapshotId) {
         return portfolioSnapshotRepository.findById(snapshotId).orElse(null);
     }
@@ -204,6 +276,7 @@ public class PortfolioService {
         }
 
         PortfolioSnapshot snapshot = existing.get();
+        Long previousPortfolioId = snapshot.getPortfolioId();
         if (updated.getTotalValue() != null) {
             snapshot.setTotalValue(updated.getTotalValue());
         }
@@ -216,37 +289,97 @@ public class PortfolioService {
         if (updated.getPortfolioId() != null) {
             snapshot.setPortfolioId(updated.getPortfolioId());
         }
-        return portfolioSnapshotRepository.save(snapshot);
+        PortfolioSnapshot saved = portfolioSnapshotRepository.save(snapshot);
+        portfolioSnapshotAllocationRepository.updatePortfolioAndDateBySnapshotId(
+                saved.getSnapshotId(), saved.getPortfolioId(), saved.getSnapshotDate());
+        eventPublisher.publishEvent(new SnapshotChangedEvent(previousPortfolioId));
+        if (!Objects.equals(previousPortfolioId, saved.getPortfolioId())) {
+            eventPublisher.publishEvent(new SnapshotChangedEvent(saved.getPortfolioId()));
+        }
+        return saved;
     }
 
     @Transactional
     public boolean deleteSnapshot(Long snapshotId) {
-        if (!portfolioSnapshotRepository.existsById(snapshotId)) {
+        Optional<PortfolioSnapshot> existing = portfolioSnapshotRepository.findById(snapshotId);
+        if (!existing.isPresent()) {
             return false;
         }
+        portfolioSnapshotAllocationRepository.deleteBySnapshotId(snapshotId);
         portfolioSnapshotRepository.deleteById(snapshotId);
+        eventPublisher.publishEvent(new SnapshotChangedEvent(existing.get().getPortfolioId()));
         return true;
     }
 
     @Transactional
     public PortfolioSnapshot recordSnapshot(Long portfolioId, BigDecimal totalValue, String currency) {
+        return recordSnapshot(portfolioId, totalValue, currency, getHoldingsByPortfolioId(portfolioId));
+    }
+
+    /**
+     * Saves the total and its per-asset-type breakdown in the same transaction, so allocation history always
+     * lines up with the snapshot it was taken with.
+     */
+    private PortfolioSnapshot recordSnapshot(Long portfolioId, BigDecimal totalValue, String currency,
+                                             List<Holding> holdings) {
         PortfolioSnapshot snapshot = new PortfolioSnapshot();
         snapshot.setPortfolioId(portfolioId);
         snapshot.setTotalValue(totalValue);
-        snapshot.setCurrency(currency == null ? DEFAULT_CURRENCY : currency);
+        snapshot.setCurrency(snapshotCurrency(portfolioId, currency));
         snapshot.setSnapshotDate(LocalDate.now());
-        return portfolioSnapshotRepository.save(snapshot);
+        PortfolioSnapshot saved = portfolioSnapshotRepository.save(snapshot);
+
+        List<PortfolioSnapshotAllocation> allocations = new ArrayList<>();
+        for (Map.Entry<String, BigDecimal> entry : assetTypeValues(holdings, saved.getCurrency()).entrySet()) {
+            PortfolioSnapshotAllocation allocation = new PortfolioSnapshotAllocation();
+            allocation.setSnapshotId(saved.getSnapshotId());
+            allocation.setPortfolioId(portfolioId);
+            allocation.setSnapshotDate(saved.getSnapshotDate());
+            allocation.setAssetType(entry.getKey());
+            allocation.setMarketValue(entry.getValue());
+            allocations.add(allocation);
+        }
+        if (!allocations.isEmpty()) {
+            portfolioSnapshotAllocationRepository.saveAll(allocations);
+        }
+        eventPublisher.publishEvent(new SnapshotChangedEvent(portfolioId, saved));
+        return saved;
     }
 
-    public BigDecimal calculateTotalValue(Long portfolioId) {
-        BigDecimal total = BigDecimal.ZERO;
-        for (Holding holding : getHoldingsByPortfolioId(portfolioId)) {
-            if (holding.getQuantity() == null || holding.getCurrentPrice() == null) {
-                continue;
+    /**
+     * Snapshots default to the portfolio's base currency, or {@value #DEFAULT_CURRENCY} when it has none.
+     */
+    private String snapshotCurrency(Long portfolioId, String currency) {
+        if (currency != null) {
+            return currency;
+        }
+        String baseCurrency = portfolioRepository.findBaseCurrencyById(portfolioId);
+        return baseCurrency == null ? DEFAULT_CURRENCY : baseCurrency;
+    }
+
+    private Map<String, BigDecimal> assetTypeValues(List<Holding> holdings, String currency) {
+        HoldingValuation valuation = valueAtStoredPrices(holdings, currency);
+        Map<String, BigDecimal> values = new LinkedHashMap<>();
+        for (int i = 0; i < holdings.size(); i++) {
+            BigDecimal value = valuation.marketValue(i);
+            if (holdings.get(i).getAssetType() != null && value != null) {
+                values.merge(holdings.get(i).getAssetType(), value, BigDecimal::add);
             }
-            total = total.add(holding.getQuantity().multiply(holding.getCurrentPrice()));
         }
-        return total;
+        return values;
+    }
+
+    /**
+     * Total market value of the portfolio's holdings in its base currency.
+     */
+    public BigDecimal calculateTotalValue(Long portfolioId) {
+        return valueAtStoredPrices(getHoldingsByPortfolioId(portfolioId),
+                portfolioRepository.findBaseCurrencyById(portfolioId)).getTotalMarketValue();
+    }
+
+    private HoldingValuation valueAtStoredPrices(List<Holding> holdings, String currency) {
+        List<BigDecimal> prices = holdings.stream().map(Holding::getCurrentPrice).collect(Collectors.toList());
+        return HoldingValuation.of(holdings, prices, currency, LocalDate.now(), fxRateCache);
     }
 
     public List<String> listAssetTypes(Long portfolioId) {
@@ -259,56 +392,110 @@ public class PortfolioService {
 
     @Transactional
     public List<PortfolioSnapshot> refreshAndGetSnapshots(Long portfolioId, String currency) {
-        BigDecimal totalValue = calculateTotalValue(portfolioId);
-        recordSnapshot(portfolioId, totalValue, currency);
+        List<Holding> holdings = getHoldingsByPortfolioId(portfolioId);
+        String snapshotCurrency = snapshotCurrency(portfolioId, currency);
+        recordSnapshot(portfolioId, valueAtStoredPrices(holdings, snapshotCurrency).getTotalMarketValue(),
+                snapshotCurrency, holdings);
         List<PortfolioSnapshot> snapshots = getSnapshotsByPortfolioId(portfolioId);
         return snapshots == null ? new ArrayList<>() : snapshots;
     }
 
     // New method for dashboard
     public com.example.portfoliobackend.dto.PortfolioDashboardDTO getPortfolioDashboard(Long portfolioId) {
+        return getPortfolioDashboard(portfolioId, PriceMode.STORED);
+    }
+
+    public com.example.portfoliobackend.dto.PortfolioDashboardDTO getPortfolioDashboard(Long portfolioId, PriceMode mode) {
+        return getPortfolioDashboard(portfolioId, mode, FieldSelection.all());
+    }
+
+    /**
+     * Builds the dashboard with only the selected properties set; the valuation, allocations and per-holding returns
+     * are skipped when nothing selected needs them.
+     */
+    public com.example.portfoliobackend.dto.PortfolioDashboardDTO getPortfolioDashboard(Long portfolioId, PriceMode mode,
+                                                                                      FieldSelection fields) {
         Portfolio portfolio = getPortfolioById(portfolioId);
         if (portfolio == null) {
             return null;
         }
 
-        List<Holding> holdings = getHoldingsByPortfolioId(portfolioId);
-        BigDecimal totalValue = calculateTotalValue(portfolioId);
-
-        List<com.example.portfoliobackend.dto.PortfolioDashboardDTO.HoldingDetailDTO> holdingDTOs = holdings.stream()
-                .map(holding -> {
-                    com.example.portfoliobackend.dto.PortfolioDashboardDTO.HoldingDetailDTO dto =
-                        new com.example.portfoliobackend.dto.PortfolioDashboardDTO.HoldingDetailDTO(
-                            holding.getHoldingId(),
-                            holding.getAssetName(),
-                            holding.getAssetType(),
-                            holding.getQuantity(),
-                            holding.getPurchasePrice(),
-                            holding.getCurrentPrice(),
-                            holding.getCurrency(),
-                            holding.getPurchaseDate()
-                        );
-
-                    // Calculate allocation percentage
-                    if (totalValue.compareTo(BigDecimal.ZERO) > 0 && holding.getQuantity() != null && holding.getCurrentPrice() != null) {
-                        BigDecimal holdingValue = holding.getQuantity().multiply(holding.getCurrentPrice());
-                        BigDecimal allocation = holdingValue.divide(totalValue, 4, java.math.RoundingMode.HALF_UP).multiply(new BigDecimal(100));
-                        dto.setAllocation(allocation);
-                    } else {
-                        dto.setAllocation(BigDecimal.ZERO);
-                    }
-
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        FieldSelection holdingFields = fields.nested("holdings");
+        boolean withHoldings = fields.includes("holdings");
+        boolean withReturns = withHoldings
+                && holdingFields.includesAny("totalInvested", "currentValue", "gainLoss", "gainLossPercentage");
+        boolean withAllocation = withHoldings && holdingFields.includes("allocation");
+        boolean withValuation = withAllocation || fields.includesAny("totalValue", "unconvertedCurrencies");
+        boolean withPriceAsOf = mode == PriceMode.LIVE && fields.includes("priceAsOf");
 
-        return new com.example.portfoliobackend.dto.PortfolioDashboardDTO(
+        com.example.portfoliobackend.dto.PortfolioDashboardDTO dashboard = new com.example.portfoliobackend.dto.PortfolioDashboardDTO(
                 portfolio.getPortfolioId(),
                 portfolio.getPortfolioName(),
                 portfolio.getBaseCurrency(),
-                totalValue,
-                holdingDTOs,
+                null,
+                null,
                 portfolio.getCreatedAt()
         );
+        if (!withHoldings && !withValuation && !withPriceAsOf) {
+            return dashboard;
+        }
+
+        List<Holding> holdings = getHoldingsByPortfolioId(portfolioId);
+        // Shared with the analytics in a read scope, so an overview values each holding at one price
+        List<BigDecimal> prices = ReadScope.read("prices:" + mode + ":" + portfolioId, () -> {
+            List<BigDecimal> read = new ArrayList<>(holdings.size());
+            for (Holding holding : holdings) {
+                read.add(mode == PriceMode.LIVE ? livePriceCache.priceOf(holding, mode) : holding.getCurrentPrice());
+            }
+            return read;
+        });
+        HoldingValuation valuation = withValuation
+                ? ReadScope.read("valuation:" + mode + ":" + portfolioId, () -> HoldingValuation.of(
+                        holdings, prices, portfolio.getBaseCurrency(), LocalDate.now(), fxRateCache))
+                : null;
+        BigDecimal portfolioValue = valuation == null ? null : valuation.getTotalMarketValue();
+
+        if (withHoldings) {
+            List<com.example.portfoliobackend.dto.PortfolioDashboardDTO.HoldingDetailDTO> holdingDTOs = java.util.stream.IntStream.range(0, holdings.size())
+                    .mapToObj(index -> {
+                        Holding holding = holdings.get(index);
+                        BigDecimal price = prices.get(index);
+                        com.example.portfoliobackend.dto.PortfolioDashboardDTO.HoldingDetailDTO dto =
+                            new com.example.portfoliobackend.dto.PortfolioDashboardDTO.HoldingDetailDTO(
+                                holding.getHoldingId(),
+                                holding.getAssetName(),
+                                holding.getAssetType(),
+                                holding.getQuantity(),
+                                holding.getPurchasePrice(),
+                                price,
+                                holding.getCurrency(),
+                                holding.getPurchaseDate(),
+                                withReturns
+                            );
+
+                        // Calculate allocation percentage
+                        if (withAllocation) {
+                            BigDecimal holdingValue = valuation.marketValue(index);
+                            if (portfolioValue.compareTo(BigDecimal.ZERO) > 0 && holdingValue != null) {
+                                BigDecimal allocation = holdingValue.divide(portfolioValue, 4, java.math.RoundingMode.HALF_UP).multiply(new BigDecimal(100));
+                                dto.setAllocation(allocation);
+                            } else {
+                                dto.setAllocation(BigDecimal.ZERO);
+                            }
+                        }
+
+                        return dto;
+                    })
+                    .collect(Collectors.toList());
+            dashboard.setHoldings(holdingDTOs);
+        }
+        if (valuation != null) {
+            dashboard.setTotalValue(portfolioValue);
+            dashboard.setUnconvertedCurrencies(new ArrayList<>(valuation.getUnconvertedCurrencies()));
+        }
+        if (withPriceAsOf) {
+            dashboard.setPriceAsOf(livePriceCache.priceAsOf(holdings, mode));
+        }
+        return dashboard;
     }
 }
@@ -0,0 +1,100 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.event.HoldingsChangedEvent;
+import com.example.portfoliobackend.event.PortfolioChangedEvent;
+import com.example.portfoliobackend.event.PricesChangedEvent;
+import com.example.portfoliobackend.event.SnapshotChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Version counter per portfolio for conditional GETs, so an unchanged dashboard or analytics response can be
+ * answered with 304 before any query runs. A portfolio's version moves on every committed change to the portfolio,
+ * its holdings, targets or snapshots, and on every price change of an asset it holds; an FX rate import moves every
+ * portfolio at once through a shared generation. Counters live in memory and start over on restart, so each ETag
+ * also carries an ID drawn at startup and a tag issued before a restart never matches one issued after it.
+ */
+@Service
+public class PortfolioVersions {
+
+    @Autowired
+    private AssetPortfolioIndex assetPortfolioIndex;
+
+    private final String instanceId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final long startedAt = System.currentTimeMillis();
+    private final ConcurrentMap<Long, Version> versions = new ConcurrentHashMap<>();
+    private volatile Version generation = new Version(0, startedAt);
+
+    /**
+     * Quoted opaque tag for the portfolio's current version. {@code ConditionalRequests} sends it as a weak
+     * validator, since the same version may be rendered as JSON or CBOR.
+     */
+    public String etag(Long portfolioId) {
+        Version version = version(portfolioId);
+        return "\"" + instanceId + "." + generation.number + "." + version.number + "\"";
+    }
+
+    /**
+     * When the portfolio's version last moved, in epoch milliseconds.
+     */
+    public long lastModified(Long portfolioId) {
+        return Math.max(generation.modifiedAt, version(portfolioId).modifiedAt);
+    }
+
+    public void bump(long portfolioId) {
+        long now = System.currentTimeMillis();
+        versions.compute(portfolioId, (id, current) -> new Version(current == null ? 1 : current.number + 1, now));
+    }
+
+    public synchronized void bumpAll() {
+        generation = new Version(generation.number + 1, System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldingsChanged(HoldingsChangedEvent event) {
+        if (event.getPortfolioId() != null) {
+            bump(event.getPortfolioId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (event.getPortfolioId() != null) {
+            bump(event.getPortfolioId());
+        }
+    }
+
+    @Order(SnapshotChangedEvent.VERSION_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSnapshotChanged(SnapshotChangedEvent event) {
+        if (event.getPortfolioId() != null) {
+            bump(event.getPortfolioId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricesChanged(PricesChangedEvent event) {
+        assetPortfolioIndex.portfoliosHolding(event.getAssetNames()).forEach(this::bump);
+    }
+
+    private Version version(Long portfolioId) {
+        Version version = portfolioId == null ? null : versions.get(portfolioId);
+        return version == null ? new Version(0, startedAt) : version;
+    }
+
+    private static final class Version {
+        private final long number;
+        private final long modifiedAt;
+
+        private Version(long number, long modifiedAt) {
+            this.number = number;
+            this.modifiedAt = modifiedAt;
+        }
+    }
+}
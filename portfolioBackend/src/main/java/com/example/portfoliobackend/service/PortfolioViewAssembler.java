@@ -0,0 +1,96 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.PortfolioDashboardDTO;
+import com.example.portfoliobackend.dto.PortfolioDetailsDTO;
+import com.example.portfoliobackend.dto.PortfolioOverviewDTO;
+import com.example.portfoliobackend.dto.PortfolioSnapshotDTO;
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import com.example.portfoliobackend.entity.PortfolioTarget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Builds composite portfolio views: the details from independent reads issued together on the {@link FanOutExecutor},
+ * the overview from one set of reads shared through a {@link ReadScope}.
+ */
+@Service
+public class PortfolioViewAssembler {
+
+    public static final String PORTFOLIO = "portfolio";
+    public static final String HOLDINGS = "holdings";
+    public static final String TARGETS = "targets";
+    public static final String SNAPSHOTS = "snapshots";
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private FanOutExecutor fanOutExecutor;
+
+    /**
+     * The portfolio with its holdings, targets and snapshots, or null if the portfolio does not exist. Parts that
+     * could not be read in time are null and listed in {@code unavailable}.
+     */
+    public PortfolioDetailsDTO getDetails(Long portfolioId) {
+        CompletableFuture<Portfolio> portfolioRead = fanOutExecutor.submit(() -> portfolioService.getPortfolioById(portfolioId));
+        CompletableFuture<List<Holding>> holdingsRead =
+                fanOutExecutor.submit(() -> portfolioService.getHoldingsByPortfolioId(portfolioId));
+        CompletableFuture<List<PortfolioTarget>> targetsRead =
+                fanOutExecutor.submit(() -> portfolioService.getTargetsByPortfolioId(portfolioId));
+        CompletableFuture<List<PortfolioSnapshot>> snapshotsRead =
+                fanOutExecutor.submit(() -> portfolioService.getSnapshotsByPortfolioId(portfolioId));
+
+        List<String> unavailable = new ArrayList<>();
+        Portfolio portfolio = fanOutExecutor.await(portfolioRead, PORTFOLIO, unavailable);
+        if (portfolio == null && unavailable.isEmpty()) {
+            return null;
+        }
+        PortfolioDetailsDTO details = new PortfolioDetailsDTO();
+        details.setPortfolio(portfolio);
+        details.setHoldings(fanOutExecutor.await(holdingsRead, HOLDINGS, unavailable));
+        details.setTargets(fanOutExecutor.await(targetsRead, TARGETS, unavailable));
+        details.setSnapshots(fanOutExecutor.await(snapshotsRead, SNAPSHOTS, unavailable));
+        details.setUnavailable(unavailable);
+        return details;
+    }
+
+    /**
+     * The dashboard, analytics summary, allocation, target drift and the latest {@code snapshotLimit} snapshots, or
+     * null if the portfolio does not exist. Every part is derived from one valuation, priced once from holdings and
+     * targets each read once, so the parts agree even while live prices move.
+     */
+    public PortfolioOverviewDTO getOverview(Long portfolioId, PriceMode mode, int snapshotLimit) {
+        try (ReadScope scope = ReadScope.open()) {
+            PortfolioDashboardDTO dashboard = portfolioService.getPortfolioDashboard(portfolioId, mode);
+            if (dashboard == null) {
+                return null;
+            }
+            HoldingValuation valuation = analyticsService.getValuation(portfolioId, mode);
+            PortfolioOverviewDTO.SummaryDTO summary = new PortfolioOverviewDTO.SummaryDTO(
+                    valuation.getTotalMarketValue(),
+                    valuation.getTotalCost(),
+                    valuation.getTotalMarketValue().subtract(valuation.getTotalCost()),
+                    dashboard.getPriceAsOf());
+            Map<String, BigDecimal> allocation = analyticsService.getAllocationPercentages(valuation);
+            List<PortfolioSnapshotDTO> snapshots = new ArrayList<>();
+            for (PortfolioSnapshot snapshot : portfolioService.getRecentSnapshots(portfolioId, snapshotLimit)) {
+                snapshots.add(new PortfolioSnapshotDTO(snapshot.getSnapshotId(), snapshot.getPortfolioId(),
+                        snapshot.getTotalValue(), snapshot.getCurrency(), snapshot.getSnapshotDate()));
+            }
+            return new PortfolioOverviewDTO(dashboard, summary, allocation,
+                    analyticsService.getTargetDriftPercentages(portfolioId, allocation),
+                    snapshots);
+        }
+    }
+}
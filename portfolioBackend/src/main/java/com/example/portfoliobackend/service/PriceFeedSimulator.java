@@ -0,0 +1,234 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.SimulatorStatsDTO;
+import com.example.portfoliobackend.repository.HoldingRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Offline market-data feed for load and soak testing, enabled with {@code portfolio.simulator.enabled}. Ticks go
+ * through {@link PriceTickIngestionService#accept}, so they exercise the live price cache, tick coalescing, the
+ * batched price upsert and holding revaluation exactly as a vendor feed would.
+ * <p>
+ * By default every distinct asset in {@code holdings} follows a geometric random walk starting from its latest
+ * known price. When {@code portfolio.simulator.replay-file} is set, the file's {@code assetName,price} lines are
+ * replayed in order instead, looping at the end. Either way ticks are emitted at
+ * {@code portfolio.simulator.ticks-per-second} and stamped with the current time.
+ */
+@Service
+@ConditionalOnProperty(name = "portfolio.simulator.enabled", havingValue = "true")
+public class PriceFeedSimulator {
+
+    static final String RANDOM_WALK = "random-walk";
+    static final String REPLAY = "replay";
+
+    private static final long PERIOD_MS = 50;
+    private static final BigDecimal DEFAULT_START_PRICE = new BigDecimal("100.00");
+    private static final double MIN_PRICE = 0.01;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private LivePriceCache livePriceCache;
+
+    @Autowired
+    private PriceTickIngestionService priceTickIngestionService;
+
+    @Value("${portfolio.simulator.ticks-per-second:1000}")
+    private int ticksPerSecond = 1000;
+
+    @Value("${portfolio.simulator.volatility:0.001}")
+    private double volatility = 0.001;
+
+    @Value("${portfolio.simulator.replay-file:}")
+    private String replayFile = "";
+
+    @Value("${portfolio.simulator.seed:0}")
+    private long seed;
+
+    private final LongAdder ticksEmitted = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    // A lock rather than a monitor: loading and emitting reach the database, and the stats are read on request threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private ScheduledExecutorService executor;
+    private Random random;
+    private String[] assets = new String[0];
+    private double[] prices = new double[0];
+    private int next;
+    private double carry;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        lock.lock();
+        try {
+            if (executor != null) {
+                return;
+            }
+            load();
+            if (assets.length == 0) {
+                return;
+            }
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "price-feed-simulator");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleAtFixedRate(this::tick, PERIOD_MS, PERIOD_MS, TimeUnit.MILLISECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        lock.lock();
+        try {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Loads the assets to simulate: the replay file if one is configured, otherwise every asset held in a portfolio.
+     */
+    void load() {
+        lock.lock();
+        try {
+            random = seed == 0 ? new Random() : new Random(seed);
+            next = 0;
+            carry = 0;
+            if (isReplay()) {
+                loadReplay(Paths.get(replayFile));
+                return;
+            }
+            List<String> names = holdingRepository.findDistinctAssetNames();
+            assets = names.toArray(new String[0]);
+            prices = new double[assets.length];
+            for (int i = 0; i < assets.length; i++) {
+                LivePriceCache.LivePrice live = livePriceCache.get(assets[i]);
+                prices[i] = (live == null ? DEFAULT_START_PRICE : live.getPrice()).doubleValue();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Emits the next {@code count} ticks and returns how many were accepted.
+     */
+    int emit(int count) {
+        lock.lock();
+        try {
+            if (assets.length == 0) {
+                return 0;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            boolean replay = isReplay();
+            int emitted = 0;
+            for (int i = 0; i < count; i++) {
+                int index = next;
+                next = (next + 1) % assets.length;
+                double price = prices[index];
+                if (!replay) {
+                    price = Math.max(MIN_PRICE, price * Math.exp(volatility * random.nextGaussian()));
+                    prices[index] = price;
+                }
+                priceTickIngestionService.accept(assets[index],
+                        BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP), now);
+                emitted++;
+            }
+            ticksEmitted.add(emitted);
+            return emitted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public SimulatorStatsDTO getStats() {
+        lock.lock();
+        try {
+            return new SimulatorStatsDTO(isReplay() ? REPLAY : RANDOM_WALK, executor != null,
+                    (int) Arrays.stream(assets).distinct().count(),
+                    ticksPerSecond, ticksEmitted.sum(), failures.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void tick() {
+        try {
+            carry += ticksPerSecond * PERIOD_MS / 1000.0;
+            int count = (int) carry;
+            carry -= count;
+            emit(count);
+        } catch (RuntimeException e) {
+            // A failed inline flush keeps its ticks buffered; keep the feed running
+            failures.increment();
+        }
+    }
+
+    private boolean isReplay() {
+        return replayFile != null && !replayFile.isBlank();
+    }
+
+    private void loadReplay(Path file) {
+        List<String> names = new ArrayList<>();
+        List<Double> values = new ArrayList<>();
+        try {
+            int lineNumber = 0;
+            for (String line : Files.readAllLines(file)) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = trimmed.split(",");
+                if (columns.length < 2) {
+                    throw new IllegalArgumentException("Expected assetName,price on line " + lineNumber + " of " + file);
+                }
+                try {
+                    values.add(Double.parseDouble(columns[1].trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid price on line " + lineNumber + " of " + file, e);
+                }
+                names.add(columns[0].trim());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read replay file " + file, e);
+        }
+        assets = names.toArray(new String[0]);
+        prices = new double[values.size()];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = values.get(i);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.repository.AssetPriceHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory copy of {@code asset_price_history} as one {@link PriceSeries} per asset, so "price as of D" and range
+ * reads are a binary search instead of a query. An asset's history is loaded on first use, several at a time where
+ * the caller knows the set, and then kept current from every recorded price. Writes reach the cache only once their
+ * transaction has committed, so it never holds a price that is later rolled back, and an asset whose load overlapped a
+ * write to that same asset is served but not kept, so it cannot hide the write either.
+ */
+@Service
+public class PriceHistoryCache {
+
+    static final LocalDate LATEST_PRICE_DATE = LocalDate.of(9999, 12, 31);
+    private static final int LOAD_CHUNK = 500;
+
+    @Autowired
+    private AssetPriceHistoryRepository assetPriceHistoryRepository;
+
+    private final ConcurrentMap<String, PriceSeries> seriesByAsset = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    // Per-asset write generations, so a write only spoils loads that included its asset
+    private final Map<String, Long> writeGenerations = new HashMap<>();
+
+    public PriceSeries series(String assetName) {
+        PriceSeries series = seriesByAsset.get(assetName);
+        if (series != null) {
+            return series;
+        }
+        return load(Collections.singletonList(assetName)).getOrDefault(assetName, PriceSeries.empty());
+    }
+
+    public BigDecimal priceAsOf(String assetName, LocalDate date) {
+        return series(assetName).priceAsOf(date);
+    }
+
+    /**
+     * Price as of {@code date} for each asset that has one, loading any missing histories in one query per chunk.
+     */
+    public Map<String, BigDecimal> pricesAsOf(Collection<String> assetNames, LocalDate date) {
+        Map<String, PriceSeries> series = load(assetNames);
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (String assetName : assetNames) {
+            BigDecimal price = series.getOrDefault(assetName, PriceSeries.empty()).priceAsOf(date);
+            if (price != null) {
+                prices.put(assetName, price);
+            }
+        }
+        return prices;
+    }
+
+    /**
+     * The histories of {@code assetNames}, reading any not yet cached in one query per chunk.
+     */
+    public Map<String, PriceSeries> load(Collection<String> assetNames) {
+        Map<String, PriceSeries> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String assetName : new LinkedHashSet<>(assetNames)) {
+            PriceSeries series = seriesByAsset.get(assetName);
+            if (series == null) {
+                missing.add(assetName);
+            } else {
+                result.put(assetName, series);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += LOAD_CHUNK) {
+            List<String> chunk = missing.subList(from, Math.min(from + LOAD_CHUNK, missing.size()));
+            long[] generationsBefore = new long[chunk.size()];
+            synchronized (writeLock) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    generationsBefore[i] = writeGenerations.getOrDefault(chunk.get(i), 0L);
+                }
+            }
+            Map<String, PriceSeries> loaded = readSeries(chunk);
+            synchronized (writeLock) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    String assetName = chunk.get(i);
+                    // A write to this asset committed while reading may be missing from its rows, so only keep them if none did
+                    boolean keep = writeGenerations.getOrDefault(assetName, 0L) == generationsBefore[i];
+                    PriceSeries series = loaded.getOrDefault(assetName, PriceSeries.empty());
+                    PriceSeries cached = keep ? seriesByAsset.putIfAbsent(assetName, series) : null;
+                    result.put(assetName, cached == null ? series : cached);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records {@code price} as the asset's price on {@code date} once the current transaction commits. Assets not
+     * yet cached are left alone; their history is read from the table, which by then holds the price, when first
+     * needed.
+     */
+    public void record(String assetName, LocalDate date, BigDecimal price) {
+        AfterCommit.run(() -> {
+            synchronized (writeLock) {
+                writeGenerations.merge(assetName, 1L, Long::sum);
+                seriesByAsset.computeIfPresent(assetName, (name, series) -> series.withPrice(date, price));
+            }
+        });
+    }
+
+    /**
+     * Drops the cached histories of {@code assetNames} once the current transaction commits, for writes such as a
+     * bulk import that are cheaper to re-read than to merge.
+     */
+    public void evict(Collection<String> assetNames) {
+        List<String> names = new ArrayList<>(assetNames);
+        AfterCommit.run(() -> {
+            synchronized (writeLock) {
+                for (String assetName : names) {
+                    writeGenerations.merge(assetName, 1L, Long::sum);
+                    seriesByAsset.remove(assetName);
+                }
+            }
+        });
+    }
+
+    public int size() {
+        return seriesByAsset.size();
+    }
+
+    private Map<String, PriceSeries> readSeries(List<String> assetNames) {
+        List<Object[]> rows = assetPriceHistoryRepository.findPriceRowsByAssetNameIn(assetNames, LATEST_PRICE_DATE);
+        Map<String, PriceSeries> loaded = new HashMap<>();
+        // Rows arrive ordered by asset then date, so each asset is one contiguous run
+        int start = 0;
+        while (start < rows.size()) {
+            String assetName = (String) rows.get(start)[0];
+            int end = start;
+            while (end < rows.size() && assetName.equals(rows.get(end)[0])) {
+                end++;
+            }
+            int[] days = new int[end - start];
+            long[] cents = new long[end - start];
+            for (int i = start; i < end; i++) {
+                days[i - start] = (int) ((LocalDate) rows.get(i)[1]).toEpochDay();
+                cents[i - start] = PriceSeries.toCents((BigDecimal) rows.get(i)[2]);
+            }
+            loaded.put(assetName, PriceSeries.fromArrays(days, cents, days.length));
+            start = end;
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.PriceHistoryPointDTO;
+import com.example.portfoliobackend.entity.AssetPriceHistory;
+import com.example.portfoliobackend.repository.JdbcBatchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Daily price history per asset. Writes go to {@code asset_price_history}; reads are served from the
+ * {@link PriceHistoryCache}.
+ */
+@Service
+public class PriceHistoryService {
+
+    private static final LocalDate EARLIEST_PRICE_DATE = LocalDate.of(1900, 1, 1);
+
+    @Autowired
+    private JdbcBatchRepository jdbcBatchRepository;
+
+    @Autowired
+    private PriceHistoryCache priceHistoryCache;
+
+    @Transactional
+    public int importPriceHistory(List<PriceHistoryPointDTO> points) {
+        List<AssetPriceHistory> rows = new ArrayList<>(points.size());
+        Set<String> assetNames = new LinkedHashSet<>();
+        for (PriceHistoryPointDTO point : points) {
+            assetNames.add(point.getAssetName());
+            AssetPriceHistory row = new AssetPriceHistory();
+            row.setAssetName(point.getAssetName());
+            row.setPriceDate(point.getPriceDate());
+            row.setPrice(point.getPrice());
+            rows.add(row);
+        }
+        int imported = jdbcBatchRepository.upsertPriceHistory(rows);
+        priceHistoryCache.evict(assetNames);
+        return imported;
+    }
+
+    public List<PriceHistoryPointDTO> getPriceHistory(String assetName, LocalDate from, LocalDate to) {
+        LocalDate start = from == null ? EARLIEST_PRICE_DATE : from;
+        LocalDate end = to == null ? LocalDate.now() : to;
+        PriceSeries series = priceHistoryCache.series(assetName);
+        int last = series.lastOnOrBefore(end.toEpochDay());
+        List<PriceHistoryPointDTO> points = new ArrayList<>();
+        for (int i = series.firstOnOrAfter(start.toEpochDay()); i <= last; i++) {
+            points.add(new PriceHistoryPointDTO(assetName, series.date(i), series.price(i)));
+        }
+        return points;
+    }
+
+    /**
+     * The last price recorded for the asset on or before {@code date}, or null if there is none.
+     */
+    public PriceHistoryPointDTO getPriceAsOf(String assetName, LocalDate date) {
+        PriceSeries series = priceHistoryCache.series(assetName);
+        int index = series.lastOnOrBefore(date.toEpochDay());
+        if (index < 0) {
+            return null;
+        }
+        return new PriceHistoryPointDTO(assetName, series.date(index), series.price(index));
+    }
+}
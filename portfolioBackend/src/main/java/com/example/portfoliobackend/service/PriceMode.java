@@ -0,0 +1,23 @@
+package com.example.portfoliobackend.service;
+
+/**
+ * Which price a holding is valued at: the {@code current_price} stored on the holding, or the latest price held in
+ * {@link LivePriceCache}.
+ */
+public enum PriceMode {
+    STORED,
+    LIVE;
+
+    public static PriceMode fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = name.trim().toUpperCase();
+        for (PriceMode mode : values()) {
+            if (mode.name().equals(normalized)) {
+                return mode;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.portfoliobackend.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Ascending, one-price-per-day history of an asset held in parallel primitive arrays: epoch days and prices in
+ * cents, about 12 bytes a point. Instances are immutable views. Recording a price for the latest day or a later one
+ * shares the arrays with the previous view, so keeping a live asset's history current costs one small object per
+ * update rather than a copy of its whole history; only a price for an earlier day copies.
+ */
+public final class PriceSeries {
+
+    static final int SCALE = 2;
+
+    private static final PriceSeries EMPTY = new PriceSeries(new int[0], new long[0], 0, 0L);
+
+    private final int[] epochDays;
+    // Slots below size - 1 are settled; the newest point's price is lastCents, so a same-day update never writes
+    // a slot another view can read
+    private final long[] cents;
+    private final int size;
+    private final long lastCents;
+
+    private PriceSeries(int[] epochDays, long[] cents, int size, long lastCents) {
+        this.epochDays = epochDays;
+        this.cents = cents;
+        this.size = size;
+        this.lastCents = lastCents;
+    }
+
+    public static PriceSeries empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a series from parallel arrays already sorted by day. The arrays are adopted, not copied. When several
+     * points share a day the last one wins.
+     */
+    public static PriceSeries fromArrays(int[] epochDays, long[] cents, int length) {
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            if (size > 0 && epochDays[size - 1] == epochDays[i]) {
+                cents[size - 1] = cents[i];
+            } else {
+                epochDays[size] = epochDays[i];
+                cents[size] = cents[i];
+                size++;
+            }
+        }
+        return size == 0 ? EMPTY : new PriceSeries(epochDays, cents, size, cents[size - 1]);
+    }
+
+    public static long toCents(BigDecimal price) {
+        return price.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * This series with the price on {@code date} set to {@code price}.
+     */
+    public PriceSeries withPrice(LocalDate date, BigDecimal price) {
+        int day = (int) date.toEpochDay();
+        long value = toCents(price);
+        if (size > 0 && epochDays[size - 1] == day) {
+            return new PriceSeries(epochDays, cents, size, value);
+        }
+        if (size == 0 || epochDays[size - 1] < day) {
+            int[] days = epochDays;
+            long[] values = cents;
+            if (size == days.length) {
+                int capacity = Math.max(8, size + (size >> 1));
+                days = Arrays.copyOf(days, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            if (size > 0) {
+                values[size - 1] = lastCents;
+            }
+            days[size] = day;
+            return new PriceSeries(days, values, size + 1, value);
+        }
+        int index = firstOnOrAfter(day);
+        int[] days = Arrays.copyOf(epochDays, size + 1);
+        long[] values = Arrays.copyOf(cents, size + 1);
+        values[size - 1] = lastCents;
+        if (epochDays[index] == day) {
+            values[index] = value;
+            return new PriceSeries(days, values, size, values[size - 1]);
+        }
+        System.arraycopy(days, index, days, index + 1, size - index);
+        System.arraycopy(values, index, values, index + 1, size - index);
+        days[index] = day;
+        values[index] = value;
+        return new PriceSeries(days, values, size + 1, values[size]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int epochDay(int index) {
+        return epochDays[index];
+    }
+
+    public LocalDate date(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public long cents(int index) {
+        return index == size - 1 ? lastCents : cents[index];
+    }
+
+    public BigDecimal price(int index) {
+        return BigDecimal.valueOf(cents(index), SCALE);
+    }
+
+    /**
+     * The price in force on {@code date}: the last one recorded on or before it, or null if there is none.
+     */
+    public BigDecimal priceAsOf(LocalDate date) {
+        int index = lastOnOrBefore(date.toEpochDay());
+        return index < 0 ? null : price(index);
+    }
+
+    /**
+     * Index of the first point on or after {@code epochDay}, or {@link #size()} if there is none.
+     */
+    public int firstOnOrAfter(long epochDay) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the last point on or before {@code epochDay}, or -1 if there is none.
+     */
+    public int lastOnOrBefore(long epochDay) {
+        return firstOnOrAfter(epochDay + 1) - 1;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.AssetPriceDTO;
+import com.example.portfoliobackend.dto.PriceTickDTO;
+import com.example.portfoliobackend.dto.TickIngestionStatsDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces high-rate price ticks into periodic batched price updates. Ticks land in a concurrent map that keeps
+ * only the newest price per asset; the buffer is flushed through {@link MarketPriceService#updatePrices} every
+ * {@code portfolio.ticks.flush-interval-ms}, or straight away by the producer whose tick fills a batch.
+ */
+@Service
+public class PriceTickIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceTickIngestionService.class);
+
+    @Autowired
+    private MarketPriceService marketPriceService;
+
+    @Autowired
+    private LivePriceCache livePriceCache;
+
+    @Value("${portfolio.ticks.max-batch-size:1000}")
+    private int maxBatchSize = 1000;
+
+    private final ConcurrentMap<String, AssetPriceDTO> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder ticksReceived = new LongAdder();
+    private final LongAdder ticksCoalesced = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder pricesFlushed = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    public int submit(List<PriceTickDTO> ticks) {
+        int accepted = 0;
+        for (PriceTickDTO tick : ticks) {
+            accept(tick.getAssetName(), tick.getPrice(), tick.getTimestamp());
+            accepted++;
+        }
+        return accepted;
+    }
+
+    public void accept(String assetName, BigDecimal price, LocalDateTime timestamp) {
+        ticksReceived.increment();
+        LocalDateTime asOf = timestamp == null ? LocalDateTime.now() : timestamp;
+        livePriceCache.update(assetName, price, asOf);
+        offer(new AssetPriceDTO(assetName, price, asOf), true);
+        if (pending.size() >= maxBatchSize && flushLock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${portfolio.ticks.flush-interval-ms:250}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public TickIngestionStatsDTO getStats() {
+        return new TickIngestionStatsDTO(pending.size(), ticksReceived.sum(), ticksCoalesced.sum(),
+                flushes.sum(), pricesFlushed.sum(), failedFlushes.sum());
+    }
+
+    private void drain() {
+        List<AssetPriceDTO> batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+        for (String assetName : pending.keySet()) {
+            AssetPriceDTO price = pending.remove(assetName);
+            if (price != null) {
+                batch.add(price);
+            }
+            if (batch.size() == maxBatchSize) {
+                if (!write(batch)) {
+                    return;
+                }
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    /**
+     * Writes one batch and returns whether it went through. A failed batch goes back into the buffer for the next
+     * flush and is not rethrown: the ticks were already accepted, so the producer whose tick triggered an inline
+     * flush must not see the failure.
+     */
+    private boolean write(List<AssetPriceDTO> batch) {
+        try {
+            marketPriceService.updatePrices(batch);
+        } catch (RuntimeException e) {
+            // Newer ticks that arrived meanwhile still win over the requeued ones
+            for (AssetPriceDTO price : batch) {
+                offer(price, false);
+            }
+            failedFlushes.increment();
+            log.warn("Flushing {} buffered prices failed; they stay buffered for the next flush", batch.size(), e);
+            return false;
+        }
+        flushes.increment();
+        pricesFlushed.add(batch.size());
+        return true;
+    }
+
+    private void offer(AssetPriceDTO price, boolean countCoalesced) {
+        pending.merge(price.getAssetName(), price, (current, incoming) -> {
+            if (countCoalesced) {
+                ticksCoalesced.increment();
+            }
+            return incoming.getUpdatedAt().isBefore(current.getUpdatedAt()) ? current : incoming;
+        });
+    }
+}
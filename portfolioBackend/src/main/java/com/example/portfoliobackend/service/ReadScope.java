@@ -0,0 +1,51 @@
+package com.example.portfoliobackend.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Remembers reads for as long as a scope is open on the current thread, so the sub-requests of one batch share a
+ * portfolio's holdings and targets instead of querying them again. Only read-only work may run inside a scope, as
+ * nothing is invalidated until it closes. Outside a scope every read goes to the database.
+ */
+public final class ReadScope implements AutoCloseable {
+
+    private static final ThreadLocal<ReadScope> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Object> values = new HashMap<>();
+    private final ReadScope previous;
+
+    private ReadScope(ReadScope previous) {
+        this.previous = previous;
+    }
+
+    public static ReadScope open() {
+        ReadScope scope = new ReadScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    @Override
+    public void close() {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T read(String key, Supplier<T> read) {
+        ReadScope scope = CURRENT.get();
+        if (scope == null) {
+            return read.get();
+        }
+        if (scope.values.containsKey(key)) {
+            return (T) scope.values.get(key);
+        }
+        T value = read.get();
+        scope.values.put(key, value);
+        return value;
+    }
+}
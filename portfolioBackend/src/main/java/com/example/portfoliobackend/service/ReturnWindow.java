@@ -0,0 +1,42 @@
+package com.example.portfoliobackend.service;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+public enum ReturnWindow {
+    ONE_MONTH("1M", Period.ofMonths(1)),
+    THREE_MONTHS("3M", Period.ofMonths(3)),
+    ONE_YEAR("1Y", Period.ofYears(1));
+
+    private final String code;
+    private final Period period;
+
+    ReturnWindow(String code, Period period) {
+        this.code = code;
+        this.period = period;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public Period getPeriod() {
+        return period;
+    }
+
+    public long startEpochDay(long endEpochDay) {
+        return LocalDate.ofEpochDay(endEpochDay).minus(period).toEpochDay();
+    }
+
+    public static ReturnWindow fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (ReturnWindow window : values()) {
+            if (window.code.equalsIgnoreCase(code.trim()) || window.name().equalsIgnoreCase(code.trim())) {
+                return window;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.ReturnPointDTO;
+import com.example.portfoliobackend.dto.TimeWeightedReturnDTO;
+import com.example.portfoliobackend.repository.PortfolioSnapshotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ReturnsService {
+
+    private static final int RETURN_SCALE = 4;
+    private static final double DAYS_PER_YEAR = 365.0;
+
+    @Autowired
+    private PortfolioSnapshotRepository portfolioSnapshotRepository;
+
+    @Autowired(required = false)
+    private SnapshotLogService snapshotLogService;
+
+    public SnapshotSeries getSnapshotSeries(Long portfolioId) {
+        if (snapshotLogService != null && snapshotLogService.isReady()) {
+            return snapshotLogService.getSnapshotSeries(portfolioId);
+        }
+        return SnapshotSeries.fromAscending(
+                portfolioSnapshotRepository.findByPortfolioIdOrderBySnapshotDateAscSnapshotIdAsc(portfolioId));
+    }
+
+    public List<ReturnPointDTO> getDailyReturns(Long portfolioId, LocalDate from, LocalDate to) {
+        SnapshotSeries series = getSnapshotSeries(portfolioId);
+        int start = startIndex(series, from);
+        int end = endIndex(series, to);
+
+        List<ReturnPointDTO> points = new ArrayList<>(Math.max(0, end - start + 1));
+        for (int i = Math.max(start, 1); i <= end; i++) {
+            double previous = series.value(i - 1);
+            if (previous <= 0) {
+                continue;
+            }
+            points.add(new ReturnPointDTO(series.date(i), toPercentage(series.value(i) / previous - 1)));
+        }
+        return points;
+    }
+
+    public TimeWeightedReturnDTO getTimeWeightedReturn(Long portfolioId, LocalDate from, LocalDate to) {
+        return timeWeightedReturn(getSnapshotSeries(portfolioId), from, to);
+    }
+
+    public List<ReturnPointDTO> getRollingReturns(Long portfolioId, ReturnWindow window) {
+        return rollingReturns(getSnapshotSeries(portfolioId), window);
+    }
+
+    TimeWeightedReturnDTO timeWeightedReturn(SnapshotSeries series, LocalDate from, LocalDate to) {
+        int start = startIndex(series, from);
+        int end = endIndex(series, to);
+        if (start >= end) {
+            return new TimeWeightedReturnDTO(from, to, 0, null, null);
+        }
+
+        // No cash-flow history is recorded, so holdings added or removed between snapshots show up as gains or
+        // losses. Without flows to split on, linking the snapshot-to-snapshot returns comes down to the simple
+        // return over the window, except across a zero-value snapshot: the periods into and out of it are skipped,
+        // so linking resumes from the next positive value instead of the whole chain collapsing to -100%.
+        double growth = 1.0;
+        int periods = 0;
+        for (int i = start + 1; i <= end; i++) {
+            double previous = series.value(i - 1);
+            if (previous <= 0 || series.value(i) <= 0) {
+                continue;
+            }
+            growth *= series.value(i) / previous;
+            periods++;
+        }
+
+        double twr = growth - 1;
+        int days = series.epochDay(end) - series.epochDay(start);
+        BigDecimal annualized = null;
+        if (periods > 0 && days >= DAYS_PER_YEAR) {
+            annualized = toPercentage(Math.pow(growth, DAYS_PER_YEAR / days) - 1);
+        }
+        return new TimeWeightedReturnDTO(
+                series.date(start),
+                series.date(end),
+                periods,
+                periods > 0 ? toPercentage(twr) : null,
+                annualized
+        );
+    }
+
+    List<ReturnPointDTO> rollingReturns(SnapshotSeries series, ReturnWindow window) {
+        List<ReturnPointDTO> points = new ArrayList<>();
+        // Window starts move forward monotonically with the end point, so the base index only ever advances.
+        int base = -1;
+        for (int i = 0; i < series.size(); i++) {
+            long windowStart = window.startEpochDay(series.epochDay(i));
+            while (base + 1 < i && series.epochDay(base + 1) <= windowStart) {
+                base++;
+            }
+            if (base < 0 || series.epochDay(base) > windowStart) {
+                continue;
+            }
+            double baseValue = series.value(base);
+            if (baseValue <= 0) {
+                continue;
+            }
+            points.add(new ReturnPointDTO(series.date(i), toPercentage(series.value(i) / baseValue - 1)));
+        }
+        return points;
+    }
+
+    private int startIndex(SnapshotSeries series, LocalDate from) {
+        return from == null ? 0 : series.firstOnOrAfter(from.toEpochDay());
+    }
+
+    private int endIndex(SnapshotSeries series, LocalDate to) {
+        return to == null ? series.size() - 1 : series.lastOnOrBefore(to.toEpochDay());
+    }
+
+    private BigDecimal toPercentage(double ratio) {
+        if (Double.isNaN(ratio) || Double.isInfinite(ratio)) {
+            return null;
+        }
+        return BigDecimal.valueOf(ratio * 100).setScale(RETURN_SCALE, RoundingMode.HALF_UP);
+    }
+}
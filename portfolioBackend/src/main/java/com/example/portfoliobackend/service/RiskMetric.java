@@ -0,0 +1,43 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.RiskMetricsDTO;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Ranking keys for {@link RiskMetricsService#rankPortfolios}. Each comparator puts the riskiest portfolio first:
+ * highest volatility, deepest drawdown and downside deviation, lowest risk-adjusted return.
+ */
+public enum RiskMetric {
+    VOLATILITY(RiskMetricsDTO::getVolatilityPercentage, true),
+    MAX_DRAWDOWN(RiskMetricsDTO::getMaxDrawdownPercentage, true),
+    DOWNSIDE_DEVIATION(RiskMetricsDTO::getDownsideDeviationPercentage, true),
+    SHARPE(RiskMetricsDTO::getSharpeRatio, false),
+    SORTINO(RiskMetricsDTO::getSortinoRatio, false);
+
+    private final Comparator<RiskMetricsDTO> riskiestFirst;
+
+    RiskMetric(Function<RiskMetricsDTO, BigDecimal> extractor, boolean higherIsRiskier) {
+        Comparator<BigDecimal> order = higherIsRiskier ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        this.riskiestFirst = Comparator.comparing(extractor, Comparator.nullsLast(order));
+    }
+
+    public Comparator<RiskMetricsDTO> riskiestFirst() {
+        return riskiestFirst;
+    }
+
+    public static RiskMetric fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = name.trim().replace('-', '_').toUpperCase();
+        for (RiskMetric metric : values()) {
+            if (metric.name().equals(normalized)) {
+                return metric;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.RiskMetricsDTO;
+import com.example.portfoliobackend.event.PortfolioChangedEvent;
+import com.example.portfoliobackend.event.SnapshotChangedEvent;
+import com.example.portfoliobackend.repository.PortfolioRepository;
+import com.example.portfoliobackend.repository.PortfolioSnapshotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Service
+public class RiskMetricsService {
+
+    public static final String FULL_HISTORY = "ALL";
+
+    private static final int RISK_SCALE = 4;
+    private static final int IN_CLAUSE_CHUNK = 500;
+
+    @Autowired
+    private ReturnsService returnsService;
+
+    @Autowired
+    private PortfolioSnapshotRepository portfolioSnapshotRepository;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Value("${portfolio.risk.risk-free-rate:0.0}")
+    private double annualRiskFreeRate = 0.0;
+
+    @Value("${portfolio.risk.periods-per-year:252}")
+    private int periodsPerYear = 252;
+
+    @Value("${portfolio.risk.cache-max-entries:10000}")
+    private int cacheMaxEntries = 10000;
+
+    // A portfolio's generation moves on every snapshot change; entries computed under an older generation are
+    // treated as misses, so a computation racing with an invalidation can never resurrect stale figures.
+    private final ConcurrentMap<Long, Long> generations = new ConcurrentHashMap<>();
+    // Access ordered, so the least recently read entry is dropped once the cache is full
+    private final Map<CacheKey, CachedMetrics> cache = Collections.synchronizedMap(
+            new LinkedHashMap<CacheKey, CachedMetrics>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedMetrics> eldest) {
+                    return size() > cacheMaxEntries;
+                }
+            });
+
+    public RiskMetricsDTO getRiskMetrics(Long portfolioId, ReturnWindow window) {
+        CacheKey key = new CacheKey(portfolioId, window);
+        long generation = generation(portfolioId);
+        CachedMetrics cached = cache.get(key);
+        if (cached != null && cached.generation == generation) {
+            return cached.metrics;
+        }
+        RiskMetricsDTO metrics = computeMetrics(portfolioId, window, returnsService.getSnapshotSeries(portfolioId));
+        cache.put(key, new CachedMetrics(generation, metrics));
+        return metrics;
+    }
+
+    public List<RiskMetricsDTO> rankPortfolios(List<Long> portfolioIds, ReturnWindow window, RiskMetric metric, Integer limit) {
+        List<Long> ids = portfolioIds == null || portfolioIds.isEmpty()
+                ? portfolioRepository.findAllPortfolioIds()
+                : new ArrayList<>(new LinkedHashSet<>(portfolioIds));
+
+        Map<Long, RiskMetricsDTO> results = new HashMap<>(ids.size() * 2);
+        List<Long> misses = new ArrayList<>();
+        for (Long portfolioId : ids) {
+            if (portfolioId == null) {
+                continue;
+            }
+            CachedMetrics cached = cache.get(new CacheKey(portfolioId, window));
+            if (cached != null && cached.generation == generation(portfolioId)) {
+                results.put(portfolioId, cached.metrics);
+            } else {
+                misses.add(portfolioId);
+            }
+        }
+
+        for (int from = 0; from < misses.size(); from += IN_CLAUSE_CHUNK) {
+            computeChunk(misses.subList(from, Math.min(from + IN_CLAUSE_CHUNK, misses.size())), window, results);
+        }
+
+        List<RiskMetricsDTO> ranked = new ArrayList<>(results.values());
+        ranked.sort(metric.riskiestFirst());
+        if (limit != null && limit >= 0 && limit < ranked.size()) {
+            return new ArrayList<>(ranked.subList(0, limit));
+        }
+        return ranked;
+    }
+
+    @Order(SnapshotChangedEvent.CACHE_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSnapshotChanged(SnapshotChangedEvent event) {
+        invalidate(event.getPortfolioId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        // The generation is kept: dropping it would let a computation already under way cache the deleted portfolio
+        if (event.isDeleted()) {
+            invalidate(event.getPortfolioId());
+        }
+    }
+
+    public void invalidate(Long portfolioId) {
+        if (portfolioId == null) {
+            return;
+        }
+        generations.merge(portfolioId, 1L, Long::sum);
+        cache.remove(new CacheKey(portfolioId, null));
+        for (ReturnWindow window : ReturnWindow.values()) {
+            cache.remove(new CacheKey(portfolioId, window));
+        }
+    }
+
+    private void computeChunk(List<Long> chunk, ReturnWindow window, Map<Long, RiskMetricsDTO> results) {
+        Map<Long, Long> chunkGenerations = new HashMap<>(chunk.size() * 2);
+        for (Long portfolioId : chunk) {
+            chunkGenerations.put(portfolioId, generation(portfolioId));
+        }
+
+        // Rows arrive grouped by portfolio and in date order; one pair of buffers is reused for every portfolio.
+        int[] days = new int[64];
+        double[] values = new double[64];
+        int length = 0;
+        Long current = null;
+        for (Object[] row : portfolioSnapshotRepository.findSeriesRowsByPortfolioIdIn(chunk)) {
+            Long portfolioId = (Long) row[0];
+            if (!Objects.equals(portfolioId, current)) {
+                if (current != null) {
+                    cacheComputed(current, window, SnapshotSeries.fromArrays(days, values, length),
+                            chunkGenerations, results);
+                }
+                current = portfolioId;
+                length = 0;
+            }
+            if (row[1] == null || row[2] == null) {
+                continue;
+            }
+            if (length == days.length) {
+                days = Arrays.copyOf(days, length * 2);
+                values = Arrays.copyOf(values, length * 2);
+            }
+            days[length] = (int) ((LocalDate) row[1]).toEpochDay();
+            values[length] = ((BigDecimal) row[2]).doubleValue();
+            length++;
+        }
+        if (current != null) {
+            cacheComputed(current, window, SnapshotSeries.fromArrays(days, values, length), chunkGenerations, results);
+        }
+
+        for (Long portfolioId : chunk) {
+            if (!results.containsKey(portfolioId)) {
+                cacheComputed(portfolioId, window, SnapshotSeries.empty(), chunkGenerations, results);
+            }
+        }
+    }
+
+    private void cacheComputed(Long portfolioId, ReturnWindow window, SnapshotSeries series,
+                               Map<Long, Long> chunkGenerations, Map<Long, RiskMetricsDTO> results) {
+        RiskMetricsDTO metrics = computeMetrics(portfolioId, window, series);
+        cache.put(new CacheKey(portfolioId, window), new CachedMetrics(chunkGenerations.get(portfolioId), metrics));
+        results.put(portfolioId, metrics);
+    }
+
+    RiskMetricsDTO computeMetrics(Long portfolioId, ReturnWindow window, SnapshotSeries series) {
+        String windowCode = window == null ? FULL_HISTORY : window.getCode();
+        if (series.isEmpty()) {
+            return new RiskMetricsDTO(portfolioId, windowCode, null, null, 0, null, null, null, null, null);
+        }
+
+        int end = series.size() - 1;
+        int start = 0;
+        if (window != null) {
+            start = Math.max(0, series.lastOnOrBefore(window.startEpochDay(series.epochDay(end))));
+        }
+
+        double riskFreePerPeriod = Math.pow(1 + annualRiskFreeRate, 1.0 / periodsPerYear) - 1;
+        int observations = 0;
+        double mean = 0;
+        double sumSquaredDeviations = 0;
+        double sumSquaredShortfall = 0;
+        double peak = series.value(start);
+        double maxDrawdown = 0;
+
+        for (int i = start + 1; i <= end; i++) {
+            double value = series.value(i);
+            if (value > peak) {
+                peak = value;
+            } else if (peak > 0) {
+                maxDrawdown = Math.max(maxDrawdown, (peak - value) / peak);
+            }
+
+            double previous = series.value(i - 1);
+            if (previous <= 0) {
+                continue;
+            }
+            double periodReturn = value / previous - 1;
+            observations++;
+            double delta = periodReturn - mean;
+            mean += delta / observations;
+            sumSquaredDeviations += delta * (periodReturn - mean);
+            double shortfall = Math.min(0, periodReturn - riskFreePerPeriod);
+            sumSquaredShortfall += shortfall * shortfall;
+        }
+
+        double annualization = Math.sqrt(periodsPerYear);
+        double deviation = observations > 1 ? Math.sqrt(sumSquaredDeviations / (observations - 1)) : Double.NaN;
+        double downsideDeviation = observations > 0 ? Math.sqrt(sumSquaredShortfall / observations) : Double.NaN;
+        double excessReturn = mean - riskFreePerPeriod;
+
+        return new RiskMetricsDTO(
+                portfolioId,
+                windowCode,
+                series.date(start),
+                series.date(end),
+                observations,
+                toPercentage(deviation * annualization),
+                toPercentage(maxDrawdown),
+                toPercentage(downsideDeviation * annualization),
+                deviation > 0 ? toScaled(excessReturn / deviation * annualization) : null,
+                downsideDeviation > 0 ? toScaled(excessReturn / downsideDeviation * annualization) : null
+        );
+    }
+
+    private long generation(Long portfolioId) {
+        return generations.getOrDefault(portfolioId, 0L);
+    }
+
+    private BigDecimal toPercentage(double ratio) {
+        return toScaled(ratio * 100);
+    }
+
+    private BigDecimal toScaled(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return null;
+        }
+        return BigDecimal.valueOf(value).setScale(RISK_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static final class CacheKey {
+        private final long portfolioId;
+        private final ReturnWindow window;
+
+        private CacheKey(long portfolioId, ReturnWindow window) {
+            this.portfolioId = portfolioId;
+            this.window = window;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey key = (CacheKey) other;
+            return portfolioId == key.portfolioId && window == key.window;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(portfolioId) + (window == null ? 0 : window.hashCode());
+        }
+    }
+
+    private static final class CachedMetrics {
+        private final long generation;
+        private final RiskMetricsDTO metrics;
+
+        private CachedMetrics(long generation, RiskMetricsDTO metrics) {
+            this.generation = generation;
+            this.metrics = metrics;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.BackfillResultDTO;
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import com.example.portfoliobackend.entity.PortfolioSnapshotAllocation;
+import com.example.portfoliobackend.event.SnapshotChangedEvent;
+import com.example.portfoliobackend.repository.AssetPriceHistoryRepository;
+import com.example.portfoliobackend.repository.HoldingRepository;
+import com.example.portfoliobackend.repository.JdbcBatchRepository;
+import com.example.portfoliobackend.repository.PortfolioRepository;
+import com.example.portfoliobackend.repository.PortfolioSnapshotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Reconstructs daily snapshot history from holdings' purchase dates and the stored price history.
+ * Portfolios are processed in ID chunks: each chunk costs a fixed number of queries regardless of how many days
+ * it spans, prices are kept as sparse per-asset {@link PriceSeries} rather than one slot per asset per day,
+ * valuations are accumulated over dense per-day arrays (one per asset type and holding currency, so each inserted
+ * snapshot carries its allocation breakdown), and only days without a snapshot are inserted. Each foreign-currency
+ * array is converted into the base currency at the rate in force on its day, as {@link HoldingValuation} does for
+ * recorded snapshots; a currency with no known rate is counted at par.
+ */
+@Service
+public class SnapshotBackfillService {
+
+    private static final String DEFAULT_CURRENCY = "INR";
+    private static final int FLUSH_THRESHOLD = JdbcBatchRepository.BATCH_SIZE * 10;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private PortfolioSnapshotRepository portfolioSnapshotRepository;
+
+    @Autowired
+    private AssetPriceHistoryRepository assetPriceHistoryRepository;
+
+    @Autowired
+    private JdbcBatchRepository jdbcBatchRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FxRateCache fxRateCache;
+
+    @Value("${portfolio.backfill.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public BackfillResultDTO backfillAll() {
+        return backfill(portfolioRepository.findAllPortfolioIds(), LocalDate.now());
+    }
+
+    public BackfillResultDTO backfillPortfolio(Long portfolioId) {
+        return backfill(Collections.singletonList(portfolioId), LocalDate.now());
+    }
+
+    BackfillResultDTO backfill(List<Long> portfolioIds, LocalDate today) {
+        long started = System.nanoTime();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int backfilled = 0;
+        long inserted = 0;
+        for (int from = 0; from < portfolioIds.size(); from += chunkSize) {
+            List<Long> chunk = portfolioIds.subList(from, Math.min(from + chunkSize, portfolioIds.size()));
+            ChunkOutcome outcome = transactionTemplate.execute(status -> backfillChunk(chunk, today));
+            if (outcome != null) {
+                backfilled += outcome.portfolios;
+                inserted += outcome.snapshots;
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return new BackfillResultDTO(portfolioIds.size(), backfilled, inserted, elapsedMillis);
+    }
+
+    private ChunkOutcome backfillChunk(List<Long> portfolioIds, LocalDate today) {
+        Map<Long, List<Holding>> holdingsByPortfolio = new LinkedHashMap<>();
+        Set<String> assetNames = new HashSet<>();
+        int lastDay = (int) today.toEpochDay();
+        int firstDay = lastDay;
+        for (Holding holding : holdingRepository.findByPortfolioIdIn(portfolioIds)) {
+            if (holding.getQuantity() == null || holding.getPurchaseDate() == null || holding.getAssetName() == null) {
+                continue;
+            }
+            holdingsByPortfolio.computeIfAbsent(holding.getPortfolioId(), id -> new ArrayList<>()).add(holding);
+            assetNames.add(holding.getAssetName());
+            firstDay = Math.min(firstDay, (int) holding.getPurchaseDate().toEpochDay());
+        }
+        if (holdingsByPortfolio.isEmpty()) {
+            return new ChunkOutcome();
+        }
+
+        int length = lastDay - firstDay + 1;
+        Map<String, PriceSeries> prices = loadPriceSeries(assetNames, today);
+        Map<Long, BitSet> existingDays = loadExistingDays(holdingsByPortfolio.keySet(), firstDay, length);
+        Map<Long, String> currencies = new HashMap<>();
+        for (Portfolio portfolio : portfolioRepository.findAllById(holdingsByPortfolio.keySet())) {
+            currencies.put(portfolio.getPortfolioId(), portfolio.getBaseCurrency());
+        }
+
+        ChunkOutcome outcome = new ChunkOutcome();
+        Map<String, Map<String, double[]>> buffers = new HashMap<>();
+        Map<String, double[]> rates = new HashMap<>();
+        PendingRows pending = new PendingRows();
+        for (Map.Entry<Long, List<Holding>> entry : holdingsByPortfolio.entrySet()) {
+            Long portfolioId = entry.getKey();
+            String currency = Objects.requireNonNullElse(currencies.get(portfolioId), DEFAULT_CURRENCY);
+            Map<String, Map<String, double[]>> byType = new LinkedHashMap<>();
+            int start = accumulate(entry.getValue(), currency, prices, buffers, byType, firstDay, length);
+            if (start >= length) {
+                continue;
+            }
+            Map<String, double[]> converted = convert(byType, currency, rates, firstDay, start, length);
+
+            BitSet taken = existingDays.getOrDefault(portfolioId, new BitSet(0));
+            int added = 0;
+            for (int day = taken.nextClearBit(start); day < length; day = taken.nextClearBit(day + 1)) {
+                LocalDate date = LocalDate.ofEpochDay(firstDay + day);
+                PortfolioSnapshot snapshot = new PortfolioSnapshot();
+                snapshot.setPortfolioId(portfolioId);
+                snapshot.setCurrency(currency);
+                snapshot.setSnapshotDate(date);
+                double total = 0;
+                for (Map.Entry<String, double[]> typeEntry : converted.entrySet()) {
+                    double value = typeEntry.getValue()[day];
+                    total += value;
+                    if (typeEntry.getKey() != null && value != 0) {
+                        PortfolioSnapshotAllocation allocation = new PortfolioSnapshotAllocation();
+                        allocation.setPortfolioId(portfolioId);
+                        allocation.setSnapshotDate(date);
+                        allocation.setAssetType(typeEntry.getKey());
+                        allocation.setMarketValue(toMoney(value));
+                        pending.allocations.add(allocation);
+                        pending.owners.add(snapshot);
+                    }
+                }
+                snapshot.setTotalValue(toMoney(total));
+                pending.snapshots.add(snapshot);
+                added++;
+            }
+            if (pending.snapshots.size() >= FLUSH_THRESHOLD) {
+                outcome.snapshots += flush(pending);
+            }
+            if (added > 0) {
+                outcome.portfolios++;
+                eventPublisher.publishEvent(new SnapshotChangedEvent(portfolioId));
+            }
+        }
+        outcome.snapshots += flush(pending);
+        return outcome;
+    }
+
+    private int flush(PendingRows pending) {
+        int inserted = jdbcBatchRepository.insertSnapshots(pending.snapshots);
+        for (int i = 0; i < pending.allocations.size(); i++) {
+            pending.allocations.get(i).setSnapshotId(pending.owners.get(i).getSnapshotId());
+        }
+        jdbcBatchRepository.insertAllocations(pending.allocations);
+        pending.snapshots.clear();
+        pending.allocations.clear();
+        pending.owners.clear();
+        return inserted;
+    }
+
+    /**
+     * Adds each holding's daily market value, in its own currency, into the series for its asset type and currency
+     * and returns the first day index that holds anything. Before an asset's first recorded price a holding is
+     * carried at its purchase price, and the final day uses the holding's current price. Series buffers are borrowed
+     * from {@code buffers} so they are reused across the portfolios of a chunk.
+     */
+    private int accumulate(List<Holding> holdings, String currency, Map<String, PriceSeries> prices,
+                           Map<String, Map<String, double[]>> buffers, Map<String, Map<String, double[]>> byType,
+                           int firstDay, int length) {
+        int today = length - 1;
+        int start = length;
+        for (Holding holding : holdings) {
+            int from = (int) holding.getPurchaseDate().toEpochDay() - firstDay;
+            if (from > today) {
+                continue;
+            }
+            start = Math.min(start, from);
+
+            String holdingCurrency = holding.getCurrency() == null ? currency : holding.getCurrency();
+            double[] totals = byType.computeIfAbsent(holding.getAssetType(), type -> new LinkedHashMap<>())
+                    .computeIfAbsent(holdingCurrency, key -> {
+                        double[] buffer = buffers.computeIfAbsent(holding.getAssetType(), type -> new HashMap<>())
+                                .computeIfAbsent(key, unused -> new double[length]);
+                        Arrays.fill(buffer, 0.0);
+                        return buffer;
+                    });
+            double quantity = holding.getQuantity().doubleValue();
+            double purchasePrice = holding.getPurchasePrice() == null ? 0.0 : holding.getPurchasePrice().doubleValue();
+            PriceSeries series = prices.get(holding.getAssetName());
+            int firstKnown = series == null ? length : Math.max(series.epochDay(0) - firstDay, 0);
+            int firstPriced = Math.max(from, Math.min(firstKnown, today));
+
+            for (int day = from; day < firstPriced; day++) {
+                totals[day] += quantity * purchasePrice;
+            }
+            // The price in force moves forward with the day, so one search finds the starting point
+            int point = series == null ? -1 : series.lastOnOrBefore(firstDay + firstPriced);
+            for (int day = firstPriced; day < today && point >= 0; day++) {
+                while (point + 1 < series.size() && series.epochDay(point + 1) - firstDay <= day) {
+                    point++;
+                }
+                totals[day] += quantity * toPrice(series.cents(point));
+            }
+
+            int closingPoint = series == null ? -1 : series.lastOnOrBefore(firstDay + today);
+            double closing = holding.getCurrentPrice() != null ? holding.getCurrentPrice().doubleValue()
+                    : closingPoint >= 0 ? toPrice(series.cents(closingPoint)) : purchasePrice;
+            totals[today] += quantity * closing;
+        }
+        return start;
+    }
+
+    /**
+     * Sums each asset type's per-currency series into one series in {@code currency}, converting every day at the
+     * rate in force on it. The single-currency case reuses the series as is.
+     */
+    private Map<String, double[]> convert(Map<String, Map<String, double[]>> byType, String currency,
+                                          Map<String, double[]> rates, int firstDay, int start, int length) {
+        Map<String, double[]> converted = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, double[]>> typeEntry : byType.entrySet()) {
+            Map<String, double[]> byCurrency = typeEntry.getValue();
+            double[] own = byCurrency.get(currency);
+            if (byCurrency.size() == 1 && own != null) {
+                converted.put(typeEntry.getKey(), own);
+                continue;
+            }
+            double[] total = new double[length];
+            for (Map.Entry<String, double[]> currencyEntry : byCurrency.entrySet()) {
+                double[] values = currencyEntry.getValue();
+                if (currencyEntry.getKey().equals(currency)) {
+                    for (int day = start; day < length; day++) {
+                        total[day] += values[day];
+                    }
+                    continue;
+                }
+                double[] dailyRates = rates.computeIfAbsent(currencyEntry.getKey() + '/' + currency,
+                        pair -> dailyRates(currencyEntry.getKey(), currency, firstDay, length));
+                for (int day = start; day < length; day++) {
+                    total[day] += values[day] * dailyRates[day];
+                }
+            }
+            converted.put(typeEntry.getKey(), total);
+        }
+        return converted;
+    }
+
+    private double[] dailyRates(String from, String to, int firstDay, int length) {
+        double[] dailyRates = new double[length];
+        for (int day = 0; day < length; day++) {
+            BigDecimal rate = fxRateCache.rate(from, to, LocalDate.ofEpochDay(firstDay + day));
+            dailyRates[day] = rate == null ? 1.0 : rate.doubleValue();
+        }
+        return dailyRates;
+    }
+
+    private static double toPrice(long cents) {
+        return cents / 100.0;
+    }
+
+    private static BigDecimal toMoney(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private Map<String, PriceSeries> loadPriceSeries(Set<String> assetNames, LocalDate today) {
+        Map<String, PriceSeries> series = new HashMap<>();
+        String current = null;
+        int[] days = new int[16];
+        long[] cents = new long[16];
+        int size = 0;
+        for (Object[] row : assetPriceHistoryRepository.findPriceRowsByAssetNameIn(assetNames, today)) {
+            String assetName = (String) row[0];
+            if (!assetName.equals(current)) {
+                if (current != null) {
+                    series.put(current, PriceSeries.fromArrays(days, cents, size));
+                    days = new int[16];
+                    cents = new long[16];
+                }
+                current = assetName;
+                size = 0;
+            }
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                cents = Arrays.copyOf(cents, size * 2);
+            }
+            days[size] = (int) ((LocalDate) row[1]).toEpochDay();
+            cents[size] = PriceSeries.toCents((BigDecimal) row[2]);
+            size++;
+        }
+        if (current != null) {
+            series.put(current, PriceSeries.fromArrays(days, cents, size));
+        }
+        return series;
+    }
+
+    private Map<Long, BitSet> loadExistingDays(Set<Long> portfolioIds, int firstDay, int length) {
+        Map<Long, BitSet> existing = new HashMap<>();
+        for (Object[] row : portfolioSnapshotRepository.findSnapshotDatesByPortfolioIdIn(portfolioIds)) {
+            int index = (int) ((LocalDate) row[1]).toEpochDay() - firstDay;
+            if (index >= 0 && index < length) {
+                existing.computeIfAbsent((Long) row[0], id -> new BitSet(length)).set(index);
+            }
+        }
+        return existing;
+    }
+
+    private static final class PendingRows {
+        private final List<PortfolioSnapshot> snapshots = new ArrayList<>();
+        private final List<PortfolioSnapshotAllocation> allocations = new ArrayList<>();
+        // The snapshot each allocation belongs to; its ID is only known once the snapshots are inserted.
+        private final List<PortfolioSnapshot> owners = new ArrayList<>();
+    }
+
+    private static final class ChunkOutcome {
+        private int portfolios;
+        private long snapshots;
+    }
+}
@@ -0,0 +1,433 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Append-only snapshot history spread over memory-mapped shard files. Every record is a fixed 40 bytes and links
+ * back to the previous record of the same portfolio, so the in-memory index only keeps each portfolio's latest
+ * record and a history read walks that chain straight out of the mapping.
+ *
+ * <pre>
+ *  0  portfolioId   long
+ *  8  snapshotId    long
+ * 16  totalValue    long, in hundredths
+ * 24  epochDay      int
+ * 28  previous      int, record number of the portfolio's previous record or -1
+ * 32  currency      3 ASCII bytes, zero padded to 8
+ * </pre>
+ *
+ * Replacing a portfolio's history re-appends it and leaves the old records unreachable. A shard that fills up while
+ * at least half its records are unreachable is compacted into a fresh file holding only the live chains, instead of
+ * growing; readers still walking the old file keep their mapping, which outlives the file. Writers must be
+ * externally serialised per log; readers need no locking.
+ */
+public final class SnapshotLog implements Closeable {
+
+    static final int RECORD_SIZE = 40;
+
+    private static final int NO_RECORD = -1;
+    private static final int CURRENCY_LENGTH = 3;
+    private static final int MAX_RECORDS_PER_SHARD = Integer.MAX_VALUE / RECORD_SIZE;
+
+    private final Shard[] shards;
+
+    public SnapshotLog(Path directory, int shardCount, int initialRecordsPerShard) {
+        this(directory, shardCount, initialRecordsPerShard, MAX_RECORDS_PER_SHARD);
+    }
+
+    SnapshotLog(Path directory, int shardCount, int initialRecordsPerShard, int maxRecordsPerShard) {
+        try {
+            Files.createDirectories(directory);
+            shards = new Shard[shardCount];
+            for (int i = 0; i < shardCount; i++) {
+                shards[i] = new Shard(directory, i, Math.max(1, initialRecordsPerShard),
+                        Math.min(maxRecordsPerShard, MAX_RECORDS_PER_SHARD));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open snapshot log in " + directory, e);
+        }
+    }
+
+    public void append(PortfolioSnapshot snapshot) {
+        Shard shard = shard(snapshot.getPortfolioId());
+        shard.reserve(1);
+        Segment segment = shard.segment;
+        long portfolioId = snapshot.getPortfolioId();
+        segment.tails.put(portfolioId, segment.write(snapshot, segment.tails.getOrDefault(portfolioId, NO_RECORD)));
+    }
+
+    /**
+     * Makes {@code snapshots} the whole history of the portfolio. The new chain is written before its tail is
+     * published, so a concurrent reader sees either the old history or the new one, never a partial one.
+     */
+    public void replace(long portfolioId, List<PortfolioSnapshot> snapshots) {
+        Shard shard = shard(portfolioId);
+        // Compacting moves records, so it must happen before the new chain is written, not part way through it
+        shard.reserve(snapshots.size());
+        Segment segment = shard.segment;
+        Integer previous = segment.tails.get(portfolioId);
+        int tail = NO_RECORD;
+        for (PortfolioSnapshot snapshot : snapshots) {
+            tail = segment.write(snapshot, tail);
+        }
+        if (tail == NO_RECORD) {
+            segment.tails.remove(portfolioId);
+        } else {
+            segment.tails.put(portfolioId, tail);
+        }
+        if (previous != null) {
+            shard.orphaned += segment.chainLength(previous);
+        }
+    }
+
+    public void clear() {
+        for (Shard shard : shards) {
+            shard.clear();
+        }
+    }
+
+    public long recordCount() {
+        long count = 0;
+        for (Shard shard : shards) {
+            count += shard.segment.count;
+        }
+        return count;
+    }
+
+    public SnapshotSeries series(long portfolioId) {
+        Chain chain = chain(portfolioId);
+        if (chain.length == 0) {
+            return SnapshotSeries.empty();
+        }
+        int[] days = new int[chain.length];
+        double[] values = new double[chain.length];
+        for (int i = 0; i < chain.length; i++) {
+            int position = chain.records[i] * RECORD_SIZE;
+            days[i] = chain.buffer.getInt(position + 24);
+            values[i] = chain.buffer.getLong(position + 16) / 100.0;
+        }
+        return SnapshotSeries.fromArrays(days, values, chain.length);
+    }
+
+    /**
+     * The portfolio's snapshots, newest first.
+     */
+    public List<PortfolioSnapshot> snapshotsDescending(long portfolioId) {
+        Chain chain = chain(portfolioId);
+        List<PortfolioSnapshot> snapshots = new ArrayList<>(chain.length);
+        for (int i = chain.length - 1; i >= 0; i--) {
+            int position = chain.records[i] * RECORD_SIZE;
+            PortfolioSnapshot snapshot = new PortfolioSnapshot();
+            snapshot.setPortfolioId(chain.buffer.getLong(position));
+            snapshot.setSnapshotId(chain.buffer.getLong(position + 8));
+            snapshot.setTotalValue(BigDecimal.valueOf(chain.buffer.getLong(position + 16), 2));
+            snapshot.setSnapshotDate(LocalDate.ofEpochDay(chain.buffer.getInt(position + 24)));
+            snapshot.setCurrency(readCurrency(chain.buffer, position + 32));
+            snapshots.add(snapshot);
+        }
+        return snapshots;
+    }
+
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.close();
+        }
+    }
+
+    private Shard shard(long portfolioId) {
+        return shards[(int) Math.floorMod(portfolioId, (long) shards.length)];
+    }
+
+    /**
+     * Walks the portfolio's chain and returns its record numbers ordered by date, then snapshot ID.
+     */
+    private Chain chain(long portfolioId) {
+        Segment segment = shard(portfolioId).segment;
+        Integer tail = segment.tails.get(portfolioId);
+        // Read the mapping only after the tail: a tail is published after the mapping that holds it.
+        MappedByteBuffer buffer = segment.buffer;
+        if (tail == null) {
+            return new Chain(buffer, new int[0], 0);
+        }
+
+        int[] records = new int[16];
+        int length = 0;
+        for (int record = tail; record != NO_RECORD; record = buffer.getInt(record * RECORD_SIZE + 28)) {
+            if (length == records.length) {
+                records = Arrays.copyOf(records, length * 2);
+            }
+            records[length++] = record;
+        }
+        reverse(records, length);
+        if (!isOrdered(buffer, records, length)) {
+            sortByDateAndId(buffer, records, length);
+        }
+        return new Chain(buffer, records, length);
+    }
+
+    private static boolean isOrdered(MappedByteBuffer buffer, int[] records, int length) {
+        for (int i = 1; i < length; i++) {
+            if (compare(buffer, records[i - 1], records[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void sortByDateAndId(MappedByteBuffer buffer, int[] records, int length) {
+        Integer[] boxed = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            boxed[i] = records[i];
+        }
+        Arrays.sort(boxed, (a, b) -> compare(buffer, a, b));
+        for (int i = 0; i < length; i++) {
+            records[i] = boxed[i];
+        }
+    }
+
+    private static int compare(MappedByteBuffer buffer, int first, int second) {
+        int byDay = Integer.compare(buffer.getInt(first * RECORD_SIZE + 24), buffer.getInt(second * RECORD_SIZE + 24));
+        if (byDay != 0) {
+            return byDay;
+        }
+        return Long.compare(buffer.getLong(first * RECORD_SIZE + 8), buffer.getLong(second * RECORD_SIZE + 8));
+    }
+
+    private static void reverse(int[] records, int length) {
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int swap = records[i];
+            records[i] = records[j];
+            records[j] = swap;
+        }
+    }
+
+    private static String readCurrency(MappedByteBuffer buffer, int position) {
+        byte[] bytes = new byte[CURRENCY_LENGTH];
+        int length = 0;
+        while (length < CURRENCY_LENGTH && buffer.get(position + length) != 0) {
+            bytes[length] = buffer.get(position + length);
+            length++;
+        }
+        return length == 0 ? null : new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private static final class Chain {
+        private final MappedByteBuffer buffer;
+        private final int[] records;
+        private final int length;
+
+        private Chain(MappedByteBuffer buffer, int[] records, int length) {
+            this.buffer = buffer;
+            this.records = records;
+            this.length = length;
+        }
+    }
+
+    /**
+     * One shard's current segment plus the bookkeeping its writer needs to decide between growing and compacting.
+     */
+    private static final class Shard {
+        private final Path directory;
+        private final int index;
+        private final int maxRecords;
+        private volatile Segment segment;
+        private int generation;
+        // Records no chain reaches any more
+        private int orphaned;
+
+        private Shard(Path directory, int index, int initialCapacity, int maxRecords) throws IOException {
+            this.directory = directory;
+            this.index = index;
+            this.maxRecords = maxRecords;
+            this.segment = new Segment(file(0), Math.min(initialCapacity, maxRecords));
+        }
+
+        private Path file(int fileGeneration) {
+            return directory.resolve("snapshots-" + index + (fileGeneration == 0 ? "" : "-" + fileGeneration) + ".log");
+        }
+
+        /**
+         * Makes room for {@code records} more records, compacting when at least half the segment is unreachable or
+         * when growing would pass the shard's limit, and growing otherwise.
+         */
+        private void reserve(int records) {
+            Segment current = segment;
+            if (current.count + records <= current.capacity) {
+                return;
+            }
+            boolean fits = (long) current.count + records <= maxRecords;
+            if (orphaned > 0 && (orphaned * 2 >= current.count || !fits)) {
+                compact(records);
+                return;
+            }
+            if (!fits) {
+                throw new IllegalStateException("Snapshot log shard is full; add shards or rebuild the log");
+            }
+            current.map(capacityFor(current.capacity, current.count + records));
+        }
+
+        private void compact(int records) {
+            Segment current = segment;
+            int live = current.count - orphaned;
+            if ((long) live + records > maxRecords) {
+                throw new IllegalStateException("Snapshot log shard is full; add shards or rebuild the log");
+            }
+            Segment next;
+            try {
+                next = new Segment(file(generation + 1), capacityFor(current.capacity, live + records));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            for (Map.Entry<Long, Integer> entry : current.tails.entrySet()) {
+                int[] chain = current.chainRecords(entry.getValue());
+                int tail = NO_RECORD;
+                for (int i = chain.length - 1; i >= 0; i--) {
+                    tail = next.copy(current.buffer, chain[i], tail);
+                }
+                next.tails.put(entry.getKey(), tail);
+            }
+            segment = next;
+            generation++;
+            orphaned = 0;
+            current.close();
+            try {
+                Files.deleteIfExists(current.file);
+            } catch (IOException e) {
+                // Left behind; a later start truncates or ignores it
+            }
+        }
+
+        private int capacityFor(int capacity, int needed) {
+            int grown = capacity;
+            while (grown < needed) {
+                grown = grown > maxRecords / 2 ? maxRecords : grown * 2;
+            }
+            return grown;
+        }
+
+        // The file keeps its size: a reader may still hold the old mapping, and touching a mapping past the end
+        // of a shrunken file faults.
+        private void clear() {
+            segment.tails.clear();
+            segment.count = 0;
+            orphaned = 0;
+        }
+
+        private void close() {
+            segment.close();
+        }
+    }
+
+    /**
+     * A mapped file of records with the tail of each portfolio's chain in it. Tails are only valid against the
+     * segment that holds them.
+     */
+    private static final class Segment {
+        private final Path file;
+        private final FileChannel channel;
+        private final ConcurrentMap<Long, Integer> tails = new ConcurrentHashMap<>();
+        private volatile MappedByteBuffer buffer;
+        private int capacity;
+        private int count;
+
+        private Segment(Path file, int initialCapacity) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            map(initialCapacity);
+        }
+
+        /**
+         * Writes a record linked to {@code previous} and returns its record number without publishing it. The
+         * caller must have reserved room for it.
+         */
+        private int write(PortfolioSnapshot snapshot, int previous) {
+            int position = count * RECORD_SIZE;
+            MappedByteBuffer target = buffer;
+            target.putLong(position, snapshot.getPortfolioId());
+            target.putLong(position + 8, snapshot.getSnapshotId() == null ? 0L : snapshot.getSnapshotId());
+            target.putLong(position + 16, snapshot.getTotalValue() == null ? 0L
+                    : snapshot.getTotalValue().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+            target.putInt(position + 24, (int) snapshot.getSnapshotDate().toEpochDay());
+            target.putInt(position + 28, previous);
+            target.putLong(position + 32, 0L);
+            String currency = snapshot.getCurrency();
+            if (currency != null) {
+                byte[] bytes = currency.getBytes(StandardCharsets.US_ASCII);
+                for (int i = 0; i < Math.min(bytes.length, CURRENCY_LENGTH); i++) {
+                    target.put(position + 32 + i, bytes[i]);
+                }
+            }
+            return count++;
+        }
+
+        /**
+         * Copies record {@code record} of {@code source} linked to {@code previous} and returns its new number.
+         */
+        private int copy(MappedByteBuffer source, int record, int previous) {
+            int from = record * RECORD_SIZE;
+            int to = count * RECORD_SIZE;
+            MappedByteBuffer target = buffer;
+            for (int offset = 0; offset < RECORD_SIZE; offset += 8) {
+                target.putLong(to + offset, source.getLong(from + offset));
+            }
+            target.putInt(to + 28, previous);
+            return count++;
+        }
+
+        private int chainLength(int tail) {
+            int length = 0;
+            for (int record = tail; record != NO_RECORD; record = buffer.getInt(record * RECORD_SIZE + 28)) {
+                length++;
+            }
+            return length;
+        }
+
+        // Newest first, as linked
+        private int[] chainRecords(int tail) {
+            int[] records = new int[chainLength(tail)];
+            int length = 0;
+            for (int record = tail; record != NO_RECORD; record = buffer.getInt(record * RECORD_SIZE + 28)) {
+                records[length++] = record;
+            }
+            return records;
+        }
+
+        private void map(int records) {
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) records * RECORD_SIZE);
+                capacity = records;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import com.example.portfoliobackend.event.SnapshotChangedEvent;
+import com.example.portfoliobackend.repository.PortfolioSnapshotRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves snapshot history from a {@link SnapshotLog} instead of SQL when {@code portfolio.snapshot-log.enabled} is
+ * set. MySQL stays the system of record: the log is rebuilt from it on startup and follows committed changes.
+ * Until the first rebuild finishes, {@link #isReady()} is false and callers keep reading from the database; a change
+ * the log fails to follow sets it back to false until the next rebuild, rather than serving a stale history.
+ * Writers serialize on a {@link ReentrantLock} rather than a monitor, so a virtual thread waiting on MySQL does not
+ * pin its carrier.
+ */
+@Service
+@ConditionalOnProperty(name = "portfolio.snapshot-log.enabled", havingValue = "true")
+public class SnapshotLogService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotLogService.class);
+
+    private static final String REBUILD_SQL =
+            "SELECT snapshot_id, portfolio_id, total_value, currency, snapshot_date FROM portfolio_snapshots " +
+                    "ORDER BY portfolio_id, snapshot_date, snapshot_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PortfolioSnapshotRepository portfolioSnapshotRepository;
+
+    @Value("${portfolio.snapshot-log.directory:${java.io.tmpdir}/portfolio-snapshot-log}")
+    private String directory;
+
+    @Value("${portfolio.snapshot-log.shards:8}")
+    private int shardCount = 8;
+
+    @Value("${portfolio.snapshot-log.initial-records-per-shard:65536}")
+    private int initialRecordsPerShard = 65536;
+
+    private SnapshotLog snapshotLog;
+    private volatile boolean ready;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public SnapshotSeries getSnapshotSeries(Long portfolioId) {
+        return snapshotLog.series(portfolioId);
+    }
+
+    public List<PortfolioSnapshot> getSnapshotsDescending(Long portfolioId) {
+        return snapshotLog.snapshotsDescending(portfolioId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            ready = false;
+            if (snapshotLog == null) {
+                snapshotLog = new SnapshotLog(Paths.get(directory), shardCount, initialRecordsPerShard);
+            }
+            snapshotLog.clear();
+            jdbcTemplate.query(REBUILD_SQL, resultSet -> {
+                PortfolioSnapshot snapshot = new PortfolioSnapshot();
+                snapshot.setSnapshotId(resultSet.getLong(1));
+                snapshot.setPortfolioId(resultSet.getLong(2));
+                snapshot.setTotalValue(resultSet.getBigDecimal(3));
+                snapshot.setCurrency(resultSet.getString(4));
+                Date date = resultSet.getDate(5);
+                if (date != null) {
+                    snapshot.setSnapshotDate(date.toLocalDate());
+                    snapshotLog.append(snapshot);
+                }
+            });
+            ready = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Order(SnapshotChangedEvent.LOG_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSnapshotChanged(SnapshotChangedEvent event) {
+        writeLock.lock();
+        try {
+            if (snapshotLog == null || event.getPortfolioId() == null) {
+                return;
+            }
+            PortfolioSnapshot appended = event.getAppended();
+            if (appended != null && appended.getSnapshotDate() != null) {
+                snapshotLog.append(appended);
+                return;
+            }
+            snapshotLog.replace(event.getPortfolioId(),
+                    portfolioSnapshotRepository.findByPortfolioIdOrderBySnapshotDateAscSnapshotIdAsc(event.getPortfolioId()));
+        } catch (RuntimeException e) {
+            // Runs after commit, so the change itself stands; only the log is behind
+            ready = false;
+            log.error("Snapshot log could not follow portfolio {}; reading snapshots from the database",
+                    event.getPortfolioId(), e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        writeLock.lock();
+        try {
+            ready = false;
+            if (snapshotLog != null) {
+                snapshotLog.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
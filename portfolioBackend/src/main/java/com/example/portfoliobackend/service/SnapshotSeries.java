@@ -0,0 +1,111 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Ascending, one-point-per-day view of a portfolio's snapshot history held in primitive arrays.
+ * When several snapshots share a date the last one recorded wins.
+ */
+public final class SnapshotSeries {
+
+    private static final SnapshotSeries EMPTY = new SnapshotSeries(new int[0], new double[0], 0);
+
+    private final int[] epochDays;
+    private final double[] values;
+    private final int size;
+
+    private SnapshotSeries(int[] epochDays, double[] values, int size) {
+        this.epochDays = epochDays;
+        this.values = values;
+        this.size = size;
+    }
+
+    public static SnapshotSeries empty() {
+        return EMPTY;
+    }
+
+    public static SnapshotSeries fromAscending(List<PortfolioSnapshot> snapshots) {
+        if (snapshots == null || snapshots.isEmpty()) {
+            return EMPTY;
+        }
+        int[] days = new int[snapshots.size()];
+        double[] values = new double[snapshots.size()];
+        int size = 0;
+        for (PortfolioSnapshot snapshot : snapshots) {
+            if (snapshot.getSnapshotDate() == null || snapshot.getTotalValue() == null) {
+                continue;
+            }
+            size = append(days, values, size, (int) snapshot.getSnapshotDate().toEpochDay(),
+                    snapshot.getTotalValue().doubleValue());
+        }
+        return new SnapshotSeries(days, values, size);
+    }
+
+    /**
+     * Builds a series from parallel arrays already sorted by day. The arrays are adopted, not copied.
+     */
+    public static SnapshotSeries fromArrays(int[] epochDays, double[] values, int length) {
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            size = append(epochDays, values, size, epochDays[i], values[i]);
+        }
+        return new SnapshotSeries(epochDays, values, size);
+    }
+
+    private static int append(int[] days, double[] values, int size, int day, double value) {
+        if (size > 0 && days[size - 1] == day) {
+            values[size - 1] = value;
+            return size;
+        }
+        days[size] = day;
+        values[size] = value;
+        return size + 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int epochDay(int index) {
+        return epochDays[index];
+    }
+
+    public LocalDate date(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public double value(int index) {
+        return values[index];
+    }
+
+    /**
+     * Index of the first point on or after {@code epochDay}, or {@link #size()} if there is none.
+     */
+    public int firstOnOrAfter(long epochDay) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the last point on or before {@code epochDay}, or -1 if there is none.
+     */
+    public int lastOnOrBefore(long epochDay) {
+        return firstOnOrAfter(epochDay + 1) - 1;
+    }
+}
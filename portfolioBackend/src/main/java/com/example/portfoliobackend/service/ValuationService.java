@@ -0,0 +1,114 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.PortfolioValuationDTO;
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.repository.HoldingRepository;
+import com.example.portfoliobackend.repository.PortfolioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Values a portfolio as it stood on past dates: the holdings bought on or before each date, at the last recorded
+ * price on or before it, converted at that date's FX rates. Holdings come from one query up to the latest requested
+ * date and prices from the {@link PriceHistoryCache}, so a batch of dates costs the same number of queries as one.
+ * Only current holdings are known, so a position sold before a date is not part of its valuation.
+ */
+@Service
+public class ValuationService {
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private PriceHistoryCache priceHistoryCache;
+
+    @Autowired
+    private FxRateCache fxRateCache;
+
+    /**
+     * The portfolio's valuation on {@code asOf}, or null if the portfolio does not exist.
+     */
+    public PortfolioValuationDTO getValuation(Long portfolioId, LocalDate asOf) {
+        List<PortfolioValuationDTO> valuations = getValuations(portfolioId, Collections.singletonList(asOf));
+        return valuations == null ? null : valuations.get(0);
+    }
+
+    /**
+     * One valuation per date, in the order given, or null if the portfolio does not exist.
+     */
+    public List<PortfolioValuationDTO> getValuations(Long portfolioId, List<LocalDate> dates) {
+        Portfolio portfolio = portfolioRepository.findById(portfolioId).orElse(null);
+        if (portfolio == null) {
+            return null;
+        }
+        List<PortfolioValuationDTO> valuations = new ArrayList<>(dates.size());
+        if (dates.isEmpty()) {
+            return valuations;
+        }
+
+        LocalDate latest = Collections.max(dates);
+        List<Holding> holdings = holdingRepository.findByPortfolioIdAndPurchaseDateLessThanEqual(portfolioId, latest)
+                .stream()
+                .sorted(Comparator.comparing(Holding::getPurchaseDate))
+                .collect(Collectors.toList());
+        Map<String, PriceSeries> series = priceHistoryCache.load(holdings.stream()
+                .map(Holding::getAssetName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        for (LocalDate asOf : dates) {
+            valuations.add(valueOn(portfolio, holdings, series, asOf));
+        }
+        return valuations;
+    }
+
+    private PortfolioValuationDTO valueOn(Portfolio portfolio, List<Holding> holdingsByPurchaseDate,
+                                          Map<String, PriceSeries> series, LocalDate asOf) {
+        List<Holding> held = new ArrayList<>();
+        List<BigDecimal> prices = new ArrayList<>();
+        Set<String> unpriced = new TreeSet<>();
+        for (Holding holding : holdingsByPurchaseDate) {
+            if (holding.getPurchaseDate().isAfter(asOf)) {
+                break;
+            }
+            PriceSeries assetSeries = holding.getAssetName() == null ? null : series.get(holding.getAssetName());
+            BigDecimal price = assetSeries == null ? null : assetSeries.priceAsOf(asOf);
+            if (price == null) {
+                price = holding.getPurchasePrice();
+                if (holding.getAssetName() != null) {
+                    unpriced.add(holding.getAssetName());
+                }
+            }
+            held.add(holding);
+            prices.add(price);
+        }
+
+        HoldingValuation valuation = HoldingValuation.of(held, prices, portfolio.getBaseCurrency(), asOf, fxRateCache);
+        return new PortfolioValuationDTO(
+                portfolio.getPortfolioId(),
+                asOf,
+                portfolio.getBaseCurrency(),
+                valuation.getTotalMarketValue(),
+                valuation.getTotalCost(),
+                held.size(),
+                valuation.getAssetTypeValues(),
+                new ArrayList<>(unpriced),
+                new ArrayList<>(valuation.getUnconvertedCurrencies()));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.portfoliobackend;
+
+import com.example.portfoliobackend.dto.BatchRequestDTO;
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.entity.User;
+import com.example.portfoliobackend.repository.HoldingRepository;
+import com.example.portfoliobackend.repository.PortfolioRepository;
+import com.example.portfoliobackend.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Sends a batch through the running servlet container, so the sub-requests go through the real dispatcher servlet,
+ * and checks that views of the same portfolio share one holdings read.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:batch;DB_CLOSE_DELAY=-1;MODE=MySQL")
+@ActiveProfiles("test")
+@DisplayName("Batch Dispatch Tests")
+class BatchDispatchTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoSpyBean
+    private HoldingRepository holdingRepository;
+
+    @Test
+    @DisplayName("Should answer every sub-request through the dispatcher and read the holdings once")
+    void batch_ShouldDispatchSubRequestsAndShareReads() {
+        User user = new User();
+        user.setUsername("batch");
+        user.setEmail("batch@example.com");
+        user.setDefaultCurrency("USD");
+        user = userRepository.save(user);
+        Portfolio portfolio = new Portfolio();
+        portfolio.setUserId(user.getUserId());
+        portfolio.setPortfolioName("Batch");
+        portfolio.setBaseCurrency("USD");
+        Long portfolioId = portfolioRepository.save(portfolio).getPortfolioId();
+        holdingRepository.save(holding(portfolioId));
+
+        List<BatchRequestDTO> requests = List.of(
+                new BatchRequestDTO("dashboard", "GET",
+                        "/portfolios/" + portfolioId + "/dashboard?fields=portfolioName,holdings.assetName", null),
+                new BatchRequestDTO("percentages", "GET",
+                        "/analytics/portfolios/" + portfolioId + "/allocation-percentages", null),
+                new BatchRequestDTO("summary", "GET", "/analytics/portfolios/" + portfolioId + "/summary", null),
+                new BatchRequestDTO("missing", "GET", "/portfolios/999999", null));
+
+        ResponseEntity<JsonNode> response = restTemplate.postForEntity("/api/batch", requests, JsonNode.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        JsonNode results = response.getBody();
+        assertThat(results).hasSize(4);
+        assertThat(results.get(0).get("status").asInt()).isEqualTo(200);
+        assertThat(results.get(0).get("body").get("portfolioName").asText()).isEqualTo("Batch");
+        assertThat(results.get(0).get("body").get("holdings").get(0).get("assetName").asText()).isEqualTo("AAPL");
+        assertThat(results.get(0).get("body").get("holdings").get(0).has("quantity")).isFalse();
+        assertThat(results.get(1).get("status").asInt()).isEqualTo(200);
+        assertThat(results.get(2).get("status").asInt()).isEqualTo(200);
+        assertThat(results.get(2).get("body").get("totalMarketValue").decimalValue())
+                .isEqualByComparingTo("1100.00");
+        assertThat(results.get(3).get("status").asInt()).isEqualTo(404);
+        verify(holdingRepository, times(1)).findByPortfolioId(portfolioId);
+    }
+
+    private static Holding holding(Long portfolioId) {
+        Holding holding = new Holding();
+        holding.setPortfolioId(portfolioId);
+        holding.setAssetName("AAPL");
+        holding.setAssetType("STOCK");
+        holding.setQuantity(new BigDecimal("10"));
+        holding.setPurchasePrice(new BigDecimal("100.00"));
+        holding.setCurrentPrice(new BigDecimal("110.00"));
+        holding.setCurrency("USD");
+        holding.setPurchaseDate(LocalDate.now());
+        return holding;
+    }
+}
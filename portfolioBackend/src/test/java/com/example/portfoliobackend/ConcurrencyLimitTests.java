@@ -0,0 +1,126 @@
+package com.example.portfoliobackend;
+
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.entity.User;
+import com.example.portfoliobackend.repository.PortfolioRepository;
+import com.example.portfoliobackend.repository.UserRepository;
+import com.example.portfoliobackend.service.AdaptiveConcurrencyLimiter;
+import com.example.portfoliobackend.service.AnalyticsService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Holds the only slot of a limit of one with a blocked analytics request and checks that other expensive requests
+ * are shed with 503 and {@code Retry-After} while cheap endpoints keep answering, and that batches do not move the
+ * limit.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:concurrencylimit;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "portfolio.concurrency-limit.initial-limit=1",
+                "portfolio.concurrency-limit.min-limit=1",
+                "portfolio.concurrency-limit.max-limit=1",
+                "portfolio.concurrency-limit.retry-after-seconds=2"
+        })
+@ActiveProfiles("test")
+@DisplayName("Concurrency Limit Tests")
+class ConcurrencyLimitTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoSpyBean
+    private AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+
+    @MockitoSpyBean
+    private AnalyticsService analyticsService;
+
+    @Test
+    @DisplayName("Should shed expensive requests beyond the limit with 503 and Retry-After")
+    void limitReached_ShouldShedLoad() throws Exception {
+        User user = new User();
+        user.setUsername("limited");
+        user.setEmail("limited@example.com");
+        user.setDefaultCurrency("USD");
+        user = userRepository.save(user);
+        Portfolio portfolio = new Portfolio();
+        portfolio.setUserId(user.getUserId());
+        portfolio.setPortfolioName("Limited");
+        portfolio.setBaseCurrency("USD");
+        Long portfolioId = portfolioRepository.save(portfolio).getPortfolioId();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(analyticsService).getTotalCost(portfolioId);
+
+        CompletableFuture<ResponseEntity<JsonNode>> blocked = CompletableFuture.supplyAsync(() ->
+                restTemplate.getForEntity("/api/analytics/portfolios/" + portfolioId + "/summary", JsonNode.class));
+        assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+
+        ResponseEntity<String> shed = restTemplate.getForEntity(
+                "/api/portfolios/" + portfolioId + "/dashboard", String.class);
+        ResponseEntity<JsonNode> stats = restTemplate.getForEntity("/api/concurrency-limit/stats", JsonNode.class);
+        release.countDown();
+
+        assertThat(shed.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(shed.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(stats.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(stats.getBody().get("inFlight").asInt()).isEqualTo(1);
+        assertThat(stats.getBody().get("rejected").asLong()).isEqualTo(1);
+        assertThat(blocked.get(10, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+        // The response can reach the client just before the filter gives the slot back
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (adaptiveConcurrencyLimiter.getStats().getInFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(adaptiveConcurrencyLimiter.getStats().getInFlight()).isZero();
+        assertThat(restTemplate.getForEntity("/api/portfolios/" + portfolioId + "/dashboard", String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    @DisplayName("Should hold a slot for a batch without letting its duration move the limit")
+    void batch_ShouldReleaseWithoutSampling() {
+        clearInvocations(adaptiveConcurrencyLimiter);
+
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/batch",
+                List.of(Map.of("id", "stats", "path", "/concurrency-limit/stats")), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(adaptiveConcurrencyLimiter, times(1)).tryAcquire();
+        verify(adaptiveConcurrencyLimiter, timeout(5000)).release(anyLong(), eq(false), eq(false));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.portfoliobackend;
+
+import com.example.portfoliobackend.dto.PortfolioDashboardDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Encodes and decodes a {@link PortfolioDashboardDTO} with 10,000 holdings as JSON, CBOR and Smile and prints the
+ * size and mean time of each:
+ * <pre>
+ * mvn test -Dtest=DashboardEncodingBenchmarkTests -Dbenchmark.encoding=true
+ * </pre>
+ * Only runs when {@code benchmark.encoding} is set.
+ */
+@EnabledIfSystemProperty(named = "benchmark.encoding", matches = "true")
+@DisplayName("Dashboard Encoding Benchmark Tests")
+class DashboardEncodingBenchmarkTests {
+
+    private final int holdings = Integer.getInteger("benchmark.holdings", 10_000);
+    private final int iterations = Integer.getInteger("benchmark.iterations", 200);
+    private final int warmupIterations = Integer.getInteger("benchmark.warmupIterations", 100);
+
+    @Test
+    @DisplayName("Should report the size and encode and decode time of the dashboard in each format")
+    void dashboard_ShouldReportSizeAndTimePerFormat() throws Exception {
+        // Matches the application's mapper: ISO dates rather than timestamp arrays
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", json);
+        formats.put("cbor", json.copyWith(new CBORFactory()));
+        formats.put("smile", json.copyWith(new SmileFactory()));
+        PortfolioDashboardDTO dashboard = dashboard(holdings);
+
+        int jsonSize = json.writeValueAsBytes(dashboard).length;
+        for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+            ObjectMapper mapper = format.getValue();
+            byte[] encoded = mapper.writeValueAsBytes(dashboard);
+            for (int i = 0; i < warmupIterations; i++) {
+                mapper.readValue(mapper.writeValueAsBytes(dashboard), PortfolioDashboardDTO.class);
+            }
+
+            long started = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                mapper.writeValueAsBytes(dashboard);
+            }
+            double encodeMillis = (System.nanoTime() - started) / 1e6 / iterations;
+            started = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                mapper.readValue(encoded, PortfolioDashboardDTO.class);
+            }
+            double decodeMillis = (System.nanoTime() - started) / 1e6 / iterations;
+
+            System.out.printf("dashboard holdings=%d format=%s: %d bytes (%.0f%% of json), encode %.2f ms, "
+                            + "decode %.2f ms%n", holdings, format.getKey(), encoded.length,
+                    100.0 * encoded.length / jsonSize, encodeMillis, decodeMillis);
+            PortfolioDashboardDTO decoded = mapper.readValue(encoded, PortfolioDashboardDTO.class);
+            assertThat(decoded.getHoldings()).hasSize(holdings);
+            assertThat(decoded.getTotalValue()).isEqualByComparingTo(dashboard.getTotalValue());
+            assertThat(decoded.getCreatedAt()).isEqualTo(dashboard.getCreatedAt());
+        }
+    }
+
+    private static PortfolioDashboardDTO dashboard(int count) {
+        List<PortfolioDashboardDTO.HoldingDetailDTO> details = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PortfolioDashboardDTO.HoldingDetailDTO detail = new PortfolioDashboardDTO.HoldingDetailDTO(
+                    (long) i, "ASSET" + i, i % 3 == 0 ? "BOND" : "STOCK",
+                    BigDecimal.valueOf(10 + i % 90), new BigDecimal("100.25").add(BigDecimal.valueOf(i % 50)),
+                    new BigDecimal("110.75").add(BigDecimal.valueOf(i % 70)), "USD",
+                    LocalDate.of(2020, 1, 1).plusDays(i % 1500));
+            detail.setAllocation(new BigDecimal("0.0100"));
+            details.add(detail);
+        }
+        PortfolioDashboardDTO dashboard = new PortfolioDashboardDTO(1L, "Benchmark", "USD",
+                new BigDecimal("12345678.90"), details, LocalDateTime.of(2024, 1, 1, 0, 0));
+        dashboard.setUnconvertedCurrencies(new ArrayList<>());
+        return dashboard;
+    }
+}
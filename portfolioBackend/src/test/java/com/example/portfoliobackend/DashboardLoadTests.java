@@ -0,0 +1,116 @@
+package com.example.portfoliobackend;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@code GET /api/portfolios/{id}/dashboard} on a running backend with a fixed number of requests in flight
+ * and prints throughput and latency percentiles. Start the server once with {@code mvn spring-boot:run} and once with
+ * {@code mvn -Pvirtual-threads spring-boot:run} against the same MySQL data, then run for each:
+ * <pre>
+ * mvn test -Dtest=DashboardLoadTests -Dload.baseUrl=http://localhost:8080 -Dload.portfolioIds=1-500
+ * </pre>
+ * Only runs when {@code load.baseUrl} is set.
+ */
+@EnabledIfSystemProperty(named = "load.baseUrl", matches = ".+")
+@DisplayName("Dashboard Load Tests")
+class DashboardLoadTests {
+
+    private final String baseUrl = System.getProperty("load.baseUrl");
+    private final int concurrency = Integer.getInteger("load.concurrency", 2000);
+    private final int requests = Integer.getInteger("load.requests", 40000);
+    private final int warmupRequests = Integer.getInteger("load.warmupRequests", 4000);
+    private final String mode = System.getProperty("load.mode", "stored");
+    private final long[] portfolioIds = portfolioIds(System.getProperty("load.portfolioIds", "1"));
+
+    @Test
+    @DisplayName("Should serve concurrent dashboard requests without errors and report throughput and p99")
+    void dashboard_UnderConcurrentLoad_ShouldReportThroughputAndLatency() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        run(client, warmupRequests);
+        long started = System.nanoTime();
+        Result result = run(client, requests);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long[] latencies = result.latencyNanos;
+        Arrays.sort(latencies);
+        System.out.printf("dashboard mode=%s concurrency=%d requests=%d: %.0f req/s, p50 %.1f ms, p99 %.1f ms, "
+                        + "max %.1f ms, errors %d%n", mode, concurrency, requests, requests / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6,
+                result.errors.get());
+        assertThat(result.errors.get()).isZero();
+    }
+
+    private Result run(HttpClient client, int count) throws InterruptedException {
+        Result result = new Result(count);
+        Semaphore inFlight = new Semaphore(concurrency);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[count];
+        for (int i = 0; i < count; i++) {
+            inFlight.acquire();
+            int index = i;
+            long portfolioId = portfolioIds[i % portfolioIds.length];
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create(baseUrl + "/api/portfolios/" + portfolioId + "/dashboard?mode=" + mode))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            long sent = System.nanoTime();
+            futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        result.latencyNanos[index] = System.nanoTime() - sent;
+                        if (error != null || response.statusCode() != 200) {
+                            result.errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(futures).exceptionally(error -> null).join();
+        return result;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    // "1-500" or "3,7,12"
+    private static long[] portfolioIds(String spec) {
+        if (spec.contains("-")) {
+            String[] bounds = spec.split("-");
+            long from = Long.parseLong(bounds[0].trim());
+            long to = Long.parseLong(bounds[1].trim());
+            long[] ids = new long[(int) (to - from + 1)];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = from + i;
+            }
+            return ids;
+        }
+        return Arrays.stream(spec.split(",")).mapToLong(id -> Long.parseLong(id.trim())).toArray();
+    }
+
+    private static final class Result {
+        private final long[] latencyNanos;
+        private final AtomicInteger errors = new AtomicInteger();
+
+        private Result(int count) {
+            this.latencyNanos = new long[count];
+        }
+    }
+}
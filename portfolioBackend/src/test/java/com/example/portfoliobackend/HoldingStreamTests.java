@@ -0,0 +1,168 @@
+package com.example.portfoliobackend;
+
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.entity.User;
+import com.example.portfoliobackend.repository.HoldingRepository;
+import com.example.portfoliobackend.repository.PortfolioRepository;
+import com.example.portfoliobackend.repository.UserRepository;
+import com.example.portfoliobackend.service.HoldingStreamService;
+import com.example.portfoliobackend.service.LivePriceCache;
+import com.example.portfoliobackend.service.PortfolioService;
+import com.example.portfoliobackend.service.PriceMode;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks that the streamed holdings and dashboard carry the same JSON as the buffered ones, with holdings in the
+ * base currency and in one without an FX rate.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:holdingstream;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                // Same database, read through the streams' own pool
+                "portfolio.holdings-stream.url=jdbc:h2:mem:holdingstream;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "portfolio.holdings-stream.fetch-size=7"
+        })
+@ActiveProfiles("test")
+@DisplayName("Holding Stream Tests")
+class HoldingStreamTests {
+
+    private static final int HOLDINGS = 50;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private HoldingStreamService holdingStreamService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @MockitoSpyBean
+    private LivePriceCache livePriceCache;
+
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("stream" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setDefaultCurrency("USD");
+        user = userRepository.save(user);
+        portfolio = new Portfolio();
+        portfolio.setUserId(user.getUserId());
+        portfolio.setPortfolioName("Streamed");
+        portfolio.setBaseCurrency("USD");
+        portfolio = portfolioRepository.save(portfolio);
+        List<Holding> holdings = new ArrayList<>();
+        for (int i = 0; i < HOLDINGS; i++) {
+            Holding holding = new Holding();
+            holding.setPortfolioId(portfolio.getPortfolioId());
+            holding.setAssetName("ASSET" + i);
+            holding.setAssetType(i % 3 == 0 ? "BOND" : "STOCK");
+            holding.setQuantity(new BigDecimal(10 + i).setScale(4));
+            holding.setPurchasePrice(new BigDecimal("100.00").add(BigDecimal.valueOf(i)));
+            holding.setCurrentPrice(new BigDecimal("105.50").add(BigDecimal.valueOf(i % 7)));
+            holding.setCurrency(i % 5 == 0 ? "XTS" : "USD");
+            holding.setPurchaseDate(LocalDate.of(2023, 1, 1).plusDays(i));
+            holdings.add(holding);
+        }
+        holdingRepository.saveAll(holdings);
+        portfolio = portfolioRepository.findById(portfolio.getPortfolioId()).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should stream the same dashboard as the buffered endpoint")
+    void writeDashboard_ShouldMatchBufferedDashboard() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        holdingStreamService.writeDashboard(portfolio, PriceMode.STORED, out);
+
+        JsonNode streamed = objectMapper.readTree(out.toByteArray());
+        JsonNode buffered = objectMapper.readTree(objectMapper.writeValueAsBytes(
+                portfolioService.getPortfolioDashboard(portfolio.getPortfolioId(), PriceMode.STORED)));
+        assertThat(streamed).isEqualTo(buffered);
+        assertThat(streamed.get("holdings")).hasSize(HOLDINGS);
+        assertThat(streamed.get("unconvertedCurrencies").get(0).asText()).isEqualTo("XTS");
+    }
+
+    @Test
+    @DisplayName("Should read each live price once and write the holdings at the prices they were totalled at")
+    void writeDashboard_WhenLive_ShouldReusePricesOfFirstPass() throws Exception {
+        livePriceCache.update("ASSET1", new BigDecimal("200.00"), LocalDateTime.of(2024, 1, 2, 10, 0));
+        clearInvocations(livePriceCache);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        holdingStreamService.writeDashboard(portfolio, PriceMode.LIVE, out);
+
+        JsonNode streamed = objectMapper.readTree(out.toByteArray());
+        assertThat(streamed.get("holdings").get(1).get("currentPrice").decimalValue()).isEqualByComparingTo("200.00");
+        assertThat(streamed.get("priceAsOf").asText()).isEqualTo("2024-01-02T10:00:00");
+        verify(livePriceCache, times(1)).get("ASSET1");
+        verify(livePriceCache, times(1)).get("ASSET2");
+    }
+
+    @Test
+    @DisplayName("Should stream every holding in ID order")
+    void writeHoldings_ShouldWriteEveryHolding() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        holdingStreamService.writeHoldings(portfolio.getPortfolioId(), out);
+
+        JsonNode streamed = objectMapper.readTree(out.toByteArray());
+        List<Holding> stored = holdingRepository.findByPortfolioId(portfolio.getPortfolioId());
+        assertThat(streamed).hasSize(HOLDINGS);
+        for (int i = 0; i < HOLDINGS; i++) {
+            assertThat(streamed.get(i).get("holdingId").asLong()).isEqualTo(stored.get(i).getHoldingId());
+            assertThat(streamed.get(i).get("assetName").asText()).isEqualTo(stored.get(i).getAssetName());
+            assertThat(streamed.get(i).get("quantity").decimalValue())
+                    .isEqualByComparingTo(stored.get(i).getQuantity());
+            assertThat(streamed.get(i).get("purchaseDate").asText())
+                    .isEqualTo(stored.get(i).getPurchaseDate().toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve stream=true over HTTP")
+    void dashboardEndpoint_WithStream_ShouldReturnStreamedBody() {
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity(
+                "/api/portfolios/" + portfolio.getPortfolioId() + "/dashboard?stream=true", JsonNode.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().get("portfolioName").asText()).isEqualTo("Streamed");
+        assertThat(response.getBody().get("holdings")).hasSize(HOLDINGS);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.portfoliobackend;
+
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import com.example.portfoliobackend.entity.PortfolioTarget;
+import com.example.portfoliobackend.entity.User;
+import com.example.portfoliobackend.repository.HoldingRepository;
+import com.example.portfoliobackend.repository.PortfolioRepository;
+import com.example.portfoliobackend.repository.PortfolioSnapshotRepository;
+import com.example.portfoliobackend.repository.PortfolioTargetRepository;
+import com.example.portfoliobackend.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Requests the overview over HTTP and checks that all of its parts come from one holdings read, one targets read and
+ * one bounded snapshot read.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:overview;DB_CLOSE_DELAY=-1;MODE=MySQL")
+@ActiveProfiles("test")
+@DisplayName("Portfolio Overview Tests")
+class PortfolioOverviewTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoSpyBean
+    private HoldingRepository holdingRepository;
+
+    @MockitoSpyBean
+    private PortfolioTargetRepository portfolioTargetRepository;
+
+    @MockitoSpyBean
+    private PortfolioSnapshotRepository portfolioSnapshotRepository;
+
+    @Test
+    @DisplayName("Should build every part of the overview from a single read of holdings, targets and snapshots")
+    void overview_ShouldReadEachTableOnce() {
+        User user = new User();
+        user.setUsername("overview");
+        user.setEmail("overview@example.com");
+        user.setDefaultCurrency("USD");
+        user = userRepository.save(user);
+        Portfolio portfolio = new Portfolio();
+        portfolio.setUserId(user.getUserId());
+        portfolio.setPortfolioName("Overview");
+        portfolio.setBaseCurrency("USD");
+        Long portfolioId = portfolioRepository.save(portfolio).getPortfolioId();
+        holdingRepository.save(holding(portfolioId));
+        PortfolioTarget target = new PortfolioTarget();
+        target.setPortfolioId(portfolioId);
+        target.setAssetType("STOCK");
+        target.setTargetPercentage(new BigDecimal("60.00"));
+        portfolioTargetRepository.save(target);
+        for (int day = 1; day <= 5; day++) {
+            PortfolioSnapshot snapshot = new PortfolioSnapshot();
+            snapshot.setPortfolioId(portfolioId);
+            snapshot.setTotalValue(new BigDecimal(1000 + day));
+            snapshot.setCurrency("USD");
+            snapshot.setSnapshotDate(LocalDate.of(2024, 1, day));
+            portfolioSnapshotRepository.save(snapshot);
+        }
+
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity(
+                "/api/portfolios/" + portfolioId + "/overview?snapshots=3", JsonNode.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        JsonNode overview = response.getBody();
+        assertThat(overview.get("dashboard").get("portfolioName").asText()).isEqualTo("Overview");
+        assertThat(overview.get("dashboard").get("holdings")).hasSize(1);
+        assertThat(overview.get("summary").get("totalGainLoss").decimalValue()).isEqualByComparingTo("100.00");
+        assertThat(overview.get("allocationPercentages").get("STOCK").decimalValue()).isEqualByComparingTo("100");
+        assertThat(overview.get("targetDrift").get("STOCK").decimalValue()).isEqualByComparingTo("40");
+        assertThat(overview.get("snapshots")).hasSize(3);
+        assertThat(overview.get("snapshots").get(0).get("snapshotDate").asText()).isEqualTo("2024-01-05");
+        verify(holdingRepository, times(1)).findByPortfolioId(portfolioId);
+        verify(portfolioTargetRepository, times(1)).findByPortfolioId(portfolioId);
+        verify(portfolioSnapshotRepository, times(1))
+                .findByPortfolioIdOrderBySnapshotDateDescSnapshotIdDesc(eq(portfolioId), any());
+        verify(portfolioSnapshotRepository, never()).findByPortfolioIdOrderBySnapshotDateDesc(portfolioId);
+    }
+
+    private static Holding holding(Long portfolioId) {
+        Holding holding = new Holding();
+        holding.setPortfolioId(portfolioId);
+        holding.setAssetName("AAPL");
+        holding.setAssetType("STOCK");
+        holding.setQuantity(new BigDecimal("10"));
+        holding.setPurchasePrice(new BigDecimal("100.00"));
+        holding.setCurrentPrice(new BigDecimal("110.00"));
+        holding.setCurrency("USD");
+        holding.setPurchaseDate(LocalDate.now());
+        return holding;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.portfoliobackend;
+
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.entity.User;
+import com.example.portfoliobackend.repository.PortfolioRepository;
+import com.example.portfoliobackend.repository.UserRepository;
+import com.example.portfoliobackend.service.PortfolioService;
+import com.example.portfoliobackend.service.PriceMode;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs holding writes and dashboard reads on virtual threads against a pool far smaller than the number of threads,
+ * so they queue for connections, and fails if JFR sees a virtual thread park while pinned to its carrier. Runs
+ * only on JDK 21 and later.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pinning;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.datasource.hikari.maximum-pool-size=2"
+})
+@ActiveProfiles("test")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@DisplayName("Virtual Thread Pinning Tests")
+class VirtualThreadPinningTests {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int TASKS = 64;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Should not pin carrier threads on the JDBC and Hibernate paths of holding writes and dashboard reads")
+    void holdingWritesAndDashboardReads_ShouldNotPinCarrierThreads() throws Exception {
+        User user = new User();
+        user.setUsername("pinning");
+        user.setEmail("pinning@example.com");
+        user.setDefaultCurrency("USD");
+        user = userRepository.save(user);
+        Portfolio portfolio = new Portfolio();
+        portfolio.setUserId(user.getUserId());
+        portfolio.setPortfolioName("Pinning");
+        portfolio.setBaseCurrency("USD");
+        Long portfolioId = portfolioRepository.save(portfolio).getPortfolioId();
+
+        List<RecordedEvent> pinned;
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < TASKS; i++) {
+                String assetName = "ASSET" + (i % 8);
+                futures.add(executor.submit(() -> {
+                    portfolioService.addHolding(holding(portfolioId, assetName));
+                    portfolioService.getPortfolioDashboard(portfolioId, PriceMode.LIVE);
+                }));
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            recording.stop();
+            Path file = Files.createTempFile("pinning", ".jfr");
+            try {
+                recording.dump(file);
+                pinned = RecordingFile.readAllEvents(file).stream()
+                        .filter(event -> event.getEventType().getName().equals(PINNED_EVENT))
+                        .toList();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        assertThat(pinned).as("pinned virtual threads: %s", pinned).isEmpty();
+    }
+
+    private static Holding holding(Long portfolioId, String assetName) {
+        Holding holding = new Holding();
+        holding.setPortfolioId(portfolioId);
+        holding.setAssetName(assetName);
+        holding.setAssetType("STOCK");
+        holding.setQuantity(new BigDecimal("10"));
+        holding.setPurchasePrice(new BigDecimal("100.00"));
+        holding.setCurrentPrice(new BigDecimal("110.00"));
+        holding.setCurrency("USD");
+        holding.setPurchaseDate(LocalDate.now());
+        return holding;
+    }
+}
@@ -1,32 +1,55 @@
 package com.example.portfoliobackend.controller;
 
+import com.example.portfoliobackend.dto.AllocationHistoryPointDTO;
+import com.example.portfoliobackend.dto.ReturnPointDTO;
+import com.example.portfoliobackend.dto.RiskMetricsDTO;
+import com.example.portfoliobackend.dto.TimeWeightedReturnDTO;
 import com.example.portfoliobackend.entity.Portfolio;
 import com.example.portfoliobackend.service.AnalyticsService;
+import com.example.portfoliobackend.service.PortfolioReadCoalescer;
 import com.example.portfoliobackend.service.PortfolioService;
+import com.example.portfoliobackend.service.PortfolioVersions;
+import com.example.portfoliobackend.service.PriceMode;
+import com.example.portfoliobackend.service.ReturnWindow;
+import com.example.portfoliobackend.service.ReturnsService;
+import com.example.portfoliobackend.service.RiskMetric;
+import com.example.portfoliobackend.service.RiskMetricsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AnalyticsController.class)
+@Import(PortfolioReadCoalescer.class)
 @DisplayName("AnalyticsController Integration Tests")
 class AnalyticsControllerTest {
 
@@ -39,6 +62,15 @@ class AnalyticsControllerTest {
     @MockitoBean
     private PortfolioService portfolioService;
 
+    @MockitoBean
+    private ReturnsService returnsService;
+
+    @MockitoBean
+    private RiskMetricsService riskMetricsService;
+
+    @MockitoBean
+    private PortfolioVersions portfolioVersions;
+
     private Portfolio testPortfolio;
 
     @BeforeEach
@@ -53,9 +85,9 @@ class AnalyticsControllerTest {
     @DisplayName("GET /api/analytics/portfolios/{id}/summary - Should return analytics summary")
     void getSummary_WhenPortfolioExists_ShouldReturnSummary() throws Exception {
         when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
-        when(analyticsService.getTotalMarketValue(1L)).thenReturn(new BigDecimal("10000.00"));
+        when(analyticsService.getTotalMarketValue(1L, PriceMode.STORED)).thenReturn(new BigDecimal("10000.00"));
         when(analyticsService.getTotalCost(1L)).thenReturn(new BigDecimal("8000.00"));
-        when(analyticsService.getTotalGainLoss(1L)).thenReturn(new BigDecimal("2000.00"));
+        when(analyticsService.getTotalGainLoss(1L, PriceMode.STORED)).thenReturn(new BigDecimal("2000.00"));
 
         mockMvc.perform(get("/api/analytics/portfolios/1/summary"))
                 .andExpect(status().isOk())
@@ -64,18 +96,59 @@ class AnalyticsControllerTest {
                 .andExpect(jsonPath("$.totalGainLoss", is(2000.00)));
 
         verify(portfolioService, times(1)).getPortfolioById(1L);
-        verify(analyticsService, times(1)).getTotalMarketValue(1L);
+        verify(analyticsService, times(1)).getTotalMarketValue(1L, PriceMode.STORED);
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/summary - Should answer 304 for an unchanged portfolio without querying")
+    void getSummary_WhenETagMatches_ShouldReturn304() throws Exception {
+        when(portfolioVersions.etag(1L)).thenReturn("\"v7\"");
+
+        mockMvc.perform(get("/api/analytics/portfolios/1/summary").header("If-None-Match", "\"v7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"v7\""));
+
+        verify(portfolioService, never()).getPortfolioById(any());
+        verify(analyticsService, never()).getTotalMarketValue(any(), any());
     }
 
     @Test
-    @DisplayName("GET /api/analytics/portfolios/{id}/summary - Should return 404 when portfolio not exists")
+    @DisplayName("GET /api/analytics/portfolios/{id}/summary?mode=live - Should ignore If-None-Match")
+    void getSummary_WhenLive_ShouldNotBeConditional() throws Exception {
+        when(portfolioVersions.etag(1L)).thenReturn("\"v7\"");
+        when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+
+        mockMvc.perform(get("/api/analytics/portfolios/1/summary").param("mode", "live")
+                        .header("If-None-Match", "\"v7\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/summary - Should return 404 without an ETag when portfolio not exists")
     void getSummary_WhenPortfolioNotExists_ShouldReturn404() throws Exception {
+        when(portfolioVersions.etag(999L)).thenReturn("\"v7\"");
         when(portfolioService.getPortfolioById(999L)).thenReturn(null);
 
         mockMvc.perform(get("/api/analytics/portfolios/999/summary"))
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().doesNotExist("Last-Modified"));
 
-        verify(analyticsService, never()).getTotalMarketValue(anyLong());
+        verify(analyticsService, never()).getTotalMarketValue(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/coalescing/stats - Should count the reads that ran")
+    void getCoalescingStats_ShouldReturnCounters() throws Exception {
+        when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+
+        mockMvc.perform(get("/api/analytics/portfolios/1/summary"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/analytics/coalescing/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inFlight", is(0)))
+                .andExpect(jsonPath("$.executionsByView.summary", greaterThanOrEqualTo(1)));
     }
 
     @Test
@@ -86,7 +159,7 @@ class AnalyticsControllerTest {
         allocations.put("BOND", new BigDecimal("4000.00"));
 
         when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
-        when(analyticsService.getAllocationValues(1L)).thenReturn(allocations);
+        when(analyticsService.getAllocationValues(1L, PriceMode.STORED)).thenReturn(allocations);
 
         mockMvc.perform(get("/api/analytics/portfolios/1/allocations"))
                 .andExpect(status().isOk())
@@ -111,7 +184,7 @@ class AnalyticsControllerTest {
         percentages.put("BOND", new BigDecimal("40.00"));
 
         when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
-        when(analyticsService.getAllocationPercentages(1L)).thenReturn(percentages);
+        when(analyticsService.getAllocationPercentages(1L, PriceMode.STORED)).thenReturn(percentages);
 
         mockMvc.perform(get("/api/analytics/portfolios/1/allocation-percentages"))
                 .andExpect(status().isOk())
@@ -136,7 +209,7 @@ class AnalyticsControllerTest {
         drift.put("BOND", new BigDecimal("5.00"));
 
         when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
-        when(analyticsService.getTargetDriftPercentages(1L)).thenReturn(drift);
+        when(analyticsService.getTargetDriftPercentages(1L, PriceMode.STORED)).thenReturn(drift);
 
         mockMvc.perform(get("/api/analytics/portfolios/1/target-drift"))
                 .andExpect(status().isOk())
@@ -144,6 +217,74 @@ class AnalyticsControllerTest {
                 .andExpect(jsonPath("$.BOND", is(5.00)));
     }
 
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/summary?mode=live - Should value at live prices")
+    void getSummary_WhenLive_ShouldReturnPriceAsOf() throws Exception {
+        when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+        when(analyticsService.getTotalMarketValue(1L, PriceMode.LIVE)).thenReturn(new BigDecimal("12000.00"));
+        when(analyticsService.getTotalCost(1L)).thenReturn(new BigDecimal("8000.00"));
+        when(analyticsService.getTotalGainLoss(1L, PriceMode.LIVE)).thenReturn(new BigDecimal("4000.00"));
+        when(analyticsService.getPriceAsOf(1L, PriceMode.LIVE)).thenReturn(LocalDateTime.of(2024, 1, 2, 10, 0));
+
+        mockMvc.perform(get("/api/analytics/portfolios/1/summary").param("mode", "live"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalMarketValue", is(12000.00)))
+                .andExpect(jsonPath("$.priceAsOf", is("2024-01-02T10:00:00")));
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/allocations?mode=live - Should send the price timestamp header")
+    void getAllocationValues_WhenLive_ShouldSetPriceAsOfHeader() throws Exception {
+        Map<String, BigDecimal> allocations = new HashMap<>();
+        allocations.put("STOCK", new BigDecimal("6500.00"));
+        when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+        when(analyticsService.getAllocationValues(1L, PriceMode.LIVE)).thenReturn(allocations);
+        when(analyticsService.getPriceAsOf(1L, PriceMode.LIVE)).thenReturn(LocalDateTime.of(2024, 1, 2, 10, 0));
+
+        mockMvc.perform(get("/api/analytics/portfolios/1/allocations").param("mode", "live"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Price-As-Of", "2024-01-02T10:00"))
+                .andExpect(jsonPath("$.STOCK", is(6500.00)));
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/target-drift - Should return 400 for an unknown price mode")
+    void getTargetDrift_WhenModeUnknown_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/analytics/portfolios/1/target-drift").param("mode", "realtime"))
+                .andExpect(status().isBadRequest());
+
+        verify(portfolioService, never()).getPortfolioById(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/allocation-history - Should return drift per snapshot")
+    void getAllocationHistory_ShouldReturnPoints() throws Exception {
+        Map<String, BigDecimal> drift = new HashMap<>();
+        drift.put("STOCK", new BigDecimal("-5.00"));
+        AllocationHistoryPointDTO point = new AllocationHistoryPointDTO(
+                10L, LocalDate.of(2024, 1, 2), new HashMap<>(), new HashMap<>(), drift);
+
+        when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+        when(analyticsService.getAllocationHistory(1L, LocalDate.of(2024, 1, 1), null))
+                .thenReturn(Collections.singletonList(point));
+
+        mockMvc.perform(get("/api/analytics/portfolios/1/allocation-history").param("from", "2024-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].snapshotId", is(10)))
+                .andExpect(jsonPath("$[0].targetDrift.STOCK", is(-5.00)));
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/allocation-history - Should return 404 when not exists")
+    void getAllocationHistory_WhenPortfolioNotExists_ShouldReturn404() throws Exception {
+        when(portfolioService.getPortfolioById(999L)).thenReturn(null);
+
+        mockMvc.perform(get("/api/analytics/portfolios/999/allocation-history"))
+                .andExpect(status().isNotFound());
+        verify(analyticsService, never()).getAllocationHistory(anyLong(), any(), any());
+    }
+
     @Test
     @DisplayName("GET /api/analytics/portfolios/{id}/target-drift - Should return 404 when not exists")
     void getTargetDrift_WhenPortfolioNotExists_ShouldReturn404() throws Exception {
@@ -157,9 +298,9 @@ class AnalyticsControllerTest {
     @DisplayName("GET /api/analytics/portfolios/{id}/summary - Should handle zero values")
     void getSummary_WithZeroValues_ShouldReturnZeros() throws Exception {
         when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
-        when(analyticsService.getTotalMarketValue(1L)).thenReturn(BigDecimal.ZERO);
+        when(analyticsService.getTotalMarketValue(1L, PriceMode.STORED)).thenReturn(BigDecimal.ZERO);
         when(analyticsService.getTotalCost(1L)).thenReturn(BigDecimal.ZERO);
-        when(analyticsService.getTotalGainLoss(1L)).thenReturn(BigDecimal.ZERO);
+        when(analyticsService.getTotalGainLoss(1L, PriceMode.STORED)).thenReturn(BigDecimal.ZERO);
 
         mockMvc.perform(get("/api/analytics/portfolios/1/summary"))
                 .andExpect(status().isOk())
@@ -172,10 +313,124 @@ class AnalyticsControllerTest {
     @DisplayName("GET /api/analytics/portfolios/{id}/allocations - Should return empty map when no holdings")
     void getAllocationValues_WhenNoHoldings_ShouldReturnEmptyMap() throws Exception {
         when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
-        when(analyticsService.getAllocationValues(1L)).thenReturn(new HashMap<>());
+        when(analyticsService.getAllocationValues(1L, PriceMode.STORED)).thenReturn(new HashMap<>());
 
         mockMvc.perform(get("/api/analytics/portfolios/1/allocations"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", anEmptyMap()));
     }
+
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/returns/daily - Should return daily returns")
+    void getDailyReturns_ShouldReturnSeries() throws Exception {
+        when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+        when(returnsService.getDailyReturns(1L, LocalDate.of(2024, 1, 1), null)).thenReturn(Arrays.asList(
+                new ReturnPointDTO(LocalDate.of(2024, 1, 2), new BigDecimal("1.5000")),
+                new ReturnPointDTO(LocalDate.of(2024, 1, 3), new BigDecimal("-0.5000"))
+        ));
+
+        mockMvc.perform(get("/api/analytics/portfolios/1/returns/daily").param("from", "2024-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].date", is("2024-01-02")))
+                .andExpect(jsonPath("$[0].returnPercentage", is(1.5)));
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/returns/time-weighted - Should return linked return")
+    void getTimeWeightedReturn_ShouldReturnResult() throws Exception {
+        when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+        when(returnsService.getTimeWeightedReturn(eq(1L), isNull(), isNull())).thenReturn(
+                new TimeWeightedReturnDTO(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 1), 5,
+                        new BigDecimal("12.3400"), null));
+
+        mockMvc.perform(get("/api/analytics/portfolios/1/returns/time-weighted"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.periods", is(5)))
+                .andExpect(jsonPath("$.returnPercentage", is(12.34)));
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/returns/rolling - Should return rolling returns for window")
+    void getRollingReturns_ShouldReturnSeries() throws Exception {
+        when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+        when(returnsService.getRollingReturns(1L, ReturnWindow.THREE_MONTHS)).thenReturn(Arrays.asList(
+                new ReturnPointDTO(LocalDate.of(2024, 4, 1), new BigDecimal("4.2000"))
+        ));
+
+        mockMvc.perform(get("/api/analytics/portfolios/1/returns/rolling").param("window", "3M"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].returnPercentage", is(4.2)));
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/returns/rolling - Should return 400 for unknown window")
+    void getRollingReturns_WithUnknownWindow_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/analytics/portfolios/1/returns/rolling").param("window", "7W"))
+                .andExpect(status().isBadRequest());
+
+        verify(returnsService, never()).getRollingReturns(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/returns/daily - Should return 404 when portfolio not exists")
+    void getDailyReturns_WhenPortfolioNotExists_ShouldReturn404() throws Exception {
+        when(portfolioService.getPortfolioById(999L)).thenReturn(null);
+
+        mockMvc.perform(get("/api/analytics/portfolios/999/returns/daily"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/risk - Should return risk metrics for window")
+    void getRiskMetrics_ShouldReturnMetrics() throws Exception {
+        when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+        when(riskMetricsService.getRiskMetrics(1L, ReturnWindow.ONE_YEAR)).thenReturn(new RiskMetricsDTO(
+                1L, "1Y", LocalDate.of(2023, 6, 1), LocalDate.of(2024, 6, 1), 250,
+                new BigDecimal("18.5000"), new BigDecimal("12.0000"), new BigDecimal("9.1000"),
+                new BigDecimal("0.8000"), new BigDecimal("1.2000")));
+
+        mockMvc.perform(get("/api/analytics/portfolios/1/risk").param("window", "1Y"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window", is("1Y")))
+                .andExpect(jsonPath("$.volatilityPercentage", is(18.5)))
+                .andExpect(jsonPath("$.sortinoRatio", is(1.2)));
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/portfolios/{id}/risk - Should use full history by default")
+    void getRiskMetrics_WithoutWindow_ShouldUseFullHistory() throws Exception {
+        when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+        when(riskMetricsService.getRiskMetrics(eq(1L), isNull())).thenReturn(new RiskMetricsDTO(
+                1L, "ALL", null, null, 0, null, null, null, null, null));
+
+        mockMvc.perform(get("/api/analytics/portfolios/1/risk"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window", is("ALL")));
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/risk/ranking - Should rank requested portfolios")
+    void rankByRisk_ShouldReturnRankedMetrics() throws Exception {
+        when(riskMetricsService.rankPortfolios(Arrays.asList(1L, 2L), null, RiskMetric.MAX_DRAWDOWN, 5))
+                .thenReturn(Arrays.asList(
+                        new RiskMetricsDTO(2L, "ALL", null, null, 10, null, new BigDecimal("30.0000"), null, null, null),
+                        new RiskMetricsDTO(1L, "ALL", null, null, 10, null, new BigDecimal("10.0000"), null, null, null)));
+
+        mockMvc.perform(get("/api/analytics/risk/ranking")
+                        .param("portfolioIds", "1,2")
+                        .param("sortBy", "max-drawdown")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].portfolioId", is(2)));
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/risk/ranking - Should return 400 for unknown metric")
+    void rankByRisk_WithUnknownMetric_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/analytics/risk/ranking").param("sortBy", "beta"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,208 @@
+package com.example.portfoliobackend.controller;
+
+import com.example.portfoliobackend.dto.BatchRequestDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BatchController.class)
+@DisplayName("BatchController Integration Tests")
+class BatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private DispatcherServlet dispatcherServlet;
+
+    private static BatchRequestDTO get(String id, String path) {
+        return new BatchRequestDTO(id, "GET", path, null);
+    }
+
+    private void respondWith(int status, String contentType, String body) throws Exception {
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            response.setStatus(status);
+            response.setContentType(contentType);
+            response.setHeader("ETag", "\"1\"");
+            response.getWriter().write(body);
+            return null;
+        }).when(dispatcherServlet).service(any(ServletRequest.class), any(ServletResponse.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/batch - Should embed each JSON body as is with its status and headers")
+    void execute_ShouldReturnEachResponse() throws Exception {
+        respondWith(200, MediaType.APPLICATION_JSON_VALUE, "{\"portfolioId\":1,\"totalValue\":1500.00}");
+
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                List.of(get("a", "/portfolios/1"), get("b", "/api/portfolios/1/dashboard")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is("a")))
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].headers.ETag", is("\"1\"")))
+                .andExpect(jsonPath("$[0].body.portfolioId", is(1)))
+                .andExpect(jsonPath("$[1].id", is("b")))
+                .andExpect(jsonPath("$[1].body.totalValue", is(1500.00)));
+    }
+
+    @Test
+    @DisplayName("POST /api/batch - Should dispatch each path with its own query parameters and headers")
+    void execute_ShouldForwardPathParametersAndHeaders() throws Exception {
+        respondWith(200, MediaType.APPLICATION_JSON_VALUE, "[]");
+        BatchRequestDTO holdings = new BatchRequestDTO("h", null, "/portfolios/1/holdings?fields=assetName%2Cquantity",
+                Map.of("Accept", "application/json"));
+
+        mockMvc.perform(post("/api/batch?ignored=1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-None-Match", "\"7\"")
+                        .content(objectMapper.writeValueAsString(List.of(holdings))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(200)));
+
+        ArgumentCaptor<ServletRequest> dispatched = ArgumentCaptor.forClass(ServletRequest.class);
+        verify(dispatcherServlet).service(dispatched.capture(), any(ServletResponse.class));
+        HttpServletRequest request = (HttpServletRequest) dispatched.getValue();
+        assertThat(request.getMethod()).isEqualTo("GET");
+        assertThat(request.getRequestURI()).isEqualTo("/api/portfolios/1/holdings");
+        assertThat(request.getParameter("fields")).isEqualTo("assetName,quantity");
+        assertThat(request.getParameter("ignored")).isNull();
+        assertThat(request.getHeader("Accept")).isEqualTo("application/json");
+        assertThat(request.getHeader("If-None-Match")).isNull();
+        assertThat(request.getContentType()).isNull();
+    }
+
+    @Test
+    @DisplayName("POST /api/batch - Should ask every sub-request for JSON whatever the caller accepts")
+    void execute_ShouldForceJsonAccept() throws Exception {
+        respondWith(200, MediaType.APPLICATION_JSON_VALUE, "[]");
+        BatchRequestDTO holdings = new BatchRequestDTO("h", null, "/portfolios/1/holdings",
+                Map.of("Accept", "application/cbor"));
+
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Accept", "application/json, application/x-jackson-smile")
+                        .content(objectMapper.writeValueAsString(List.of(holdings))))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<ServletRequest> dispatched = ArgumentCaptor.forClass(ServletRequest.class);
+        verify(dispatcherServlet).service(dispatched.capture(), any(ServletResponse.class));
+        HttpServletRequest request = (HttpServletRequest) dispatched.getValue();
+        assertThat(Collections.list(request.getHeaders("Accept"))).containsExactly("application/json");
+    }
+
+    @Test
+    @DisplayName("POST /api/batch - Should keep a sub-request's error status and quote a body that is not JSON")
+    void execute_ShouldReportSubRequestErrors() throws Exception {
+        respondWith(404, MediaType.TEXT_PLAIN_VALUE, "Not found");
+
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(get("a", "/portfolios/99")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(404)))
+                .andExpect(jsonPath("$[0].body", is("Not found")));
+    }
+
+    @Test
+    @DisplayName("POST /api/batch - Should answer 500 for a sub-request that throws and carry on with the rest")
+    void execute_WhenDispatchFails_ShouldReportInternalError() throws Exception {
+        doThrow(new IllegalStateException("boom"))
+                .when(dispatcherServlet).service(any(ServletRequest.class), any(ServletResponse.class));
+
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                List.of(get("a", "/portfolios/1"), get("b", "/portfolios/2")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(500)))
+                .andExpect(jsonPath("$[1].status", is(500)))
+                .andExpect(jsonPath("$[1].body", nullValue()));
+
+        verify(dispatcherServlet, times(2)).service(any(ServletRequest.class), any(ServletResponse.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/batch - Should refuse writes, nested batches and streams without dispatching them")
+    void execute_ShouldRejectUnsupportedSubRequests() throws Exception {
+        List<BatchRequestDTO> requests = List.of(
+                new BatchRequestDTO("write", "DELETE", "/portfolios/1", null),
+                get("nested", "/batch"),
+                get("stream", "/portfolios/1/dashboard/stream"),
+                get("relative", "portfolios/1"),
+                get("streamed", "/portfolios/1/holdings?stream=true"));
+
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(405)))
+                .andExpect(jsonPath("$[1].status", is(400)))
+                .andExpect(jsonPath("$[2].status", is(400)))
+                .andExpect(jsonPath("$[3].status", is(400)))
+                .andExpect(jsonPath("$[4].status", is(400)));
+
+        verify(dispatcherServlet, never()).service(any(ServletRequest.class), any(ServletResponse.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/batch - Should return 400 for an empty batch")
+    void execute_WhenEmpty_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Collections.emptyList())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /api/batch - Should return 400 for more than 50 sub-requests")
+    void execute_WhenTooLarge_ShouldReturnBadRequest() throws Exception {
+        List<BatchRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < 51; i++) {
+            requests.add(get(String.valueOf(i), "/portfolios/" + i));
+        }
+
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isBadRequest());
+
+        verify(dispatcherServlet, never()).service(any(ServletRequest.class), any(ServletResponse.class));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.portfoliobackend.controller;
+
+import com.example.portfoliobackend.dto.ConcurrencyLimitStatsDTO;
+import com.example.portfoliobackend.service.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ConcurrencyLimitController.class)
+@DisplayName("ConcurrencyLimitController Integration Tests")
+class ConcurrencyLimitControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+
+    @Test
+    @DisplayName("GET /api/concurrency-limit/stats - Should return the current limit and counters")
+    void getStats_ShouldReturnCounters() throws Exception {
+        when(adaptiveConcurrencyLimiter.getStats()).thenReturn(new ConcurrencyLimitStatsDTO(12, 3, 500, 40, 2));
+
+        mockMvc.perform(get("/api/concurrency-limit/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.limit", is(12)))
+                .andExpect(jsonPath("$.rejected", is(40)));
+    }
+}
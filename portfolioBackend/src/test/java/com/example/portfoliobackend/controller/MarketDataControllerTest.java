@@ -0,0 +1,356 @@
+package com.example.portfoliobackend.controller;
+
+import com.example.portfoliobackend.dto.AssetPriceDTO;
+import com.example.portfoliobackend.dto.CorporateActionDTO;
+import com.example.portfoliobackend.dto.FxRateDTO;
+import com.example.portfoliobackend.dto.PriceHistoryPointDTO;
+import com.example.portfoliobackend.dto.PriceTickDTO;
+import com.example.portfoliobackend.dto.TickIngestionStatsDTO;
+import com.example.portfoliobackend.dto.PriceUpdateResultDTO;
+import com.example.portfoliobackend.service.CorporateActionService;
+import com.example.portfoliobackend.service.FxRateService;
+import com.example.portfoliobackend.service.MarketPriceService;
+import com.example.portfoliobackend.service.PriceHistoryService;
+import com.example.portfoliobackend.service.PriceTickIngestionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(MarketDataController.class)
+@DisplayName("MarketDataController Integration Tests")
+class MarketDataControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private PriceHistoryService priceHistoryService;
+
+    @MockitoBean
+    private MarketPriceService marketPriceService;
+
+    @MockitoBean
+    private PriceTickIngestionService priceTickIngestionService;
+
+    @MockitoBean
+    private FxRateService fxRateService;
+
+    @MockitoBean
+    private CorporateActionService corporateActionService;
+
+    @Nested
+    @DisplayName("Tick Ingestion Tests")
+    class TickIngestionTests {
+
+        @Test
+        @DisplayName("POST /api/market-data/ticks - Should accept ticks for batched flushing")
+        void submitTicks_ShouldReturnAccepted() throws Exception {
+            List<PriceTickDTO> ticks = Arrays.asList(
+                    new PriceTickDTO("ACME", new BigDecimal("100.10"), null),
+                    new PriceTickDTO("ACME", new BigDecimal("100.20"), null));
+            when(priceTickIngestionService.submit(anyList())).thenReturn(2);
+
+            mockMvc.perform(post("/api/market-data/ticks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(ticks)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.accepted", is(2)));
+        }
+
+        @Test
+        @DisplayName("POST /api/market-data/ticks - Should reject ticks without a price")
+        void submitTicks_WithMissingPrice_ShouldReturn400() throws Exception {
+            List<PriceTickDTO> ticks = Collections.singletonList(new PriceTickDTO("ACME", null, null));
+
+            mockMvc.perform(post("/api/market-data/ticks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(ticks)))
+                    .andExpect(status().isBadRequest());
+
+            verify(priceTickIngestionService, never()).submit(anyList());
+        }
+
+        @Test
+        @DisplayName("GET /api/market-data/ticks/stats - Should return ingestion counters")
+        void getTickStats_ShouldReturnCounters() throws Exception {
+            when(priceTickIngestionService.getStats()).thenReturn(new TickIngestionStatsDTO(3, 100, 90, 2, 10, 0));
+
+            mockMvc.perform(get("/api/market-data/ticks/stats"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.ticksCoalesced", is(90)));
+        }
+
+        @Test
+        @DisplayName("GET /api/market-data/simulator - Should return 404 when the simulator is disabled")
+        void getSimulatorStats_WhenDisabled_ShouldReturn404() throws Exception {
+            mockMvc.perform(get("/api/market-data/simulator"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Latest Price Tests")
+    class LatestPriceTests {
+
+        @Test
+        @DisplayName("PUT /api/market-data/prices - Should update prices and report revalued holdings")
+        void updatePrices_ShouldReturnCounts() throws Exception {
+            List<AssetPriceDTO> prices = Collections.singletonList(new AssetPriceDTO("ACME", new BigDecimal("120.00"), null));
+            when(marketPriceService.updatePrices(anyList())).thenReturn(new PriceUpdateResultDTO(1, 42));
+
+            mockMvc.perform(put("/api/market-data/prices")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(prices)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.pricesUpdated", is(1)))
+                    .andExpect(jsonPath("$.holdingsRevalued", is(42)));
+        }
+
+        @Test
+        @DisplayName("PUT /api/market-data/prices - Should reject prices without an asset name")
+        void updatePrices_WithMissingAsset_ShouldReturn400() throws Exception {
+            List<AssetPriceDTO> prices = Collections.singletonList(new AssetPriceDTO(null, new BigDecimal("120.00"), null));
+
+            mockMvc.perform(put("/api/market-data/prices")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(prices)))
+                    .andExpect(status().isBadRequest());
+
+            verify(marketPriceService, never()).updatePrices(anyList());
+        }
+
+        @Test
+        @DisplayName("GET /api/market-data/prices/{asset} - Should return the latest price")
+        void getPrice_WhenExists_ShouldReturnPrice() throws Exception {
+            when(marketPriceService.getPrice("ACME")).thenReturn(
+                    new AssetPriceDTO("ACME", new BigDecimal("120.00"), LocalDateTime.of(2024, 1, 2, 10, 0)));
+
+            mockMvc.perform(get("/api/market-data/prices/ACME"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.price", is(120.0)));
+        }
+
+        @Test
+        @DisplayName("GET /api/market-data/prices/{asset} - Should return 404 for unknown assets")
+        void getPrice_WhenMissing_ShouldReturn404() throws Exception {
+            when(marketPriceService.getPrice("NOPE")).thenReturn(null);
+
+            mockMvc.perform(get("/api/market-data/prices/NOPE"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Price History Tests")
+    class PriceHistoryTests {
+
+        @Test
+        @DisplayName("POST /api/market-data/price-history - Should import price points")
+        void importPriceHistory_ShouldReturnImportedCount() throws Exception {
+            List<PriceHistoryPointDTO> points = Arrays.asList(
+                    new PriceHistoryPointDTO("ACME", LocalDate.of(2024, 1, 2), new BigDecimal("101.50")),
+                    new PriceHistoryPointDTO("ACME", LocalDate.of(2024, 1, 3), new BigDecimal("102.25"))
+            );
+            when(priceHistoryService.importPriceHistory(anyList())).thenReturn(2);
+
+            mockMvc.perform(post("/api/market-data/price-history")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(points)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.imported", is(2)));
+        }
+
+        @Test
+        @DisplayName("POST /api/market-data/price-history - Should reject incomplete points")
+        void importPriceHistory_WithMissingPrice_ShouldReturn400() throws Exception {
+            List<PriceHistoryPointDTO> points = Collections.singletonList(
+                    new PriceHistoryPointDTO("ACME", LocalDate.of(2024, 1, 2), null));
+
+            mockMvc.perform(post("/api/market-data/price-history")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(points)))
+                    .andExpect(status().isBadRequest());
+
+            verify(priceHistoryService, never()).importPriceHistory(anyList());
+        }
+
+        @Test
+        @DisplayName("GET /api/market-data/price-history/{asset} - Should return price history")
+        void getPriceHistory_ShouldReturnPoints() throws Exception {
+            when(priceHistoryService.getPriceHistory("ACME", LocalDate.of(2024, 1, 1), null)).thenReturn(
+                    Collections.singletonList(new PriceHistoryPointDTO("ACME", LocalDate.of(2024, 1, 2), new BigDecimal("101.50"))));
+
+            mockMvc.perform(get("/api/market-data/price-history/ACME").param("from", "2024-01-01"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].price", is(101.5)));
+        }
+
+        @Test
+        @DisplayName("GET /api/market-data/price-history/{asset}/as-of - Should return the price in force on a date")
+        void getPriceAsOf_ShouldReturnPoint() throws Exception {
+            when(priceHistoryService.getPriceAsOf("ACME", LocalDate.of(2024, 1, 6))).thenReturn(
+                    new PriceHistoryPointDTO("ACME", LocalDate.of(2024, 1, 5), new BigDecimal("103.00")));
+
+            mockMvc.perform(get("/api/market-data/price-history/ACME/as-of").param("date", "2024-01-06"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.priceDate", is("2024-01-05")))
+                    .andExpect(jsonPath("$.price", is(103.0)));
+        }
+
+        @Test
+        @DisplayName("GET /api/market-data/price-history/{asset}/as-of - Should return 404 before the first price")
+        void getPriceAsOf_WhenNoPrice_ShouldReturn404() throws Exception {
+            when(priceHistoryService.getPriceAsOf("ACME", LocalDate.of(1999, 1, 1))).thenReturn(null);
+
+            mockMvc.perform(get("/api/market-data/price-history/ACME/as-of").param("date", "1999-01-01"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("FX Rate Tests")
+    class FxRateTests {
+
+        @Test
+        @DisplayName("POST /api/market-data/fx-rates - Should import rates")
+        void importFxRates_ShouldReturnImportedCount() throws Exception {
+            List<FxRateDTO> rates = Collections.singletonList(
+                    new FxRateDTO("USD", "INR", LocalDate.of(2024, 1, 2), new BigDecimal("83.12")));
+            when(fxRateService.importRates(anyList())).thenReturn(1);
+
+            mockMvc.perform(post("/api/market-data/fx-rates")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(rates)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.imported", is(1)));
+        }
+
+        @Test
+        @DisplayName("POST /api/market-data/fx-rates - Should reject a non-positive rate")
+        void importFxRates_WithZeroRate_ShouldReturn400() throws Exception {
+            List<FxRateDTO> rates = Collections.singletonList(
+                    new FxRateDTO("USD", "INR", LocalDate.of(2024, 1, 2), BigDecimal.ZERO));
+
+            mockMvc.perform(post("/api/market-data/fx-rates")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(rates)))
+                    .andExpect(status().isBadRequest());
+
+            verify(fxRateService, never()).importRates(anyList());
+        }
+
+        @Test
+        @DisplayName("GET /api/market-data/fx-rates/{base}/{quote} - Should return 404 without a rate")
+        void getFxRate_WhenUnknown_ShouldReturn404() throws Exception {
+            when(fxRateService.getRate("USD", "XYZ", LocalDate.of(2024, 1, 2))).thenReturn(null);
+
+            mockMvc.perform(get("/api/market-data/fx-rates/USD/XYZ").param("date", "2024-01-02"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Corporate Action Tests")
+    class CorporateActionTests {
+
+        private CorporateActionDTO split() {
+            return new CorporateActionDTO("CA-1", "ACME", "SPLIT", 2, 1, LocalDate.of(2024, 6, 10), null, null, null);
+        }
+
+        @Test
+        @DisplayName("POST /api/market-data/corporate-actions - Should apply the action")
+        void applyCorporateAction_ShouldReturnAppliedAction() throws Exception {
+            CorporateActionDTO applied = split();
+            applied.setStatus("APPLIED");
+            applied.setHoldingsAdjusted(120L);
+            when(corporateActionService.apply(any(CorporateActionDTO.class))).thenReturn(applied);
+
+            mockMvc.perform(post("/api/market-data/corporate-actions")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(split())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status", is("APPLIED")))
+                    .andExpect(jsonPath("$.holdingsAdjusted", is(120)));
+        }
+
+        @Test
+        @DisplayName("POST /api/market-data/corporate-actions - Should reject a split that reduces shares")
+        void applyCorporateAction_WithInvalidRatio_ShouldReturn400() throws Exception {
+            CorporateActionDTO action = split();
+            action.setNewShares(1);
+            action.setOldShares(5);
+
+            mockMvc.perform(post("/api/market-data/corporate-actions")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(action)))
+                    .andExpect(status().isBadRequest());
+
+            verify(corporateActionService, never()).apply(any());
+        }
+
+        @Test
+        @DisplayName("POST /api/market-data/corporate-actions - Should reject an action whose ex-date is still to come")
+        void applyCorporateAction_WithFutureExDate_ShouldReturn400() throws Exception {
+            CorporateActionDTO action = split();
+            action.setExDate(LocalDate.now().plusDays(1));
+
+            mockMvc.perform(post("/api/market-data/corporate-actions")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(action)))
+                    .andExpect(status().isBadRequest());
+
+            verify(corporateActionService, never()).apply(any());
+        }
+
+        @Test
+        @DisplayName("POST /api/market-data/corporate-actions - Should return 409 when the ID is used by another action")
+        void applyCorporateAction_WhenIdConflicts_ShouldReturn409() throws Exception {
+            when(corporateActionService.apply(any(CorporateActionDTO.class))).thenReturn(null);
+
+            mockMvc.perform(post("/api/market-data/corporate-actions")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(split())))
+                    .andExpect(status().isConflict());
+        }
+
+        @Test
+        @DisplayName("GET /api/market-data/corporate-actions/{id} - Should return 404 for an unknown action")
+        void getCorporateAction_WhenUnknown_ShouldReturn404() throws Exception {
+            when(corporateActionService.getAction("CA-9")).thenReturn(null);
+
+            mockMvc.perform(get("/api/market-data/corporate-actions/CA-9"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+}
@@ -1,42 +1,77 @@
 package com.example.portfoliobackend.controller;
 
+import com.example.portfoliobackend.config.FieldSelectionConfig;
+import com.example.portfoliobackend.dto.BackfillResultDTO;
+import com.example.portfoliobackend.dto.PortfolioDetailsDTO;
+import com.example.portfoliobackend.dto.PortfolioOverviewDTO;
+import com.example.portfoliobackend.dto.PortfolioSnapshotDTO;
+import com.example.portfoliobackend.dto.PortfolioDashboardDTO;
+import com.example.portfoliobackend.dto.PortfolioValuationDTO;
 import com.example.portfoliobackend.entity.Holding;
 import com.example.portfoliobackend.entity.Portfolio;
 import com.example.portfoliobackend.entity.PortfolioSnapshot;
 import com.example.portfoliobackend.entity.PortfolioTarget;
+import com.example.portfoliobackend.service.DashboardStreamService;
+import com.example.portfoliobackend.service.FieldSelection;
+import com.example.portfoliobackend.service.HoldingStreamService;
+import com.example.portfoliobackend.service.PortfolioReadCoalescer;
 import com.example.portfoliobackend.service.PortfolioService;
+import com.example.portfoliobackend.service.PortfolioViewAssembler;
+import com.example.portfoliobackend.service.PortfolioVersions;
+import com.example.portfoliobackend.service.PriceMode;
+import com.example.portfoliobackend.service.SnapshotBackfillService;
+import com.example.portfoliobackend.service.ValuationService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(PortfolioController.class)
+@Import({PortfolioReadCoalescer.class, FieldSelectionConfig.class})
 @DisplayName("PortfolioController Integration Tests")
 class PortfolioControllerTest {
 
@@ -49,6 +84,24 @@ class PortfolioControllerTest {
     @MockitoBean
     private PortfolioService portfolioService;
 
+    @MockitoBean
+    private SnapshotBackfillService snapshotBackfillService;
+
+    @MockitoBean
+    private DashboardStreamService dashboardStreamService;
+
+    @MockitoBean
+    private ValuationService valuationService;
+
+    @MockitoBean
+    private PortfolioVersions portfolioVersions;
+
+    @MockitoBean
+    private PortfolioViewAssembler portfolioViewAssembler;
+
+    @MockitoBean
+    private HoldingStreamService holdingStreamService;
+
     private Portfolio testPortfolio;
     private Holding testHolding;
     private PortfolioTarget testTarget;
@@ -267,6 +320,27 @@ class PortfolioControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$", hasSize(1)));
         }
+
+        @Test
+        @DisplayName("POST /api/portfolios/{id}/snapshots/backfill - Should backfill snapshot history")
+        void backfillSnapshots_ShouldReturnResult() throws Exception {
+            when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+            when(snapshotBackfillService.backfillPortfolio(1L)).thenReturn(new BackfillResultDTO(1, 1, 365, 12));
+
+            mockMvc.perform(post("/api/portfolios/1/snapshots/backfill"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.snapshotsInserted", is(365)));
+        }
+
+        @Test
+        @DisplayName("POST /api/portfolios/snapshots/backfill - Should backfill every portfolio")
+        void backfillAllSnapshots_ShouldReturnResult() throws Exception {
+            when(snapshotBackfillService.backfillAll()).thenReturn(new BackfillResultDTO(20, 18, 5000, 40));
+
+            mockMvc.perform(post("/api/portfolios/snapshots/backfill"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.portfoliosBackfilled", is(18)));
+        }
     }
 
     @Nested
@@ -296,5 +370,477 @@ class PortfolioControllerTest {
                     .andExpect(jsonPath("$", hasSize(2)))
                     .andExpect(jsonPath("$", containsInAnyOrder("STOCK", "BOND")));
         }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/dashboard?mode=live - Should return the live-priced dashboard")
+        void getDashboard_WhenLive_ShouldReturnPriceAsOf() throws Exception {
+            PortfolioDashboardDTO dashboard = new PortfolioDashboardDTO(1L, "Test Portfolio", "USD",
+                    new BigDecimal("2000.00"), Collections.emptyList(), null);
+            dashboard.setPriceAsOf(LocalDateTime.of(2024, 1, 2, 10, 0));
+            when(portfolioService.getPortfolioDashboard(1L, PriceMode.LIVE)).thenReturn(dashboard);
+
+            mockMvc.perform(get("/api/portfolios/1/dashboard").param("mode", "live"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalValue", is(2000.00)))
+                    .andExpect(jsonPath("$.priceAsOf", is("2024-01-02T10:00:00")));
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/dashboard/stream - Should open an event stream")
+        void streamDashboard_WhenPortfolioExists_ShouldStartAsync() throws Exception {
+            when(dashboardStreamService.subscribe(1L, PriceMode.STORED)).thenReturn(new SseEmitter());
+
+            mockMvc.perform(get("/api/portfolios/1/dashboard/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/dashboard/stream - Should return 404 when portfolio not exists")
+        void streamDashboard_WhenPortfolioNotExists_ShouldReturn404() throws Exception {
+            when(dashboardStreamService.subscribe(999L, PriceMode.STORED)).thenReturn(null);
+
+            mockMvc.perform(get("/api/portfolios/999/dashboard/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/dashboard - Should return 400 for an unknown price mode")
+        void getDashboard_WhenModeUnknown_ShouldReturn400() throws Exception {
+            mockMvc.perform(get("/api/portfolios/1/dashboard").param("mode", "realtime"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Valuation Tests")
+    class ValuationTests {
+
+        private PortfolioValuationDTO valuationOn(LocalDate asOf, String total) {
+            return new PortfolioValuationDTO(1L, asOf, "USD", new BigDecimal(total), new BigDecimal("900.00"), 1,
+                    Collections.singletonMap("STOCK", new BigDecimal(total)), Collections.emptyList(),
+                    Collections.emptyList());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/valuation?asOf= - Should return the valuation on that date")
+        void getValuation_ShouldReturnValuation() throws Exception {
+            LocalDate asOf = LocalDate.of(2023, 12, 31);
+            when(valuationService.getValuation(1L, asOf)).thenReturn(valuationOn(asOf, "1200.00"));
+
+            mockMvc.perform(get("/api/portfolios/1/valuation").param("asOf", "2023-12-31"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.asOf", is("2023-12-31")))
+                    .andExpect(jsonPath("$.totalValue", is(1200.00)))
+                    .andExpect(jsonPath("$.allocations.STOCK", is(1200.00)));
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/valuation - Should return 404 when portfolio not exists")
+        void getValuation_WhenPortfolioNotExists_ShouldReturn404() throws Exception {
+            when(valuationService.getValuation(eq(999L), any(LocalDate.class))).thenReturn(null);
+
+            mockMvc.perform(get("/api/portfolios/999/valuation"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/valuations - Should value every requested date in order")
+        void getValuations_ShouldReturnOnePerDate() throws Exception {
+            LocalDate first = LocalDate.of(2023, 11, 30);
+            LocalDate second = LocalDate.of(2023, 12, 31);
+            when(valuationService.getValuations(1L, Arrays.asList(first, second)))
+                    .thenReturn(Arrays.asList(valuationOn(first, "1100.00"), valuationOn(second, "1200.00")));
+
+            mockMvc.perform(get("/api/portfolios/1/valuations").param("asOf", "2023-11-30", "2023-12-31"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].totalValue", is(1100.00)))
+                    .andExpect(jsonPath("$[1].asOf", is("2023-12-31")));
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/valuations - Should return 400 without dates")
+        void getValuations_WhenNoDates_ShouldReturn400() throws Exception {
+            mockMvc.perform(get("/api/portfolios/1/valuations"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conditional GET Tests")
+    class ConditionalGetTests {
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/dashboard - Should return the portfolio version as ETag")
+        void getDashboard_ShouldSetETagAndLastModified() throws Exception {
+            when(portfolioVersions.etag(1L)).thenReturn("\"v3\"");
+            when(portfolioVersions.lastModified(1L)).thenReturn(1_700_000_000_000L);
+            when(portfolioService.getPortfolioDashboard(1L, PriceMode.STORED)).thenReturn(new PortfolioDashboardDTO(
+                    1L, "Test Portfolio", "USD", new BigDecimal("2000.00"), Collections.emptyList(), null));
+
+            mockMvc.perform(get("/api/portfolios/1/dashboard"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "W/\"v3\""))
+                    .andExpect(header().exists("Last-Modified"))
+                    .andExpect(header().string("Cache-Control", "no-cache"));
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/dashboard - Should answer 304 before building the dashboard")
+        void getDashboard_WhenETagMatches_ShouldReturn304() throws Exception {
+            when(portfolioVersions.etag(1L)).thenReturn("\"v3\"");
+
+            mockMvc.perform(get("/api/portfolios/1/dashboard").header("If-None-Match", "\"v3\""))
+                    .andExpect(status().isNotModified());
+
+            verify(portfolioService, never()).getPortfolioDashboard(any(), any());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/dashboard - Should revalidate a CBOR copy with the weak ETag")
+        void getDashboard_WithCborAccept_ShouldUseWeakETag() throws Exception {
+            when(portfolioVersions.etag(1L)).thenReturn("\"v3\"");
+
+            mockMvc.perform(get("/api/portfolios/1/dashboard").accept("application/cbor")
+                            .header("If-None-Match", "W/\"v3\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "W/\"v3\""))
+                    .andExpect(header().stringValues("Vary", hasItem("Accept")));
+
+            verify(portfolioService, never()).getPortfolioDashboard(any(), any());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/holdings - Should answer 304 without querying holdings")
+        void getHoldings_WhenETagMatches_ShouldReturn304() throws Exception {
+            when(portfolioVersions.etag(1L)).thenReturn("\"v3\"");
+
+            mockMvc.perform(get("/api/portfolios/1/holdings").header("If-None-Match", "\"v3\""))
+                    .andExpect(status().isNotModified());
+
+            verify(portfolioService, never()).getHoldingsByPortfolioId(any());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/targets - Should return the targets when the ETag is stale")
+        void getTargets_WhenETagStale_ShouldReturn200() throws Exception {
+            when(portfolioVersions.etag(1L)).thenReturn("\"v4\"");
+            when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+            when(portfolioService.getTargetsByPortfolioId(1L)).thenReturn(Collections.singletonList(testTarget));
+
+            mockMvc.perform(get("/api/portfolios/1/targets").header("If-None-Match", "\"v3\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "W/\"v4\""))
+                    .andExpect(jsonPath("$", hasSize(1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Details Tests")
+    class DetailsTests {
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/details - Should return the portfolio with holdings, targets and snapshots")
+        void getDetails_ShouldReturnAllParts() throws Exception {
+            when(portfolioViewAssembler.getDetails(1L)).thenReturn(new PortfolioDetailsDTO(testPortfolio,
+                    Arrays.asList(testHolding), Arrays.asList(testTarget), Arrays.asList(testSnapshot),
+                    Collections.emptyList()));
+
+            mockMvc.perform(get("/api/portfolios/1/details"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.portfolio.portfolioName", is("Test Portfolio")))
+                    .andExpect(jsonPath("$.holdings", hasSize(1)))
+                    .andExpect(jsonPath("$.targets", hasSize(1)))
+                    .andExpect(jsonPath("$.snapshots", hasSize(1)))
+                    .andExpect(header().string("Cache-Control", "no-cache"));
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/details - Should return 404 when portfolio not exists")
+        void getDetails_WhenPortfolioNotExists_ShouldReturn404() throws Exception {
+            when(portfolioViewAssembler.getDetails(999L)).thenReturn(null);
+
+            mockMvc.perform(get("/api/portfolios/999/details"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/details - Should mark a partial view as not storable")
+        void getDetails_WhenPartUnavailable_ShouldReturnPartialView() throws Exception {
+            when(portfolioVersions.etag(1L)).thenReturn("\"v3\"");
+            when(portfolioViewAssembler.getDetails(1L)).thenReturn(new PortfolioDetailsDTO(testPortfolio,
+                    Arrays.asList(testHolding), Arrays.asList(testTarget), null,
+                    Collections.singletonList(PortfolioViewAssembler.SNAPSHOTS)));
+
+            mockMvc.perform(get("/api/portfolios/1/details"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.unavailable[0]", is("snapshots")))
+                    .andExpect(header().string("Cache-Control", "no-store"))
+                    .andExpect(header().doesNotExist("ETag"));
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/details - Should return 503 when the portfolio could not be read")
+        void getDetails_WhenPortfolioUnavailable_ShouldReturn503() throws Exception {
+            when(portfolioViewAssembler.getDetails(1L)).thenReturn(new PortfolioDetailsDTO(null, null, null, null,
+                    Collections.singletonList(PortfolioViewAssembler.PORTFOLIO)));
+
+            mockMvc.perform(get("/api/portfolios/1/details"))
+                    .andExpect(status().isServiceUnavailable());
+        }
+    }
+
+    @Nested
+    @DisplayName("Streaming Tests")
+    class StreamingTests {
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/holdings?stream=true - Should write the holdings from the stream service")
+        void getHoldings_WithStream_ShouldStreamHoldings() throws Exception {
+            when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+            doAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(1);
+                out.write("[{\"holdingId\":1}]".getBytes(StandardCharsets.UTF_8));
+                return null;
+            }).when(holdingStreamService).writeHoldings(eq(1L), any(OutputStream.class));
+
+            MvcResult result = mockMvc.perform(get("/api/portfolios/1/holdings").param("stream", "true"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$[0].holdingId", is(1)));
+            verify(portfolioService, never()).getHoldingsByPortfolioId(any());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/dashboard?stream=true - Should stream the dashboard at the requested prices")
+        void getDashboard_WithStream_ShouldStreamDashboard() throws Exception {
+            when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+
+            MvcResult result = mockMvc.perform(get("/api/portfolios/1/dashboard")
+                            .param("stream", "true").param("mode", "live"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+            verify(holdingStreamService).writeDashboard(eq(testPortfolio), eq(PriceMode.LIVE), any(OutputStream.class));
+            verify(portfolioService, never()).getPortfolioDashboard(any(), any());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/holdings?stream=true&fields= - Should return 400")
+        void getHoldings_WithStreamAndFields_ShouldReturn400() throws Exception {
+            mockMvc.perform(get("/api/portfolios/1/holdings").param("stream", "true").param("fields", "assetName"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/dashboard?stream=true - Should return 404 when portfolio not exists")
+        void getDashboard_WithStream_WhenPortfolioNotExists_ShouldReturn404() throws Exception {
+            when(portfolioService.getPortfolioById(999L)).thenReturn(null);
+
+            mockMvc.perform(get("/api/portfolios/999/dashboard").param("stream", "true"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Binary Format Tests")
+    class BinaryFormatTests {
+
+        private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/dashboard - Should encode CBOR with the JSON date and decimal forms")
+        void getDashboard_WithCborAccept_ShouldReturnCbor() throws Exception {
+            when(portfolioService.getPortfolioDashboard(1L, PriceMode.STORED)).thenReturn(new PortfolioDashboardDTO(
+                    1L, "Test Portfolio", "USD", new BigDecimal("2000.00"), Collections.emptyList(),
+                    LocalDateTime.of(2024, 1, 15, 9, 30)));
+
+            byte[] body = mockMvc.perform(get("/api/portfolios/1/dashboard").accept("application/cbor"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/cbor"))
+                    .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            JsonNode dashboard = cborMapper.readTree(body);
+            assertThat(dashboard.get("portfolioName").asText()).isEqualTo("Test Portfolio");
+            assertThat(dashboard.get("totalValue").decimalValue()).isEqualByComparingTo("2000.00");
+            assertThat(dashboard.get("createdAt").asText()).isEqualTo("2024-01-15T09:30:00");
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/holdings?fields= - Should encode the selected properties as Smile")
+        void getHoldings_WithSmileAccept_ShouldReturnSmile() throws Exception {
+            when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+            when(portfolioService.getHoldingsByPortfolioId(1L)).thenReturn(Arrays.asList(testHolding));
+
+            byte[] body = mockMvc.perform(get("/api/portfolios/1/holdings")
+                            .param("fields", "assetName,quantity")
+                            .accept("application/x-jackson-smile"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-jackson-smile"))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            JsonNode holdings = smileMapper.readTree(body);
+            assertThat(holdings).hasSize(1);
+            assertThat(holdings.get(0).get("assetName").asText()).isEqualTo(testHolding.getAssetName());
+            assertThat(holdings.get(0).has("purchasePrice")).isFalse();
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/dashboard - Should keep JSON as the default format")
+        void getDashboard_WithoutAccept_ShouldReturnJson() throws Exception {
+            when(portfolioService.getPortfolioDashboard(1L, PriceMode.STORED)).thenReturn(new PortfolioDashboardDTO(
+                    1L, "Test Portfolio", "USD", new BigDecimal("2000.00"), Collections.emptyList(), null));
+
+            mockMvc.perform(get("/api/portfolios/1/dashboard").accept(MediaType.ALL))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        }
+    }
+
+    @Nested
+    @DisplayName("Overview Tests")
+    class OverviewTests {
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/overview - Should return the dashboard, analytics and recent snapshots")
+        void getOverview_ShouldReturnAllParts() throws Exception {
+            PortfolioDashboardDTO dashboard = new PortfolioDashboardDTO(1L, "Test Portfolio", "USD",
+                    new BigDecimal("1750.00"), Collections.emptyList(), null);
+            PortfolioOverviewDTO overview = new PortfolioOverviewDTO(dashboard,
+                    new PortfolioOverviewDTO.SummaryDTO(new BigDecimal("1750.00"), new BigDecimal("1500.00"),
+                            new BigDecimal("250.00"), null),
+                    Map.of("STOCK", new BigDecimal("100.00")),
+                    Map.of("STOCK", new BigDecimal("40.00")),
+                    Collections.singletonList(new PortfolioSnapshotDTO(1L, 1L, new BigDecimal("1700.00"), "USD",
+                            LocalDate.of(2024, 1, 31))));
+            when(portfolioViewAssembler.getOverview(1L, PriceMode.STORED, 30)).thenReturn(overview);
+
+            mockMvc.perform(get("/api/portfolios/1/overview"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.dashboard.portfolioName", is("Test Portfolio")))
+                    .andExpect(jsonPath("$.summary.totalGainLoss", is(250.00)))
+                    .andExpect(jsonPath("$.allocationPercentages.STOCK", is(100.00)))
+                    .andExpect(jsonPath("$.targetDrift.STOCK", is(40.00)))
+                    .andExpect(jsonPath("$.snapshots", hasSize(1)))
+                    .andExpect(header().string("Cache-Control", "no-cache"));
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/overview?snapshots=&mode=live - Should pass the limit and price mode")
+        void getOverview_WithLimitAndLiveMode_ShouldPassThem() throws Exception {
+            when(portfolioViewAssembler.getOverview(1L, PriceMode.LIVE, 5)).thenReturn(new PortfolioOverviewDTO());
+
+            mockMvc.perform(get("/api/portfolios/1/overview").param("snapshots", "5").param("mode", "live"))
+                    .andExpect(status().isOk());
+
+            verify(portfolioViewAssembler).getOverview(1L, PriceMode.LIVE, 5);
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/overview - Should return 400 for a snapshot limit out of range")
+        void getOverview_WithLimitOutOfRange_ShouldReturn400() throws Exception {
+            mockMvc.perform(get("/api/portfolios/1/overview").param("snapshots", "0"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/portfolios/1/overview").param("snapshots", "366"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/overview - Should return 404 when portfolio not exists")
+        void getOverview_WhenPortfolioNotExists_ShouldReturn404() throws Exception {
+            when(portfolioViewAssembler.getOverview(999L, PriceMode.STORED, 30)).thenReturn(null);
+
+            mockMvc.perform(get("/api/portfolios/999/overview"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Field Selection Tests")
+    class FieldSelectionTests {
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/dashboard?fields= - Should return only the selected properties")
+        void getDashboard_WithFields_ShouldReturnSelectedProperties() throws Exception {
+            PortfolioDashboardDTO.HoldingDetailDTO holding = new PortfolioDashboardDTO.HoldingDetailDTO(1L, "Apple Inc",
+                    "STOCK", new BigDecimal("10"), null, new BigDecimal("175.00"), "USD", null, false);
+            when(portfolioService.getPortfolioDashboard(eq(1L), eq(PriceMode.STORED), any(FieldSelection.class)))
+                    .thenReturn(new PortfolioDashboardDTO(1L, "Test Portfolio", "USD", new BigDecimal("1750.00"),
+                            Collections.singletonList(holding), null));
+
+            mockMvc.perform(get("/api/portfolios/1/dashboard").param("fields", "totalValue,holdings.assetName"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalValue", is(1750.00)))
+                    .andExpect(jsonPath("$.portfolioName").doesNotExist())
+                    .andExpect(jsonPath("$.holdings[0].assetName", is("Apple Inc")))
+                    .andExpect(jsonPath("$.holdings[0].currentPrice").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/{id}/holdings?view=summary - Should return the summary properties")
+        void getHoldings_WithSummaryView_ShouldReturnSummaryProperties() throws Exception {
+            when(portfolioService.getPortfolioById(1L)).thenReturn(testPortfolio);
+            when(portfolioService.getHoldingsByPortfolioId(1L)).thenReturn(Arrays.asList(testHolding));
+
+            mockMvc.perform(get("/api/portfolios/1/holdings").param("view", "summary"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].assetName", is("Apple Inc")))
+                    .andExpect(jsonPath("$[0].quantity", is(10)))
+                    .andExpect(jsonPath("$[0].purchasePrice").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios?fields= - Should narrow every portfolio in the listing")
+        void getAllPortfolios_WithFields_ShouldReturnSelectedProperties() throws Exception {
+            when(portfolioService.getAllPortfolios()).thenReturn(Arrays.asList(testPortfolio));
+
+            mockMvc.perform(get("/api/portfolios").param("fields", "portfolioId,portfolioName"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].portfolioName", is("Test Portfolio")))
+                    .andExpect(jsonPath("$[0].createdAt").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("GET /api/portfolios/user/{userId}?view=full - Should return every property")
+        void getPortfoliosByUser_WithFullView_ShouldReturnEveryProperty() throws Exception {
+            when(portfolioService.getPortfoliosByUserId(1L)).thenReturn(Arrays.asList(testPortfolio));
+
+            mockMvc.perform(get("/api/portfolios/user/1").param("view", "full"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].baseCurrency", is("USD")))
+                    .andExpect(jsonPath("$[0].createdAt").exists());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an unknown view, an empty path or both parameters at once")
+        void fieldSelection_WhenInvalid_ShouldReturn400() throws Exception {
+            mockMvc.perform(get("/api/portfolios/1/dashboard").param("view", "compact"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/portfolios/1/holdings").param("fields", "assetName,,quantity"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/portfolios").param("fields", "portfolioName").param("view", "summary"))
+                    .andExpect(status().isBadRequest());
+
+            verify(portfolioService, never()).getAllPortfolios();
+        }
+
+        @Test
+        @DisplayName("Should return 400 for a path that names no property of the response")
+        void fieldSelection_WhenFieldUnknown_ShouldReturn400() throws Exception {
+            mockMvc.perform(get("/api/portfolios/1/holdings").param("fields", "assetName,ticker"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/portfolios/1/dashboard").param("fields", "totalValue,holdings.ticker"))
+                    .andExpect(status().isBadRequest());
+
+            verify(portfolioService, never()).getHoldingsByPortfolioId(any());
+            verify(portfolioService, never()).getPortfolioDashboard(any(), any(), any());
+        }
     }
 }
@@ -0,0 +1,94 @@
+package com.example.portfoliobackend.repository;
+
+import com.example.portfoliobackend.entity.AssetPriceHistory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(JdbcBatchRepository.class)
+@DisplayName("AssetPriceHistoryRepository Integration Tests")
+class AssetPriceHistoryRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AssetPriceHistoryRepository assetPriceHistoryRepository;
+
+    @Autowired
+    private JdbcBatchRepository jdbcBatchRepository;
+
+    private AssetPriceHistory price(String assetName, LocalDate date, String value) {
+        AssetPriceHistory price = new AssetPriceHistory();
+        price.setAssetName(assetName);
+        price.setPriceDate(date);
+        price.setPrice(new BigDecimal(value));
+        return price;
+    }
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(price("ACME", DAY, "100.00"));
+        entityManager.persist(price("ACME", DAY.plusDays(1), "101.00"));
+        entityManager.persist(price("ACME", DAY.plusDays(5), "105.00"));
+        entityManager.persist(price("GLOBEX", DAY, "50.00"));
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should find an asset's prices within a date range in order")
+    void findByAssetNameAndPriceDateBetween_ShouldReturnOrderedRange() {
+        List<AssetPriceHistory> result = assetPriceHistoryRepository
+                .findByAssetNameAndPriceDateBetweenOrderByPriceDateAsc("ACME", DAY, DAY.plusDays(2));
+
+        assertThat(result).extracting(AssetPriceHistory::getPriceDate).containsExactly(DAY, DAY.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("Should load price rows for many assets grouped by asset up to a date")
+    void findPriceRowsByAssetNameIn_ShouldGroupByAsset() {
+        List<Object[]> rows = assetPriceHistoryRepository.findPriceRowsByAssetNameIn(
+                Arrays.asList("ACME", "GLOBEX"), DAY.plusDays(3));
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0)[0]).isEqualTo("ACME");
+        assertThat(rows.get(1)[1]).isEqualTo(DAY.plusDays(1));
+        assertThat(rows.get(2)[0]).isEqualTo("GLOBEX");
+    }
+
+    @Test
+    @DisplayName("Should insert new prices and overwrite existing ones in one batch")
+    void upsertPriceHistory_ShouldInsertAndUpdate() {
+        int written = jdbcBatchRepository.upsertPriceHistory(Arrays.asList(
+                price("ACME", DAY, "99.00"),
+                price("ACME", DAY.plusDays(2), "102.00")
+        ));
+        entityManager.clear();
+
+        List<AssetPriceHistory> result = assetPriceHistoryRepository
+                .findByAssetNameAndPriceDateBetweenOrderByPriceDateAsc("ACME", DAY, DAY.plusDays(2));
+
+        assertThat(written).isEqualTo(2);
+        assertThat(result).extracting(AssetPriceHistory::getPrice)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("99.00"), new BigDecimal("101.00"), new BigDecimal("102.00"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.portfoliobackend.repository;
+
+import com.example.portfoliobackend.entity.AssetPrice;
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(JdbcBatchRepository.class)
+@DisplayName("AssetPriceRepository Integration Tests")
+class AssetPriceRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AssetPriceRepository assetPriceRepository;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private JdbcBatchRepository jdbcBatchRepository;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("priceuser");
+        user.setEmail("price@example.com");
+        user = entityManager.persistFlushFind(user);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setUserId(user.getUserId());
+        portfolio.setPortfolioName("Price Portfolio");
+        portfolioId = entityManager.persistFlushFind(portfolio).getPortfolioId();
+    }
+
+    private AssetPrice price(String assetName, String value) {
+        AssetPrice price = new AssetPrice();
+        price.setAssetName(assetName);
+        price.setPrice(new BigDecimal(value));
+        price.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 10, 0));
+        return price;
+    }
+
+    private Holding holding(String assetName, String currentPrice) {
+        Holding holding = new Holding();
+        holding.setPortfolioId(portfolioId);
+        holding.setAssetName(assetName);
+        holding.setAssetType("STOCK");
+        holding.setQuantity(new BigDecimal("1.0000"));
+        holding.setPurchasePrice(new BigDecimal("10.00"));
+        holding.setCurrentPrice(new BigDecimal(currentPrice));
+        holding.setPurchaseDate(LocalDate.of(2024, 1, 1));
+        return entityManager.persistFlushFind(holding);
+    }
+
+    @Test
+    @DisplayName("Should insert new prices and overwrite existing ones")
+    void upsertAssetPrices_ShouldKeepOneRowPerAsset() {
+        jdbcBatchRepository.upsertAssetPrices(Collections.singletonList(price("ACME", "100.00")));
+        jdbcBatchRepository.upsertAssetPrices(Arrays.asList(price("ACME", "105.00"), price("GLOBEX", "50.00")));
+
+        assertThat(assetPriceRepository.findAllByOrderByAssetNameAsc())
+                .extracting(AssetPrice::getAssetName)
+                .containsExactly("ACME", "GLOBEX");
+        assertThat(assetPriceRepository.findById("ACME").get().getPrice()).isEqualByComparingTo("105.00");
+    }
+
+    @Test
+    @DisplayName("Should revalue only the holdings of the refreshed assets")
+    void refreshHoldingPrices_ShouldCopyLatestPriceToHoldings() {
+        Holding first = holding("ACME", "90.00");
+        Holding second = holding("ACME", "91.00");
+        Holding other = holding("GLOBEX", "40.00");
+        jdbcBatchRepository.upsertAssetPrices(Arrays.asList(price("ACME", "105.00"), price("GLOBEX", "50.00")));
+
+        int revalued = jdbcBatchRepository.refreshHoldingPrices(Collections.singletonList("ACME"));
+        entityManager.clear();
+
+        assertThat(revalued).isEqualTo(2);
+        assertThat(holdingRepository.findById(first.getHoldingId()).get().getCurrentPrice()).isEqualByComparingTo("105.00");
+        assertThat(holdingRepository.findById(second.getHoldingId()).get().getCurrentPrice()).isEqualByComparingTo("105.00");
+        assertThat(holdingRepository.findById(other.getHoldingId()).get().getCurrentPrice()).isEqualByComparingTo("40.00");
+    }
+}
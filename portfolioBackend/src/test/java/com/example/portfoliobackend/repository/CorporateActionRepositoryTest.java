@@ -0,0 +1,168 @@
+package com.example.portfoliobackend.repository;
+
+import com.example.portfoliobackend.entity.AssetPrice;
+import com.example.portfoliobackend.entity.AssetPriceHistory;
+import com.example.portfoliobackend.entity.CorporateAction;
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(JdbcBatchRepository.class)
+@DisplayName("CorporateActionRepository Integration Tests")
+class CorporateActionRepositoryTest {
+
+    private static final LocalDate EX_DATE = LocalDate.of(2024, 6, 10);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CorporateActionRepository corporateActionRepository;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private AssetPriceRepository assetPriceRepository;
+
+    @Autowired
+    private AssetPriceHistoryRepository assetPriceHistoryRepository;
+
+    @Autowired
+    private JdbcBatchRepository jdbcBatchRepository;
+
+    private Long firstPortfolioId;
+    private Long secondPortfolioId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("splituser");
+        user.setEmail("split@example.com");
+        user = entityManager.persistFlushFind(user);
+        firstPortfolioId = portfolio(user, "First").getPortfolioId();
+        secondPortfolioId = portfolio(user, "Second").getPortfolioId();
+    }
+
+    private Portfolio portfolio(User user, String name) {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setUserId(user.getUserId());
+        portfolio.setPortfolioName(name);
+        return entityManager.persistFlushFind(portfolio);
+    }
+
+    private Holding holding(Long portfolioId, String assetName, LocalDate purchaseDate) {
+        Holding holding = new Holding();
+        holding.setPortfolioId(portfolioId);
+        holding.setAssetName(assetName);
+        holding.setAssetType("STOCK");
+        holding.setQuantity(new BigDecimal("10.0000"));
+        holding.setPurchasePrice(new BigDecimal("150.00"));
+        holding.setCurrentPrice(new BigDecimal("200.00"));
+        holding.setPurchaseDate(purchaseDate);
+        return entityManager.persistFlushFind(holding);
+    }
+
+    private CorporateAction action(String actionId) {
+        CorporateAction action = new CorporateAction();
+        action.setActionId(actionId);
+        action.setAssetName("ACME");
+        action.setActionType("SPLIT");
+        action.setNewShares(2);
+        action.setOldShares(1);
+        action.setExDate(EX_DATE);
+        action.setStatus("PENDING");
+        action.setCreatedAt(LocalDateTime.of(2024, 6, 9, 18, 0));
+        return action;
+    }
+
+    @Test
+    @DisplayName("Should let each portfolio range be claimed once")
+    void claimRange_ShouldOnlySucceedFromCurrentProgress() {
+        corporateActionRepository.insert(action("CA-1"));
+
+        assertThat(corporateActionRepository.claimRange("CA-1", 0L, 1000L)).isEqualTo(1);
+        assertThat(corporateActionRepository.claimRange("CA-1", 0L, 1000L)).isZero();
+        corporateActionRepository.addHoldingsAdjusted("CA-1", 3L);
+        assertThat(corporateActionRepository.markApplied("CA-1", LocalDateTime.of(2024, 6, 10, 9, 0))).isEqualTo(1);
+        assertThat(corporateActionRepository.claimRange("CA-1", 1000L, 2000L)).isZero();
+        entityManager.clear();
+
+        CorporateAction stored = corporateActionRepository.findById("CA-1").get();
+        assertThat(stored.getStatus()).isEqualTo("APPLIED");
+        assertThat(stored.getLastPortfolioId()).isEqualTo(1000L);
+        assertThat(stored.getHoldingsAdjusted()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should adjust only holdings of the asset bought before the ex-date within the range")
+    void adjustHoldingsForCorporateAction_ShouldRestateQuantityAndPrice() {
+        Holding before = holding(firstPortfolioId, "ACME", EX_DATE.minusDays(30));
+        Holding after = holding(firstPortfolioId, "ACME", EX_DATE);
+        Holding outOfRange = holding(secondPortfolioId, "ACME", EX_DATE.minusDays(30));
+        Holding other = holding(firstPortfolioId, "GLOBEX", EX_DATE.minusDays(30));
+
+        int adjusted = jdbcBatchRepository.adjustHoldingsForCorporateAction("ACME", EX_DATE, 2, 1,
+                firstPortfolioId - 1, firstPortfolioId);
+        entityManager.clear();
+
+        assertThat(adjusted).isEqualTo(1);
+        Holding split = holdingRepository.findById(before.getHoldingId()).get();
+        assertThat(split.getQuantity()).isEqualByComparingTo("20");
+        assertThat(split.getPurchasePrice()).isEqualByComparingTo("75.00");
+        assertThat(split.getCurrentPrice()).isEqualByComparingTo("100.00");
+        assertThat(holdingRepository.findById(after.getHoldingId()).get().getQuantity()).isEqualByComparingTo("10");
+        assertThat(holdingRepository.findById(outOfRange.getHoldingId()).get().getQuantity()).isEqualByComparingTo("10");
+        assertThat(holdingRepository.findById(other.getHoldingId()).get().getQuantity()).isEqualByComparingTo("10");
+    }
+
+    @Test
+    @DisplayName("Should restate prices recorded before the ex-date")
+    void adjustPricesForCorporateAction_ShouldRestateEarlierPrices() {
+        AssetPriceHistory earlier = new AssetPriceHistory();
+        earlier.setAssetName("ACME");
+        earlier.setPriceDate(EX_DATE.minusDays(1));
+        earlier.setPrice(new BigDecimal("200.00"));
+        AssetPriceHistory later = new AssetPriceHistory();
+        later.setAssetName("ACME");
+        later.setPriceDate(EX_DATE);
+        later.setPrice(new BigDecimal("101.00"));
+        jdbcBatchRepository.upsertPriceHistory(Arrays.asList(earlier, later));
+        AssetPrice latest = new AssetPrice();
+        latest.setAssetName("ACME");
+        latest.setPrice(new BigDecimal("200.00"));
+        latest.setUpdatedAt(EX_DATE.minusDays(1).atTime(16, 0));
+        jdbcBatchRepository.upsertAssetPrices(Collections.singletonList(latest));
+
+        int adjusted = jdbcBatchRepository.adjustPricesForCorporateAction("ACME", EX_DATE, 2, 1);
+        entityManager.clear();
+
+        assertThat(adjusted).isEqualTo(2);
+        assertThat(assetPriceRepository.findById("ACME").get().getPrice()).isEqualByComparingTo("100.00");
+        assertThat(assetPriceHistoryRepository.findByAssetNameAndPriceDateBetweenOrderByPriceDateAsc("ACME",
+                EX_DATE.minusDays(1), EX_DATE))
+                .extracting(AssetPriceHistory::getPrice)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("100.00"), new BigDecimal("101.00"));
+    }
+}
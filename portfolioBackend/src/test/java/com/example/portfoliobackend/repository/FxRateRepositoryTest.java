@@ -0,0 +1,81 @@
+package com.example.portfoliobackend.repository;
+
+import com.example.portfoliobackend.entity.FxRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(JdbcBatchRepository.class)
+@DisplayName("FxRateRepository Integration Tests")
+class FxRateRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FxRateRepository fxRateRepository;
+
+    @Autowired
+    private JdbcBatchRepository jdbcBatchRepository;
+
+    private FxRate rate(String base, String quote, LocalDate date, String value) {
+        FxRate rate = new FxRate();
+        rate.setBaseCurrency(base);
+        rate.setQuoteCurrency(quote);
+        rate.setRateDate(date);
+        rate.setRate(new BigDecimal(value));
+        return rate;
+    }
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(rate("USD", "INR", DAY.plusDays(1), "83.10"));
+        entityManager.persist(rate("USD", "INR", DAY, "83.00"));
+        entityManager.persist(rate("EUR", "USD", DAY, "1.08"));
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should list every rate grouped by pair in date order")
+    void findAllOrderByPairAndDate_ShouldGroupPairs() {
+        List<FxRate> result = fxRateRepository.findAllOrderByPairAndDate();
+
+        assertThat(result).extracting(FxRate::getQuoteCurrency).containsExactly("USD", "INR", "INR");
+        assertThat(result.get(1).getRateDate()).isEqualTo(DAY);
+    }
+
+    @Test
+    @DisplayName("Should insert new rates and overwrite existing ones in one batch")
+    void upsertFxRates_ShouldInsertAndUpdate() {
+        int written = jdbcBatchRepository.upsertFxRates(Arrays.asList(
+                rate("USD", "INR", DAY, "82.50"),
+                rate("USD", "INR", DAY.plusDays(2), "83.40")
+        ));
+        entityManager.clear();
+
+        List<FxRate> result = fxRateRepository.findByPairOrderByRateDate("USD", "INR");
+
+        assertThat(written).isEqualTo(2);
+        assertThat(result).extracting(FxRate::getRate)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("82.50"), new BigDecimal("83.10"), new BigDecimal("83.40"));
+    }
+}
@@ -163,4 +163,77 @@ class HoldingRepositoryTest {
         assertThat(found.getQuantity()).isEqualByComparingTo(new BigDecimal("123.4567"));
         assertThat(found.getPurchasePrice()).isEqualByComparingTo(new BigDecimal("99.99"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should list each held asset once, sorted by name")
+    void findDistinctAssetNames_ShouldReturnSortedDistinctNames() {
+        holdingRepository.save(testHolding);
+        Holding second = new Holding();
+        second.setPortfolioId(testPortfolio.getPortfolioId());
+        second.setAssetName("Apple Inc");
+        second.setAssetType("STOCK");
+        second.setQuantity(new BigDecimal("5.0000"));
+        second.setPurchasePrice(new BigDecimal("160.00"));
+        second.setCurrentPrice(new BigDecimal("175.00"));
+        second.setCurrency("USD");
+        second.setPurchaseDate(LocalDate.now().minusDays(10));
+        holdingRepository.save(second);
+        Holding bond = new Holding();
+        bond.setPortfolioId(testPortfolio.getPortfolioId());
+        bond.setAssetName("Treasury 2030");
+        bond.setAssetType("BOND");
+        bond.setQuantity(new BigDecimal("20.0000"));
+        bond.setPurchasePrice(new BigDecimal("95.00"));
+        bond.setCurrentPrice(new BigDecimal("97.00"));
+        bond.setCurrency("USD");
+        bond.setPurchaseDate(LocalDate.now().minusDays(5));
+        holdingRepository.save(bond);
+        entityManager.flush();
+
+        assertThat(holdingRepository.findDistinctAssetNames()).containsExactly("Apple Inc", "Treasury 2030");
+    }
+
+    @Test
+    @DisplayName("Should list the distinct assets of one portfolio")
+    void findDistinctAssetNamesByPortfolioId_ShouldReturnPortfolioAssets() {
+        holdingRepository.save(testHolding);
+        Holding second = new Holding();
+        second.setPortfolioId(testPortfolio.getPortfolioId());
+        second.setAssetName("Apple Inc");
+        second.setAssetType("STOCK");
+        second.setQuantity(new BigDecimal("5.0000"));
+        second.setPurchasePrice(new BigDecimal("160.00"));
+        second.setCurrentPrice(new BigDecimal("175.00"));
+        second.setCurrency("USD");
+        second.setPurchaseDate(LocalDate.now().minusDays(10));
+        holdingRepository.save(second);
+        entityManager.flush();
+
+        assertThat(holdingRepository.findDistinctAssetNamesByPortfolioId(testPortfolio.getPortfolioId()))
+                .containsExactly("Apple Inc");
+        assertThat(holdingRepository.findDistinctAssetNamesByPortfolioId(testPortfolio.getPortfolioId() + 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should only return holdings bought on or before a date")
+    void findByPortfolioIdAndPurchaseDateLessThanEqual_ShouldFilterByPurchaseDate() {
+        holdingRepository.save(testHolding);
+        Holding later = new Holding();
+        later.setPortfolioId(testPortfolio.getPortfolioId());
+        later.setAssetName("Microsoft");
+        later.setAssetType("STOCK");
+        later.setQuantity(new BigDecimal("2.0000"));
+        later.setPurchasePrice(new BigDecimal("300.00"));
+        later.setCurrentPrice(new BigDecimal("310.00"));
+        later.setCurrency("USD");
+        later.setPurchaseDate(LocalDate.now().minusDays(5));
+        holdingRepository.save(later);
+        entityManager.flush();
+
+        List<Holding> held = holdingRepository.findByPortfolioIdAndPurchaseDateLessThanEqual(
+                testPortfolio.getPortfolioId(), LocalDate.now().minusDays(10));
+        assertThat(held).extracting(Holding::getAssetName).containsExactly("Apple Inc");
+        assertThat(holdingRepository.findByPortfolioIdAndPurchaseDateLessThanEqual(
+                testPortfolio.getPortfolioId(), LocalDate.now().minusDays(5))).hasSize(2);
+    }
+}
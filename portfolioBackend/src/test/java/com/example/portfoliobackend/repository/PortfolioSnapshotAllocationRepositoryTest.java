@@ -0,0 +1,130 @@
+package com.example.portfoliobackend.repository;
+
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import com.example.portfoliobackend.entity.PortfolioSnapshotAllocation;
+import com.example.portfoliobackend.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(JdbcBatchRepository.class)
+@DisplayName("PortfolioSnapshotAllocationRepository Integration Tests")
+class PortfolioSnapshotAllocationRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PortfolioSnapshotAllocationRepository portfolioSnapshotAllocationRepository;
+
+    @Autowired
+    private JdbcBatchRepository jdbcBatchRepository;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("allocuser");
+        user.setEmail("alloc@example.com");
+        user = entityManager.persistFlushFind(user);
+
+        Portfolio portfolio = new Portfolio();
+        portfolio.setUserId(user.getUserId());
+        portfolio.setPortfolioName("Allocation Portfolio");
+        portfolioId = entityManager.persistFlushFind(portfolio).getPortfolioId();
+    }
+
+    private PortfolioSnapshot snapshot(LocalDate date) {
+        PortfolioSnapshot snapshot = new PortfolioSnapshot();
+        snapshot.setPortfolioId(portfolioId);
+        snapshot.setTotalValue(new BigDecimal("1000.00"));
+        snapshot.setCurrency("USD");
+        snapshot.setSnapshotDate(date);
+        return snapshot;
+    }
+
+    private PortfolioSnapshotAllocation allocation(PortfolioSnapshot snapshot, String assetType, String value) {
+        PortfolioSnapshotAllocation allocation = new PortfolioSnapshotAllocation();
+        allocation.setSnapshotId(snapshot.getSnapshotId());
+        allocation.setPortfolioId(snapshot.getPortfolioId());
+        allocation.setSnapshotDate(snapshot.getSnapshotDate());
+        allocation.setAssetType(assetType);
+        allocation.setMarketValue(new BigDecimal(value));
+        return allocation;
+    }
+
+    @Test
+    @DisplayName("Should assign generated IDs to batch-inserted snapshots and store their allocations")
+    void insertSnapshotsAndAllocations_ShouldLinkRowsBySnapshotId() {
+        PortfolioSnapshot first = snapshot(DAY);
+        PortfolioSnapshot second = snapshot(DAY.plusDays(1));
+        jdbcBatchRepository.insertSnapshots(Arrays.asList(first, second));
+
+        assertThat(first.getSnapshotId()).isNotNull();
+        assertThat(second.getSnapshotId()).isNotNull().isNotEqualTo(first.getSnapshotId());
+
+        jdbcBatchRepository.insertAllocations(Arrays.asList(
+                allocation(first, "STOCK", "600.00"),
+                allocation(first, "BOND", "400.00"),
+                allocation(second, "STOCK", "1000.00")));
+
+        assertThat(portfolioSnapshotAllocationRepository.findBySnapshotId(first.getSnapshotId()))
+                .extracting(PortfolioSnapshotAllocation::getAssetType)
+                .containsExactlyInAnyOrder("STOCK", "BOND");
+    }
+
+    @Test
+    @DisplayName("Should range-scan allocations by portfolio and date in snapshot order")
+    void findByPortfolioIdAndSnapshotDateBetween_ShouldReturnOrderedRange() {
+        PortfolioSnapshot early = entityManager.persistFlushFind(snapshot(DAY));
+        PortfolioSnapshot late = entityManager.persistFlushFind(snapshot(DAY.plusDays(10)));
+        portfolioSnapshotAllocationRepository.saveAll(Arrays.asList(
+                allocation(late, "STOCK", "700.00"),
+                allocation(early, "STOCK", "500.00")));
+
+        List<PortfolioSnapshotAllocation> result = portfolioSnapshotAllocationRepository
+                .findByPortfolioIdAndSnapshotDateBetweenOrderBySnapshotDateAscSnapshotIdAsc(portfolioId, DAY, DAY.plusDays(5));
+
+        assertThat(result).extracting(PortfolioSnapshotAllocation::getSnapshotId).containsExactly(early.getSnapshotId());
+    }
+
+    @Test
+    @DisplayName("Should move and delete allocations with their snapshot")
+    void updateAndDeleteBySnapshotId_ShouldFollowSnapshot() {
+        PortfolioSnapshot snapshot = entityManager.persistFlushFind(snapshot(DAY));
+        portfolioSnapshotAllocationRepository.saveAll(Collections.singletonList(allocation(snapshot, "STOCK", "500.00")));
+        entityManager.flush();
+
+        int moved = portfolioSnapshotAllocationRepository.updatePortfolioAndDateBySnapshotId(
+                snapshot.getSnapshotId(), portfolioId, DAY.plusDays(3));
+        entityManager.clear();
+
+        assertThat(moved).isEqualTo(1);
+        assertThat(portfolioSnapshotAllocationRepository.findBySnapshotId(snapshot.getSnapshotId()).get(0).getSnapshotDate())
+                .isEqualTo(DAY.plusDays(3));
+
+        portfolioSnapshotAllocationRepository.deleteBySnapshotId(snapshot.getSnapshotId());
+        assertThat(portfolioSnapshotAllocationRepository.findBySnapshotId(snapshot.getSnapshotId())).isEmpty();
+    }
+}
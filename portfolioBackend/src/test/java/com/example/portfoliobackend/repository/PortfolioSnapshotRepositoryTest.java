@@ -107,6 +107,66 @@ class PortfolioSnapshotRepositoryTest {
         assertThat(snapshots.get(2).getTotalValue()).isEqualByComparingTo(new BigDecimal("10000.00"));
     }
 
+    @Test
+    @DisplayName("Should find snapshots by portfolio ID ordered by date ascending")
+    void findByPortfolioIdOrderBySnapshotDateAscSnapshotIdAsc_ShouldReturnChronologicalSnapshots() {
+        PortfolioSnapshot older = new PortfolioSnapshot();
+        older.setPortfolioId(testPortfolio.getPortfolioId());
+        older.setTotalValue(new BigDecimal("9000.00"));
+        older.setSnapshotDate(LocalDate.now().minusDays(3));
+
+        PortfolioSnapshot sameDayFirst = new PortfolioSnapshot();
+        sameDayFirst.setPortfolioId(testPortfolio.getPortfolioId());
+        sameDayFirst.setTotalValue(new BigDecimal("9500.00"));
+        sameDayFirst.setSnapshotDate(LocalDate.now());
+
+        PortfolioSnapshot sameDaySecond = new PortfolioSnapshot();
+        sameDaySecond.setPortfolioId(testPortfolio.getPortfolioId());
+        sameDaySecond.setTotalValue(new BigDecimal("9600.00"));
+        sameDaySecond.setSnapshotDate(LocalDate.now());
+
+        entityManager.persist(sameDayFirst);
+        entityManager.persist(sameDaySecond);
+        entityManager.persist(older);
+        entityManager.flush();
+
+        List<PortfolioSnapshot> snapshots = portfolioSnapshotRepository
+                .findByPortfolioIdOrderBySnapshotDateAscSnapshotIdAsc(testPortfolio.getPortfolioId());
+
+        assertThat(snapshots).extracting(PortfolioSnapshot::getTotalValue)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("9000.00"), new BigDecimal("9500.00"), new BigDecimal("9600.00"));
+    }
+
+    @Test
+    @DisplayName("Should load series rows for many portfolios grouped and in date order")
+    void findSeriesRowsByPortfolioIdIn_ShouldReturnGroupedRows() {
+        Portfolio otherPortfolio = new Portfolio();
+        otherPortfolio.setUserId(testUser.getUserId());
+        otherPortfolio.setPortfolioName("Other Portfolio");
+        otherPortfolio = entityManager.persistFlushFind(otherPortfolio);
+
+        for (Long portfolioId : List.of(otherPortfolio.getPortfolioId(), testPortfolio.getPortfolioId())) {
+            for (int day = 2; day >= 0; day--) {
+                PortfolioSnapshot snapshot = new PortfolioSnapshot();
+                snapshot.setPortfolioId(portfolioId);
+                snapshot.setTotalValue(new BigDecimal(1000 + day));
+                snapshot.setSnapshotDate(LocalDate.now().minusDays(day));
+                entityManager.persist(snapshot);
+            }
+        }
+        entityManager.flush();
+
+        List<Object[]> rows = portfolioSnapshotRepository.findSeriesRowsByPortfolioIdIn(
+                List.of(testPortfolio.getPortfolioId(), otherPortfolio.getPortfolioId()));
+
+        assertThat(rows).hasSize(6);
+        assertThat(rows.get(0)[0]).isEqualTo(testPortfolio.getPortfolioId());
+        assertThat(rows.get(0)[1]).isEqualTo(LocalDate.now().minusDays(2));
+        assertThat(rows.get(2)[1]).isEqualTo(LocalDate.now());
+        assertThat(rows.get(3)[0]).isEqualTo(otherPortfolio.getPortfolioId());
+    }
+
     @Test
     @DisplayName("Should return empty list when portfolio has no snapshots")
     void findByPortfolioIdOrderBySnapshotDateDesc_WhenNoSnapshots_ShouldReturnEmptyList() {
@@ -0,0 +1,95 @@
+package com.example.portfoliobackend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AdaptiveConcurrencyLimiter Unit Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter();
+        ReflectionTestUtils.setField(limiter, "initialLimit", 4);
+        ReflectionTestUtils.setField(limiter, "minLimit", 2);
+        ReflectionTestUtils.setField(limiter, "maxLimit", 6);
+        ReflectionTestUtils.setField(limiter, "latencyThresholdMs", 100L);
+        ReflectionTestUtils.setField(limiter, "backoffRatio", 0.5);
+        limiter.start();
+    }
+
+    private static long startedMillisAgo(long millis) {
+        return System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    @DisplayName("Should refuse requests beyond the limit and count them")
+    void tryAcquire_WhenLimitReached_ShouldReject() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getStats().getInFlight()).isEqualTo(4);
+        assertThat(limiter.getStats().getAccepted()).isEqualTo(4);
+        assertThat(limiter.getStats().getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should raise the limit by one for each fast request while it is at least half used, up to the maximum")
+    void release_WhenFastUnderLoad_ShouldIncreaseLimit() {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+
+        limiter.release(System.nanoTime(), false, true);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(System.nanoTime(), false, true);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should keep the limit when a fast request ran with most of it unused")
+    void release_WhenFastAndIdle_ShouldKeepLimit() {
+        limiter.tryAcquire();
+        limiter.release(System.nanoTime(), false, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should cut the limit by the backoff ratio for slow or failed requests, down to the minimum")
+    void release_WhenSlowOrFailed_ShouldDecreaseLimit() {
+        limiter.tryAcquire();
+        limiter.release(startedMillisAgo(500), false, true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        limiter.tryAcquire();
+        limiter.release(System.nanoTime(), true, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getStats().getLimitDecreases()).isEqualTo(2);
+        assertThat(limiter.getStats().getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should free the slot of an unsampled request without moving the limit")
+    void release_WhenNotSampled_ShouldOnlyFreeSlot() {
+        limiter.tryAcquire();
+        limiter.release(startedMillisAgo(500), false, false);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getStats().getInFlight()).isZero();
+    }
+}
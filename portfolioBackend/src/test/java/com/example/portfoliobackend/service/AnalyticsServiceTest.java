@@ -1,8 +1,12 @@
 package com.example.portfoliobackend.service;
 
+import com.example.portfoliobackend.dto.AllocationHistoryPointDTO;
 import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.PortfolioSnapshotAllocation;
 import com.example.portfoliobackend.entity.PortfolioTarget;
 import com.example.portfoliobackend.repository.HoldingRepository;
+import com.example.portfoliobackend.repository.PortfolioRepository;
+import com.example.portfoliobackend.repository.PortfolioSnapshotAllocationRepository;
 import com.example.portfoliobackend.repository.PortfolioTargetRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,12 +18,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -34,6 +42,18 @@ class AnalyticsServiceTest {
     @Mock
     private PortfolioTargetRepository portfolioTargetRepository;
 
+    @Mock
+    private PortfolioSnapshotAllocationRepository portfolioSnapshotAllocationRepository;
+
+    @Mock
+    private LivePriceCache livePriceCache;
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    @Mock
+    private FxRateCache fxRateCache;
+
     @InjectMocks
     private AnalyticsService analyticsService;
 
@@ -215,6 +235,24 @@ class AnalyticsServiceTest {
 
             assertThat(result).isEmpty();
         }
+
+        @Test
+        @DisplayName("Should convert foreign holdings into the base currency before allocating")
+        void getAllocationPercentages_WithForeignHoldings_ShouldUseBaseCurrency() {
+            stockHolding.setCurrency("USD");
+            bondHolding.setCurrency("INR");
+            when(holdingRepository.findByPortfolioId(1L)).thenReturn(Arrays.asList(stockHolding, bondHolding));
+            when(portfolioRepository.findBaseCurrencyById(1L)).thenReturn("INR");
+            when(fxRateCache.ratesInto(eq("INR"), any(), any(LocalDate.class)))
+                    .thenReturn(Collections.singletonMap("USD", new BigDecimal("2")));
+
+            Map<String, BigDecimal> result = analyticsService.getAllocationPercentages(1L);
+
+            // Stock: 1500 USD = 3000 INR, Bond: 1100 INR
+            assertThat(result.get("STOCK")).isEqualByComparingTo("73.17");
+            assertThat(result.get("BOND")).isEqualByComparingTo("26.83");
+            verify(holdingRepository, times(1)).findByPortfolioId(1L);
+        }
     }
 
     @Nested
@@ -257,4 +295,99 @@ class AnalyticsServiceTest {
             assertThat(result.get("BOND")).isEqualByComparingTo(new BigDecimal("-40.00"));
         }
     }
+
+    @Nested
+    @DisplayName("Live Price Tests")
+    class LivePriceTests {
+
+        @Test
+        @DisplayName("Should value holdings at live prices in live mode")
+        void getTotalMarketValue_WhenLive_ShouldUseLivePrices() {
+            when(holdingRepository.findByPortfolioId(1L)).thenReturn(Arrays.asList(stockHolding, bondHolding));
+            when(livePriceCache.priceOf(stockHolding, PriceMode.LIVE)).thenReturn(new BigDecimal("160"));
+            when(livePriceCache.priceOf(bondHolding, PriceMode.LIVE)).thenReturn(new BigDecimal("55"));
+
+            BigDecimal result = analyticsService.getTotalMarketValue(1L, PriceMode.LIVE);
+
+            // Stock: 10 * 160 = 1600, Bond: 20 * 55 = 1100
+            assertThat(result).isEqualByComparingTo(new BigDecimal("2700"));
+        }
+
+        @Test
+        @DisplayName("Should compute allocation percentages from live prices")
+        void getAllocationPercentages_WhenLive_ShouldUseLivePrices() {
+            when(holdingRepository.findByPortfolioId(1L)).thenReturn(Arrays.asList(stockHolding, bondHolding));
+            when(livePriceCache.priceOf(stockHolding, PriceMode.LIVE)).thenReturn(new BigDecimal("90"));
+            when(livePriceCache.priceOf(bondHolding, PriceMode.LIVE)).thenReturn(new BigDecimal("45"));
+
+            Map<String, BigDecimal> result = analyticsService.getAllocationPercentages(1L, PriceMode.LIVE);
+
+            // Stock: 900, Bond: 900
+            assertThat(result.get("STOCK")).isEqualByComparingTo("50.00");
+            assertThat(result.get("BOND")).isEqualByComparingTo("50.00");
+        }
+
+        @Test
+        @DisplayName("Should not consult the live cache in stored mode")
+        void getTotalMarketValue_WhenStored_ShouldIgnoreLiveCache() {
+            when(holdingRepository.findByPortfolioId(1L)).thenReturn(Arrays.asList(stockHolding, bondHolding));
+
+            analyticsService.getTotalMarketValue(1L, PriceMode.STORED);
+
+            verify(livePriceCache, never()).priceOf(any(Holding.class), any(PriceMode.class));
+        }
+
+        @Test
+        @DisplayName("Should report no price timestamp in stored mode")
+        void getPriceAsOf_WhenStored_ShouldReturnNull() {
+            assertThat(analyticsService.getPriceAsOf(1L, PriceMode.STORED)).isNull();
+            verify(holdingRepository, never()).findByPortfolioId(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Allocation History Tests")
+    class AllocationHistoryTests {
+
+        private PortfolioSnapshotAllocation allocation(long snapshotId, LocalDate date, String assetType, String value) {
+            PortfolioSnapshotAllocation allocation = new PortfolioSnapshotAllocation();
+            allocation.setSnapshotId(snapshotId);
+            allocation.setPortfolioId(1L);
+            allocation.setSnapshotDate(date);
+            allocation.setAssetType(assetType);
+            allocation.setMarketValue(new BigDecimal(value));
+            return allocation;
+        }
+
+        @Test
+        @DisplayName("Should group rows by snapshot and compute drift against targets")
+        void getAllocationHistory_ShouldReturnOnePointPerSnapshot() {
+            LocalDate day = LocalDate.of(2024, 1, 1);
+            when(portfolioSnapshotAllocationRepository.findByPortfolioIdAndSnapshotDateBetweenOrderBySnapshotDateAscSnapshotIdAsc(
+                    1L, day, day.plusDays(1))).thenReturn(Arrays.asList(
+                    allocation(10L, day, "STOCK", "600"),
+                    allocation(10L, day, "BOND", "400"),
+                    allocation(11L, day.plusDays(1), "STOCK", "900"),
+                    allocation(11L, day.plusDays(1), "BOND", "100")
+            ));
+            when(portfolioTargetRepository.findByPortfolioId(1L)).thenReturn(Arrays.asList(stockTarget, bondTarget));
+
+            List<AllocationHistoryPointDTO> result = analyticsService.getAllocationHistory(1L, day, day.plusDays(1));
+
+            assertThat(result).extracting(AllocationHistoryPointDTO::getSnapshotId).containsExactly(10L, 11L);
+            assertThat(result.get(0).getTargetDrift().get("STOCK")).isEqualByComparingTo("0.00");
+            assertThat(result.get(1).getAllocationPercentages().get("STOCK")).isEqualByComparingTo("90.00");
+            assertThat(result.get(1).getTargetDrift().get("BOND")).isEqualByComparingTo("-30.00");
+        }
+
+        @Test
+        @DisplayName("Should skip the targets query when the window holds no snapshots")
+        void getAllocationHistory_WhenNoRows_ShouldReturnEmptyList() {
+            when(portfolioSnapshotAllocationRepository.findByPortfolioIdAndSnapshotDateBetweenOrderBySnapshotDateAscSnapshotIdAsc(
+                    eq(1L), any(LocalDate.class), any(LocalDate.class))).thenReturn(Collections.emptyList());
+
+            assertThat(analyticsService.getAllocationHistory(1L, null, null)).isEmpty();
+            verify(portfolioTargetRepository, never()).findByPortfolioId(1L);
+        }
+    }
 }
@@ -0,0 +1,111 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.event.HoldingsChangedEvent;
+import com.example.portfoliobackend.repository.HoldingRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AssetPortfolioIndex Unit Tests")
+class AssetPortfolioIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private HoldingRepository holdingRepository;
+
+    @InjectMocks
+    private AssetPortfolioIndex assetPortfolioIndex;
+
+    @Test
+    @DisplayName("Should index every (portfolio, asset) pair on rebuild")
+    void rebuild_ShouldIndexHoldings() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenReturn(1L, 2L, 2L);
+        when(resultSet.getString(2)).thenReturn("ACME", "ACME", "GLOBEX");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int row = 0; row < 3; row++) {
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        assetPortfolioIndex.rebuild();
+
+        assertThat(assetPortfolioIndex.portfolioCount("ACME")).isEqualTo(2);
+        assertThat(assetPortfolioIndex.portfoliosHolding(Collections.singletonList("GLOBEX")).toSortedArray())
+                .containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should keep answering from the old index until a rebuild has finished")
+    void rebuild_WhileRunning_ShouldKeepOldIndexVisible() throws Exception {
+        when(holdingRepository.findDistinctAssetNamesByPortfolioId(1L)).thenReturn(Collections.singletonList("ACME"));
+        assetPortfolioIndex.refreshPortfolio(1L);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenReturn(2L);
+        when(resultSet.getString(2)).thenReturn("ACME");
+        int[] seenDuringRebuild = new int[1];
+        doAnswer(invocation -> {
+            seenDuringRebuild[0] = assetPortfolioIndex.portfolioCount("ACME");
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            seenDuringRebuild[0] = Math.min(seenDuringRebuild[0], assetPortfolioIndex.portfolioCount("ACME"));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        assetPortfolioIndex.rebuild();
+
+        assertThat(seenDuringRebuild[0]).isEqualTo(1);
+        assertThat(assetPortfolioIndex.portfoliosHolding(Collections.singletonList("ACME")).toSortedArray())
+                .containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should move a portfolio between assets when its holdings change")
+    void onHoldingsChanged_ShouldApplyDiff() {
+        when(holdingRepository.findDistinctAssetNamesByPortfolioId(1L))
+                .thenReturn(Arrays.asList("ACME", "GLOBEX"))
+                .thenReturn(Collections.singletonList("GLOBEX"));
+
+        assetPortfolioIndex.onHoldingsChanged(new HoldingsChangedEvent(1L));
+        assertThat(assetPortfolioIndex.portfolioCount("ACME")).isEqualTo(1);
+
+        assetPortfolioIndex.onHoldingsChanged(new HoldingsChangedEvent(1L));
+        assertThat(assetPortfolioIndex.portfolioCount("ACME")).isZero();
+        assertThat(assetPortfolioIndex.portfolioCount("GLOBEX")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report each affected portfolio once across several assets")
+    void portfoliosHolding_ShouldDeduplicate() {
+        when(holdingRepository.findDistinctAssetNamesByPortfolioId(1L)).thenReturn(Arrays.asList("ACME", "GLOBEX"));
+        when(holdingRepository.findDistinctAssetNamesByPortfolioId(2L)).thenReturn(Collections.singletonList("ACME"));
+        when(holdingRepository.findDistinctAssetNamesByPortfolioId(3L)).thenReturn(Collections.singletonList("INITECH"));
+        assetPortfolioIndex.refreshPortfolio(1L);
+        assetPortfolioIndex.refreshPortfolio(2L);
+        assetPortfolioIndex.refreshPortfolio(3L);
+
+        assertThat(assetPortfolioIndex.portfoliosHolding(Arrays.asList("ACME", "GLOBEX", "UNKNOWN")).toSortedArray())
+                .containsExactly(1L, 2L);
+    }
+}
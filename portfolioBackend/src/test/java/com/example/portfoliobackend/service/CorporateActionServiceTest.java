@@ -0,0 +1,178 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.CorporateActionDTO;
+import com.example.portfoliobackend.entity.CorporateAction;
+import com.example.portfoliobackend.event.PricesChangedEvent;
+import com.example.portfoliobackend.repository.CorporateActionRepository;
+import com.example.portfoliobackend.repository.HoldingRepository;
+import com.example.portfoliobackend.repository.JdbcBatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CorporateActionService Unit Tests")
+class CorporateActionServiceTest {
+
+    private static final LocalDate EX_DATE = LocalDate.of(2024, 6, 10);
+
+    @Mock
+    private CorporateActionRepository corporateActionRepository;
+
+    @Mock
+    private HoldingRepository holdingRepository;
+
+    @Mock
+    private JdbcBatchRepository jdbcBatchRepository;
+
+    @Mock
+    private LivePriceCache livePriceCache;
+
+    @Mock
+    private PriceHistoryCache priceHistoryCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private CorporateActionService corporateActionService;
+
+    private CorporateActionDTO request;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(corporateActionService, "chunkSize", 100L);
+        request = new CorporateActionDTO("CA-1", "ACME", "bonus", 1, 2, EX_DATE, null, null, null);
+    }
+
+    private CorporateAction stored(String status, long lastPortfolioId) {
+        CorporateAction action = new CorporateAction();
+        action.setActionId("CA-1");
+        action.setAssetName("ACME");
+        action.setActionType("BONUS");
+        action.setNewShares(1);
+        action.setOldShares(2);
+        action.setExDate(EX_DATE);
+        action.setStatus(status);
+        action.setLastPortfolioId(lastPortfolioId);
+        action.setHoldingsAdjusted(0L);
+        return action;
+    }
+
+    @Nested
+    @DisplayName("apply Tests")
+    class ApplyTests {
+
+        @Test
+        @DisplayName("Should register a new action, restate prices and adjust holdings range by range")
+        void apply_WhenNew_ShouldAdjustEveryRange() {
+            when(corporateActionRepository.findById("CA-1"))
+                    .thenReturn(Optional.empty(), Optional.of(stored("APPLIED", 250)));
+            when(holdingRepository.findMaxPortfolioIdByAssetName("ACME")).thenReturn(250L);
+            when(corporateActionRepository.claimRange(eq("CA-1"), anyLong(), anyLong())).thenReturn(1);
+            when(jdbcBatchRepository.adjustHoldingsForCorporateAction(eq("ACME"), eq(EX_DATE), eq(3), eq(2),
+                    anyLong(), anyLong())).thenReturn(4);
+
+            CorporateActionDTO result = corporateActionService.apply(request);
+
+            assertThat(result.getStatus()).isEqualTo("APPLIED");
+            verify(corporateActionRepository).insert(any(CorporateAction.class));
+            verify(jdbcBatchRepository).adjustPricesForCorporateAction("ACME", EX_DATE, 3, 2);
+            verify(jdbcBatchRepository).adjustHoldingsForCorporateAction("ACME", EX_DATE, 3, 2, 0L, 100L);
+            verify(jdbcBatchRepository).adjustHoldingsForCorporateAction("ACME", EX_DATE, 3, 2, 100L, 200L);
+            verify(jdbcBatchRepository).adjustHoldingsForCorporateAction("ACME", EX_DATE, 3, 2, 200L, 250L);
+            verify(corporateActionRepository).markApplied(eq("CA-1"), any());
+            verify(livePriceCache).restate("ACME", EX_DATE.atStartOfDay(), 3, 2);
+            // Once for the restated prices, then once per committed range
+            verify(eventPublisher, times(4)).publishEvent(any(PricesChangedEvent.class));
+        }
+
+        @Test
+        @DisplayName("Should resume a partly applied action after its last committed range")
+        void apply_WhenPending_ShouldResumeFromProgress() {
+            when(corporateActionRepository.findById("CA-1"))
+                    .thenReturn(Optional.of(stored("PENDING", 200)), Optional.of(stored("APPLIED", 250)));
+            when(holdingRepository.findMaxPortfolioIdByAssetName("ACME")).thenReturn(250L);
+            when(corporateActionRepository.claimRange("CA-1", 200L, 250L)).thenReturn(1);
+
+            corporateActionService.apply(request);
+
+            verify(corporateActionRepository, never()).insert(any());
+            verify(jdbcBatchRepository, never()).adjustPricesForCorporateAction(anyString(), any(), anyInt(), anyInt());
+            verify(jdbcBatchRepository).adjustHoldingsForCorporateAction("ACME", EX_DATE, 3, 2, 200L, 250L);
+            verify(corporateActionRepository).markApplied(eq("CA-1"), any());
+        }
+
+        @Test
+        @DisplayName("Should do nothing for an action that was already applied")
+        void apply_WhenApplied_ShouldNotAdjustAgain() {
+            when(corporateActionRepository.findById("CA-1")).thenReturn(Optional.of(stored("APPLIED", 250)));
+
+            CorporateActionDTO result = corporateActionService.apply(request);
+
+            assertThat(result.getStatus()).isEqualTo("APPLIED");
+            verify(jdbcBatchRepository, never()).adjustHoldingsForCorporateAction(anyString(), any(), anyInt(),
+                    anyInt(), anyLong(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should stop without finishing when another run has claimed the range")
+        void apply_WhenRangeTaken_ShouldLeaveActionPending() {
+            when(corporateActionRepository.findById("CA-1"))
+                    .thenReturn(Optional.of(stored("PENDING", 0)), Optional.of(stored("PENDING", 100)));
+            when(holdingRepository.findMaxPortfolioIdByAssetName("ACME")).thenReturn(250L);
+            when(corporateActionRepository.claimRange("CA-1", 0L, 100L)).thenReturn(0);
+
+            CorporateActionDTO result = corporateActionService.apply(request);
+
+            assertThat(result.getStatus()).isEqualTo("PENDING");
+            verify(corporateActionRepository, never()).markApplied(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("Should return null when the action ID belongs to a different action")
+        void apply_WhenIdReusedForDifferentAction_ShouldReturnNull() {
+            when(corporateActionRepository.findById("CA-1")).thenReturn(Optional.of(stored("APPLIED", 250)));
+            request.setNewShares(3);
+
+            assertThat(corporateActionService.apply(request)).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Should express each action type as a ratio of new to old shares")
+    void corporateActionType_ShouldValidateAndConvertRatios() {
+        assertThat(CorporateActionType.SPLIT.accepts(2, 1)).isTrue();
+        assertThat(CorporateActionType.SPLIT.accepts(1, 2)).isFalse();
+        assertThat(CorporateActionType.REVERSE_SPLIT.accepts(1, 10)).isTrue();
+        assertThat(CorporateActionType.REVERSE_SPLIT.numerator(1, 10)).isEqualTo(1);
+        assertThat(CorporateActionType.BONUS.numerator(1, 2)).isEqualTo(3);
+        assertThat(CorporateActionType.BONUS.accepts(0, 2)).isFalse();
+        assertThat(CorporateActionType.fromName(" reverse_split ")).isEqualTo(CorporateActionType.REVERSE_SPLIT);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.PortfolioDashboardDTO;
+import com.example.portfoliobackend.event.HoldingsChangedEvent;
+import com.example.portfoliobackend.event.PricesChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardStreamService Unit Tests")
+class DashboardStreamServiceTest {
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @Mock
+    private AssetPortfolioIndex assetPortfolioIndex;
+
+    @InjectMocks
+    private DashboardStreamService dashboardStreamService;
+
+    private PortfolioDashboardDTO dashboard;
+
+    @BeforeEach
+    void setUp() {
+        PortfolioDashboardDTO.HoldingDetailDTO holding = new PortfolioDashboardDTO.HoldingDetailDTO(1L, "ACME",
+                "STOCK", new BigDecimal("10"), new BigDecimal("90"), new BigDecimal("100"), "USD", LocalDate.now());
+        dashboard = new PortfolioDashboardDTO(1L, "Growth", "USD", new BigDecimal("1000"),
+                Collections.singletonList(holding), null);
+        // Let every pump in these tests send straight away, on the calling thread
+        ReflectionTestUtils.setField(dashboardStreamService, "maxUpdatesPerSecond", 1_000_000_000);
+        ReflectionTestUtils.setField(dashboardStreamService, "sender", (Executor) Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Should return null when the portfolio does not exist")
+    void subscribe_WhenPortfolioMissing_ShouldReturnNull() {
+        when(portfolioService.getPortfolioDashboard(99L, PriceMode.STORED)).thenReturn(null);
+
+        assertThat(dashboardStreamService.subscribe(99L, PriceMode.STORED)).isNull();
+        assertThat(dashboardStreamService.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the dashboard once per pump however many changes arrived")
+    void pump_ShouldCoalesceChanges() {
+        when(portfolioService.getPortfolioDashboard(1L, PriceMode.STORED)).thenReturn(dashboard);
+        dashboardStreamService.subscribe(1L, PriceMode.STORED);
+        dashboardStreamService.subscribe(1L, PriceMode.STORED);
+
+        dashboardStreamService.onHoldingsChanged(new HoldingsChangedEvent(1L));
+        dashboardStreamService.onHoldingsChanged(new HoldingsChangedEvent(1L));
+        dashboardStreamService.pump();
+        dashboardStreamService.pump();
+
+        // Two initial dashboards, then one rebuild shared by both subscribers
+        verify(portfolioService, times(3)).getPortfolioDashboard(1L, PriceMode.STORED);
+        assertThat(dashboardStreamService.getSubscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should retry on the next pump when building the dashboard fails")
+    void pump_WhenBuildFails_ShouldKeepSubscriberDirty() {
+        when(portfolioService.getPortfolioDashboard(1L, PriceMode.STORED))
+                .thenReturn(dashboard)
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(dashboard);
+        dashboardStreamService.subscribe(1L, PriceMode.STORED);
+
+        dashboardStreamService.onHoldingsChanged(new HoldingsChangedEvent(1L));
+        dashboardStreamService.pump();
+        dashboardStreamService.pump();
+        dashboardStreamService.pump();
+
+        // The failed rebuild is retried once, then the subscriber is clean again
+        verify(portfolioService, times(3)).getPortfolioDashboard(1L, PriceMode.STORED);
+    }
+
+    @Test
+    @DisplayName("Should only refresh portfolios holding an asset whose price changed")
+    void onPricesChanged_ShouldMarkOnlyAffectedPortfolios() {
+        when(portfolioService.getPortfolioDashboard(1L, PriceMode.LIVE)).thenReturn(dashboard);
+        LongHashSet acmeHolders = new LongHashSet();
+        acmeHolders.add(1L);
+        acmeHolders.add(5L);
+        when(assetPortfolioIndex.portfoliosHolding(Collections.singletonList("GLOBEX"))).thenReturn(new LongHashSet());
+        when(assetPortfolioIndex.portfoliosHolding(Collections.singletonList("ACME"))).thenReturn(acmeHolders);
+        dashboardStreamService.subscribe(1L, PriceMode.LIVE);
+
+        dashboardStreamService.onPricesChanged(new PricesChangedEvent(Collections.singletonList("GLOBEX")));
+        dashboardStreamService.pump();
+        verify(portfolioService, times(1)).getPortfolioDashboard(1L, PriceMode.LIVE);
+
+        dashboardStreamService.onPricesChanged(new PricesChangedEvent(Collections.singletonList("ACME")));
+        dashboardStreamService.pump();
+        verify(portfolioService, times(2)).getPortfolioDashboard(1L, PriceMode.LIVE);
+    }
+
+    @Test
+    @DisplayName("Should skip a subscriber whose previous send is still pending and catch it up afterwards")
+    void pump_WhenSendPending_ShouldNotBuildForSubscriber() {
+        List<Runnable> queued = new ArrayList<>();
+        ReflectionTestUtils.setField(dashboardStreamService, "sender", (Executor) queued::add);
+        when(portfolioService.getPortfolioDashboard(1L, PriceMode.STORED)).thenReturn(dashboard);
+        dashboardStreamService.subscribe(1L, PriceMode.STORED);
+
+        dashboardStreamService.onHoldingsChanged(new HoldingsChangedEvent(1L));
+        dashboardStreamService.pump();
+        dashboardStreamService.onHoldingsChanged(new HoldingsChangedEvent(1L));
+        dashboardStreamService.pump();
+        verify(portfolioService, times(2)).getPortfolioDashboard(1L, PriceMode.STORED);
+        assertThat(queued).hasSize(1);
+
+        queued.remove(0).run();
+        dashboardStreamService.pump();
+
+        verify(portfolioService, times(3)).getPortfolioDashboard(1L, PriceMode.STORED);
+        assertThat(queued).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should hold back updates beyond the per-subscriber rate")
+    void pump_WhenRateExceeded_ShouldDeferUpdate() {
+        ReflectionTestUtils.setField(dashboardStreamService, "maxUpdatesPerSecond", 1);
+        when(portfolioService.getPortfolioDashboard(1L, PriceMode.STORED)).thenReturn(dashboard);
+        dashboardStreamService.subscribe(1L, PriceMode.STORED);
+
+        dashboardStreamService.onHoldingsChanged(new HoldingsChangedEvent(1L));
+        dashboardStreamService.pump();
+
+        verify(portfolioService, times(1)).getPortfolioDashboard(1L, PriceMode.STORED);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.portfoliobackend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FanOutExecutor Unit Tests")
+class FanOutExecutorTest {
+
+    private FanOutExecutor fanOutExecutor;
+
+    @BeforeEach
+    void setUp() {
+        fanOutExecutor = new FanOutExecutor();
+        ReflectionTestUtils.setField(fanOutExecutor, "threads", 1);
+        ReflectionTestUtils.setField(fanOutExecutor, "timeoutMs", 100L);
+        fanOutExecutor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanOutExecutor.stop();
+    }
+
+    @Test
+    @DisplayName("Should skip a queued read whose deadline passed before a thread was free")
+    void submit_WhenDeadlinePassesInQueue_ShouldSkipRead() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocker = fanOutExecutor.submit(() -> {
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<String> queued = fanOutExecutor.submit(() -> {
+            ran.set(true);
+            return "late";
+        });
+
+        List<String> unavailable = new ArrayList<>();
+        assertThat(fanOutExecutor.await(queued, "queued", unavailable)).isNull();
+        release.countDown();
+        blocker.exceptionally(e -> null).join();
+        // Submit a marker behind the queued read so it has been dequeued before checking
+        fanOutExecutor.submit(() -> null).join();
+
+        assertThat(unavailable).containsExactly("queued");
+        assertThat(ran).isFalse();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.PortfolioDashboardDTO;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FieldSelection Unit Tests")
+class FieldSelectionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should select everything when no fields are given")
+    void parse_WhenBlank_ShouldSelectEverything() {
+        assertThat(FieldSelection.parse(null).isAll()).isTrue();
+        assertThat(FieldSelection.parse(" ").isAll()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject an empty path or path segment")
+    void parse_WhenPathEmpty_ShouldReturnNull() {
+        assertThat(FieldSelection.parse("a,,b")).isNull();
+        assertThat(FieldSelection.parse("holdings.")).isNull();
+        assertThat(FieldSelection.parse(".assetName")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should select a whole property over a narrower path inside it")
+    void nested_WhenWholePropertySelected_ShouldSelectEverythingInside() {
+        FieldSelection selection = FieldSelection.parse("holdings.assetName,holdings");
+
+        assertThat(selection.nested("holdings").isAll()).isTrue();
+        assertThat(FieldSelection.parse("holdings,holdings.assetName").nested("holdings").isAll()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should write only selected properties, applying nested paths to array elements")
+    void filter_ShouldSkipUnselectedProperties() throws Exception {
+        PortfolioDashboardDTO dashboard = new PortfolioDashboardDTO(1L, "P", "USD", new BigDecimal("5.00"), Arrays.asList(
+                new PortfolioDashboardDTO.HoldingDetailDTO(1L, "A", "STOCK", BigDecimal.ONE, BigDecimal.ONE,
+                        BigDecimal.ONE, "USD", null),
+                new PortfolioDashboardDTO.HoldingDetailDTO(2L, "B", "STOCK", BigDecimal.ONE, BigDecimal.ONE,
+                        BigDecimal.ONE, "USD", null)), null);
+        FieldSelection selection = FieldSelection.parse("totalValue,holdings.assetName");
+
+        String json = objectMapper.writer(new SimpleFilterProvider().addFilter(FieldSelection.FILTER_ID,
+                selection.filter())).writeValueAsString(dashboard);
+
+        assertThat(json).isEqualTo("{\"totalValue\":5.00,\"holdings\":[{\"assetName\":\"A\"},{\"assetName\":\"B\"}]}");
+    }
+
+    @Test
+    @DisplayName("Should accept only paths that name serialized properties of the type")
+    void isValidFor_ShouldCheckEveryPathAgainstTheType() {
+        JavaType dashboard = objectMapper.constructType(PortfolioDashboardDTO.class);
+        SerializationConfig config = objectMapper.getSerializationConfig();
+
+        assertThat(FieldSelection.parse("totalValue,holdings.assetName").isValidFor(dashboard, config)).isTrue();
+        assertThat(FieldSelection.parse("holdings").isValidFor(dashboard, config)).isTrue();
+        assertThat(FieldSelection.parse("totalValu").isValidFor(dashboard, config)).isFalse();
+        assertThat(FieldSelection.parse("holdings.ticker").isValidFor(dashboard, config)).isFalse();
+        assertThat(FieldSelection.parse("totalValue.scale").isValidFor(dashboard, config)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should report nothing inside a property that is not selected")
+    void nested_WhenPropertyNotSelected_ShouldSelectNothing() {
+        FieldSelection holdings = FieldSelection.parse("totalValue").nested("holdings");
+
+        assertThat(holdings.isAll()).isFalse();
+        assertThat(holdings.includesAny("assetName", "allocation")).isFalse();
+    }
+}
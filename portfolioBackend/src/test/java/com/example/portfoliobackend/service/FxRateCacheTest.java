@@ -0,0 +1,94 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.entity.FxRate;
+import com.example.portfoliobackend.repository.FxRateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FxRateCache Unit Tests")
+class FxRateCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private FxRateRepository fxRateRepository;
+
+    @InjectMocks
+    private FxRateCache fxRateCache;
+
+    private static FxRate rate(String base, String quote, LocalDate date, String value) {
+        FxRate rate = new FxRate();
+        rate.setBaseCurrency(base);
+        rate.setQuoteCurrency(quote);
+        rate.setRateDate(date);
+        rate.setRate(new BigDecimal(value));
+        return rate;
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(fxRateRepository.findAllOrderByPairAndDate()).thenReturn(Arrays.asList(
+                rate("EUR", "USD", DAY, "1.10"),
+                rate("USD", "INR", DAY, "83.00"),
+                rate("USD", "INR", DAY.plusDays(2), "84.00")));
+        fxRateCache.warmUp();
+    }
+
+    @Test
+    @DisplayName("Should use the last rate on or before the date")
+    void rate_ShouldUseRateInForceOnDate() {
+        assertThat(fxRateCache.rate("USD", "INR", DAY.minusDays(1))).isNull();
+        assertThat(fxRateCache.rate("USD", "INR", DAY.plusDays(1))).isEqualByComparingTo("83.00");
+        assertThat(fxRateCache.rate("USD", "INR", DAY.plusDays(9))).isEqualByComparingTo("84.00");
+        assertThat(fxRateCache.rate("INR", "INR", DAY)).isEqualByComparingTo("1");
+    }
+
+    @Test
+    @DisplayName("Should invert a pair stored the other way round")
+    void rate_ShouldInvertReversePair() {
+        assertThat(fxRateCache.rate("USD", "EUR", DAY)).isEqualByComparingTo(
+                BigDecimal.ONE.divide(new BigDecimal("1.10"), java.math.MathContext.DECIMAL64));
+    }
+
+    @Test
+    @DisplayName("Should cross through the pivot currency when no direct rate exists")
+    void rate_ShouldCrossThroughPivot() {
+        assertThat(fxRateCache.rate("EUR", "INR", DAY)).isEqualByComparingTo("91.300");
+        assertThat(fxRateCache.rate("EUR", "GBP", DAY)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should return one rate per convertible currency")
+    void ratesInto_ShouldSkipUnknownCurrencies() {
+        Map<String, BigDecimal> rates = fxRateCache.ratesInto("INR", Arrays.asList("USD", "EUR", "GBP"), DAY);
+
+        assertThat(rates).containsOnlyKeys("USD", "EUR");
+    }
+
+    @Test
+    @DisplayName("Should pick up imported rates for the written pairs")
+    void refresh_ShouldReloadWrittenPairs() {
+        when(fxRateRepository.findByPairOrderByRateDate("GBP", "USD"))
+                .thenReturn(Collections.singletonList(rate("GBP", "USD", DAY, "1.25")));
+
+        fxRateCache.refresh(Collections.singletonList(rate("GBP", "USD", DAY, "1.25")));
+
+        assertThat(fxRateCache.rate("GBP", "INR", DAY)).isEqualByComparingTo("103.75");
+        assertThat(fxRateCache.pairCount()).isEqualTo(3);
+    }
+}
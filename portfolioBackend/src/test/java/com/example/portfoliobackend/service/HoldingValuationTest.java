@@ -0,0 +1,118 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.entity.Holding;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HoldingValuation Unit Tests")
+class HoldingValuationTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private FxRateCache fxRateCache;
+
+    private static Holding holding(String assetType, String currency, String quantity, String price, String cost) {
+        Holding holding = new Holding();
+        holding.setAssetType(assetType);
+        holding.setCurrency(currency);
+        holding.setQuantity(new BigDecimal(quantity));
+        holding.setCurrentPrice(new BigDecimal(price));
+        holding.setPurchasePrice(new BigDecimal(cost));
+        return holding;
+    }
+
+    private static List<BigDecimal> storedPrices(List<Holding> holdings) {
+        return holdings.stream().map(Holding::getCurrentPrice).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should convert each foreign currency once and sum in the base currency")
+    void of_ShouldConvertPerCurrency() {
+        List<Holding> holdings = Arrays.asList(
+                holding("STOCK", "USD", "10", "100", "90"),
+                holding("STOCK", "USD", "5", "20", "20"),
+                holding("BOND", "INR", "100", "10", "10"),
+                holding("BOND", null, "1", "500", "500"));
+        when(fxRateCache.ratesInto(eq("INR"), any(), eq(TODAY)))
+                .thenReturn(Collections.singletonMap("USD", new BigDecimal("80")));
+
+        HoldingValuation valuation = HoldingValuation.of(holdings, storedPrices(holdings), "INR", TODAY, fxRateCache);
+
+        // USD 1100 -> INR 88000, plus INR 1000 and INR 500
+        assertThat(valuation.getTotalMarketValue()).isEqualByComparingTo("89500");
+        assertThat(valuation.getTotalCost()).isEqualByComparingTo("81500");
+        assertThat(valuation.getAssetTypeValues().get("STOCK")).isEqualByComparingTo("88000");
+        assertThat(valuation.getAssetTypeValues().get("BOND")).isEqualByComparingTo("1500");
+        assertThat(valuation.marketValue(1)).isEqualByComparingTo("8000");
+        assertThat(valuation.getUnconvertedCurrencies()).isEmpty();
+        verify(fxRateCache, times(1)).ratesInto(eq("INR"), eq(Set.of("USD")), eq(TODAY));
+    }
+
+    @Test
+    @DisplayName("Should count a currency without a rate at par and report it")
+    void of_WhenRateMissing_ShouldReportCurrency() {
+        List<Holding> holdings = Arrays.asList(
+                holding("STOCK", "JPY", "10", "1000", "900"),
+                holding("BOND", "INR", "2", "50", "50"));
+
+        HoldingValuation valuation = HoldingValuation.of(holdings, storedPrices(holdings), "INR", TODAY, fxRateCache);
+
+        assertThat(valuation.getTotalMarketValue()).isEqualByComparingTo("10100");
+        assertThat(valuation.marketValue(0)).isEqualByComparingTo("10000");
+        assertThat(valuation.getUnconvertedCurrencies()).containsExactly("JPY");
+    }
+
+    @Test
+    @DisplayName("Should not look up rates when every holding is in the base currency")
+    void of_WhenSingleCurrency_ShouldSkipRateLookup() {
+        List<Holding> holdings = Collections.singletonList(holding("STOCK", "USD", "3", "10", "8"));
+
+        HoldingValuation valuation = HoldingValuation.of(holdings, storedPrices(holdings), "USD", TODAY, fxRateCache);
+
+        assertThat(valuation.getTotalMarketValue()).isEqualByComparingTo("30");
+        verifyNoInteractions(fxRateCache);
+    }
+
+    @Test
+    @DisplayName("Should value holdings added one at a time the same as a list of them")
+    void accumulator_ShouldMatchListValuation() {
+        List<Holding> holdings = Arrays.asList(
+                holding("STOCK", "USD", "10", "100", "90"),
+                holding("BOND", "INR", "100", "10", "10"));
+        when(fxRateCache.ratesInto(eq("INR"), any(), eq(TODAY)))
+                .thenReturn(Collections.singletonMap("USD", new BigDecimal("80")));
+        HoldingValuation.Accumulator accumulator = new HoldingValuation.Accumulator("INR");
+        for (Holding holding : holdings) {
+            accumulator.add(holding, holding.getCurrentPrice());
+        }
+
+        HoldingValuation streamed = accumulator.finish(TODAY, fxRateCache);
+        HoldingValuation listed = HoldingValuation.of(holdings, storedPrices(holdings), "INR", TODAY, fxRateCache);
+
+        assertThat(streamed.getTotalMarketValue()).isEqualByComparingTo(listed.getTotalMarketValue());
+        assertThat(streamed.getTotalCost()).isEqualByComparingTo(listed.getTotalCost());
+        assertThat(streamed.getAssetTypeValues()).isEqualTo(listed.getAssetTypeValues());
+        assertThat(streamed.marketValue(holdings.get(0), new BigDecimal("100"))).isEqualByComparingTo("80000");
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.entity.AssetPrice;
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.repository.AssetPriceRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LivePriceCache Unit Tests")
+class LivePriceCacheTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 2, 10, 0);
+
+    @Mock
+    private AssetPriceRepository assetPriceRepository;
+
+    @InjectMocks
+    private LivePriceCache livePriceCache;
+
+    private Holding holding(String assetName, String storedPrice) {
+        Holding holding = new Holding();
+        holding.setAssetName(assetName);
+        holding.setCurrentPrice(new BigDecimal(storedPrice));
+        return holding;
+    }
+
+    @Test
+    @DisplayName("Should keep the newest price when updates arrive out of order")
+    void update_ShouldKeepNewestPrice() {
+        livePriceCache.update("ACME", new BigDecimal("102"), NOW.plusSeconds(2));
+        livePriceCache.update("ACME", new BigDecimal("101"), NOW.plusSeconds(1));
+
+        assertThat(livePriceCache.get("ACME").getPrice()).isEqualByComparingTo("102");
+        assertThat(livePriceCache.get("ACME").getAsOf()).isEqualTo(NOW.plusSeconds(2));
+    }
+
+    @Test
+    @DisplayName("Should restate a price from before the cut-off and leave a newer one alone")
+    void restate_ShouldOnlyScaleOlderPrices() {
+        livePriceCache.update("ACME", new BigDecimal("100.00"), NOW.minusNanos(123_000_000));
+        livePriceCache.update("GLOBEX", new BigDecimal("50.00"), NOW.plusSeconds(1));
+
+        livePriceCache.restate("ACME", NOW, 2, 1);
+        livePriceCache.restate("GLOBEX", NOW, 2, 1);
+
+        assertThat(livePriceCache.get("ACME").getPrice()).isEqualByComparingTo("50.00");
+        assertThat(livePriceCache.get("ACME").getAsOf()).isEqualTo(NOW.minusNanos(123_000_000));
+        assertThat(livePriceCache.get("GLOBEX").getPrice()).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the stored price for unseen assets and in stored mode")
+    void priceOf_ShouldFallBackToStoredPrice() {
+        livePriceCache.update("ACME", new BigDecimal("120"), NOW);
+        Holding acme = holding("ACME", "100");
+        Holding globex = holding("GLOBEX", "50");
+
+        assertThat(livePriceCache.priceOf(acme, PriceMode.LIVE)).isEqualByComparingTo("120");
+        assertThat(livePriceCache.priceOf(acme, PriceMode.STORED)).isEqualByComparingTo("100");
+        assertThat(livePriceCache.priceOf(globex, PriceMode.LIVE)).isEqualByComparingTo("50");
+    }
+
+    @Test
+    @DisplayName("Should report the stalest live price behind a valuation")
+    void priceAsOf_ShouldReturnOldestLiveTimestamp() {
+        livePriceCache.update("ACME", new BigDecimal("120"), NOW.plusMinutes(5));
+        livePriceCache.update("GLOBEX", new BigDecimal("55"), NOW);
+        List<Holding> holdings = Arrays.asList(holding("ACME", "100"), holding("GLOBEX", "50"),
+                holding("INITECH", "10"));
+
+        assertThat(livePriceCache.priceAsOf(holdings, PriceMode.LIVE)).isEqualTo(NOW);
+        assertThat(livePriceCache.priceAsOf(holdings, PriceMode.STORED)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should warm up from stored asset prices")
+    void warmUp_ShouldLoadStoredPrices() {
+        AssetPrice price = new AssetPrice();
+        price.setAssetName("ACME");
+        price.setPrice(new BigDecimal("99"));
+        price.setUpdatedAt(NOW);
+        when(assetPriceRepository.findAll()).thenReturn(Collections.singletonList(price));
+
+        livePriceCache.warmUp();
+
+        assertThat(livePriceCache.size()).isEqualTo(1);
+        assertThat(livePriceCache.get("ACME").getPrice()).isEqualByComparingTo("99");
+    }
+}
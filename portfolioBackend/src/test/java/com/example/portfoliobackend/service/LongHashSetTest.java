@@ -0,0 +1,68 @@
+package com.example.portfoliobackend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LongHashSet Unit Tests")
+class LongHashSetTest {
+
+    @Test
+    @DisplayName("Should add, find and remove values including zero")
+    void addContainsRemove_ShouldBehaveLikeASet() {
+        LongHashSet set = new LongHashSet();
+
+        assertThat(set.add(0L)).isTrue();
+        assertThat(set.add(42L)).isTrue();
+        assertThat(set.add(42L)).isFalse();
+
+        assertThat(set.size()).isEqualTo(2);
+        assertThat(set.contains(0L)).isTrue();
+        assertThat(set.contains(7L)).isFalse();
+        assertThat(set.remove(0L)).isTrue();
+        assertThat(set.remove(99L)).isFalse();
+        assertThat(set.toSortedArray()).containsExactly(42L);
+    }
+
+    @Test
+    @DisplayName("Should grow and shrink without losing values")
+    void manyValues_ShouldSurviveResizing() {
+        LongHashSet set = new LongHashSet();
+        for (long id = 1; id <= 100_000; id++) {
+            set.add(id);
+        }
+        for (long id = 1; id <= 99_990; id++) {
+            set.remove(id);
+        }
+
+        assertThat(set.size()).isEqualTo(10);
+        assertThat(set.toSortedArray()).containsExactly(99_991L, 99_992L, 99_993L, 99_994L, 99_995L,
+                99_996L, 99_997L, 99_998L, 99_999L, 100_000L);
+    }
+
+    @Test
+    @DisplayName("Should agree with HashSet under random adds and removes")
+    void randomOperations_ShouldMatchHashSet() {
+        Random random = new Random(7);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            long value = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertThat(set.add(value)).isEqualTo(expected.add(value));
+            } else {
+                assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+            }
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        for (long value = 0; value < 2_000; value++) {
+            assertThat(set.contains(value)).isEqualTo(expected.contains(value));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.AssetPriceDTO;
+import com.example.portfoliobackend.dto.PriceUpdateResultDTO;
+import com.example.portfoliobackend.entity.AssetPrice;
+import com.example.portfoliobackend.entity.AssetPriceHistory;
+import com.example.portfoliobackend.event.PricesChangedEvent;
+import com.example.portfoliobackend.repository.AssetPriceRepository;
+import com.example.portfoliobackend.repository.JdbcBatchRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MarketPriceService Unit Tests")
+class MarketPriceServiceTest {
+
+    @Mock
+    private AssetPriceRepository assetPriceRepository;
+
+    @Mock
+    private JdbcBatchRepository jdbcBatchRepository;
+
+    @Mock
+    private LivePriceCache livePriceCache;
+
+    @Mock
+    private PriceHistoryCache priceHistoryCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private MarketPriceService marketPriceService;
+
+    @Test
+    @DisplayName("Should write one row per asset and revalue holdings in one set-based refresh")
+    void updatePrices_ShouldUpsertOncePerAssetAndRefreshHoldings() {
+        when(jdbcBatchRepository.upsertAssetPrices(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        when(jdbcBatchRepository.refreshHoldingPrices(anyCollection())).thenReturn(7);
+
+        PriceUpdateResultDTO result = marketPriceService.updatePrices(Arrays.asList(
+                new AssetPriceDTO("ACME", new BigDecimal("100.00"), null),
+                new AssetPriceDTO("GLOBEX", new BigDecimal("50.00"), null),
+                new AssetPriceDTO("ACME", new BigDecimal("101.00"), null)
+        ));
+
+        assertThat(result.getPricesUpdated()).isEqualTo(2);
+        assertThat(result.getHoldingsRevalued()).isEqualTo(7);
+        verify(jdbcBatchRepository).upsertAssetPrices(argThat((List<AssetPrice> rows) -> rows.size() == 2
+                && rows.get(0).getPrice().compareTo(new BigDecimal("101.00")) == 0
+                && rows.get(0).getUpdatedAt() != null));
+        verify(jdbcBatchRepository).refreshHoldingPrices(argThat((Collection<String> names) ->
+                names.size() == 2 && names.contains("ACME") && names.contains("GLOBEX")));
+        verify(livePriceCache).update(eq("ACME"), eq(new BigDecimal("101.00")), any(LocalDateTime.class));
+        verify(livePriceCache).update(eq("GLOBEX"), eq(new BigDecimal("50.00")), any(LocalDateTime.class));
+        verify(jdbcBatchRepository).upsertPriceHistory(argThat((List<AssetPriceHistory> rows) -> rows.size() == 2
+                && rows.get(0).getPriceDate().equals(LocalDate.now())));
+        verify(priceHistoryCache).record(eq("ACME"), eq(LocalDate.now()), eq(new BigDecimal("101.00")));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof PricesChangedEvent
+                && ((PricesChangedEvent) event).getAssetNames().size() == 2));
+    }
+
+    @Test
+    @DisplayName("Should make prices live only once the transaction commits")
+    void updatePrices_InTransaction_ShouldUpdateLivePricesAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            marketPriceService.updatePrices(Arrays.asList(new AssetPriceDTO("ACME", new BigDecimal("100.00"), null)));
+
+            verify(livePriceCache, never()).update(any(), any(), any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(livePriceCache).update(eq("ACME"), eq(new BigDecimal("100.00")), any(LocalDateTime.class));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return null for an asset without a price")
+    void getPrice_WhenMissing_ShouldReturnNull() {
+        when(assetPriceRepository.findById("NOPE")).thenReturn(Optional.empty());
+
+        assertThat(marketPriceService.getPrice("NOPE")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should map a stored price to its DTO")
+    void getPrice_WhenExists_ShouldReturnDTO() {
+        AssetPrice price = new AssetPrice();
+        price.setAssetName("ACME");
+        price.setPrice(new BigDecimal("100.00"));
+        price.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 10, 0));
+        when(assetPriceRepository.findById("ACME")).thenReturn(Optional.of(price));
+
+        AssetPriceDTO result = marketPriceService.getPrice("ACME");
+
+        assertThat(result.getPrice()).isEqualByComparingTo("100.00");
+        assertThat(result.getUpdatedAt()).isEqualTo(LocalDateTime.of(2024, 1, 2, 10, 0));
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.ReadCoalescingStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PortfolioReadCoalescer Unit Tests")
+class PortfolioReadCoalescerTest {
+
+    private static final int FOLLOWERS = 7;
+
+    @Mock
+    private PortfolioVersions portfolioVersions;
+
+    @InjectMocks
+    private PortfolioReadCoalescer portfolioReadCoalescer;
+
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        callers = Executors.newFixedThreadPool(FOLLOWERS + 1);
+        when(portfolioVersions.etag(1L)).thenReturn("\"a.0.1\"");
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not reached in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private <T> List<Future<T>> submitFollowers(Supplier<T> read) {
+        List<Future<T>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(callers.submit(() -> portfolioReadCoalescer.read("dashboard", 1L, "STORED", read)));
+        }
+        return followers;
+    }
+
+    @Test
+    @DisplayName("Should run one computation for concurrent identical reads and hand every caller its result")
+    void read_WhenConcurrent_ShouldComputeOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        Object result = new Object();
+        Supplier<Object> read = () -> {
+            computations.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        };
+
+        Future<Object> leader = callers.submit(() -> portfolioReadCoalescer.read("dashboard", 1L, "STORED", read));
+        await(() -> portfolioReadCoalescer.getStats().getInFlight() == 1);
+        List<Future<Object>> followers = submitFollowers(read);
+        await(() -> portfolioReadCoalescer.getStats().getCoalesced() == FOLLOWERS);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(result);
+        for (Future<Object> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(result);
+        }
+        assertThat(computations).hasValue(1);
+        ReadCoalescingStatsDTO stats = portfolioReadCoalescer.getStats();
+        assertThat(stats.getInFlight()).isZero();
+        assertThat(stats.getExecutions()).isEqualTo(1);
+        assertThat(stats.getCoalescedByView()).containsEntry("dashboard", (long) FOLLOWERS);
+    }
+
+    @Test
+    @DisplayName("Should rethrow the running computation's failure to every waiting caller")
+    void read_WhenComputationFails_ShouldFailFollowers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Object> read = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("boom");
+        };
+
+        Future<Object> leader = callers.submit(() -> portfolioReadCoalescer.read("dashboard", 1L, "STORED", read));
+        await(() -> portfolioReadCoalescer.getStats().getInFlight() == 1);
+        List<Future<Object>> followers = submitFollowers(read);
+        await(() -> portfolioReadCoalescer.getStats().getCoalesced() == FOLLOWERS);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+        for (Future<Object> follower : followers) {
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(portfolioReadCoalescer.getStats().getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not join a read started before the portfolio's version moved")
+    void read_WhenVersionMoves_ShouldComputeAgain() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        Supplier<Integer> read = () -> {
+            int computation = computations.incrementAndGet();
+            if (computation == 1) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return computation;
+        };
+
+        Future<Integer> stale = callers.submit(() -> portfolioReadCoalescer.read("summary", 1L, "STORED", read));
+        await(() -> portfolioReadCoalescer.getStats().getInFlight() == 1);
+        when(portfolioVersions.etag(1L)).thenReturn("\"a.0.2\"");
+
+        assertThat(portfolioReadCoalescer.read("summary", 1L, "STORED", read)).isEqualTo(2);
+        release.countDown();
+        assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(portfolioReadCoalescer.getStats().getCoalesced()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should compute sequential reads each time since nothing is cached")
+    void read_WhenSequential_ShouldNotCache() {
+        AtomicInteger computations = new AtomicInteger();
+
+        portfolioReadCoalescer.read("summary", 1L, "STORED", computations::incrementAndGet);
+        portfolioReadCoalescer.read("summary", 1L, "STORED", computations::incrementAndGet);
+
+        assertThat(computations).hasValue(2);
+        assertThat(portfolioReadCoalescer.getStats().getExecutionsByView()).containsEntry("summary", 2L);
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.portfoliobackend.service;
 
+import com.example.portfoliobackend.dto.PortfolioDashboardDTO;
+import com.example.portfoliobackend.entity.AssetPrice;
 import com.example.portfoliobackend.entity.Holding;
 import com.example.portfoliobackend.entity.Portfolio;
 import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import com.example.portfoliobackend.entity.PortfolioSnapshotAllocation;
 import com.example.portfoliobackend.entity.PortfolioTarget;
+import com.example.portfoliobackend.event.HoldingsChangedEvent;
+import com.example.portfoliobackend.event.PortfolioChangedEvent;
+import com.example.portfoliobackend.event.SnapshotChangedEvent;
+import com.example.portfoliobackend.repository.AssetPriceRepository;
 import com.example.portfoliobackend.repository.HoldingRepository;
 import com.example.portfoliobackend.repository.PortfolioRepository;
+import com.example.portfoliobackend.repository.PortfolioSnapshotAllocationRepository;
 import com.example.portfoliobackend.repository.PortfolioSnapshotRepository;
 import com.example.portfoliobackend.repository.PortfolioTargetRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +24,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -28,6 +38,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -50,6 +62,21 @@ class PortfolioServiceTest {
     @Mock
     private PortfolioSnapshotRepository portfolioSnapshotRepository;
 
+    @Mock
+    private PortfolioSnapshotAllocationRepository portfolioSnapshotAllocationRepository;
+
+    @Mock
+    private AssetPriceRepository assetPriceRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LivePriceCache livePriceCache;
+
+    @Mock
+    private FxRateCache fxRateCache;
+
     @InjectMocks
     private PortfolioService portfolioService;
 
@@ -255,6 +282,23 @@ class PortfolioServiceTest {
             verify(holdingRepository, times(1)).save(any(Holding.class));
         }
 
+        @Test
+        @DisplayName("Should take the current price from the asset price table when not provided")
+        void addHolding_WithoutCurrentPrice_ShouldUseLatestAssetPrice() {
+            Holding newHolding = new Holding();
+            newHolding.setPortfolioId(1L);
+            newHolding.setAssetName("Google");
+            AssetPrice price = new AssetPrice();
+            price.setAssetName("Google");
+            price.setPrice(new BigDecimal("123.45"));
+            when(assetPriceRepository.findById("Google")).thenReturn(Optional.of(price));
+            when(holdingRepository.save(any(Holding.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            Holding result = portfolioService.addHolding(newHolding);
+
+            assertThat(result.getCurrentPrice()).isEqualByComparingTo("123.45");
+        }
+
         @Test
         @DisplayName("Should update holding when exists")
         void updateHolding_WhenExists_ShouldUpdateAndReturn() {
@@ -274,13 +318,32 @@ class PortfolioServiceTest {
         @Test
         @DisplayName("Should delete holding when exists")
         void deleteHolding_WhenExists_ShouldReturnTrue() {
-            when(holdingRepository.existsById(1L)).thenReturn(true);
+            when(holdingRepository.findById(1L)).thenReturn(Optional.of(testHolding));
             doNothing().when(holdingRepository).deleteById(1L);
 
             boolean result = portfolioService.deleteHolding(1L);
 
             assertThat(result).isTrue();
             verify(holdingRepository, times(1)).deleteById(1L);
+            verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof HoldingsChangedEvent
+                    && ((HoldingsChangedEvent) event).getPortfolioId().equals(1L)));
+        }
+
+        @Test
+        @DisplayName("Should notify both portfolios when a holding moves")
+        void updateHolding_WhenPortfolioChanges_ShouldPublishForBothPortfolios() {
+            Holding updatedData = new Holding();
+            updatedData.setPortfolioId(2L);
+
+            when(holdingRepository.findById(1L)).thenReturn(Optional.of(testHolding));
+            when(holdingRepository.save(any(Holding.class))).thenReturn(testHolding);
+
+            portfolioService.updateHolding(1L, updatedData);
+
+            verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof HoldingsChangedEvent
+                    && ((HoldingsChangedEvent) event).getPortfolioId().equals(1L)));
+            verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof HoldingsChangedEvent
+                    && ((HoldingsChangedEvent) event).getPortfolioId().equals(2L)));
         }
     }
 
@@ -312,6 +375,18 @@ class PortfolioServiceTest {
             assertThat(result.getTargetPercentage()).isEqualTo(new BigDecimal("60.00"));
             verify(portfolioTargetRepository, times(1)).save(any(PortfolioTarget.class));
         }
+
+        @Test
+        @DisplayName("Should publish a portfolio change for the target's portfolio on delete")
+        void deleteTarget_ShouldPublishPortfolioChanged() {
+            when(portfolioTargetRepository.findById(1L)).thenReturn(Optional.of(testTarget));
+
+            assertThat(portfolioService.deleteTarget(1L)).isTrue();
+
+            verify(portfolioTargetRepository).deleteById(1L);
+            verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof PortfolioChangedEvent
+                    && testTarget.getPortfolioId().equals(((PortfolioChangedEvent) event).getPortfolioId())));
+        }
     }
 
     @Nested
@@ -331,6 +406,18 @@ class PortfolioServiceTest {
             verify(portfolioSnapshotRepository, times(1)).findByPortfolioIdOrderBySnapshotDateDesc(1L);
         }
 
+        @Test
+        @DisplayName("Should read only the latest snapshots up to the limit")
+        void getRecentSnapshots_ShouldReadOnePage() {
+            when(portfolioSnapshotRepository.findByPortfolioIdOrderBySnapshotDateDescSnapshotIdDesc(
+                    1L, PageRequest.of(0, 5))).thenReturn(Arrays.asList(testSnapshot));
+
+            List<PortfolioSnapshot> result = portfolioService.getRecentSnapshots(1L, 5);
+
+            assertThat(result).containsExactly(testSnapshot);
+            verify(portfolioSnapshotRepository, never()).findByPortfolioIdOrderBySnapshotDateDesc(anyLong());
+        }
+
         @Test
         @DisplayName("Should record snapshot with default currency when not provided")
         void recordSnapshot_WithoutCurrency_ShouldSetDefaultCurrency() {
@@ -346,6 +433,74 @@ class PortfolioServiceTest {
             assertThat(result.getSnapshotDate()).isEqualTo(LocalDate.now());
             verify(portfolioSnapshotRepository, times(1)).save(any(PortfolioSnapshot.class));
         }
+
+        @Test
+        @DisplayName("Should publish a snapshot change when recording a snapshot")
+        void recordSnapshot_ShouldPublishSnapshotChangedEvent() {
+            when(portfolioSnapshotRepository.save(any(PortfolioSnapshot.class))).thenReturn(testSnapshot);
+
+            portfolioService.recordSnapshot(1L, new BigDecimal("10000"), "USD");
+
+            verify(eventPublisher).publishEvent(argThat((Object event) ->
+                    event instanceof SnapshotChangedEvent && ((SnapshotChangedEvent) event).getPortfolioId().equals(1L)));
+        }
+
+        @Test
+        @DisplayName("Should save the per-asset-type breakdown with the snapshot")
+        void recordSnapshot_ShouldSaveAllocationsBySnapshot() {
+            Holding bond = new Holding();
+            bond.setAssetType("BOND");
+            bond.setQuantity(new BigDecimal("4"));
+            bond.setCurrentPrice(new BigDecimal("25"));
+            Holding untyped = new Holding();
+            untyped.setQuantity(new BigDecimal("1"));
+            untyped.setCurrentPrice(new BigDecimal("10"));
+            when(holdingRepository.findByPortfolioId(1L)).thenReturn(Arrays.asList(testHolding, bond, untyped));
+            when(portfolioSnapshotRepository.save(any(PortfolioSnapshot.class))).thenReturn(testSnapshot);
+
+            portfolioService.recordSnapshot(1L, new BigDecimal("10000"), "USD");
+
+            verify(portfolioSnapshotAllocationRepository).saveAll(argThat((List<PortfolioSnapshotAllocation> rows) ->
+                    rows.size() == 2
+                            && rows.stream().allMatch(row -> row.getSnapshotId().equals(1L))
+                            && rows.stream().anyMatch(row -> "BOND".equals(row.getAssetType())
+                            && row.getMarketValue().compareTo(new BigDecimal("100")) == 0)));
+        }
+
+        @Test
+        @DisplayName("Should move the breakdown along with an updated snapshot")
+        void updateSnapshot_ShouldMoveAllocations() {
+            PortfolioSnapshot updated = new PortfolioSnapshot();
+            updated.setSnapshotDate(LocalDate.of(2024, 1, 5));
+            when(portfolioSnapshotRepository.findById(1L)).thenReturn(Optional.of(testSnapshot));
+            when(portfolioSnapshotRepository.save(any(PortfolioSnapshot.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            portfolioService.updateSnapshot(1L, updated);
+
+            verify(portfolioSnapshotAllocationRepository).updatePortfolioAndDateBySnapshotId(1L, 1L, LocalDate.of(2024, 1, 5));
+        }
+
+        @Test
+        @DisplayName("Should publish a snapshot change when deleting a snapshot")
+        void deleteSnapshot_WhenExists_ShouldPublishSnapshotChangedEvent() {
+            when(portfolioSnapshotRepository.findById(1L)).thenReturn(Optional.of(testSnapshot));
+
+            boolean result = portfolioService.deleteSnapshot(1L);
+
+            assertThat(result).isTrue();
+            verify(portfolioSnapshotAllocationRepository).deleteBySnapshotId(1L);
+            verify(portfolioSnapshotRepository).deleteById(1L);
+            verify(eventPublisher).publishEvent(any(SnapshotChangedEvent.class));
+        }
+
+        @Test
+        @DisplayName("Should return false and publish nothing when deleting a missing snapshot")
+        void deleteSnapshot_WhenNotExists_ShouldReturnFalse() {
+            when(portfolioSnapshotRepository.findById(99L)).thenReturn(Optional.empty());
+
+            assertThat(portfolioService.deleteSnapshot(99L)).isFalse();
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
+        }
     }
 
     @Nested
@@ -403,4 +558,96 @@ class PortfolioServiceTest {
             assertThat(result).containsExactlyInAnyOrder("STOCK", "BOND");
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Dashboard Tests")
+    class DashboardTests {
+
+        @Test
+        @DisplayName("Should total the dashboard in the base currency and flag currencies without a rate")
+        void getPortfolioDashboard_WithForeignHoldings_ShouldConvertToBaseCurrency() {
+            Holding euroHolding = new Holding();
+            euroHolding.setHoldingId(2L);
+            euroHolding.setCurrency("EUR");
+            euroHolding.setQuantity(new BigDecimal("10"));
+            euroHolding.setPurchasePrice(new BigDecimal("90"));
+            euroHolding.setCurrentPrice(new BigDecimal("100"));
+            Holding yenHolding = new Holding();
+            yenHolding.setHoldingId(3L);
+            yenHolding.setCurrency("JPY");
+            yenHolding.setQuantity(new BigDecimal("1"));
+            yenHolding.setPurchasePrice(new BigDecimal("5000"));
+            yenHolding.setCurrentPrice(new BigDecimal("750"));
+            when(portfolioRepository.findById(1L)).thenReturn(Optional.of(testPortfolio));
+            when(holdingRepository.findByPortfolioId(1L)).thenReturn(Arrays.asList(testHolding, euroHolding, yenHolding));
+            when(fxRateCache.ratesInto(eq("USD"), any(), any(LocalDate.class)))
+                    .thenReturn(Collections.singletonMap("EUR", new BigDecimal("1.5")));
+
+            PortfolioDashboardDTO result = portfolioService.getPortfolioDashboard(1L);
+
+            // 10 x 175 USD plus 1000 EUR at 1.5, and the yen holding at par for want of a rate
+            assertThat(result.getTotalValue()).isEqualByComparingTo("4000");
+            assertThat(result.getHoldings().get(1).getAllocation()).isEqualByComparingTo("37.50");
+            assertThat(result.getUnconvertedCurrencies()).containsExactly("JPY");
+        }
+
+        @Test
+        @DisplayName("Should value the dashboard at live prices and report their timestamp")
+        void getPortfolioDashboard_WhenLive_ShouldUseLivePrices() {
+            LocalDateTime asOf = LocalDateTime.of(2024, 1, 2, 10, 0);
+            List<Holding> holdings = Arrays.asList(testHolding);
+            when(portfolioRepository.findById(1L)).thenReturn(Optional.of(testPortfolio));
+            when(holdingRepository.findByPortfolioId(1L)).thenReturn(holdings);
+            when(livePriceCache.priceOf(testHolding, PriceMode.LIVE)).thenReturn(new BigDecimal("200.00"));
+            when(livePriceCache.priceAsOf(holdings, PriceMode.LIVE)).thenReturn(asOf);
+
+            PortfolioDashboardDTO result = portfolioService.getPortfolioDashboard(1L, PriceMode.LIVE);
+
+            assertThat(result.getTotalValue()).isEqualByComparingTo("2000.00");
+            assertThat(result.getHoldings().get(0).getCurrentPrice()).isEqualByComparingTo("200.00");
+            assertThat(result.getHoldings().get(0).getAllocation()).isEqualByComparingTo("100");
+            assertThat(result.getPriceAsOf()).isEqualTo(asOf);
+        }
+
+        @Test
+        @DisplayName("Should value the dashboard at stored prices by default")
+        void getPortfolioDashboard_WhenStored_ShouldUseStoredPrices() {
+            when(portfolioRepository.findById(1L)).thenReturn(Optional.of(testPortfolio));
+            when(holdingRepository.findByPortfolioId(1L)).thenReturn(Arrays.asList(testHolding));
+
+            PortfolioDashboardDTO result = portfolioService.getPortfolioDashboard(1L);
+
+            assertThat(result.getTotalValue()).isEqualByComparingTo("1750.00");
+            assertThat(result.getPriceAsOf()).isNull();
+            verify(livePriceCache, never()).priceOf(any(Holding.class), any(PriceMode.class));
+        }
+
+        @Test
+        @DisplayName("Should skip returns and allocations that were not selected")
+        void getPortfolioDashboard_WithFieldSelection_ShouldSkipUnselectedValues() {
+            when(portfolioRepository.findById(1L)).thenReturn(Optional.of(testPortfolio));
+            when(holdingRepository.findByPortfolioId(1L)).thenReturn(Arrays.asList(testHolding));
+
+            PortfolioDashboardDTO result = portfolioService.getPortfolioDashboard(1L, PriceMode.STORED,
+                    FieldSelection.parse("totalValue,holdings.assetName,holdings.currentPrice"));
+
+            assertThat(result.getTotalValue()).isEqualByComparingTo("1750.00");
+            assertThat(result.getHoldings().get(0).getCurrentPrice()).isEqualByComparingTo("175.00");
+            assertThat(result.getHoldings().get(0).getGainLossPercentage()).isNull();
+            assertThat(result.getHoldings().get(0).getAllocation()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should not load holdings when only portfolio properties are selected")
+        void getPortfolioDashboard_WithPortfolioFieldsOnly_ShouldNotLoadHoldings() {
+            when(portfolioRepository.findById(1L)).thenReturn(Optional.of(testPortfolio));
+
+            PortfolioDashboardDTO result = portfolioService.getPortfolioDashboard(1L, PriceMode.STORED,
+                    FieldSelection.parse("portfolioName"));
+
+            assertThat(result.getPortfolioName()).isEqualTo(testPortfolio.getPortfolioName());
+            assertThat(result.getHoldings()).isNull();
+            verify(holdingRepository, never()).findByPortfolioId(any());
+        }
+    }
+}
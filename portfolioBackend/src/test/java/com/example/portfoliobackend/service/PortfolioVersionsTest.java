@@ -0,0 +1,81 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.event.HoldingsChangedEvent;
+import com.example.portfoliobackend.event.PortfolioChangedEvent;
+import com.example.portfoliobackend.event.PricesChangedEvent;
+import com.example.portfoliobackend.event.SnapshotChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PortfolioVersions Unit Tests")
+class PortfolioVersionsTest {
+
+    @Mock
+    private AssetPortfolioIndex assetPortfolioIndex;
+
+    @InjectMocks
+    private PortfolioVersions portfolioVersions;
+
+    @Test
+    @DisplayName("Should keep the ETag stable until the portfolio changes")
+    void etag_ShouldChangeOnlyOnBump() {
+        String initial = portfolioVersions.etag(1L);
+        assertThat(initial).startsWith("\"").endsWith("\"");
+        assertThat(portfolioVersions.etag(1L)).isEqualTo(initial);
+
+        portfolioVersions.onHoldingsChanged(new HoldingsChangedEvent(1L));
+        String afterHoldings = portfolioVersions.etag(1L);
+        portfolioVersions.onPortfolioChanged(new PortfolioChangedEvent(1L));
+        String afterTargets = portfolioVersions.etag(1L);
+        portfolioVersions.onSnapshotChanged(new SnapshotChangedEvent(1L));
+
+        assertThat(afterHoldings).isNotEqualTo(initial);
+        assertThat(afterTargets).isNotEqualTo(afterHoldings);
+        assertThat(portfolioVersions.etag(1L)).isNotEqualTo(afterTargets);
+    }
+
+    @Test
+    @DisplayName("Should move only the portfolios holding an asset whose price changed")
+    void onPricesChanged_ShouldBumpHolders() {
+        LongHashSet holders = new LongHashSet();
+        holders.add(1L);
+        when(assetPortfolioIndex.portfoliosHolding(Collections.singletonList("ACME"))).thenReturn(holders);
+        String holder = portfolioVersions.etag(1L);
+        String other = portfolioVersions.etag(2L);
+
+        portfolioVersions.onPricesChanged(new PricesChangedEvent(Collections.singletonList("ACME")));
+
+        assertThat(portfolioVersions.etag(1L)).isNotEqualTo(holder);
+        assertThat(portfolioVersions.etag(2L)).isEqualTo(other);
+    }
+
+    @Test
+    @DisplayName("Should move every portfolio when FX rates change")
+    void bumpAll_ShouldChangeEveryETag() {
+        String first = portfolioVersions.etag(1L);
+        String second = portfolioVersions.etag(2L);
+        long lastModified = portfolioVersions.lastModified(2L);
+
+        portfolioVersions.bumpAll();
+
+        assertThat(portfolioVersions.etag(1L)).isNotEqualTo(first);
+        assertThat(portfolioVersions.etag(2L)).isNotEqualTo(second);
+        assertThat(portfolioVersions.lastModified(2L)).isGreaterThanOrEqualTo(lastModified);
+    }
+
+    @Test
+    @DisplayName("Should never reuse an ETag issued by another instance")
+    void etag_ShouldDifferAcrossInstances() {
+        assertThat(new PortfolioVersions().etag(1L)).isNotEqualTo(portfolioVersions.etag(1L));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.PortfolioDashboardDTO;
+import com.example.portfoliobackend.dto.PortfolioDetailsDTO;
+import com.example.portfoliobackend.dto.PortfolioOverviewDTO;
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import com.example.portfoliobackend.entity.PortfolioTarget;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PortfolioViewAssembler Unit Tests")
+class PortfolioViewAssemblerTest {
+
+    private static final long READ_MILLIS = 300;
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @Mock
+    private AnalyticsService analyticsService;
+
+    @Spy
+    private FanOutExecutor fanOutExecutor = new FanOutExecutor();
+
+    @InjectMocks
+    private PortfolioViewAssembler portfolioViewAssembler;
+
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fanOutExecutor, "threads", 4);
+        fanOutExecutor.start();
+        portfolio = new Portfolio();
+        portfolio.setPortfolioId(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanOutExecutor.stop();
+    }
+
+    private static <T> Answer<T> after(long millis, T result) {
+        return invocation -> {
+            Thread.sleep(millis);
+            return result;
+        };
+    }
+
+    @Test
+    @DisplayName("Should run the reads concurrently so the view takes as long as the slowest one")
+    void getDetails_ShouldReadPartsConcurrently() {
+        List<Holding> holdings = Collections.singletonList(new Holding());
+        List<PortfolioTarget> targets = Collections.singletonList(new PortfolioTarget());
+        List<PortfolioSnapshot> snapshots = Collections.singletonList(new PortfolioSnapshot());
+        when(portfolioService.getPortfolioById(1L)).thenAnswer(after(READ_MILLIS, portfolio));
+        when(portfolioService.getHoldingsByPortfolioId(1L)).thenAnswer(after(READ_MILLIS, holdings));
+        when(portfolioService.getTargetsByPortfolioId(1L)).thenAnswer(after(READ_MILLIS, targets));
+        when(portfolioService.getSnapshotsByPortfolioId(1L)).thenAnswer(after(READ_MILLIS, snapshots));
+
+        long started = System.nanoTime();
+        PortfolioDetailsDTO result = portfolioViewAssembler.getDetails(1L);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(result.getPortfolio()).isSameAs(portfolio);
+        assertThat(result.getHoldings()).isSameAs(holdings);
+        assertThat(result.getTargets()).isSameAs(targets);
+        assertThat(result.getSnapshots()).isSameAs(snapshots);
+        assertThat(result.getUnavailable()).isEmpty();
+        assertThat(elapsedMillis).isLessThan(3 * READ_MILLIS);
+    }
+
+    @Test
+    @DisplayName("Should return null when the portfolio does not exist")
+    void getDetails_WhenPortfolioMissing_ShouldReturnNull() {
+        when(portfolioService.getPortfolioById(99L)).thenReturn(null);
+
+        assertThat(portfolioViewAssembler.getDetails(99L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should report a read that misses its deadline as unavailable and keep the rest")
+    void getDetails_WhenReadTimesOut_ShouldMarkPartUnavailable() {
+        ReflectionTestUtils.setField(fanOutExecutor, "timeoutMs", 100L);
+        when(portfolioService.getPortfolioById(1L)).thenReturn(portfolio);
+        when(portfolioService.getHoldingsByPortfolioId(1L)).thenReturn(Collections.emptyList());
+        when(portfolioService.getTargetsByPortfolioId(1L)).thenReturn(Collections.emptyList());
+        when(portfolioService.getSnapshotsByPortfolioId(1L)).thenAnswer(after(1000, Collections.emptyList()));
+
+        PortfolioDetailsDTO result = portfolioViewAssembler.getDetails(1L);
+
+        assertThat(result.getHoldings()).isEmpty();
+        assertThat(result.getSnapshots()).isNull();
+        assertThat(result.getUnavailable()).containsExactly(PortfolioViewAssembler.SNAPSHOTS);
+    }
+
+    @Test
+    @DisplayName("Should report a failed read as unavailable")
+    void getDetails_WhenReadFails_ShouldMarkPartUnavailable() {
+        when(portfolioService.getPortfolioById(1L)).thenReturn(portfolio);
+        when(portfolioService.getHoldingsByPortfolioId(1L)).thenThrow(new IllegalStateException("boom"));
+        when(portfolioService.getTargetsByPortfolioId(1L)).thenReturn(Collections.emptyList());
+        when(portfolioService.getSnapshotsByPortfolioId(1L)).thenReturn(Collections.emptyList());
+
+        PortfolioDetailsDTO result = portfolioViewAssembler.getDetails(1L);
+
+        assertThat(result.getHoldings()).isNull();
+        assertThat(result.getUnavailable()).containsExactly(PortfolioViewAssembler.HOLDINGS);
+    }
+
+    @Test
+    @DisplayName("Should derive the summary, allocation and drift of the overview from one valuation")
+    void getOverview_ShouldCombineParts() {
+        PortfolioDashboardDTO dashboard = new PortfolioDashboardDTO(1L, "Test", "USD", new BigDecimal("1100.00"),
+                Collections.emptyList(), null);
+        PortfolioSnapshot snapshot = new PortfolioSnapshot();
+        snapshot.setSnapshotId(7L);
+        snapshot.setPortfolioId(1L);
+        snapshot.setTotalValue(new BigDecimal("1000.00"));
+        snapshot.setCurrency("USD");
+        snapshot.setSnapshotDate(LocalDate.of(2024, 1, 31));
+        when(portfolioService.getPortfolioDashboard(1L, PriceMode.STORED)).thenReturn(dashboard);
+        Holding holding = new Holding();
+        holding.setAssetType("STOCK");
+        holding.setQuantity(new BigDecimal("10"));
+        holding.setPurchasePrice(new BigDecimal("100.00"));
+        HoldingValuation valuation = HoldingValuation.of(Collections.singletonList(holding),
+                Collections.singletonList(new BigDecimal("110.00")), null, LocalDate.of(2024, 1, 31), null);
+        Map<String, BigDecimal> allocation = Map.of("STOCK", new BigDecimal("100.00"));
+        when(analyticsService.getValuation(1L, PriceMode.STORED)).thenReturn(valuation);
+        when(analyticsService.getAllocationPercentages(valuation)).thenReturn(allocation);
+        when(analyticsService.getTargetDriftPercentages(1L, allocation))
+                .thenReturn(Map.of("STOCK", new BigDecimal("40.00")));
+        when(portfolioService.getRecentSnapshots(1L, 10)).thenReturn(Collections.singletonList(snapshot));
+
+        PortfolioOverviewDTO result = portfolioViewAssembler.getOverview(1L, PriceMode.STORED, 10);
+
+        assertThat(result.getDashboard()).isSameAs(dashboard);
+        assertThat(result.getSummary().getTotalMarketValue()).isEqualByComparingTo("1100.00");
+        assertThat(result.getSummary().getTotalCost()).isEqualByComparingTo("1000.00");
+        assertThat(result.getSummary().getTotalGainLoss()).isEqualByComparingTo("100.00");
+        assertThat(result.getAllocationPercentages()).containsEntry("STOCK", new BigDecimal("100.00"));
+        assertThat(result.getTargetDrift()).containsEntry("STOCK", new BigDecimal("40.00"));
+        assertThat(result.getSnapshots()).hasSize(1);
+        assertThat(result.getSnapshots().get(0).getSnapshotId()).isEqualTo(7L);
+        assertThat(result.getSnapshots().get(0).getTotalValue()).isEqualByComparingTo("1000.00");
+    }
+
+    @Test
+    @DisplayName("Should return a null overview without computing analytics when the portfolio does not exist")
+    void getOverview_WhenPortfolioMissing_ShouldReturnNull() {
+        when(portfolioService.getPortfolioDashboard(99L, PriceMode.STORED)).thenReturn(null);
+
+        assertThat(portfolioViewAssembler.getOverview(99L, PriceMode.STORED, 10)).isNull();
+        verifyNoInteractions(analyticsService);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.SimulatorStatsDTO;
+import com.example.portfoliobackend.repository.HoldingRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceFeedSimulator Unit Tests")
+class PriceFeedSimulatorTest {
+
+    @Mock
+    private HoldingRepository holdingRepository;
+
+    @Mock
+    private LivePriceCache livePriceCache;
+
+    @Mock
+    private PriceTickIngestionService priceTickIngestionService;
+
+    @InjectMocks
+    private PriceFeedSimulator priceFeedSimulator;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should random-walk every held asset in turn through the tick ingestion path")
+    void emit_ShouldWalkEveryHeldAsset() {
+        ReflectionTestUtils.setField(priceFeedSimulator, "seed", 42L);
+        when(holdingRepository.findDistinctAssetNames()).thenReturn(Arrays.asList("ACME", "GLOBEX"));
+
+        priceFeedSimulator.load();
+        int emitted = priceFeedSimulator.emit(4);
+
+        assertThat(emitted).isEqualTo(4);
+        ArgumentCaptor<String> assets = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<BigDecimal> prices = ArgumentCaptor.forClass(BigDecimal.class);
+        verify(priceTickIngestionService, times(4)).accept(assets.capture(), prices.capture(), any(LocalDateTime.class));
+        assertThat(assets.getAllValues()).containsExactly("ACME", "GLOBEX", "ACME", "GLOBEX");
+        // Unknown assets start at 100 and move only slightly per tick
+        assertThat(prices.getAllValues()).allSatisfy(price -> assertThat(price).isBetween(
+                new BigDecimal("95.00"), new BigDecimal("105.00")));
+        SimulatorStatsDTO stats = priceFeedSimulator.getStats();
+        assertThat(stats.getSource()).isEqualTo(PriceFeedSimulator.RANDOM_WALK);
+        assertThat(stats.getAssets()).isEqualTo(2);
+        assertThat(stats.getTicksEmitted()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should replay a recorded tick file in order and loop at the end")
+    void emit_WhenReplaying_ShouldReplayFileInOrder() throws Exception {
+        Path file = tempDir.resolve("ticks.csv");
+        Files.write(file, Arrays.asList("# assetName,price", "ACME,100.10", "", "ACME,100.25", "GLOBEX,50"));
+        ReflectionTestUtils.setField(priceFeedSimulator, "replayFile", file.toString());
+
+        priceFeedSimulator.load();
+        priceFeedSimulator.emit(4);
+
+        ArgumentCaptor<BigDecimal> prices = ArgumentCaptor.forClass(BigDecimal.class);
+        verify(priceTickIngestionService, times(4)).accept(anyString(), prices.capture(), any(LocalDateTime.class));
+        assertThat(prices.getAllValues()).containsExactly(new BigDecimal("100.10"), new BigDecimal("100.25"),
+                new BigDecimal("50.00"), new BigDecimal("100.10"));
+        assertThat(priceFeedSimulator.getStats().getAssets()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject a replay line without a valid price")
+    void load_WhenReplayLineInvalid_ShouldThrow() throws Exception {
+        Path file = tempDir.resolve("bad.csv");
+        Files.write(file, Arrays.asList("ACME,100.10", "GLOBEX,abc"));
+        ReflectionTestUtils.setField(priceFeedSimulator, "replayFile", file.toString());
+
+        assertThatThrownBy(() -> priceFeedSimulator.load())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 2");
+    }
+}
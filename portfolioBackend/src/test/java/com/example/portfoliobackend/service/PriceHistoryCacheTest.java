@@ -0,0 +1,105 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.repository.AssetPriceHistoryRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceHistoryCache Unit Tests")
+class PriceHistoryCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 2);
+
+    @Mock
+    private AssetPriceHistoryRepository assetPriceHistoryRepository;
+
+    @InjectMocks
+    private PriceHistoryCache priceHistoryCache;
+
+    private static Object[] row(String assetName, LocalDate date, String price) {
+        return new Object[]{assetName, date, new BigDecimal(price)};
+    }
+
+    @Test
+    @DisplayName("Should load several histories in one query and answer as-of lookups from memory")
+    void pricesAsOf_ShouldLoadOnceAndServeFromMemory() {
+        when(assetPriceHistoryRepository.findPriceRowsByAssetNameIn(anyCollection(), any(LocalDate.class)))
+                .thenReturn(Arrays.asList(
+                        row("ACME", DAY, "100.00"),
+                        row("ACME", DAY.plusDays(2), "102.00"),
+                        row("GLOBEX", DAY.plusDays(1), "50.00")));
+
+        Map<String, BigDecimal> prices = priceHistoryCache.pricesAsOf(Arrays.asList("ACME", "GLOBEX", "INITECH"),
+                DAY.plusDays(1));
+
+        assertThat(prices).containsOnlyKeys("ACME", "GLOBEX");
+        assertThat(prices.get("ACME")).isEqualByComparingTo("100.00");
+        assertThat(priceHistoryCache.priceAsOf("ACME", DAY.plusDays(5))).isEqualByComparingTo("102.00");
+        assertThat(priceHistoryCache.priceAsOf("INITECH", DAY)).isNull();
+        assertThat(priceHistoryCache.size()).isEqualTo(3);
+        verify(assetPriceHistoryRepository, times(1)).findPriceRowsByAssetNameIn(anyCollection(), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Should apply recorded prices to cached histories only")
+    void record_ShouldUpdateCachedHistory() {
+        when(assetPriceHistoryRepository.findPriceRowsByAssetNameIn(anyCollection(), any(LocalDate.class)))
+                .thenReturn(new ArrayList<>(Collections.singletonList(row("ACME", DAY, "100.00"))));
+        priceHistoryCache.series("ACME");
+
+        priceHistoryCache.record("ACME", DAY.plusDays(1), new BigDecimal("101.25"));
+        priceHistoryCache.record("GLOBEX", DAY, new BigDecimal("50.00"));
+
+        assertThat(priceHistoryCache.priceAsOf("ACME", DAY.plusDays(1))).isEqualByComparingTo("101.25");
+        assertThat(priceHistoryCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should only drop the loaded histories of assets written to while the load was reading")
+    void load_WhenOneAssetWrittenDuringRead_ShouldKeepTheOthers() {
+        when(assetPriceHistoryRepository.findPriceRowsByAssetNameIn(anyCollection(), any(LocalDate.class)))
+                .thenAnswer(invocation -> {
+                    priceHistoryCache.record("ACME", DAY.plusDays(1), new BigDecimal("101.00"));
+                    return Arrays.asList(row("ACME", DAY, "100.00"), row("GLOBEX", DAY, "50.00"));
+                });
+
+        priceHistoryCache.load(Arrays.asList("ACME", "GLOBEX"));
+
+        assertThat(priceHistoryCache.size()).isEqualTo(1);
+        assertThat(priceHistoryCache.priceAsOf("GLOBEX", DAY)).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    @DisplayName("Should re-read an evicted history on next use")
+    void evict_ShouldReloadOnNextUse() {
+        List<Object[]> before = Collections.singletonList(row("ACME", DAY, "100.00"));
+        List<Object[]> after = Arrays.asList(row("ACME", DAY.minusDays(1), "99.00"), row("ACME", DAY, "100.00"));
+        when(assetPriceHistoryRepository.findPriceRowsByAssetNameIn(anyCollection(), any(LocalDate.class)))
+                .thenReturn(before, after);
+        priceHistoryCache.series("ACME");
+
+        priceHistoryCache.evict(Collections.singletonList("ACME"));
+
+        assertThat(priceHistoryCache.size()).isZero();
+        assertThat(priceHistoryCache.series("ACME").size()).isEqualTo(2);
+    }
+}
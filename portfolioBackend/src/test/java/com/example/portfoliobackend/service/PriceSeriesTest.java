@@ -0,0 +1,84 @@
+package com.example.portfoliobackend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PriceSeries Unit Tests")
+class PriceSeriesTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 2);
+
+    @Test
+    @DisplayName("Should return the last price on or before a date")
+    void priceAsOf_ShouldUseLastPriceOnOrBefore() {
+        PriceSeries series = PriceSeries.empty()
+                .withPrice(DAY, new BigDecimal("100.00"))
+                .withPrice(DAY.plusDays(3), new BigDecimal("103.50"));
+
+        assertThat(series.priceAsOf(DAY.minusDays(1))).isNull();
+        assertThat(series.priceAsOf(DAY)).isEqualByComparingTo("100.00");
+        assertThat(series.priceAsOf(DAY.plusDays(2))).isEqualByComparingTo("100.00");
+        assertThat(series.priceAsOf(DAY.plusDays(30))).isEqualByComparingTo("103.50");
+    }
+
+    @Test
+    @DisplayName("Should replace a same-day price without changing earlier views")
+    void withPrice_SameDay_ShouldLeaveEarlierViewsIntact() {
+        PriceSeries first = PriceSeries.empty().withPrice(DAY, new BigDecimal("100.00"));
+        PriceSeries second = first.withPrice(DAY, new BigDecimal("101.00"));
+        PriceSeries third = second.withPrice(DAY.plusDays(1), new BigDecimal("102.00"));
+
+        assertThat(first.size()).isEqualTo(1);
+        assertThat(first.price(0)).isEqualByComparingTo("100.00");
+        assertThat(second.price(0)).isEqualByComparingTo("101.00");
+        assertThat(third.size()).isEqualTo(2);
+        assertThat(third.price(0)).isEqualByComparingTo("101.00");
+        assertThat(third.price(1)).isEqualByComparingTo("102.00");
+    }
+
+    @Test
+    @DisplayName("Should keep days sorted when a price arrives for an earlier day")
+    void withPrice_EarlierDay_ShouldInsertInOrder() {
+        PriceSeries original = PriceSeries.empty()
+                .withPrice(DAY, new BigDecimal("100.00"))
+                .withPrice(DAY.plusDays(2), new BigDecimal("102.00"));
+
+        PriceSeries inserted = original.withPrice(DAY.plusDays(1), new BigDecimal("101.00"));
+        PriceSeries replaced = inserted.withPrice(DAY, new BigDecimal("99.00"));
+
+        assertThat(original.size()).isEqualTo(2);
+        assertThat(inserted.date(1)).isEqualTo(DAY.plusDays(1));
+        assertThat(replaced.size()).isEqualTo(3);
+        assertThat(replaced.price(0)).isEqualByComparingTo("99.00");
+        assertThat(replaced.price(2)).isEqualByComparingTo("102.00");
+    }
+
+    @Test
+    @DisplayName("Should let the last of several same-day points win when built from arrays")
+    void fromArrays_ShouldCollapseDuplicateDays() {
+        int day = (int) DAY.toEpochDay();
+        PriceSeries series = PriceSeries.fromArrays(new int[]{day, day, day + 1}, new long[]{10000, 10050, 10100}, 3);
+
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(series.price(0)).isEqualByComparingTo("100.50");
+        assertThat(series.firstOnOrAfter(day + 1)).isEqualTo(1);
+        assertThat(series.lastOnOrBefore(day - 1)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should append thousands of days in order")
+    void withPrice_ManyDays_ShouldGrow() {
+        PriceSeries series = PriceSeries.empty();
+        for (int i = 0; i < 5_000; i++) {
+            series = series.withPrice(DAY.plusDays(i), BigDecimal.valueOf(i, 2));
+        }
+
+        assertThat(series.size()).isEqualTo(5_000);
+        assertThat(series.priceAsOf(DAY.plusDays(1234))).isEqualByComparingTo("12.34");
+    }
+}
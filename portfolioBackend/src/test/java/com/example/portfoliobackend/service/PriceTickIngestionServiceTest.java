@@ -0,0 +1,126 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.AssetPriceDTO;
+import com.example.portfoliobackend.dto.TickIngestionStatsDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceTickIngestionService Unit Tests")
+class PriceTickIngestionServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 2, 10, 0);
+
+    @Mock
+    private MarketPriceService marketPriceService;
+
+    @Mock
+    private LivePriceCache livePriceCache;
+
+    @InjectMocks
+    private PriceTickIngestionService priceTickIngestionService;
+
+    private final List<List<AssetPriceDTO>> flushed = new ArrayList<>();
+
+    private void captureFlushes() {
+        when(marketPriceService.updatePrices(anyList())).thenAnswer(invocation -> {
+            flushed.add(new ArrayList<>(invocation.<List<AssetPriceDTO>>getArgument(0)));
+            return null;
+        });
+    }
+
+    @Test
+    @DisplayName("Should keep only the newest tick per asset until the next flush")
+    void flush_ShouldWriteLatestPricePerAsset() {
+        captureFlushes();
+        priceTickIngestionService.accept("ACME", new BigDecimal("100"), NOW);
+        priceTickIngestionService.accept("ACME", new BigDecimal("102"), NOW.plusSeconds(2));
+        priceTickIngestionService.accept("ACME", new BigDecimal("101"), NOW.plusSeconds(1));
+        priceTickIngestionService.accept("GLOBEX", new BigDecimal("50"), NOW);
+
+        priceTickIngestionService.flush();
+
+        assertThat(flushed).hasSize(1);
+        assertThat(flushed.get(0)).hasSize(2);
+        assertThat(flushed.get(0)).filteredOn(price -> price.getAssetName().equals("ACME"))
+                .extracting(AssetPriceDTO::getPrice).containsExactly(new BigDecimal("102"));
+        TickIngestionStatsDTO stats = priceTickIngestionService.getStats();
+        assertThat(stats.getTicksReceived()).isEqualTo(4);
+        assertThat(stats.getTicksCoalesced()).isEqualTo(2);
+        assertThat(stats.getPendingAssets()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should publish every tick to the live price cache before it is flushed")
+    void accept_ShouldUpdateLivePriceCacheImmediately() {
+        priceTickIngestionService.accept("ACME", new BigDecimal("100"), NOW);
+
+        verify(livePriceCache).update("ACME", new BigDecimal("100"), NOW);
+        verify(marketPriceService, never()).updatePrices(anyList());
+    }
+
+    @Test
+    @DisplayName("Should flush as soon as a full batch of assets is pending")
+    void accept_WhenBatchFull_ShouldFlushImmediately() {
+        captureFlushes();
+        for (int i = 0; i < 1000; i++) {
+            priceTickIngestionService.accept("ASSET-" + i, BigDecimal.ONE, NOW);
+        }
+
+        assertThat(flushed).hasSize(1);
+        assertThat(flushed.get(0)).hasSize(1000);
+        assertThat(priceTickIngestionService.getStats().getPendingAssets()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when nothing is pending")
+    void flush_WhenEmpty_ShouldDoNothing() {
+        priceTickIngestionService.flush();
+
+        verify(marketPriceService, never()).updatePrices(anyList());
+    }
+
+    @Test
+    @DisplayName("Should keep ticks buffered and count the failure when a flush fails")
+    void flush_WhenWriteFails_ShouldRequeueTicks() {
+        when(marketPriceService.updatePrices(anyList())).thenThrow(new IllegalStateException("database down"));
+        priceTickIngestionService.accept("ACME", new BigDecimal("100"), NOW);
+
+        priceTickIngestionService.flush();
+
+        assertThat(priceTickIngestionService.getStats().getPendingAssets()).isEqualTo(1);
+        assertThat(priceTickIngestionService.getStats().getFlushes()).isZero();
+        assertThat(priceTickIngestionService.getStats().getFailedFlushes()).isEqualTo(1);
+        verify(marketPriceService, times(1)).updatePrices(anyList());
+    }
+
+    @Test
+    @DisplayName("Should accept the tick whose inline flush fails without passing the failure to the producer")
+    void accept_WhenInlineFlushFails_ShouldNotThrow() {
+        when(marketPriceService.updatePrices(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        for (int i = 0; i < 1000; i++) {
+            priceTickIngestionService.accept("ASSET-" + i, BigDecimal.ONE, NOW);
+        }
+
+        assertThat(priceTickIngestionService.getStats().getTicksReceived()).isEqualTo(1000);
+        assertThat(priceTickIngestionService.getStats().getPendingAssets()).isEqualTo(1000);
+        assertThat(priceTickIngestionService.getStats().getFailedFlushes()).isEqualTo(1);
+    }
+}
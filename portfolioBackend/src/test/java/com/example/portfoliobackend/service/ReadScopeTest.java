@@ -0,0 +1,61 @@
+package com.example.portfoliobackend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReadScope Unit Tests")
+class ReadScopeTest {
+
+    @Test
+    @DisplayName("Should read once per key while a scope is open")
+    void read_InsideScope_ShouldReuseValue() {
+        AtomicInteger reads = new AtomicInteger();
+        try (ReadScope scope = ReadScope.open()) {
+            assertThat(ReadScope.read("holdings:1", reads::incrementAndGet)).isEqualTo(1);
+            assertThat(ReadScope.read("holdings:1", reads::incrementAndGet)).isEqualTo(1);
+            assertThat(ReadScope.read("holdings:2", reads::incrementAndGet)).isEqualTo(2);
+        }
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should remember a null result")
+    void read_WhenNull_ShouldReuseNull() {
+        AtomicInteger reads = new AtomicInteger();
+        try (ReadScope scope = ReadScope.open()) {
+            ReadScope.read("portfolio:9", () -> { reads.incrementAndGet(); return null; });
+            ReadScope.read("portfolio:9", () -> { reads.incrementAndGet(); return null; });
+        }
+        assertThat(reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should read every time outside a scope and after it closes")
+    void read_OutsideScope_ShouldAlwaysRead() {
+        AtomicInteger reads = new AtomicInteger();
+        try (ReadScope scope = ReadScope.open()) {
+            ReadScope.read("targets:1", reads::incrementAndGet);
+        }
+        ReadScope.read("targets:1", reads::incrementAndGet);
+        ReadScope.read("targets:1", reads::incrementAndGet);
+        assertThat(reads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should restore the enclosing scope when a nested one closes")
+    void close_WhenNested_ShouldRestoreOuterScope() {
+        AtomicInteger reads = new AtomicInteger();
+        try (ReadScope outer = ReadScope.open()) {
+            ReadScope.read("holdings:1", reads::incrementAndGet);
+            try (ReadScope inner = ReadScope.open()) {
+                ReadScope.read("holdings:1", reads::incrementAndGet);
+            }
+            ReadScope.read("holdings:1", reads::incrementAndGet);
+        }
+        assertThat(reads.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.ReturnPointDTO;
+import com.example.portfoliobackend.dto.TimeWeightedReturnDTO;
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import com.example.portfoliobackend.repository.PortfolioSnapshotRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReturnsService Unit Tests")
+class ReturnsServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Mock
+    private PortfolioSnapshotRepository portfolioSnapshotRepository;
+
+    @Mock
+    private SnapshotLogService snapshotLogService;
+
+    @InjectMocks
+    private ReturnsService returnsService;
+
+    private PortfolioSnapshot snapshot(LocalDate date, String value) {
+        PortfolioSnapshot snapshot = new PortfolioSnapshot();
+        snapshot.setPortfolioId(1L);
+        snapshot.setSnapshotDate(date);
+        snapshot.setTotalValue(new BigDecimal(value));
+        return snapshot;
+    }
+
+    private void givenSnapshots(PortfolioSnapshot... snapshots) {
+        when(portfolioSnapshotRepository.findByPortfolioIdOrderBySnapshotDateAscSnapshotIdAsc(1L))
+                .thenReturn(Arrays.asList(snapshots));
+    }
+
+    @Nested
+    @DisplayName("History Source Tests")
+    class HistorySourceTests {
+
+        @Test
+        @DisplayName("Should read history from the snapshot log once it is ready")
+        void getSnapshotSeries_WhenLogReady_ShouldSkipDatabase() {
+            SnapshotSeries series = SnapshotSeries.fromArrays(new int[]{(int) START.toEpochDay()}, new double[]{1000}, 1);
+            when(snapshotLogService.isReady()).thenReturn(true);
+            when(snapshotLogService.getSnapshotSeries(1L)).thenReturn(series);
+
+            assertThat(returnsService.getSnapshotSeries(1L)).isSameAs(series);
+            verify(portfolioSnapshotRepository, never()).findByPortfolioIdOrderBySnapshotDateAscSnapshotIdAsc(anyLong());
+        }
+    }
+
+    @Nested
+    @DisplayName("Daily Return Tests")
+    class DailyReturnTests {
+
+        @Test
+        @DisplayName("Should compute snapshot-to-snapshot returns")
+        void getDailyReturns_ShouldReturnConsecutiveReturns() {
+            givenSnapshots(
+                    snapshot(START, "1000"),
+                    snapshot(START.plusDays(1), "1100"),
+                    snapshot(START.plusDays(2), "990")
+            );
+
+            List<ReturnPointDTO> result = returnsService.getDailyReturns(1L, null, null);
+
+            assertThat(result).hasSize(2);
+            assertThat(result.get(0).getDate()).isEqualTo(START.plusDays(1));
+            assertThat(result.get(0).getReturnPercentage()).isEqualByComparingTo("10.0000");
+            assertThat(result.get(1).getReturnPercentage()).isEqualByComparingTo("-10.0000");
+        }
+
+        @Test
+        @DisplayName("Should keep the last snapshot recorded on a date")
+        void getDailyReturns_WithSameDaySnapshots_ShouldUseLastValue() {
+            givenSnapshots(
+                    snapshot(START, "1000"),
+                    snapshot(START.plusDays(1), "1050"),
+                    snapshot(START.plusDays(1), "1200")
+            );
+
+            List<ReturnPointDTO> result = returnsService.getDailyReturns(1L, null, null);
+
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getReturnPercentage()).isEqualByComparingTo("20.0000");
+        }
+
+        @Test
+        @DisplayName("Should restrict returns to the requested window")
+        void getDailyReturns_WithWindow_ShouldFilterByDate() {
+            givenSnapshots(
+                    snapshot(START, "1000"),
+                    snapshot(START.plusDays(1), "1100"),
+                    snapshot(START.plusDays(2), "1210"),
+                    snapshot(START.plusDays(3), "1331")
+            );
+
+            List<ReturnPointDTO> result = returnsService.getDailyReturns(1L, START.plusDays(2), START.plusDays(2));
+
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getDate()).isEqualTo(START.plusDays(2));
+        }
+
+        @Test
+        @DisplayName("Should return empty list when there are no snapshots")
+        void getDailyReturns_WhenNoSnapshots_ShouldReturnEmptyList() {
+            when(portfolioSnapshotRepository.findByPortfolioIdOrderBySnapshotDateAscSnapshotIdAsc(1L))
+                    .thenReturn(Collections.emptyList());
+
+            assertThat(returnsService.getDailyReturns(1L, null, null)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Time-Weighted Return Tests")
+    class TimeWeightedReturnTests {
+
+        @Test
+        @DisplayName("Should link sub-period returns over the window")
+        void getTimeWeightedReturn_ShouldLinkSubPeriods() {
+            givenSnapshots(
+                    snapshot(START, "1000"),
+                    snapshot(START.plusDays(10), "1100"),
+                    snapshot(START.plusDays(20), "1210")
+            );
+
+            TimeWeightedReturnDTO result = returnsService.getTimeWeightedReturn(1L, null, null);
+
+            assertThat(result.getPeriods()).isEqualTo(2);
+            assertThat(result.getFromDate()).isEqualTo(START);
+            assertThat(result.getToDate()).isEqualTo(START.plusDays(20));
+            assertThat(result.getReturnPercentage()).isEqualByComparingTo("21.0000");
+            assertThat(result.getAnnualizedReturnPercentage()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should annualize windows of at least a year")
+        void getTimeWeightedReturn_OverTwoYears_ShouldAnnualize() {
+            givenSnapshots(
+                    snapshot(START, "1000"),
+                    snapshot(START.plusDays(730), "1210")
+            );
+
+            TimeWeightedReturnDTO result = returnsService.getTimeWeightedReturn(1L, null, null);
+
+            assertThat(result.getReturnPercentage()).isEqualByComparingTo("21.0000");
+            assertThat(result.getAnnualizedReturnPercentage()).isEqualByComparingTo("10.0000");
+        }
+
+        @Test
+        @DisplayName("Should restart the chain after a zero-value snapshot")
+        void getTimeWeightedReturn_AcrossZeroValue_ShouldResumeFromNextPositiveValue() {
+            givenSnapshots(
+                    snapshot(START, "100"),
+                    snapshot(START.plusDays(1), "0"),
+                    snapshot(START.plusDays(2), "50"),
+                    snapshot(START.plusDays(3), "60")
+            );
+
+            TimeWeightedReturnDTO result = returnsService.getTimeWeightedReturn(1L, null, null);
+
+            assertThat(result.getPeriods()).isEqualTo(1);
+            assertThat(result.getReturnPercentage()).isEqualByComparingTo("20.0000");
+        }
+
+        @Test
+        @DisplayName("Should return no figure when the window holds a single snapshot")
+        void getTimeWeightedReturn_WithSingleSnapshot_ShouldReturnNullReturn() {
+            givenSnapshots(snapshot(START, "1000"));
+
+            TimeWeightedReturnDTO result = returnsService.getTimeWeightedReturn(1L, null, null);
+
+            assertThat(result.getPeriods()).isZero();
+            assertThat(result.getReturnPercentage()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Rolling Return Tests")
+    class RollingReturnTests {
+
+        @Test
+        @DisplayName("Should measure each point against the value one window earlier")
+        void getRollingReturns_ShouldUseWindowStartValue() {
+            givenSnapshots(
+                    snapshot(LocalDate.of(2024, 1, 15), "1000"),
+                    snapshot(LocalDate.of(2024, 2, 1), "1050"),
+                    snapshot(LocalDate.of(2024, 2, 15), "1100"),
+                    snapshot(LocalDate.of(2024, 3, 20), "1320")
+            );
+
+            List<ReturnPointDTO> result = returnsService.getRollingReturns(1L, ReturnWindow.ONE_MONTH);
+
+            assertThat(result).hasSize(2);
+            assertThat(result.get(0).getDate()).isEqualTo(LocalDate.of(2024, 2, 15));
+            assertThat(result.get(0).getReturnPercentage()).isEqualByComparingTo("10.0000");
+            assertThat(result.get(1).getDate()).isEqualTo(LocalDate.of(2024, 3, 20));
+            assertThat(result.get(1).getReturnPercentage()).isEqualByComparingTo("20.0000");
+        }
+
+        @Test
+        @DisplayName("Should return no points when history is shorter than the window")
+        void getRollingReturns_WhenHistoryTooShort_ShouldReturnEmptyList() {
+            givenSnapshots(
+                    snapshot(START, "1000"),
+                    snapshot(START.plusDays(20), "1100")
+            );
+
+            assertThat(returnsService.getRollingReturns(1L, ReturnWindow.ONE_YEAR)).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.RiskMetricsDTO;
+import com.example.portfoliobackend.event.PortfolioChangedEvent;
+import com.example.portfoliobackend.event.SnapshotChangedEvent;
+import com.example.portfoliobackend.repository.PortfolioRepository;
+import com.example.portfoliobackend.repository.PortfolioSnapshotRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RiskMetricsService Unit Tests")
+class RiskMetricsServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Mock
+    private ReturnsService returnsService;
+
+    @Mock
+    private PortfolioSnapshotRepository portfolioSnapshotRepository;
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    @InjectMocks
+    private RiskMetricsService riskMetricsService;
+
+    private SnapshotSeries series(double... values) {
+        int[] days = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            days[i] = (int) START.plusDays(i).toEpochDay();
+        }
+        return SnapshotSeries.fromArrays(days, values.clone(), values.length);
+    }
+
+    private Object[] row(long portfolioId, int dayOffset, String value) {
+        return new Object[]{portfolioId, START.plusDays(dayOffset), new BigDecimal(value)};
+    }
+
+    @Nested
+    @DisplayName("Metric Computation Tests")
+    class ComputationTests {
+
+        @Test
+        @DisplayName("Should compute drawdown from the running peak")
+        void computeMetrics_ShouldMeasureMaxDrawdown() {
+            RiskMetricsDTO result = riskMetricsService.computeMetrics(1L, null, series(100, 120, 90, 110, 80, 130));
+
+            // Peak 120 -> trough 80 is a 33.33% decline
+            assertThat(result.getMaxDrawdownPercentage()).isEqualByComparingTo("33.3333");
+            assertThat(result.getObservations()).isEqualTo(5);
+            assertThat(result.getWindow()).isEqualTo("ALL");
+        }
+
+        @Test
+        @DisplayName("Should report zero volatility and no ratios for a flat series")
+        void computeMetrics_WithFlatSeries_ShouldHaveZeroVolatility() {
+            RiskMetricsDTO result = riskMetricsService.computeMetrics(1L, null, series(100, 100, 100));
+
+            assertThat(result.getVolatilityPercentage()).isEqualByComparingTo("0");
+            assertThat(result.getMaxDrawdownPercentage()).isEqualByComparingTo("0");
+            assertThat(result.getSharpeRatio()).isNull();
+            assertThat(result.getSortinoRatio()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should only penalise losses in the downside deviation")
+        void computeMetrics_WithOnlyGains_ShouldHaveNoDownside() {
+            RiskMetricsDTO result = riskMetricsService.computeMetrics(1L, null, series(100, 101, 103, 104));
+
+            assertThat(result.getDownsideDeviationPercentage()).isEqualByComparingTo("0");
+            assertThat(result.getSortinoRatio()).isNull();
+            assertThat(result.getSharpeRatio()).isPositive();
+        }
+
+        @Test
+        @DisplayName("Should annualise the sample standard deviation of returns")
+        void computeMetrics_ShouldAnnualiseVolatility() {
+            // Returns +10% and -10%: sample deviation = sqrt(0.02) = 0.141421
+            RiskMetricsDTO result = riskMetricsService.computeMetrics(1L, null, series(100, 110, 99));
+
+            double expected = Math.sqrt(0.02) * Math.sqrt(252) * 100;
+            assertThat(result.getVolatilityPercentage().doubleValue()).isCloseTo(expected, offset(0.001));
+        }
+
+        @Test
+        @DisplayName("Should return empty metrics when there is no history")
+        void computeMetrics_WithEmptySeries_ShouldReturnNoFigures() {
+            RiskMetricsDTO result = riskMetricsService.computeMetrics(1L, ReturnWindow.ONE_YEAR, SnapshotSeries.empty());
+
+            assertThat(result.getObservations()).isZero();
+            assertThat(result.getVolatilityPercentage()).isNull();
+            assertThat(result.getWindow()).isEqualTo("1Y");
+        }
+    }
+
+    @Nested
+    @DisplayName("Cache Tests")
+    class CacheTests {
+
+        @Test
+        @DisplayName("Should serve repeated requests from the cache")
+        void getRiskMetrics_WhenCalledTwice_ShouldLoadOnce() {
+            when(returnsService.getSnapshotSeries(1L)).thenReturn(series(100, 110, 105));
+
+            RiskMetricsDTO first = riskMetricsService.getRiskMetrics(1L, ReturnWindow.ONE_MONTH);
+            RiskMetricsDTO second = riskMetricsService.getRiskMetrics(1L, ReturnWindow.ONE_MONTH);
+
+            assertThat(second).isSameAs(first);
+            verify(returnsService, times(1)).getSnapshotSeries(1L);
+        }
+
+        @Test
+        @DisplayName("Should recompute after a snapshot change for the portfolio")
+        void getRiskMetrics_AfterSnapshotChanged_ShouldRecompute() {
+            when(returnsService.getSnapshotSeries(1L)).thenReturn(series(100, 110, 105));
+
+            riskMetricsService.getRiskMetrics(1L, null);
+            riskMetricsService.onSnapshotChanged(new SnapshotChangedEvent(1L));
+            riskMetricsService.getRiskMetrics(1L, null);
+
+            verify(returnsService, times(2)).getSnapshotSeries(1L);
+        }
+
+        @Test
+        @DisplayName("Should keep other portfolios cached when one changes")
+        void onSnapshotChanged_ShouldOnlyInvalidateThatPortfolio() {
+            when(returnsService.getSnapshotSeries(1L)).thenReturn(series(100, 110));
+            when(returnsService.getSnapshotSeries(2L)).thenReturn(series(100, 90));
+
+            riskMetricsService.getRiskMetrics(1L, null);
+            riskMetricsService.getRiskMetrics(2L, null);
+            riskMetricsService.onSnapshotChanged(new SnapshotChangedEvent(1L));
+            riskMetricsService.getRiskMetrics(2L, null);
+
+            verify(returnsService, times(1)).getSnapshotSeries(2L);
+        }
+
+        @Test
+        @DisplayName("Should drop the least recently read entry once the cache is full")
+        void getRiskMetrics_WhenCacheFull_ShouldEvictLeastRecentlyRead() {
+            ReflectionTestUtils.setField(riskMetricsService, "cacheMaxEntries", 2);
+            when(returnsService.getSnapshotSeries(anyLong())).thenReturn(series(100, 110));
+
+            riskMetricsService.getRiskMetrics(1L, null);
+            riskMetricsService.getRiskMetrics(2L, null);
+            riskMetricsService.getRiskMetrics(1L, null);
+            riskMetricsService.getRiskMetrics(3L, null);
+            riskMetricsService.getRiskMetrics(1L, null);
+            riskMetricsService.getRiskMetrics(2L, null);
+
+            verify(returnsService, times(1)).getSnapshotSeries(1L);
+            verify(returnsService, times(2)).getSnapshotSeries(2L);
+        }
+
+        @Test
+        @DisplayName("Should forget a deleted portfolio but not one that was only edited")
+        void onPortfolioChanged_WhenDeleted_ShouldRemoveEntries() {
+            when(returnsService.getSnapshotSeries(1L)).thenReturn(series(100, 110));
+
+            riskMetricsService.getRiskMetrics(1L, null);
+            riskMetricsService.onPortfolioChanged(new PortfolioChangedEvent(1L));
+            riskMetricsService.getRiskMetrics(1L, null);
+            riskMetricsService.onPortfolioChanged(new PortfolioChangedEvent(1L, true));
+            riskMetricsService.getRiskMetrics(1L, null);
+
+            verify(returnsService, times(2)).getSnapshotSeries(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Ranking Tests")
+    class RankingTests {
+
+        @Test
+        @DisplayName("Should rank portfolios riskiest first from one bulk query")
+        void rankPortfolios_ShouldOrderByVolatility() {
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(row(1L, 0, "100"));
+            rows.add(row(1L, 1, "101"));
+            rows.add(row(1L, 2, "100"));
+            rows.add(row(2L, 0, "100"));
+            rows.add(row(2L, 1, "130"));
+            rows.add(row(2L, 2, "90"));
+            when(portfolioSnapshotRepository.findSeriesRowsByPortfolioIdIn(anyCollection())).thenReturn(rows);
+
+            List<RiskMetricsDTO> result = riskMetricsService.rankPortfolios(
+                    Arrays.asList(1L, 2L, 3L), null, RiskMetric.VOLATILITY, null);
+
+            assertThat(result).extracting(RiskMetricsDTO::getPortfolioId).containsExactly(2L, 1L, 3L);
+            verify(portfolioSnapshotRepository, times(1)).findSeriesRowsByPortfolioIdIn(anyCollection());
+            verify(returnsService, never()).getSnapshotSeries(1L);
+        }
+
+        @Test
+        @DisplayName("Should reuse cached metrics and apply the limit")
+        void rankPortfolios_WithCachedEntries_ShouldSkipQuery() {
+            when(returnsService.getSnapshotSeries(1L)).thenReturn(series(100, 80, 90));
+            when(returnsService.getSnapshotSeries(2L)).thenReturn(series(100, 95, 99));
+            riskMetricsService.getRiskMetrics(1L, null);
+            riskMetricsService.getRiskMetrics(2L, null);
+
+            List<RiskMetricsDTO> result = riskMetricsService.rankPortfolios(
+                    Arrays.asList(1L, 2L), null, RiskMetric.MAX_DRAWDOWN, 1);
+
+            assertThat(result).extracting(RiskMetricsDTO::getPortfolioId).containsExactly(1L);
+            verify(portfolioSnapshotRepository, never()).findSeriesRowsByPortfolioIdIn(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should rank every portfolio when no IDs are given")
+        void rankPortfolios_WithoutIds_ShouldUseAllPortfolios() {
+            when(portfolioRepository.findAllPortfolioIds()).thenReturn(Arrays.asList(5L, 6L));
+            when(portfolioSnapshotRepository.findSeriesRowsByPortfolioIdIn(anyCollection())).thenReturn(new ArrayList<>());
+
+            List<RiskMetricsDTO> result = riskMetricsService.rankPortfolios(null, null, RiskMetric.SHARPE, null);
+
+            assertThat(result).extracting(RiskMetricsDTO::getPortfolioId).containsExactlyInAnyOrder(5L, 6L);
+        }
+    }
+}
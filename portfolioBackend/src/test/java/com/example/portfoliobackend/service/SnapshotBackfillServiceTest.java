@@ -0,0 +1,287 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.BackfillResultDTO;
+import com.example.portfoliobackend.entity.FxRate;
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import com.example.portfoliobackend.entity.PortfolioSnapshotAllocation;
+import com.example.portfoliobackend.event.SnapshotChangedEvent;
+import com.example.portfoliobackend.repository.AssetPriceHistoryRepository;
+import com.example.portfoliobackend.repository.FxRateRepository;
+import com.example.portfoliobackend.repository.HoldingRepository;
+import com.example.portfoliobackend.repository.JdbcBatchRepository;
+import com.example.portfoliobackend.repository.PortfolioRepository;
+import com.example.portfoliobackend.repository.PortfolioSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SnapshotBackfillService Unit Tests")
+class SnapshotBackfillServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 10);
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    @Mock
+    private HoldingRepository holdingRepository;
+
+    @Mock
+    private PortfolioSnapshotRepository portfolioSnapshotRepository;
+
+    @Mock
+    private AssetPriceHistoryRepository assetPriceHistoryRepository;
+
+    @Mock
+    private JdbcBatchRepository jdbcBatchRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private FxRateRepository fxRateRepository;
+
+    // No rates by default, so holdings in another currency are counted at par
+    @Mock
+    private FxRateCache fxRateCache;
+
+    @InjectMocks
+    private SnapshotBackfillService snapshotBackfillService;
+
+    private Holding stockHolding;
+    private Portfolio testPortfolio;
+    private final List<PortfolioSnapshot> inserted = new ArrayList<>();
+    private final List<PortfolioSnapshotAllocation> insertedAllocations = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        testPortfolio = new Portfolio();
+        testPortfolio.setPortfolioId(1L);
+        testPortfolio.setBaseCurrency("USD");
+
+        stockHolding = new Holding();
+        stockHolding.setPortfolioId(1L);
+        stockHolding.setAssetName("ACME");
+        stockHolding.setAssetType("STOCK");
+        stockHolding.setQuantity(new BigDecimal("10"));
+        stockHolding.setPurchasePrice(new BigDecimal("100"));
+        stockHolding.setCurrentPrice(new BigDecimal("130"));
+        stockHolding.setPurchaseDate(TODAY.minusDays(3));
+    }
+
+    private static FxRate fxRate(LocalDate date, String value) {
+        FxRate rate = new FxRate();
+        rate.setBaseCurrency("USD");
+        rate.setQuoteCurrency("INR");
+        rate.setRateDate(date);
+        rate.setRate(new BigDecimal(value));
+        return rate;
+    }
+
+    private void captureInserts() {
+        when(jdbcBatchRepository.insertSnapshots(anyList())).thenAnswer(invocation -> {
+            List<PortfolioSnapshot> rows = invocation.getArgument(0);
+            for (PortfolioSnapshot row : rows) {
+                row.setSnapshotId(100L + inserted.size());
+                inserted.add(row);
+            }
+            return rows.size();
+        });
+        when(jdbcBatchRepository.insertAllocations(anyList())).thenAnswer(invocation -> {
+            List<PortfolioSnapshotAllocation> rows = invocation.getArgument(0);
+            insertedAllocations.addAll(rows);
+            return rows.size();
+        });
+    }
+
+    @Test
+    @DisplayName("Should value each day from price history, purchase price and current price")
+    void backfill_ShouldReconstructDailyValues() {
+        when(holdingRepository.findByPortfolioIdIn(anyCollection())).thenReturn(Collections.singletonList(stockHolding));
+        when(assetPriceHistoryRepository.findPriceRowsByAssetNameIn(anyCollection(), eq(TODAY))).thenReturn(Arrays.asList(
+                new Object[]{"ACME", TODAY.minusDays(2), new BigDecimal("110")},
+                new Object[]{"ACME", TODAY.minusDays(1), new BigDecimal("120")}
+        ));
+        when(portfolioSnapshotRepository.findSnapshotDatesByPortfolioIdIn(anyCollection())).thenReturn(new ArrayList<>());
+        when(portfolioRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(testPortfolio));
+        captureInserts();
+
+        BackfillResultDTO result = snapshotBackfillService.backfill(Collections.singletonList(1L), TODAY);
+
+        assertThat(result.getPortfoliosBackfilled()).isEqualTo(1);
+        assertThat(result.getSnapshotsInserted()).isEqualTo(4);
+        assertThat(inserted).extracting(PortfolioSnapshot::getSnapshotDate)
+                .containsExactly(TODAY.minusDays(3), TODAY.minusDays(2), TODAY.minusDays(1), TODAY);
+        assertThat(inserted).extracting(PortfolioSnapshot::getTotalValue)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("1000"), new BigDecimal("1100"), new BigDecimal("1200"), new BigDecimal("1300"));
+        assertThat(inserted.get(0).getCurrency()).isEqualTo("USD");
+        verify(eventPublisher).publishEvent(any(SnapshotChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should carry prices recorded before the purchase date forward and skip existing days")
+    void backfill_ShouldSkipDaysThatAlreadyHaveSnapshots() {
+        when(holdingRepository.findByPortfolioIdIn(anyCollection())).thenReturn(Collections.singletonList(stockHolding));
+        when(assetPriceHistoryRepository.findPriceRowsByAssetNameIn(anyCollection(), eq(TODAY))).thenReturn(
+                Collections.singletonList(new Object[]{"ACME", TODAY.minusDays(30), new BigDecimal("90")}));
+        when(portfolioSnapshotRepository.findSnapshotDatesByPortfolioIdIn(anyCollection())).thenReturn(
+                Collections.singletonList(new Object[]{1L, TODAY.minusDays(2)}));
+        when(portfolioRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(testPortfolio));
+        captureInserts();
+
+        snapshotBackfillService.backfill(Collections.singletonList(1L), TODAY);
+
+        assertThat(inserted).extracting(PortfolioSnapshot::getSnapshotDate)
+                .containsExactly(TODAY.minusDays(3), TODAY.minusDays(1), TODAY);
+        assertThat(inserted.get(0).getTotalValue()).isEqualByComparingTo("900");
+        assertThat(inserted.get(2).getTotalValue()).isEqualByComparingTo("1300");
+    }
+
+    @Test
+    @DisplayName("Should issue one holdings query per chunk regardless of history length")
+    void backfill_ShouldQueryOncePerChunk() {
+        Holding other = new Holding();
+        other.setPortfolioId(2L);
+        other.setAssetName("BOND-1");
+        other.setQuantity(new BigDecimal("5"));
+        other.setPurchasePrice(new BigDecimal("50"));
+        other.setCurrentPrice(new BigDecimal("50"));
+        other.setPurchaseDate(TODAY.minusYears(5));
+        when(holdingRepository.findByPortfolioIdIn(anyCollection())).thenReturn(Arrays.asList(stockHolding, other));
+        when(assetPriceHistoryRepository.findPriceRowsByAssetNameIn(anyCollection(), eq(TODAY))).thenReturn(new ArrayList<>());
+        when(portfolioSnapshotRepository.findSnapshotDatesByPortfolioIdIn(anyCollection())).thenReturn(new ArrayList<>());
+        when(portfolioRepository.findAllById(anyCollection())).thenReturn(new ArrayList<>());
+        captureInserts();
+
+        BackfillResultDTO result = snapshotBackfillService.backfill(Arrays.asList(1L, 2L), TODAY);
+
+        assertThat(result.getPortfoliosBackfilled()).isEqualTo(2);
+        assertThat(result.getSnapshotsInserted()).isEqualTo(4 + TODAY.toEpochDay() - TODAY.minusYears(5).toEpochDay() + 1);
+        assertThat(inserted).allMatch(snapshot -> "INR".equals(snapshot.getCurrency()));
+        verify(holdingRepository, times(1)).findByPortfolioIdIn(anyCollection());
+        verify(eventPublisher, times(2)).publishEvent(any(SnapshotChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should write a per-asset-type breakdown that sums to each snapshot total")
+    void backfill_ShouldInsertAllocationsForEachSnapshot() {
+        Holding bond = new Holding();
+        bond.setPortfolioId(1L);
+        bond.setAssetName("BOND-1");
+        bond.setAssetType("BOND");
+        bond.setQuantity(new BigDecimal("5"));
+        bond.setPurchasePrice(new BigDecimal("50"));
+        bond.setCurrentPrice(new BigDecimal("60"));
+        bond.setPurchaseDate(TODAY.minusDays(1));
+        when(holdingRepository.findByPortfolioIdIn(anyCollection())).thenReturn(Arrays.asList(stockHolding, bond));
+        when(assetPriceHistoryRepository.findPriceRowsByAssetNameIn(anyCollection(), eq(TODAY))).thenReturn(new ArrayList<>());
+        when(portfolioSnapshotRepository.findSnapshotDatesByPortfolioIdIn(anyCollection())).thenReturn(new ArrayList<>());
+        when(portfolioRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(testPortfolio));
+        captureInserts();
+
+        snapshotBackfillService.backfill(Collections.singletonList(1L), TODAY);
+
+        // Stock on every day from purchase, bond only on the last two
+        assertThat(insertedAllocations).hasSize(6);
+        PortfolioSnapshot last = inserted.get(inserted.size() - 1);
+        assertThat(last.getTotalValue()).isEqualByComparingTo("1600");
+        assertThat(insertedAllocations)
+                .filteredOn(allocation -> allocation.getSnapshotId().equals(last.getSnapshotId()))
+                .extracting(PortfolioSnapshotAllocation::getAssetType, allocation -> allocation.getMarketValue().intValue())
+                .containsExactlyInAnyOrder(
+                        tuple("STOCK", 1300),
+                        tuple("BOND", 300));
+        assertThat(insertedAllocations).allMatch(allocation -> allocation.getSnapshotId() != null);
+    }
+
+    @Test
+    @DisplayName("Should convert foreign holdings at each day's rate and match a recorded snapshot today")
+    void backfill_WithForeignHoldings_ShouldConvertLikeRecordedSnapshots() {
+        FxRateCache rates = new FxRateCache();
+        ReflectionTestUtils.setField(rates, "fxRateRepository", fxRateRepository);
+        when(fxRateRepository.findAllOrderByPairAndDate()).thenReturn(Arrays.asList(
+                fxRate(TODAY.minusDays(3), "80"), fxRate(TODAY.minusDays(1), "82")));
+        rates.warmUp();
+        ReflectionTestUtils.setField(snapshotBackfillService, "fxRateCache", rates);
+        testPortfolio.setBaseCurrency("INR");
+        stockHolding.setCurrency("USD");
+        Holding bond = new Holding();
+        bond.setPortfolioId(1L);
+        bond.setAssetName("BOND-1");
+        bond.setAssetType("BOND");
+        bond.setCurrency("INR");
+        bond.setQuantity(new BigDecimal("5"));
+        bond.setPurchasePrice(new BigDecimal("50"));
+        bond.setCurrentPrice(new BigDecimal("60"));
+        bond.setPurchaseDate(TODAY.minusDays(1));
+        List<Holding> holdings = Arrays.asList(stockHolding, bond);
+        when(holdingRepository.findByPortfolioIdIn(anyCollection())).thenReturn(holdings);
+        when(assetPriceHistoryRepository.findPriceRowsByAssetNameIn(anyCollection(), eq(TODAY))).thenReturn(
+                Collections.singletonList(new Object[]{"ACME", TODAY.minusDays(2), new BigDecimal("110")}));
+        when(portfolioSnapshotRepository.findSnapshotDatesByPortfolioIdIn(anyCollection())).thenReturn(new ArrayList<>());
+        when(portfolioRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(testPortfolio));
+        captureInserts();
+
+        snapshotBackfillService.backfill(Collections.singletonList(1L), TODAY);
+
+        // USD 1000 at 80, USD 1100 at 80, USD 1100 at 82 plus INR 250
+        assertThat(inserted).extracting(PortfolioSnapshot::getTotalValue)
+                .usingElementComparator(BigDecimal::compareTo)
+                .startsWith(new BigDecimal("80000"), new BigDecimal("88000"), new BigDecimal("90450"));
+        // Today must agree with what recording a snapshot values the same holdings at
+        HoldingValuation recorded = HoldingValuation.of(holdings, Arrays.asList(new BigDecimal("130"),
+                new BigDecimal("60")), "INR", TODAY, rates);
+        PortfolioSnapshot last = inserted.get(inserted.size() - 1);
+        assertThat(last.getCurrency()).isEqualTo("INR");
+        assertThat(last.getTotalValue()).isEqualByComparingTo(recorded.getTotalMarketValue());
+        assertThat(insertedAllocations)
+                .filteredOn(allocation -> allocation.getSnapshotId().equals(last.getSnapshotId()))
+                .extracting(PortfolioSnapshotAllocation::getAssetType, allocation -> allocation.getMarketValue().intValue())
+                .containsExactlyInAnyOrder(
+                        tuple("STOCK", recorded.getAssetTypeValues().get("STOCK").intValue()),
+                        tuple("BOND", recorded.getAssetTypeValues().get("BOND").intValue()));
+    }
+
+    @Test
+    @DisplayName("Should insert nothing when portfolios have no holdings")
+    void backfill_WhenNoHoldings_ShouldInsertNothing() {
+        when(holdingRepository.findByPortfolioIdIn(anyCollection())).thenReturn(new ArrayList<>());
+
+        BackfillResultDTO result = snapshotBackfillService.backfill(Collections.singletonList(1L), TODAY);
+
+        assertThat(result.getSnapshotsInserted()).isZero();
+        verify(jdbcBatchRepository, never()).insertSnapshots(anyList());
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.entity.PortfolioSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SnapshotLog Unit Tests")
+class SnapshotLogTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @TempDir
+    Path directory;
+
+    private SnapshotLog snapshotLog;
+
+    @BeforeEach
+    void setUp() {
+        snapshotLog = new SnapshotLog(directory, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshotLog.close();
+    }
+
+    private PortfolioSnapshot snapshot(long snapshotId, long portfolioId, int dayOffset, String value) {
+        PortfolioSnapshot snapshot = new PortfolioSnapshot();
+        snapshot.setSnapshotId(snapshotId);
+        snapshot.setPortfolioId(portfolioId);
+        snapshot.setSnapshotDate(START.plusDays(dayOffset));
+        snapshot.setTotalValue(new BigDecimal(value));
+        snapshot.setCurrency("USD");
+        return snapshot;
+    }
+
+    @Test
+    @DisplayName("Should read back each portfolio's history across shards and file growth")
+    void append_ShouldKeepPortfoliosApart() {
+        for (int day = 0; day < 10; day++) {
+            snapshotLog.append(snapshot(day * 3 + 1, 1L, day, "100." + day));
+            snapshotLog.append(snapshot(day * 3 + 2, 2L, day, "200"));
+            snapshotLog.append(snapshot(day * 3 + 3, 3L, day, "300"));
+        }
+
+        SnapshotSeries series = snapshotLog.series(1L);
+
+        assertThat(series.size()).isEqualTo(10);
+        assertThat(series.date(9)).isEqualTo(START.plusDays(9));
+        assertThat(series.value(9)).isEqualTo(100.9);
+        assertThat(snapshotLog.series(3L).size()).isEqualTo(10);
+        assertThat(snapshotLog.recordCount()).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("Should return snapshots newest first regardless of append order")
+    void snapshotsDescending_ShouldOrderByDateThenId() {
+        snapshotLog.append(snapshot(5, 1L, 3, "130.25"));
+        snapshotLog.append(snapshot(6, 1L, 1, "110.00"));
+        snapshotLog.append(snapshot(7, 1L, 3, "131.50"));
+
+        List<PortfolioSnapshot> result = snapshotLog.snapshotsDescending(1L);
+
+        assertThat(result).extracting(PortfolioSnapshot::getSnapshotId).containsExactly(7L, 5L, 6L);
+        assertThat(result.get(0).getTotalValue()).isEqualByComparingTo("131.50");
+        assertThat(result.get(0).getCurrency()).isEqualTo("USD");
+        // Same-day snapshots collapse to the last one recorded
+        assertThat(snapshotLog.series(1L).value(1)).isEqualTo(131.5);
+    }
+
+    @Test
+    @DisplayName("Should replace a portfolio's history without touching others")
+    void replace_ShouldDropPreviousRecords() {
+        snapshotLog.append(snapshot(1, 1L, 0, "100"));
+        snapshotLog.append(snapshot(2, 1L, 1, "110"));
+        snapshotLog.append(snapshot(3, 3L, 0, "300"));
+
+        snapshotLog.replace(1L, Arrays.asList(snapshot(2, 1L, 1, "115")));
+
+        assertThat(snapshotLog.snapshotsDescending(1L)).extracting(PortfolioSnapshot::getSnapshotId).containsExactly(2L);
+        assertThat(snapshotLog.series(1L).value(0)).isEqualTo(115.0);
+        assertThat(snapshotLog.series(3L).size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should never show a concurrent reader a partial history while replacing it")
+    void replace_WhenReadConcurrently_ShouldPublishWholeHistory() throws Exception {
+        List<PortfolioSnapshot> history = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            history.add(snapshot(day + 1, 1L, day, "100"));
+        }
+        snapshotLog.replace(1L, history);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Set<Integer> sizesSeen = ConcurrentHashMap.newKeySet();
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                sizesSeen.add(snapshotLog.series(1L).size());
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 500; i++) {
+            snapshotLog.replace(1L, history);
+        }
+        writing.set(false);
+        reader.join();
+
+        assertThat(sizesSeen).containsOnly(5);
+    }
+
+    @Test
+    @DisplayName("Should compact orphaned records instead of filling the shard on repeated replaces")
+    void replace_PastShardCapacity_ShouldCompact() {
+        snapshotLog.close();
+        snapshotLog = new SnapshotLog(directory, 1, 2, 16);
+        snapshotLog.append(snapshot(100, 3L, 0, "300"));
+        List<PortfolioSnapshot> history = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            history.add(snapshot(i + 1, 1L, i, String.valueOf(i)));
+            snapshotLog.replace(1L, history.subList(Math.max(0, history.size() - 5), history.size()));
+        }
+
+        assertThat(snapshotLog.recordCount()).isLessThanOrEqualTo(16);
+        assertThat(snapshotLog.snapshotsDescending(1L)).extracting(PortfolioSnapshot::getSnapshotId)
+                .containsExactly(1000L, 999L, 998L, 997L, 996L);
+        assertThat(snapshotLog.series(3L).value(0)).isEqualTo(300.0);
+    }
+
+    @Test
+    @DisplayName("Should refuse to write once a shard is full of live records")
+    void append_WhenShardFullOfLiveRecords_ShouldThrow() {
+        snapshotLog.close();
+        snapshotLog = new SnapshotLog(directory, 1, 2, 4);
+        for (int day = 0; day < 4; day++) {
+            snapshotLog.append(snapshot(day + 1, 1L, day, "100"));
+        }
+
+        assertThatThrownBy(() -> snapshotLog.append(snapshot(5, 1L, 4, "100")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(snapshotLog.series(1L).size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should return nothing for unknown portfolios and after clearing")
+    void series_WhenUnknownOrCleared_ShouldBeEmpty() {
+        snapshotLog.append(snapshot(1, 1L, 0, "100"));
+        assertThat(snapshotLog.series(9L).isEmpty()).isTrue();
+
+        snapshotLog.clear();
+
+        assertThat(snapshotLog.series(1L).isEmpty()).isTrue();
+        assertThat(snapshotLog.snapshotsDescending(1L)).isEmpty();
+    }
+}
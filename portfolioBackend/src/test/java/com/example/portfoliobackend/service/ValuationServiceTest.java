@@ -0,0 +1,166 @@
+package com.example.portfoliobackend.service;
+
+import com.example.portfoliobackend.dto.PortfolioValuationDTO;
+import com.example.portfoliobackend.entity.Holding;
+import com.example.portfoliobackend.entity.Portfolio;
+import com.example.portfoliobackend.repository.HoldingRepository;
+import com.example.portfoliobackend.repository.PortfolioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ValuationService Unit Tests")
+class ValuationServiceTest {
+
+    private static final LocalDate JAN_END = LocalDate.of(2023, 1, 31);
+    private static final LocalDate FEB_END = LocalDate.of(2023, 2, 28);
+    private static final LocalDate MAR_END = LocalDate.of(2023, 3, 31);
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    @Mock
+    private HoldingRepository holdingRepository;
+
+    @Mock
+    private PriceHistoryCache priceHistoryCache;
+
+    @Mock
+    private FxRateCache fxRateCache;
+
+    @InjectMocks
+    private ValuationService valuationService;
+
+    private Portfolio portfolio;
+    private Holding acme;
+    private Holding globex;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio();
+        portfolio.setPortfolioId(1L);
+        portfolio.setBaseCurrency("USD");
+
+        acme = holding("ACME", "STOCK", "10", "90.00", LocalDate.of(2023, 1, 15));
+        globex = holding("GLOBEX", "BOND", "4", "50.00", LocalDate.of(2023, 2, 10));
+    }
+
+    private static Holding holding(String assetName, String assetType, String quantity, String purchasePrice,
+                                   LocalDate purchaseDate) {
+        Holding holding = new Holding();
+        holding.setPortfolioId(1L);
+        holding.setAssetName(assetName);
+        holding.setAssetType(assetType);
+        holding.setQuantity(new BigDecimal(quantity));
+        holding.setPurchasePrice(new BigDecimal(purchasePrice));
+        holding.setCurrency("USD");
+        holding.setPurchaseDate(purchaseDate);
+        return holding;
+    }
+
+    private void givenHistory() {
+        Map<String, PriceSeries> series = new HashMap<>();
+        series.put("ACME", PriceSeries.empty()
+                .withPrice(LocalDate.of(2023, 1, 20), new BigDecimal("100.00"))
+                .withPrice(LocalDate.of(2023, 2, 20), new BigDecimal("110.00")));
+        when(priceHistoryCache.load(anyCollection())).thenReturn(series);
+    }
+
+    @Nested
+    @DisplayName("getValuation Tests")
+    class GetValuationTests {
+
+        @Test
+        @DisplayName("Should return null when the portfolio does not exist")
+        void getValuation_WhenPortfolioMissing_ShouldReturnNull() {
+            when(portfolioRepository.findById(99L)).thenReturn(Optional.empty());
+
+            assertThat(valuationService.getValuation(99L, JAN_END)).isNull();
+            verify(holdingRepository, never()).findByPortfolioIdAndPurchaseDateLessThanEqual(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should value the holdings held on the date at the price in force then")
+        void getValuation_ShouldUseHistoricalPrices() {
+            when(portfolioRepository.findById(1L)).thenReturn(Optional.of(portfolio));
+            when(holdingRepository.findByPortfolioIdAndPurchaseDateLessThanEqual(1L, JAN_END))
+                    .thenReturn(Collections.singletonList(acme));
+            givenHistory();
+
+            PortfolioValuationDTO valuation = valuationService.getValuation(1L, JAN_END);
+
+            assertThat(valuation.getAsOf()).isEqualTo(JAN_END);
+            assertThat(valuation.getCurrency()).isEqualTo("USD");
+            assertThat(valuation.getHoldingCount()).isEqualTo(1);
+            assertThat(valuation.getTotalValue()).isEqualByComparingTo("1000.00");
+            assertThat(valuation.getTotalCost()).isEqualByComparingTo("900.00");
+            assertThat(valuation.getUnpricedAssets()).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("getValuations Tests")
+    class GetValuationsTests {
+
+        @Test
+        @DisplayName("Should value many dates from one holdings query and one history load")
+        void getValuations_ShouldShareOneQueryAcrossDates() {
+            when(portfolioRepository.findById(1L)).thenReturn(Optional.of(portfolio));
+            when(holdingRepository.findByPortfolioIdAndPurchaseDateLessThanEqual(1L, MAR_END))
+                    .thenReturn(Arrays.asList(globex, acme));
+            givenHistory();
+
+            List<PortfolioValuationDTO> valuations = valuationService.getValuations(1L,
+                    Arrays.asList(MAR_END, JAN_END, FEB_END));
+
+            assertThat(valuations).extracting(PortfolioValuationDTO::getAsOf).containsExactly(MAR_END, JAN_END, FEB_END);
+            assertThat(valuations.get(1).getTotalValue()).isEqualByComparingTo("1000.00");
+            assertThat(valuations.get(1).getHoldingCount()).isEqualTo(1);
+            // GLOBEX has no history, so it is carried at its purchase price and reported
+            assertThat(valuations.get(2).getTotalValue()).isEqualByComparingTo("1300.00");
+            assertThat(valuations.get(2).getUnpricedAssets()).containsExactly("GLOBEX");
+            assertThat(valuations.get(2).getAllocations()).containsOnlyKeys("BOND", "STOCK");
+            verify(holdingRepository, times(1)).findByPortfolioIdAndPurchaseDateLessThanEqual(any(), any());
+            verify(priceHistoryCache, times(1)).load(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should return a zero valuation for a date before any purchase")
+        void getValuations_BeforeFirstPurchase_ShouldBeEmpty() {
+            when(portfolioRepository.findById(1L)).thenReturn(Optional.of(portfolio));
+            when(holdingRepository.findByPortfolioIdAndPurchaseDateLessThanEqual(1L, JAN_END))
+                    .thenReturn(Collections.singletonList(acme));
+            givenHistory();
+
+            List<PortfolioValuationDTO> valuations = valuationService.getValuations(1L,
+                    Arrays.asList(LocalDate.of(2022, 12, 31), JAN_END));
+
+            assertThat(valuations.get(0).getHoldingCount()).isZero();
+            assertThat(valuations.get(0).getTotalValue()).isEqualByComparingTo("0");
+            assertThat(valuations.get(1).getTotalValue()).isEqualByComparingTo("1000.00");
+        }
+    }
+}
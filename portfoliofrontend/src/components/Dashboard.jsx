@@ -1,11 +1,12 @@
 import React, { useState, useEffect } from 'react';
 import { TrendingUp, TrendingDown, DollarSign } from 'lucide-react';
-import { getPortfolioDashboard } from '../services/api';
+import { getPortfolioOverview, getTargetDrift, subscribeToPortfolioDashboard } from '../services/api';
 import HoldingCard from './HoldingCard';
 import '../styles/Dashboard.css';
 
 const Dashboard = ({ portfolioId }) => {
   const [portfolio, setPortfolio] = useState(null);
+  const [targetDrift, setTargetDrift] = useState({});
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
 
@@ -13,8 +14,9 @@ const Dashboard = ({ portfolioId }) => {
     const fetchDashboard = async () => {
       try {
         setLoading(true);
-        const response = await getPortfolioDashboard(portfolioId);
-        setPortfolio(response.data);
+        const response = await getPortfolioOverview(portfolioId);
+        setPortfolio(response.data.dashboard);
+        setTargetDrift(response.data.targetDrift || {});
         setError(null);
       } catch (err) {
         setError(err.message);
@@ -28,6 +30,19 @@ const Dashboard = ({ portfolioId }) => {
     }
   }, [portfolioId]);
 
+  useEffect(() => {
+    if (!portfolioId || typeof EventSource === 'undefined') {
+      return undefined;
+    }
+    // The stream only carries the dashboard, so drift is re-read with each update to stay in step with it
+    return subscribeToPortfolioDashboard(portfolioId, (dashboard) => {
+      setPortfolio(dashboard);
+      getTargetDrift(portfolioId)
+        .then((response) => setTargetDrift(response.data || {}))
+        .catch(() => {});
+    });
+  }, [portfolioId]);
+
   if (loading) {
     return <div className="loading">Loading portfolio...</div>;
   }
@@ -113,6 +128,20 @@ const Dashboard = ({ portfolioId }) => {
           ))}
         </div>
       </div>
+
+      {Object.keys(targetDrift).length > 0 && (
+        <div className="allocation-section">
+          <h2>Target Drift</h2>
+          <div className="allocation-chart">
+            {Object.entries(targetDrift).map(([assetType, drift]) => (
+              <div key={assetType} className="allocation-item">
+                <div className="allocation-label">{assetType}</div>
+                <div className="allocation-percent">{drift > 0 ? '+' : ''}{Number(drift).toFixed(1)}%</div>
+              </div>
+            ))}
+          </div>
+        </div>
+      )}
     </div>
   );
 };
@@ -12,6 +12,20 @@ const api = axios.create({
 export const getPortfolioDashboard = (portfolioId) =>
   api.get(`/portfolios/${portfolioId}/dashboard`);
 
+// Dashboard, analytics summary, allocation, target drift and the latest snapshots in one response
+export const getPortfolioOverview = (portfolioId, snapshots = 30) =>
+  api.get(`/portfolios/${portfolioId}/overview`, { params: { snapshots } });
+
+export const getTargetDrift = (portfolioId) =>
+  api.get(`/analytics/portfolios/${portfolioId}/target-drift`);
+
+// Pushes a fresh dashboard whenever a holding or price of the portfolio changes; returns an unsubscribe function
+export const subscribeToPortfolioDashboard = (portfolioId, onUpdate) => {
+  const source = new EventSource(`${API_BASE_URL}/portfolios/${portfolioId}/dashboard/stream`);
+  source.addEventListener('dashboard', (event) => onUpdate(JSON.parse(event.data)));
+  return () => source.close();
+};
+
 export const getAllUsers = () =>
   api.get('/users');
 